@@ -0,0 +1,21 @@
+-- Employee Sample Data
+-- Run this script after the application has migrated the schema.
+-- Safe to run again: existing departments and emails are skipped.
+
+USE employee_db;
+
+-- Departments the sample employees belong to
+INSERT IGNORE INTO departments (name) VALUES ('IT'), ('HR'), ('Finance');
+
+-- Insert sample data (skipped for emails that already exist)
+INSERT IGNORE INTO employees (name, email, department_id, salary)
+SELECT s.name, s.email, d.id, s.salary
+FROM (
+    SELECT 'John Doe' AS name, 'john.doe@company.com' AS email, 'IT' AS department, 75000.00 AS salary
+    UNION ALL SELECT 'Jane Smith', 'jane.smith@company.com', 'HR', 65000.00
+    UNION ALL SELECT 'Mike Johnson', 'mike.johnson@company.com', 'Finance', 80000.00
+) s
+JOIN departments d ON d.name = s.department;
+
+-- Verify setup
+SELECT COUNT(*) as 'Total Employees' FROM employees;
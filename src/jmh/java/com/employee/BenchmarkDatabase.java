@@ -0,0 +1,81 @@
+package com.employee;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark Database
+ * Points DatabaseConnection at an embedded H2 database in MySQL mode and
+ * seeds the employees table, so benchmarks run without a MySQL server.
+ */
+final class BenchmarkDatabase {
+
+    static final String[] DEPARTMENTS = {
+        "IT", "HR", "Finance", "Sales", "Marketing", "Engineering", "Support", "Legal"
+    };
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Configure the embedded database; must run before the first DAO call in the fork
+     * @param poolSize Maximum connections in the pool (at least the benchmark thread count)
+     */
+    static void configure(int poolSize) {
+        System.setProperty("DB_URL", "jdbc:h2:mem:employee_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        System.setProperty("DB_DRIVER", "org.h2.Driver");
+        System.setProperty("DB_USERNAME", "sa");
+        System.setProperty("DB_PASSWORD", "");
+        System.setProperty("DB_MIN_POOL_SIZE", "1");
+        System.setProperty("DB_MAX_POOL_SIZE", String.valueOf(Math.max(1, poolSize)));
+        // H2 has no row-by-row streaming mode, so use a regular fetch size
+        System.setProperty("DB_STREAMING_FETCH_SIZE", "1000");
+
+        // Keep the DAO's console messages out of the measurement
+        Log.setLevel(Log.Level.OFF);
+    }
+
+    /**
+     * Drop and recreate the schema (via the application's migrations) with the given number of rows
+     * @param rowCount Rows to insert
+     */
+    static void reset(int rowCount) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS department_stats");
+            statement.execute("DROP TABLE IF EXISTS employee_changes");
+            statement.execute("DROP TABLE IF EXISTS employees");
+            statement.execute("DROP TABLE IF EXISTS departments");
+            statement.execute("DROP TABLE IF EXISTS schema_history");
+        }
+        DepartmentDictionary.getInstance().clear();
+        EmployeeSearchIndex.getInstance().clear();
+        new MigrationRunner().migrate();
+
+        List<Employee> employees = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            employees.add(newEmployee("seed", i));
+        }
+        BatchResult result = new EmployeeDAO().createEmployees(employees, 1000);
+        if (!result.isFullySuccessful()) {
+            throw new SQLException("Seeding failed: " + result);
+        }
+    }
+
+    /**
+     * @param prefix Email prefix that keeps emails unique across benchmark phases
+     * @param n Sequence number
+     * @return New (unsaved) employee with deterministic values
+     */
+    static Employee newEmployee(String prefix, long n) {
+        return new Employee(
+            "Employee " + n,
+            prefix + "." + n + "@bench.example.com",
+            DEPARTMENTS[(int) (n % DEPARTMENTS.length)],
+            BigDecimal.valueOf(30_000 + (n * 37) % 120_000, 0).setScale(2));
+    }
+}
@@ -0,0 +1,45 @@
+package com.employee;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark Runner
+ * Entry point for the JMH benchmarks. Reads its settings from system properties:
+ *
+ *   bench.rows     Comma-separated row counts to seed (default 10000)
+ *   bench.threads  Benchmark threads (default 1)
+ *   bench.include  Regex of benchmarks to run (default all)
+ *   bench.result   JSON result file (default target/jmh-result.json)
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String[] rows = System.getProperty("bench.rows", "10000").split(",");
+        int threads = Integer.parseInt(System.getProperty("bench.threads", "1").trim());
+        String include = System.getProperty("bench.include", ".*");
+        String result = System.getProperty("bench.result", "target/jmh-result.json");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(include)
+            .threads(threads)
+            .param("rowCount", trimAll(rows))
+            // Every benchmark thread needs its own connection
+            .param("poolSize", String.valueOf(Math.max(threads, 1)))
+            .resultFormat(ResultFormatType.JSON)
+            .result(result);
+
+        new Runner(options.build()).run();
+    }
+
+    private static String[] trimAll(String[] values) {
+        String[] trimmed = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            trimmed[i] = values[i].trim();
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,155 @@
+package com.employee;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * EmployeeDAO Benchmarks
+ * Hot paths of the data layer against an embedded H2 database seeded with
+ * {@code rowCount} employees. Run through {@link BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeDAOBenchmark {
+
+    @Param({"10000"})
+    public int rowCount;
+
+    @Param({"100"})
+    public int bulkSize;
+
+    @Param({"8"})
+    public int poolSize;
+
+    // true puts a CachingEmployeeDAO in front of the DAO
+    @Param({"false"})
+    public boolean cached;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private EmployeeRepository employeeDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.configure(poolSize);
+        BenchmarkDatabase.reset(rowCount);
+        employeeDAO = cached ? new CachingEmployeeDAO(new EmployeeDAO(), rowCount, 300_000L) : new EmployeeDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.shutdown();
+    }
+
+    @Benchmark
+    public boolean createEmployee() {
+        return employeeDAO.createEmployee(BenchmarkDatabase.newEmployee("single", sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public BatchResult createEmployeesBulk() {
+        List<Employee> employees = new ArrayList<>(bulkSize);
+        for (int i = 0; i < bulkSize; i++) {
+            employees.add(BenchmarkDatabase.newEmployee("bulk", sequence.incrementAndGet()));
+        }
+        return employeeDAO.createEmployees(employees, bulkSize);
+    }
+
+    @Benchmark
+    public Employee getEmployeeById() {
+        return employeeDAO.getEmployeeById(1 + ThreadLocalRandom.current().nextInt(rowCount));
+    }
+
+    @Benchmark
+    public List<Employee> getAllEmployees() {
+        return employeeDAO.getAllEmployees();
+    }
+
+    @Benchmark
+    public EmployeeColumns getEmployeeColumns() {
+        return employeeDAO.getEmployeeColumns();
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesByDepartment() {
+        String[] departments = BenchmarkDatabase.DEPARTMENTS;
+        return employeeDAO.getEmployeesByDepartment(departments[ThreadLocalRandom.current().nextInt(departments.length)]);
+    }
+
+    @Benchmark
+    public List<Employee> searchEmployees() {
+        // "employee 12" matches the names Employee 12, 120-129, 1200-1299, ...
+        return employeeDAO.searchEmployees("employee " + (1 + ThreadLocalRandom.current().nextInt(99)), 10);
+    }
+
+    @Benchmark
+    public int getEmployeeCount() {
+        return employeeDAO.getEmployeeCount();
+    }
+
+    /**
+     * Row mapping alone, over an in-memory result set (no database access)
+     */
+    @State(Scope.Thread)
+    public static class MappingState {
+        EmployeeDAO employeeDAO;
+        SimpleResultSet resultSet;
+
+        @Setup(Level.Trial)
+        public void setUp(EmployeeDAOBenchmark benchmark) throws SQLException {
+            // Taking the benchmark state makes JMH create the schema first, so
+            // the department_id values below exist in the dictionary
+            DepartmentDictionary departments = DepartmentDictionary.getInstance();
+            employeeDAO = new EmployeeDAO();
+            resultSet = new SimpleResultSet();
+            resultSet.setAutoClose(false);
+            resultSet.addColumn("id", Types.INTEGER, 10, 0);
+            resultSet.addColumn("name", Types.VARCHAR, 100, 0);
+            resultSet.addColumn("email", Types.VARCHAR, 100, 0);
+            resultSet.addColumn("department_id", Types.SMALLINT, 5, 0);
+            resultSet.addColumn("salary", Types.DECIMAL, 10, 2);
+            resultSet.addColumn("created_at", Types.TIMESTAMP, 0, 0);
+            resultSet.addColumn("version", Types.INTEGER, 10, 0);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (int i = 1; i <= 1000; i++) {
+                Employee employee = BenchmarkDatabase.newEmployee("map", i);
+                resultSet.addRow(i, employee.getName(), employee.getEmail(), departments.idOf(employee.getDepartment()),
+                    employee.getSalary(), now, 0);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapResultSetToEmployee(MappingState state, Blackhole blackhole) throws SQLException {
+        if (!state.resultSet.next()) {
+            state.resultSet.beforeFirst();
+            state.resultSet.next();
+        }
+        blackhole.consume(state.employeeDAO.mapResultSetToEmployee(state.resultSet));
+    }
+}
@@ -0,0 +1,95 @@
+package com.employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-Memory Repository Benchmarks
+ * The same hot paths as {@link EmployeeDAOBenchmark} against
+ * {@link InMemoryEmployeeRepository} seeded with {@code rowCount}
+ * employees. No database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryRepositoryBenchmark {
+
+    @Param({"10000"})
+    public int rowCount;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private EmployeeRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Keep the repository's console messages out of the measurement
+        Log.setLevel(Log.Level.OFF);
+        repository = new InMemoryEmployeeRepository();
+        List<Employee> employees = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            employees.add(BenchmarkDatabase.newEmployee("seed", i));
+        }
+        BatchResult result = repository.createEmployees(employees);
+        if (!result.isFullySuccessful()) {
+            throw new IllegalStateException("Seeding failed: " + result);
+        }
+    }
+
+    @Benchmark
+    public boolean createEmployee() {
+        return repository.createEmployee(BenchmarkDatabase.newEmployee("single", sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Employee getEmployeeById() {
+        return repository.getEmployeeById(1 + ThreadLocalRandom.current().nextInt(rowCount));
+    }
+
+    @Benchmark
+    public boolean updateEmployee() {
+        int id = 1 + ThreadLocalRandom.current().nextInt(rowCount);
+        Employee employee = BenchmarkDatabase.newEmployee("seed", id - 1);
+        employee.setId(id);
+        return repository.updateEmployee(employee);
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesByDepartment() {
+        String[] departments = BenchmarkDatabase.DEPARTMENTS;
+        return repository.getEmployeesByDepartment(departments[ThreadLocalRandom.current().nextInt(departments.length)]);
+    }
+
+    @Benchmark
+    public List<Employee> searchEmployees() {
+        return repository.searchEmployees("employee " + (1 + ThreadLocalRandom.current().nextInt(99)), 10);
+    }
+
+    @Benchmark
+    public boolean employeeExistsByEmail() {
+        return repository.employeeExistsByEmail("seed." + ThreadLocalRandom.current().nextInt(rowCount) + "@bench.example.com");
+    }
+
+    @Benchmark
+    public SalaryStatistics getSalaryStatistics() {
+        return repository.getSalaryStatistics();
+    }
+}
@@ -0,0 +1,330 @@
+package com.employee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Async Employee DAO
+ * Non-blocking facade over an EmployeeRepository (the JDBC DAO, any of its
+ * wrappers, or the in-memory store): every operation returns a
+ * CompletableFuture so independent lookups can run in parallel.
+ *
+ * Work runs on virtual threads when the JVM supports them (Java 21+),
+ * otherwise on a bounded platform-thread pool sized to the connection pool.
+ * At most ASYNC_MAX_IN_FLIGHT operations (default DB_MAX_POOL_SIZE) run at
+ * once; further calls block the caller for up to ASYNC_SUBMIT_TIMEOUT_MS
+ * and then fail with RejectedExecutionException, so a saturated pool pushes
+ * back on callers instead of queueing without bound.
+ *
+ * getChangesSince() needs the change feed, which only the database has:
+ * pass the EmployeeDAO itself or use the constructor that takes it
+ * separately. The wrapped repository stays usable on its own.
+ *
+ * Each operation runs in the caller's read-your-writes session
+ * ({@link DatabaseConnection.WriteSession}), so a write made through this
+ * facade keeps the caller's later reads on the primary, and vice versa.
+ */
+public class AsyncEmployeeDAO implements AutoCloseable {
+
+    private final EmployeeRepository delegate;
+    private final EmployeeDAO changeFeed;
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final long submitTimeoutMillis;
+    private final boolean virtualThreads;
+
+    /**
+     * Create a facade configured from ASYNC_* environment variables
+     * @param delegate Repository that performs the blocking work
+     */
+    public AsyncEmployeeDAO(EmployeeRepository delegate) {
+        this(delegate, delegate instanceof EmployeeDAO ? (EmployeeDAO) delegate : null,
+            EnvLoader.getIntEnv("ASYNC_MAX_IN_FLIGHT", ConnectionPool.PoolConfig.fromEnv().getMaxSize()),
+            EnvLoader.getLongEnv("ASYNC_SUBMIT_TIMEOUT_MS", EnvLoader.getLongEnv("DB_ACQUIRE_TIMEOUT_MS", 30_000L)),
+            Boolean.parseBoolean(EnvLoader.getEnv("ASYNC_USE_VIRTUAL_THREADS", "true")));
+    }
+
+    /**
+     * @param delegate Repository that performs the blocking work
+     * @param changeFeed DAO serving getChangesSince() (null if the change feed is not needed)
+     * @param maxInFlight Maximum operations running at once (normally the connection pool size)
+     * @param submitTimeoutMillis How long a caller waits for a free slot before the call is rejected
+     * @param useVirtualThreads Use virtual threads if the JVM supports them
+     */
+    public AsyncEmployeeDAO(EmployeeRepository delegate, EmployeeDAO changeFeed, int maxInFlight,
+                            long submitTimeoutMillis, boolean useVirtualThreads) {
+        this.delegate = delegate;
+        this.changeFeed = changeFeed;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight, true);
+        this.submitTimeoutMillis = submitTimeoutMillis;
+
+        ExecutorService virtual = useVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformExecutor(this.maxInFlight);
+    }
+
+    // ---- Operations ----
+
+    public CompletableFuture<Boolean> createEmployee(Employee employee) {
+        return submit(() -> delegate.createEmployee(employee));
+    }
+
+    public CompletableFuture<BatchResult> createEmployees(Collection<Employee> employees) {
+        return submit(() -> delegate.createEmployees(employees));
+    }
+
+    public CompletableFuture<BatchResult> createEmployees(Collection<Employee> employees, int chunkSize) {
+        return submit(() -> delegate.createEmployees(employees, chunkSize));
+    }
+
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return submit(delegate::getAllEmployees);
+    }
+
+    public CompletableFuture<EmployeeColumns> getEmployeeColumns(EmployeeCriteria criteria) {
+        return submit(() -> delegate.getEmployeeColumns(criteria));
+    }
+
+    public CompletableFuture<EmployeePage> getEmployeesPage(int afterId, int pageSize) {
+        return submit(() -> delegate.getEmployeesPage(afterId, pageSize));
+    }
+
+    /**
+     * @return Future completing with the next page of the change feed, or
+     *     failing with UnsupportedOperationException when no EmployeeDAO was given
+     */
+    public CompletableFuture<EmployeeChangePage> getChangesSince(long cursor, int limit) {
+        if (changeFeed == null) {
+            return failed(new UnsupportedOperationException("The change feed needs the database (EmployeeDAO)"));
+        }
+        return submit(() -> changeFeed.getChangesSince(cursor, limit));
+    }
+
+    /**
+     * Stream every employee to a callback; the callback runs on the worker thread
+     * @param action Callback invoked once per employee
+     * @return Future completing with the number of employees streamed (-1 if the query failed)
+     */
+    public CompletableFuture<Integer> forEachEmployee(Consumer<Employee> action) {
+        return submit(() -> delegate.forEachEmployee(action));
+    }
+
+    public CompletableFuture<Employee> getEmployeeById(int id) {
+        return submit(() -> delegate.getEmployeeById(id));
+    }
+
+    public CompletableFuture<Map<Integer, Employee>> getEmployeesByIds(int[] ids) {
+        return submit(() -> delegate.getEmployeesByIds(ids));
+    }
+
+    public CompletableFuture<Boolean> updateEmployee(Employee employee) {
+        return submit(() -> delegate.updateEmployee(employee));
+    }
+
+    public CompletableFuture<VersionedWriteResult> tryUpdateEmployee(Employee employee) {
+        return submit(() -> delegate.tryUpdateEmployee(employee));
+    }
+
+    public CompletableFuture<BatchResult> updateEmployees(Collection<Employee> employees) {
+        return submit(() -> delegate.updateEmployees(employees));
+    }
+
+    public CompletableFuture<BatchResult> updateEmployees(Collection<Employee> employees, int chunkSize) {
+        return submit(() -> delegate.updateEmployees(employees, chunkSize));
+    }
+
+    public CompletableFuture<UpsertResult.Outcome> upsertEmployee(Employee employee) {
+        return submit(() -> delegate.upsertEmployee(employee));
+    }
+
+    public CompletableFuture<UpsertResult> upsertEmployees(Collection<Employee> employees) {
+        return submit(() -> delegate.upsertEmployees(employees));
+    }
+
+    public CompletableFuture<UpsertResult> upsertEmployees(Collection<Employee> employees, int chunkSize) {
+        return submit(() -> delegate.upsertEmployees(employees, chunkSize));
+    }
+
+    public CompletableFuture<Boolean> deleteEmployee(int id) {
+        return submit(() -> delegate.deleteEmployee(id));
+    }
+
+    public CompletableFuture<VersionedWriteResult> tryDeleteEmployee(int id, int expectedVersion) {
+        return submit(() -> delegate.tryDeleteEmployee(id, expectedVersion));
+    }
+
+    public CompletableFuture<BulkUpdateResult> adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment, boolean dryRun) {
+        return submit(() -> delegate.adjustSalaries(criteria, adjustment, dryRun));
+    }
+
+    public CompletableFuture<BulkUpdateResult> reassignDepartment(EmployeeCriteria criteria, String toDepartment, boolean dryRun) {
+        return submit(() -> delegate.reassignDepartment(criteria, toDepartment, dryRun));
+    }
+
+    public CompletableFuture<List<Employee>> getEmployeesByDepartment(String department) {
+        return submit(() -> delegate.getEmployeesByDepartment(department));
+    }
+
+    public CompletableFuture<List<Employee>> searchEmployees(String query, int limit) {
+        return submit(() -> delegate.searchEmployees(query, limit));
+    }
+
+    public CompletableFuture<Integer> getEmployeeCount() {
+        return submit(delegate::getEmployeeCount);
+    }
+
+    public CompletableFuture<SalaryStatistics> getSalaryStatistics() {
+        return submit(delegate::getSalaryStatistics);
+    }
+
+    public CompletableFuture<List<SalaryStatistics>> getSalaryStatisticsByDepartment() {
+        return submit(delegate::getSalaryStatisticsByDepartment);
+    }
+
+    public CompletableFuture<SalaryStatistics> getSalaryStatistics(String department) {
+        return submit(() -> delegate.getSalaryStatistics(department));
+    }
+
+    public CompletableFuture<Boolean> employeeExistsByEmail(String email) {
+        return submit(() -> delegate.employeeExistsByEmail(email));
+    }
+
+    // ---- Composition helpers ----
+
+    /**
+     * Look up several employees in parallel
+     * @param ids Employee IDs
+     * @return Future completing with the employees in ID order (null for IDs not found)
+     */
+    public CompletableFuture<List<Employee>> getEmployeesById(int... ids) {
+        List<CompletableFuture<Employee>> lookups = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            lookups.add(getEmployeeById(id));
+        }
+        return allOf(lookups);
+    }
+
+    /**
+     * Wait for every future and collect the results in order
+     * @param futures Futures to combine
+     * @param <T> Result type
+     * @return Future completing with all results, or exceptionally if any future failed
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                List<T> results = new ArrayList<>(futures.size());
+                for (CompletableFuture<T> future : futures) {
+                    results.add(future.join());
+                }
+                return results;
+            });
+    }
+
+    // ---- Lifecycle and statistics ----
+
+    /**
+     * @return true if work runs on virtual threads
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return Operations currently running or waiting for a connection
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Stop accepting work and wait briefly for running operations to finish
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            if (!inFlight.tryAcquire(submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return failed(new RejectedExecutionException(
+                    "Too many DAO operations in flight (" + maxInFlight + "), waited " + submitTimeoutMillis + "ms"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(e);
+        }
+
+        DatabaseConnection.WriteSession session = DatabaseConnection.currentWriteSession();
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(
+                () -> DatabaseConnection.withWriteSession(session, task), executor);
+            future.whenComplete((result, error) -> inFlight.release());
+            return future;
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return failed(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() looked up reflectively so the
+     * code still compiles and runs on Java 11
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "employee-dao-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // The in-flight semaphore already bounds the queue, so it never grows past maxInFlight
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -0,0 +1,118 @@
+package com.employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Batch Result
+ * Outcome of a bulk DAO operation: how many rows were written and which
+ * rows failed (with the database error that rejected them).
+ */
+public class BatchResult {
+
+    // MySQL error code for duplicate entry on a unique key
+    static final int DUPLICATE_ENTRY = 1062;
+
+    private int successCount;
+    private final List<Failure> failures = new ArrayList<>();
+
+    void recordSuccess(int rows) {
+        successCount += rows;
+    }
+
+    void recordFailure(Employee employee, int errorCode, String message) {
+        failures.add(new Failure(employee, errorCode, message));
+    }
+
+    void merge(BatchResult other) {
+        successCount += other.successCount;
+        failures.addAll(other.failures);
+    }
+
+    /**
+     * @return Number of rows written successfully
+     */
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * @return Number of rows rejected
+     */
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    /**
+     * @return Number of rows rejected because their email already exists
+     */
+    public int getDuplicateCount() {
+        int duplicates = 0;
+        for (Failure failure : failures) {
+            if (failure.isDuplicateEmail()) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * @return Rejected rows in input order
+     */
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * @return true if every row was written
+     */
+    public boolean isFullySuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult{succeeded=%d, failed=%d, duplicates=%d}",
+            successCount, failures.size(), getDuplicateCount());
+    }
+
+    /**
+     * A single rejected row
+     */
+    public static final class Failure {
+        private final Employee employee;
+        private final int errorCode;
+        private final String message;
+
+        Failure(Employee employee, int errorCode, String message) {
+            this.employee = employee;
+            this.errorCode = errorCode;
+            this.message = message;
+        }
+
+        public Employee getEmployee() {
+            return employee;
+        }
+
+        /**
+         * @return Vendor error code (0 when the row was rejected without a database error)
+         */
+        public int getErrorCode() {
+            return errorCode;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public boolean isDuplicateEmail() {
+            return errorCode == DUPLICATE_ENTRY;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{email='" + employee.getEmail() + "', errorCode=" + errorCode + ", message='" + message + "'}";
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.employee;
+
+import java.math.BigDecimal;
+
+/**
+ * Bulk Update Result
+ * Outcome of a set-based update such as adjustSalaries() or
+ * reassignDepartment(). A dry run reports the rows that would change and
+ * the salary totals before and after without writing anything.
+ */
+public class BulkUpdateResult {
+
+    private final boolean dryRun;
+    private final int affectedRows;
+    private final BigDecimal salaryTotalBefore;
+    private final BigDecimal salaryTotalAfter;
+    private final String errorMessage;
+
+    BulkUpdateResult(boolean dryRun, int affectedRows, BigDecimal salaryTotalBefore, BigDecimal salaryTotalAfter) {
+        this(dryRun, affectedRows, salaryTotalBefore, salaryTotalAfter, null);
+    }
+
+    private BulkUpdateResult(boolean dryRun, int affectedRows, BigDecimal salaryTotalBefore,
+                             BigDecimal salaryTotalAfter, String errorMessage) {
+        this.dryRun = dryRun;
+        this.affectedRows = affectedRows;
+        this.salaryTotalBefore = salaryTotalBefore;
+        this.salaryTotalAfter = salaryTotalAfter;
+        this.errorMessage = errorMessage;
+    }
+
+    static BulkUpdateResult failure(boolean dryRun, String errorMessage) {
+        return new BulkUpdateResult(dryRun, 0, null, null, errorMessage);
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * @return Rows updated (or, for a dry run, rows that would be updated)
+     */
+    public int getAffectedRows() {
+        return affectedRows;
+    }
+
+    /**
+     * @return Sum of the affected rows' salaries before the change (dry runs only, else null)
+     */
+    public BigDecimal getSalaryTotalBefore() {
+        return salaryTotalBefore;
+    }
+
+    /**
+     * @return Sum of the affected rows' salaries after the change (dry runs only, else null)
+     */
+    public BigDecimal getSalaryTotalAfter() {
+        return salaryTotalAfter;
+    }
+
+    /**
+     * @return Total change in payroll, or null when totals are unknown
+     */
+    public BigDecimal getSalaryDelta() {
+        return salaryTotalBefore == null || salaryTotalAfter == null ? null : salaryTotalAfter.subtract(salaryTotalBefore);
+    }
+
+    /**
+     * @return true unless the database rejected the statement
+     */
+    public boolean isSuccessful() {
+        return errorMessage == null;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        if (errorMessage != null) {
+            return String.format("BulkUpdateResult{dryRun=%s, error='%s'}", dryRun, errorMessage);
+        }
+        return String.format("BulkUpdateResult{dryRun=%s, affected=%d, before=%s, after=%s}",
+            dryRun, affectedRows, salaryTotalBefore, salaryTotalAfter);
+    }
+}
@@ -0,0 +1,480 @@
+package com.employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Caching Employee DAO
+ * Read-through cache in front of any EmployeeRepository (the JDBC DAO, its
+ * write-behind wrapper or the in-memory store). Employees by ID, email
+ * existence checks and department listings are served from bounded LRU
+ * caches with a TTL; writes made through this DAO invalidate or populate
+ * the affected entries.
+ *
+ * Callers always receive copies, so modifying a returned Employee never
+ * changes the cached one. A value loaded while the same entry was being
+ * invalidated is not cached. Writes made by other processes become visible
+ * when the TTL expires. Inside a {@link UnitOfWork} nothing is cached,
+ * since the transaction may still roll back.
+ *
+ * Every repository method is delegated explicitly, so nothing reaches the
+ * wrapped repository without passing the cache. Database-only features
+ * (change feed, department_stats) are used on the EmployeeDAO directly;
+ * they do not change employees, so they never make the cache stale.
+ */
+public class CachingEmployeeDAO implements EmployeeRepository {
+
+    private final EmployeeRepository delegate;
+    private final LruCache<Integer, Employee> employeesById;
+    private final LruCache<String, Boolean> emailExists;
+    private final LruCache<String, List<Employee>> employeesByDepartment;
+
+    /**
+     * @param delegate Repository that performs the actual storage access
+     * @param maxSize Maximum entries per cache
+     * @param ttlMillis Time to live per entry in milliseconds
+     */
+    public CachingEmployeeDAO(EmployeeRepository delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.employeesById = new LruCache<>("employeesById", maxSize, ttlMillis);
+        this.emailExists = new LruCache<>("emailExists", maxSize, ttlMillis);
+        // Department listings are large, so keep far fewer of them
+        this.employeesByDepartment = new LruCache<>("employeesByDepartment", Math.max(1, maxSize / 100), ttlMillis);
+    }
+
+    /**
+     * Wrap a repository in a cache if EMPLOYEE_CACHE_ENABLED=true
+     * @param delegate Repository to wrap
+     * @return Caching repository, or the delegate itself when caching is disabled
+     */
+    public static EmployeeRepository wrapIfEnabled(EmployeeRepository delegate) {
+        if (!Boolean.parseBoolean(EnvLoader.getEnv("EMPLOYEE_CACHE_ENABLED", "false"))) {
+            return delegate;
+        }
+        int maxSize = EnvLoader.getIntEnv("EMPLOYEE_CACHE_MAX_SIZE", 10_000);
+        long ttlMillis = EnvLoader.getLongEnv("EMPLOYEE_CACHE_TTL_SECONDS", 300L) * 1000L;
+        Log.info(() -> "🗃️  Employee cache enabled (max " + maxSize + " entries, TTL " + ttlMillis / 1000 + "s)");
+        return new CachingEmployeeDAO(delegate, maxSize, ttlMillis);
+    }
+
+    // ---- Cached reads ----
+
+    @Override
+    public Employee getEmployeeById(int id) {
+        Employee cached = employeesById.get(id);
+        if (cached != null) {
+            return new Employee(cached);
+        }
+        long generation = employeesById.generation();
+        Employee employee = delegate.getEmployeeById(id);
+        if (employee != null && !UnitOfWork.isActive()) {
+            employeesById.putIfCurrent(id, new Employee(employee), generation);
+        }
+        return employee;
+    }
+
+    @Override
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids) {
+        return getEmployeesByIds(ids, null);
+    }
+
+    @Override
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids, IntConsumer missing) {
+        Map<Integer, Employee> employees = new HashMap<>();
+        if (ids == null) {
+            return employees;
+        }
+        int[] misses = new int[ids.length];
+        int missCount = 0;
+        for (int id : ids) {
+            Employee cached = employeesById.get(id);
+            if (cached != null) {
+                employees.put(id, new Employee(cached));
+            } else {
+                misses[missCount++] = id;
+            }
+        }
+        if (missCount > 0) {
+            long generation = employeesById.generation();
+            Map<Integer, Employee> loaded = delegate.getEmployeesByIds(Arrays.copyOf(misses, missCount), missing);
+            if (!UnitOfWork.isActive()) {
+                for (Employee employee : loaded.values()) {
+                    employeesById.putIfCurrent(employee.getId(), new Employee(employee), generation);
+                }
+            }
+            employees.putAll(loaded);
+        }
+        return employees;
+    }
+
+    @Override
+    public boolean employeeExistsByEmail(String email) {
+        // Keyed like the database compares emails, so ANN@x and ann@x share an entry
+        String key = EmployeeDAO.emailKey(email);
+        Boolean cached = emailExists.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = emailExists.generation();
+        boolean exists = delegate.employeeExistsByEmail(email);
+        if (!UnitOfWork.isActive()) {
+            emailExists.putIfCurrent(key, exists, generation);
+        }
+        return exists;
+    }
+
+    @Override
+    public List<Employee> getEmployeesByDepartment(String department) {
+        List<Employee> cached = employeesByDepartment.get(department);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        long generation = employeesByDepartment.generation();
+        List<Employee> employees = delegate.getEmployeesByDepartment(department);
+        if (!UnitOfWork.isActive()) {
+            employeesByDepartment.putIfCurrent(department, copyOf(employees), generation);
+        }
+        return employees;
+    }
+
+    // ---- Writes (invalidate / populate) ----
+
+    @Override
+    public boolean createEmployee(Employee employee) {
+        boolean created = delegate.createEmployee(employee);
+        if (created) {
+            cacheCreated(employee);
+        }
+        return created;
+    }
+
+    @Override
+    public BatchResult createEmployees(Collection<Employee> employees) {
+        return cacheCreated(employees, delegate.createEmployees(employees));
+    }
+
+    @Override
+    public BatchResult createEmployees(Collection<Employee> employees, int chunkSize) {
+        return cacheCreated(employees, delegate.createEmployees(employees, chunkSize));
+    }
+
+    @Override
+    public boolean updateEmployee(Employee employee) {
+        try {
+            return delegate.updateEmployee(employee);
+        } finally {
+            invalidate(employee.getId(), employee);
+        }
+    }
+
+    @Override
+    public VersionedWriteResult tryUpdateEmployee(Employee employee) {
+        try {
+            return delegate.tryUpdateEmployee(employee);
+        } finally {
+            invalidate(employee.getId(), employee);
+        }
+    }
+
+    @Override
+    public BatchResult updateEmployees(Collection<Employee> employees) {
+        try {
+            return delegate.updateEmployees(employees);
+        } finally {
+            invalidateAll(employees);
+        }
+    }
+
+    @Override
+    public BatchResult updateEmployees(Collection<Employee> employees, int chunkSize) {
+        try {
+            return delegate.updateEmployees(employees, chunkSize);
+        } finally {
+            invalidateAll(employees);
+        }
+    }
+
+    @Override
+    public UpsertResult.Outcome upsertEmployee(Employee employee) {
+        UpsertResult.Outcome outcome = delegate.upsertEmployee(employee);
+        cacheUpserted(employee, outcome);
+        return outcome;
+    }
+
+    @Override
+    public UpsertResult upsertEmployees(Collection<Employee> employees) {
+        return cacheUpserted(employees, delegate.upsertEmployees(employees));
+    }
+
+    @Override
+    public UpsertResult upsertEmployees(Collection<Employee> employees, int chunkSize) {
+        return cacheUpserted(employees, delegate.upsertEmployees(employees, chunkSize));
+    }
+
+    @Override
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment) {
+        return adjustSalaries(criteria, adjustment, false);
+    }
+
+    @Override
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment, boolean dryRun) {
+        BulkUpdateResult result = delegate.adjustSalaries(criteria, adjustment, dryRun);
+        clearAfterBulkUpdate(result);
+        return result;
+    }
+
+    @Override
+    public BulkUpdateResult reassignDepartment(String fromDepartment, String toDepartment) {
+        return reassignDepartment(EmployeeCriteria.inDepartment(fromDepartment), toDepartment, false);
+    }
+
+    @Override
+    public BulkUpdateResult reassignDepartment(EmployeeCriteria criteria, String toDepartment, boolean dryRun) {
+        BulkUpdateResult result = delegate.reassignDepartment(criteria, toDepartment, dryRun);
+        clearAfterBulkUpdate(result);
+        return result;
+    }
+
+    @Override
+    public boolean deleteEmployee(int id) {
+        try {
+            return delegate.deleteEmployee(id);
+        } finally {
+            invalidate(id, null);
+        }
+    }
+
+    @Override
+    public VersionedWriteResult tryDeleteEmployee(int id, int expectedVersion) {
+        try {
+            return delegate.tryDeleteEmployee(id, expectedVersion);
+        } finally {
+            invalidate(id, null);
+        }
+    }
+
+    // ---- Uncached reads ----
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return delegate.getAllEmployees();
+    }
+
+    @Override
+    public EmployeePage getEmployeesPage(int afterId, int pageSize) {
+        return delegate.getEmployeesPage(afterId, pageSize);
+    }
+
+    @Override
+    public int forEachEmployee(Consumer<Employee> action) {
+        return delegate.forEachEmployee(action);
+    }
+
+    @Override
+    public int forEachEmployeeInDepartment(String department, Consumer<Employee> action) {
+        return delegate.forEachEmployeeInDepartment(department, action);
+    }
+
+    @Override
+    public int forEachEmployeeInIdRange(int fromId, int toId, Consumer<Employee> action) {
+        return delegate.forEachEmployeeInIdRange(fromId, toId, action);
+    }
+
+    @Override
+    public List<String> getDepartments() {
+        return delegate.getDepartments();
+    }
+
+    @Override
+    public EmployeeColumns getEmployeeColumns() {
+        return delegate.getEmployeeColumns();
+    }
+
+    @Override
+    public EmployeeColumns getEmployeeColumns(EmployeeCriteria criteria) {
+        return delegate.getEmployeeColumns(criteria);
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String query, int limit) {
+        return delegate.searchEmployees(query, limit);
+    }
+
+    @Override
+    public int buildSearchIndex() {
+        return delegate.buildSearchIndex();
+    }
+
+    @Override
+    public int getMaxEmployeeId() {
+        return delegate.getMaxEmployeeId();
+    }
+
+    @Override
+    public int getEmployeeCount() {
+        return delegate.getEmployeeCount();
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics() {
+        return delegate.getSalaryStatistics();
+    }
+
+    @Override
+    public List<SalaryStatistics> getSalaryStatisticsByDepartment() {
+        return delegate.getSalaryStatisticsByDepartment();
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics(String department) {
+        return delegate.getSalaryStatistics(department);
+    }
+
+    // ---- Statistics ----
+
+    /**
+     * @return Hit/miss/eviction counters for every cache, one per line
+     */
+    public String getCacheStatistics() {
+        return employeesById + "\n" + emailExists + "\n" + employeesByDepartment;
+    }
+
+    public LruCache<Integer, Employee> getEmployeeCache() {
+        return employeesById;
+    }
+
+    public LruCache<String, Boolean> getEmailCache() {
+        return emailExists;
+    }
+
+    public LruCache<String, List<Employee>> getDepartmentCache() {
+        return employeesByDepartment;
+    }
+
+    /**
+     * Drop every cached entry
+     */
+    public void clear() {
+        employeesById.invalidateAll();
+        emailExists.invalidateAll();
+        employeesByDepartment.invalidateAll();
+    }
+
+    /**
+     * A set-based update can touch any cached row, so drop everything
+     */
+    private void clearAfterBulkUpdate(BulkUpdateResult result) {
+        if (result.isDryRun() || (result.isSuccessful() && result.getAffectedRows() == 0)) {
+            return;
+        }
+        clear();
+        if (UnitOfWork.isActive()) {
+            UnitOfWork.afterCommit(this::clear);
+        }
+    }
+
+    private void cacheCreated(Employee employee) {
+        if (UnitOfWork.isActive()) {
+            // The row may still be rolled back, so only drop what it makes stale
+            invalidate(employee.getId(), employee);
+            return;
+        }
+        employeesById.put(employee.getId(), new Employee(employee));
+        emailExists.put(EmployeeDAO.emailKey(employee.getEmail()), Boolean.TRUE);
+        employeesByDepartment.invalidate(employee.getDepartment());
+    }
+
+    private BatchResult cacheCreated(Collection<Employee> employees, BatchResult result) {
+        // Failed rows keep id 0, so only cache rows the database accepted
+        for (Employee employee : employees) {
+            if (employee.getId() > 0) {
+                cacheCreated(employee);
+            }
+        }
+        return result;
+    }
+
+    private void cacheUpserted(Employee employee, UpsertResult.Outcome outcome) {
+        if (outcome == UpsertResult.Outcome.INSERTED) {
+            cacheCreated(employee);
+        } else if (outcome == UpsertResult.Outcome.UPDATED) {
+            invalidate(employee.getId(), employee);
+        }
+    }
+
+    private UpsertResult cacheUpserted(Collection<Employee> employees, UpsertResult result) {
+        // Outcomes are in input order
+        int index = 0;
+        for (Employee employee : employees) {
+            cacheUpserted(employee, result.getOutcomes().get(index++));
+        }
+        return result;
+    }
+
+    /**
+     * Drop the cached row plus the email / department entries it may appear in.
+     * Inside a unit of work the entries are dropped again after the commit, in
+     * case another thread cached the old values in the meantime.
+     * @param id Employee ID
+     * @param updated New values for the row, or null when it was deleted
+     */
+    private void invalidate(int id, Employee updated) {
+        Employee previous = employeesById.peek(id);
+        invalidate(id, previous, updated);
+        if (UnitOfWork.isActive()) {
+            Employee after = updated == null ? null : new Employee(updated);
+            UnitOfWork.afterCommit(() -> invalidate(id, previous, after));
+        }
+    }
+
+    private void invalidate(int id, Employee previous, Employee updated) {
+        employeesById.invalidate(id);
+
+        if (previous == null) {
+            // Old email/department unknown, so any secondary entry could be stale
+            emailExists.invalidateAll();
+            employeesByDepartment.invalidateAll();
+        } else {
+            emailExists.invalidate(EmployeeDAO.emailKey(previous.getEmail()));
+            employeesByDepartment.invalidate(previous.getDepartment());
+        }
+        if (updated != null) {
+            emailExists.invalidate(EmployeeDAO.emailKey(updated.getEmail()));
+            employeesByDepartment.invalidate(updated.getDepartment());
+        }
+    }
+
+    private void invalidateAll(Collection<Employee> employees) {
+        int[] ids = new int[employees.size()];
+        int index = 0;
+        for (Employee employee : employees) {
+            ids[index++] = employee.getId();
+        }
+        invalidateAll(ids);
+        if (UnitOfWork.isActive()) {
+            UnitOfWork.afterCommit(() -> invalidateAll(ids));
+        }
+    }
+
+    private void invalidateAll(int[] ids) {
+        for (int id : ids) {
+            employeesById.invalidate(id);
+        }
+        emailExists.invalidateAll();
+        employeesByDepartment.invalidateAll();
+    }
+
+    private static List<Employee> copyOf(List<Employee> employees) {
+        List<Employee> copy = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            copy.add(new Employee(employee));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,222 @@
+package com.employee;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Channel Output
+ * Buffered writer on a FileChannel with allocation-light encoders for the
+ * values the exporters need: UTF-8 text, decimal integers, plain BigDecimals,
+ * timestamps and big-endian binary ints. Digits are written straight into a
+ * direct buffer, so no intermediate Strings are created per value.
+ *
+ * Not thread-safe; each export part uses its own instance.
+ */
+final class ChannelOutput implements Closeable {
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private long bytesWritten;
+
+    /**
+     * @param path File to create or truncate
+     * @param bufferSize Bytes buffered between channel writes
+     */
+    ChannelOutput(Path path, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(64, bufferSize));
+    }
+
+    /**
+     * @return Bytes written so far, including bytes still buffered
+     */
+    long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    void writeByte(int value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) value);
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Write a string known to contain only ASCII characters (field names, punctuation)
+     */
+    void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    /**
+     * Write one character of a string as UTF-8, combining surrogate pairs
+     * @param text Source string
+     * @param index Index of the character to write
+     * @return Index of the next character
+     */
+    int writeUtf8Char(String text, int index) throws IOException {
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            writeByte(c);
+        } else if (c < 0x800) {
+            writeByte(0xC0 | (c >> 6));
+            writeByte(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+            writeByte(0xF0 | (codePoint >> 18));
+            writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            writeByte(0x80 | (codePoint & 0x3F));
+            return index + 2;
+        } else if (Character.isSurrogate(c)) {
+            writeByte('?');
+        } else {
+            writeByte(0xE0 | (c >> 12));
+            writeByte(0x80 | ((c >> 6) & 0x3F));
+            writeByte(0x80 | (c & 0x3F));
+        }
+        return index + 1;
+    }
+
+    void writeUtf8(String text) throws IOException {
+        int index = 0;
+        while (index < text.length()) {
+            index = writeUtf8Char(text, index);
+        }
+    }
+
+    /**
+     * Write a long in decimal
+     */
+    void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[digits.length - 1 - length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        writeBytes(digits, digits.length - length, length);
+    }
+
+    /**
+     * Write a zero-padded non-negative number with exactly width digits
+     */
+    void writePadded(long value, int width) throws IOException {
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        writeBytes(digits, 0, width);
+    }
+
+    /**
+     * Write a BigDecimal in plain notation (same text as toPlainString())
+     */
+    void writeDecimal(BigDecimal value) throws IOException {
+        int scale = value.scale();
+        if (scale < 0 || scale >= POWERS_OF_TEN.length || value.precision() > 18) {
+            writeAscii(value.toPlainString());
+            return;
+        }
+        long unscaled = value.unscaledValue().longValue();
+        if (unscaled < 0) {
+            writeByte('-');
+            unscaled = -unscaled;
+        }
+        writeLong(unscaled / POWERS_OF_TEN[scale]);
+        if (scale > 0) {
+            writeByte('.');
+            writePadded(unscaled % POWERS_OF_TEN[scale], scale);
+        }
+    }
+
+    /**
+     * Write a timestamp as yyyy-MM-dd HH:mm:ss (the TIMESTAMP column has whole-second precision)
+     */
+    void writeTimestamp(Timestamp timestamp) throws IOException {
+        LocalDateTime time = timestamp.toLocalDateTime();
+        writePadded(time.getYear(), 4);
+        writeByte('-');
+        writePadded(time.getMonthValue(), 2);
+        writeByte('-');
+        writePadded(time.getDayOfMonth(), 2);
+        writeByte(' ');
+        writePadded(time.getHour(), 2);
+        writeByte(':');
+        writePadded(time.getMinute(), 2);
+        writeByte(':');
+        writePadded(time.getSecond(), 2);
+    }
+
+    /**
+     * Write a big-endian 32-bit int
+     */
+    void writeInt(int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            drain();
+        }
+        buffer.putInt(value);
+    }
+
+    /**
+     * Write buffered bytes to the channel and force them to disk
+     */
+    void sync() throws IOException {
+        drain();
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
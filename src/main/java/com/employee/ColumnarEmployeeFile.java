@@ -0,0 +1,320 @@
+package com.employee;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar Employee File
+ * Simple compressed columnar format for analytics exports. Rows are grouped
+ * into row groups; inside a group every column is stored contiguously and
+ * deflate-compressed on its own, so similar values compress well and each
+ * column block carries its own length and can be skipped without inflating it.
+ *
+ * <pre>
+ * file      = magic "EMPCOL01" rowGroup* int32(0)
+ * rowGroup  = int32 rowCount, column x 6 (id, name, email, department, salary, created_at)
+ * column    = int32 rawLength, int32 compressedLength, deflate(raw)
+ *
+ * id          zigzag varint delta from the previous id
+ * name, email varint byte length + UTF-8 bytes
+ * department  varint dictionary index; index == dictionary size is followed by a new string
+ * salary      zigzag varint of the value in cents
+ * created_at  varint 0 for null, else zigzag(delta microseconds from previous timestamp) + 1
+ * </pre>
+ *
+ * All int32 values are big-endian. Dictionaries and deltas restart in every row group.
+ */
+public final class ColumnarEmployeeFile {
+
+    static final byte[] MAGIC = "EMPCOL01".getBytes(StandardCharsets.US_ASCII);
+    static final int DEFAULT_ROW_GROUP_SIZE = 8192;
+
+    private static final int COLUMNS = 6;
+
+    private ColumnarEmployeeFile() {
+    }
+
+    /**
+     * Read every row of a columnar file
+     * @param path File written by the COLUMNAR export format
+     * @param action Callback invoked once per employee, in file order
+     * @return Number of rows read
+     * @throws IOException if the file cannot be read or is not a valid columnar file
+     */
+    public static long read(Path path, Consumer<Employee> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = readFully(channel, MAGIC.length);
+            if (!Arrays.equals(magic.array(), MAGIC)) {
+                throw new IOException("Not an employee columnar file: " + path);
+            }
+
+            Inflater inflater = new Inflater();
+            try {
+                long rows = 0;
+                int rowCount;
+                while ((rowCount = readFully(channel, 4).getInt()) > 0) {
+                    ColumnBuffer[] columns = new ColumnBuffer[COLUMNS];
+                    for (int i = 0; i < COLUMNS; i++) {
+                        columns[i] = inflate(channel, inflater);
+                    }
+                    decodeRowGroup(rowCount, columns, action);
+                    rows += rowCount;
+                }
+                return rows;
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private static void decodeRowGroup(int rowCount, ColumnBuffer[] columns, Consumer<Employee> action) {
+        List<String> departments = new ArrayList<>();
+        int id = 0;
+        long micros = 0;
+        for (int row = 0; row < rowCount; row++) {
+            id += (int) unzigzag(columns[0].readVarLong());
+            String name = columns[1].readString();
+            String email = columns[2].readString();
+
+            int code = (int) columns[3].readVarLong();
+            if (code == departments.size()) {
+                departments.add(columns[3].readString());
+            }
+            String department = departments.get(code);
+
+            BigDecimal salary = BigDecimal.valueOf(unzigzag(columns[4].readVarLong()), 2);
+
+            Timestamp createdAt = null;
+            long encoded = columns[5].readVarLong();
+            if (encoded != 0) {
+                micros += unzigzag(encoded - 1);
+                createdAt = new Timestamp(Math.floorDiv(micros, 1_000_000L) * 1000L);
+                createdAt.setNanos((int) Math.floorMod(micros, 1_000_000L) * 1000);
+            }
+
+            action.accept(new Employee(id, name, email, department, salary, createdAt));
+        }
+    }
+
+    /**
+     * Writes employees in the columnar format; rows are buffered per row group
+     */
+    static final class Writer implements AutoCloseable {
+
+        private final ChannelOutput output;
+        private final int rowGroupSize;
+        private final ColumnBuffer[] columns = new ColumnBuffer[COLUMNS];
+        private final Map<String, Integer> departments = new HashMap<>();
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private byte[] compressed = new byte[64 * 1024];
+        private int rows;
+        private int previousId;
+        private long previousMicros;
+
+        Writer(ChannelOutput output, int rowGroupSize) throws IOException {
+            this.output = output;
+            this.rowGroupSize = Math.max(1, rowGroupSize);
+            for (int i = 0; i < COLUMNS; i++) {
+                columns[i] = new ColumnBuffer(1024);
+            }
+            output.writeBytes(MAGIC, 0, MAGIC.length);
+        }
+
+        void write(Employee employee) throws IOException {
+            columns[0].writeVarLong(zigzag(employee.getId() - previousId));
+            previousId = employee.getId();
+            columns[1].writeString(employee.getName());
+            columns[2].writeString(employee.getEmail());
+
+            Integer code = departments.get(employee.getDepartment());
+            if (code != null) {
+                columns[3].writeVarLong(code);
+            } else {
+                columns[3].writeVarLong(departments.size());
+                columns[3].writeString(employee.getDepartment());
+                departments.put(employee.getDepartment(), departments.size());
+            }
+
+            long cents = employee.getSalary().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            columns[4].writeVarLong(zigzag(cents));
+
+            Timestamp createdAt = employee.getCreatedAt();
+            if (createdAt == null) {
+                columns[5].writeVarLong(0);
+            } else {
+                long micros = Math.floorDiv(createdAt.getTime(), 1000L) * 1_000_000L + createdAt.getNanos() / 1000;
+                columns[5].writeVarLong(zigzag(micros - previousMicros) + 1);
+                previousMicros = micros;
+            }
+
+            if (++rows == rowGroupSize) {
+                flushRowGroup();
+            }
+        }
+
+        /**
+         * Write the last row group and the end marker (does not close the output)
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flushRowGroup();
+                output.writeInt(0);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private void flushRowGroup() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            output.writeInt(rows);
+            for (ColumnBuffer column : columns) {
+                writeCompressed(column);
+                column.clear();
+            }
+            departments.clear();
+            rows = 0;
+            previousId = 0;
+            previousMicros = 0;
+        }
+
+        private void writeCompressed(ColumnBuffer column) throws IOException {
+            deflater.reset();
+            deflater.setInput(column.bytes, 0, column.size);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            output.writeInt(column.size);
+            output.writeInt(length);
+            output.writeBytes(compressed, 0, length);
+        }
+    }
+
+    // ---- Encoding helpers ----
+
+    private static ColumnBuffer inflate(FileChannel channel, Inflater inflater) throws IOException {
+        ByteBuffer header = readFully(channel, 8);
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        ByteBuffer compressed = readFully(channel, compressedLength);
+
+        ColumnBuffer column = new ColumnBuffer(rawLength);
+        inflater.reset();
+        inflater.setInput(compressed.array(), 0, compressedLength);
+        try {
+            while (column.size < rawLength) {
+                int count = inflater.inflate(column.bytes, column.size, rawLength - column.size);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Truncated column block");
+                }
+                column.size += count;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column block: " + e.getMessage(), e);
+        }
+        return column;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of columnar file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte array holding one column of a row group
+     */
+    private static final class ColumnBuffer {
+        private byte[] bytes;
+        private int size;
+        private int position;
+
+        ColumnBuffer(int capacity) {
+            this.bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void clear() {
+            size = 0;
+            position = 0;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,745 @@
+package com.employee;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JDBC Connection Pool
+ * Keeps a bounded set of physical connections open and hands out logical
+ * connections whose close() returns the physical connection to the pool.
+ *
+ * Features: min/max size, acquire increment, acquire timeout,
+ * idle eviction, validation on borrow and leak detection.
+ *
+ * Unless DB_STATEMENT_CACHE_SIZE is 0, prepared statements are also kept
+ * open per physical connection (64 by default): closing a statement
+ * obtained from a pooled connection returns it to that connection's cache,
+ * and preparing the same SQL again reuses it instead of re-parsing.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final int acquireIncrement;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakDetectionMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Idle connections, most recently returned first (LIFO keeps hot connections warm)
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition connectionAvailable = lock.newCondition();
+    private final ScheduledExecutorService housekeeper;
+
+    // prepareStatement() calls served by a new statement vs. by the statement cache
+    private final AtomicLong statementPrepares = new AtomicLong();
+    private final AtomicLong statementReuses = new AtomicLong();
+
+    // Physical connections opened or being opened (guarded by lock)
+    private int totalConnections;
+    private volatile boolean closed;
+
+    /**
+     * Create a pool and open the minimum number of connections
+     * @param url JDBC URL
+     * @param username Database user
+     * @param password Database password
+     * @param config Pool sizing and timeout settings
+     * @throws SQLException if the initial connections cannot be opened
+     */
+    public ConnectionPool(String url, String username, String password, PoolConfig config) throws SQLException {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = Math.max(1, config.maxSize);
+        this.minSize = Math.min(Math.max(0, config.minSize), maxSize);
+        this.acquireIncrement = Math.max(1, config.acquireIncrement);
+        this.acquireTimeoutMillis = config.acquireTimeoutMillis;
+        this.idleTimeoutMillis = config.idleTimeoutMillis;
+        this.leakDetectionMillis = config.leakDetectionMillis;
+        this.validationTimeoutSeconds = config.validationTimeoutSeconds;
+        this.statementCacheSize = Math.max(0, config.statementCacheSize);
+
+        try {
+            for (int i = 0; i < minSize; i++) {
+                lock.lock();
+                try {
+                    totalConnections++;
+                } finally {
+                    lock.unlock();
+                }
+                addIdle(openPhysical());
+            }
+        } catch (SQLException e) {
+            // Nobody gets a reference to this pool, so close what it opened before failing
+            closeIdle();
+            throw e;
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Often enough to evict and to report leaks near their thresholds
+        long period = Math.min(30_000L, idleTimeoutMillis / 2);
+        if (leakDetectionMillis > 0) {
+            period = Math.min(period, leakDetectionMillis / 2);
+        }
+        period = Math.max(1000L, period);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the acquire timeout if the pool is exhausted
+     * @return Logical connection; close it to return it to the pool
+     * @throws SQLException if the pool is closed or a connection cannot be opened
+     *     (SQLTimeoutException if no connection became free within the acquire timeout)
+     */
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            int toOpen = 0;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed", "08003");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        // Grow by the acquire increment, one for the caller and the rest for the idle queue
+                        toOpen = Math.min(acquireIncrement, maxSize - totalConnections);
+                        totalConnections += toOpen;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        // Not a connection failure: the database is fine, the pool is just busy
+                        throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                            + "ms waiting for a database connection (pool size " + maxSize + ")", "HYT00");
+                    }
+                    try {
+                        connectionAvailable.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", "08001", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (toOpen > 0) {
+                if (toOpen > 1) {
+                    fillInBackground(toOpen - 1);
+                }
+                return borrow(openPhysical());
+            }
+
+            if (isUsable(candidate)) {
+                return borrow(candidate);
+            }
+            discard(candidate);
+        }
+    }
+
+    /**
+     * Close every idle connection and refuse further borrows.
+     * Borrowed connections are closed when they are returned.
+     */
+    public void shutdown() {
+        if (closeIdle()) {
+            housekeeper.shutdownNow();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    /**
+     * @return Number of prepareStatement() calls that created a new statement
+     */
+    public long getStatementPrepareCount() {
+        return statementPrepares.get();
+    }
+
+    /**
+     * @return Number of prepareStatement() calls served from the per-connection statement cache
+     */
+    public long getStatementReuseCount() {
+        return statementReuses.get();
+    }
+
+    /**
+     * @return Per-connection statement cache size (0 = disabled, driver-side caching only)
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    private Connection openPhysical() throws SQLException {
+        try {
+            return DriverManager.getConnection(url, username, password);
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                totalConnections--;
+                connectionAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Mark the pool closed and close its idle connections
+     * @return false if the pool was already closed
+     */
+    private boolean closeIdle() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            totalConnections -= toClose.size();
+            connectionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pooled : toClose) {
+            closeQuietly(pooled.physical);
+        }
+        return true;
+    }
+
+    private void fillInBackground(int count) {
+        housekeeper.execute(() -> {
+            for (int i = 0; i < count; i++) {
+                try {
+                    addIdle(openPhysical());
+                } catch (SQLException e) {
+                    // openPhysical already released the reserved slots for this one; release the rest
+                    releaseSlots(count - i - 1);
+                    Log.warn(() -> "⚠️  Connection pool could not pre-open a connection: " + e.getMessage());
+                    return;
+                }
+            }
+        });
+    }
+
+    private void releaseSlots(int count) {
+        if (count <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            totalConnections -= count;
+            connectionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addIdle(Connection physical) {
+        PooledConnection pooled = new PooledConnection(physical);
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.offerFirst(pooled);
+                connectionAvailable.signal();
+                return;
+            }
+            totalConnections--;
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(physical);
+    }
+
+    private Connection borrow(Connection physical) {
+        return borrow(new PooledConnection(physical));
+    }
+
+    private Connection borrow(PooledConnection pooled) {
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.leakReported = false;
+        pooled.borrowTrace = leakDetectionMillis > 0 ? new Throwable("Connection borrowed here") : null;
+        borrowed.add(pooled);
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new LogicalConnection(pooled));
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+
+        boolean reusable = !closed;
+        if (reusable) {
+            try {
+                if (pooled.physical.isClosed()) {
+                    reusable = false;
+                } else if (!pooled.physical.getAutoCommit()) {
+                    // Never hand an open transaction to the next borrower
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+
+        if (!reusable) {
+            discard(pooled);
+            return;
+        }
+
+        pooled.lastReturnedAt = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.offerFirst(pooled);
+                connectionAvailable.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooled);
+    }
+
+    private void discard(PooledConnection pooled) {
+        closeQuietly(pooled.physical);
+        releaseSlots(1);
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Evict connections idle for too long, but never below the minimum size
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections - evicted.size() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (idleTimeoutMillis > 0 && now - pooled.lastReturnedAt > idleTimeoutMillis) {
+                    oldestFirst.remove();
+                    evicted.add(pooled);
+                }
+            }
+            totalConnections -= evicted.size();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pooled : evicted) {
+            closeQuietly(pooled.physical);
+        }
+
+        // Report connections held longer than the leak threshold (once per borrow)
+        if (leakDetectionMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionMillis) {
+                    pooled.leakReported = true;
+                    long heldMillis = now - pooled.borrowedAt;
+                    Log.warn(() -> "⚠️  Possible connection leak: connection held for " + heldMillis + "ms");
+                    if (pooled.borrowTrace != null && Log.isWarnEnabled()) {
+                        pooled.borrowTrace.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        // Top back up to the minimum size
+        int missing;
+        lock.lock();
+        try {
+            missing = closed ? 0 : minSize - totalConnections;
+            if (missing > 0) {
+                totalConnections += missing;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < missing; i++) {
+            try {
+                addIdle(openPhysical());
+            } catch (SQLException e) {
+                releaseSlots(missing - i - 1);
+                break;
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            // Resource is being discarded anyway
+        }
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool keeps about it
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        // Idle prepared statements by SQL, least recently used first (null when caching is off)
+        final Map<StatementKey, PreparedStatement> statements;
+        volatile long lastReturnedAt = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile boolean leakReported;
+        volatile Throwable borrowTrace;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize == 0 ? null
+                : new LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+                        if (size() > statementCacheSize) {
+                            closeQuietly(eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+        }
+
+        /**
+         * Take a cached statement for this SQL or prepare a new one
+         */
+        PreparedStatement checkout(StatementKey key) throws SQLException {
+            PreparedStatement statement;
+            synchronized (statements) {
+                statement = statements.remove(key);
+            }
+            if (statement != null && !statement.isClosed()) {
+                statementReuses.incrementAndGet();
+                return statement;
+            }
+            statementPrepares.incrementAndGet();
+            return key.prepare(physical);
+        }
+
+        /**
+         * Return a statement to the cache, closing whatever it displaces
+         */
+        void checkin(StatementKey key, PreparedStatement statement) {
+            PreparedStatement displaced;
+            synchronized (statements) {
+                displaced = statements.put(key, statement);
+            }
+            if (displaced != null && displaced != statement) {
+                closeQuietly(displaced);
+            }
+        }
+    }
+
+    /**
+     * Connection handed to callers: close() returns the physical connection
+     * to the pool, every other call is delegated until then.
+     */
+    private final class LogicalConnection implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean logicallyClosed;
+
+        LogicalConnection(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Connection has already been returned to the pool", "08003");
+            }
+            if (pooled.statements != null && method.getName().equals("prepareStatement")) {
+                StatementKey key = StatementKey.of(args);
+                if (key != null) {
+                    PreparedStatement statement = pooled.checkout(key);
+                    return Proxy.newProxyInstance(
+                        PreparedStatement.class.getClassLoader(),
+                        new Class<?>[] { PreparedStatement.class },
+                        new CachedStatement(pooled, key, statement, (Connection) proxy));
+                }
+            }
+            if (pooled.statements == null && method.getName().equals("prepareStatement")) {
+                statementPrepares.incrementAndGet();
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Prepared statement handed to callers when statement caching is on:
+     * close() resets it and returns it to the connection's cache.
+     */
+    private final class CachedStatement implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private final Connection logicalConnection;
+        private boolean logicallyClosed;
+        private boolean fetchSizeChanged;
+
+        CachedStatement(PooledConnection pooled, StatementKey key, PreparedStatement statement, Connection logicalConnection) {
+            this.pooled = pooled;
+            this.key = key;
+            this.statement = statement;
+            this.logicalConnection = logicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || statement.isClosed();
+                case "getConnection":
+                    return logicalConnection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                case "setFetchSize":
+                    fetchSizeChanged = true;
+                    break;
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Statement has already been closed", "HY010");
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void recycle() {
+            try {
+                ResultSet open = statement.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                if (fetchSizeChanged) {
+                    statement.setFetchSize(0);
+                }
+                pooled.checkin(key, statement);
+            } catch (SQLException e) {
+                closeQuietly(statement);
+            }
+        }
+    }
+
+    /**
+     * Cache key: the SQL text plus the prepareStatement() options it was prepared with
+     */
+    private static final class StatementKey {
+        final String sql;
+        final int autoGeneratedKeys;
+        final int resultSetType;
+        final int resultSetConcurrency;
+        final int hash;
+
+        private StatementKey(String sql, int autoGeneratedKeys, int resultSetType, int resultSetConcurrency) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.hash = Objects.hash(sql, autoGeneratedKeys, resultSetType, resultSetConcurrency);
+        }
+
+        /**
+         * @return Key for a cacheable prepareStatement() signature, or null for other overloads
+         */
+        static StatementKey of(Object[] args) {
+            if (args == null || !(args[0] instanceof String)) {
+                return null;
+            }
+            String sql = (String) args[0];
+            if (args.length == 1) {
+                return new StatementKey(sql, -1, -1, -1);
+            }
+            if (args.length == 2 && args[1] instanceof Integer) {
+                return new StatementKey(sql, (Integer) args[1], -1, -1);
+            }
+            if (args.length == 3 && args[1] instanceof Integer && args[2] instanceof Integer) {
+                return new StatementKey(sql, -1, (Integer) args[1], (Integer) args[2]);
+            }
+            return null;
+        }
+
+        PreparedStatement prepare(Connection connection) throws SQLException {
+            if (autoGeneratedKeys != -1) {
+                return connection.prepareStatement(sql, autoGeneratedKeys);
+            }
+            if (resultSetType != -1) {
+                return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+            return connection.prepareStatement(sql);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof StatementKey)) return false;
+            StatementKey other = (StatementKey) obj;
+            return autoGeneratedKeys == other.autoGeneratedKeys
+                && resultSetType == other.resultSetType
+                && resultSetConcurrency == other.resultSetConcurrency
+                && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Pool sizing and timeout settings
+     */
+    public static final class PoolConfig {
+        int minSize = 5;
+        int maxSize = 20;
+        int acquireIncrement = 5;
+        long acquireTimeoutMillis = 30_000L;
+        long idleTimeoutMillis = 600_000L;
+        long leakDetectionMillis = 0L;
+        int validationTimeoutSeconds = 2;
+        // Enough for every distinct DAO statement; the reuse counter stays 0 when set to 0
+        int statementCacheSize = 64;
+
+        /**
+         * Read pool settings from the .env file / environment
+         * @return PoolConfig populated from DB_* keys, with defaults for missing keys
+         */
+        public static PoolConfig fromEnv() {
+            PoolConfig config = new PoolConfig();
+            config.minSize = EnvLoader.getIntEnv("DB_MIN_POOL_SIZE", config.minSize);
+            config.maxSize = EnvLoader.getIntEnv("DB_MAX_POOL_SIZE", config.maxSize);
+            config.acquireIncrement = EnvLoader.getIntEnv("DB_ACQUIRE_INCREMENT", config.acquireIncrement);
+            config.acquireTimeoutMillis = EnvLoader.getLongEnv("DB_ACQUIRE_TIMEOUT_MS", config.acquireTimeoutMillis);
+            config.idleTimeoutMillis = EnvLoader.getLongEnv("DB_IDLE_TIMEOUT_MS", config.idleTimeoutMillis);
+            config.leakDetectionMillis = EnvLoader.getLongEnv("DB_LEAK_DETECTION_MS", config.leakDetectionMillis);
+            config.validationTimeoutSeconds = EnvLoader.getIntEnv("DB_VALIDATION_TIMEOUT_S", config.validationTimeoutSeconds);
+            config.statementCacheSize = EnvLoader.getIntEnv("DB_STATEMENT_CACHE_SIZE", config.statementCacheSize);
+            return config;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+    }
+}
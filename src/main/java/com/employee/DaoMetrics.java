@@ -0,0 +1,155 @@
+package com.employee;
+
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * DAO Metrics Registry
+ * Per-operation latency, call, error and row metrics for the data layer.
+ * Each operation is registered with JMX under
+ * com.employee:type=DaoMetrics,operation=&lt;name&gt; (unless METRICS_JMX_ENABLED=false)
+ * and can be dumped to the console periodically (METRICS_DUMP_INTERVAL_SECONDS).
+ *
+ * Typical use inside a DAO method:
+ * <pre>
+ *     long start = DaoMetrics.start();
+ *     ... run the query ...
+ *     DaoMetrics.success("getEmployeeById", start, 1);
+ *     ... or in the catch block ...
+ *     DaoMetrics.failure("getEmployeeById", start, e);
+ * </pre>
+ */
+public final class DaoMetrics {
+
+    private static final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private static final boolean jmxEnabled =
+        Boolean.parseBoolean(EnvLoader.getEnv("METRICS_JMX_ENABLED", "true"));
+
+    private static ScheduledExecutorService dumper;
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * @return Start timestamp to pass to success() or failure()
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record a successful call
+     * @param operation Operation name (usually the DAO method name)
+     * @param startNanos Value returned by start()
+     * @param rows Rows returned or affected
+     */
+    public static void success(String operation, long startNanos, long rows) {
+        get(operation).recordSuccess(System.nanoTime() - startNanos, rows);
+    }
+
+    /**
+     * Record a failed call
+     * @param operation Operation name (usually the DAO method name)
+     * @param startNanos Value returned by start()
+     * @param error Exception that failed the call
+     */
+    public static void failure(String operation, long startNanos, SQLException error) {
+        get(operation).recordFailure(System.nanoTime() - startNanos, error);
+    }
+
+    /**
+     * Get (or create and register) the metrics for an operation
+     * @param operation Operation name
+     * @return OperationMetrics for that name
+     */
+    public static OperationMetrics get(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics != null) {
+            return metrics;
+        }
+        return operations.computeIfAbsent(operation, DaoMetrics::register);
+    }
+
+    /**
+     * @return Metrics for every operation seen so far
+     */
+    public static Collection<OperationMetrics> getAll() {
+        List<OperationMetrics> all = new ArrayList<>(operations.values());
+        all.sort((a, b) -> a.getOperation().compareTo(b.getOperation()));
+        return all;
+    }
+
+    /**
+     * @return One line per operation, sorted by name
+     */
+    public static String dump() {
+        StringBuilder report = new StringBuilder();
+        for (OperationMetrics metrics : getAll()) {
+            if (report.length() > 0) {
+                report.append('\n');
+            }
+            report.append(metrics.toDisplayString());
+        }
+        return report.toString();
+    }
+
+    public static void resetAll() {
+        for (OperationMetrics metrics : operations.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Start dumping metrics to the console every METRICS_DUMP_INTERVAL_SECONDS
+     * (does nothing when the interval is 0 or the dump is already running)
+     */
+    public static synchronized void startPeriodicDumpFromEnv() {
+        long intervalSeconds = EnvLoader.getLongEnv("METRICS_DUMP_INTERVAL_SECONDS", 0L);
+        if (intervalSeconds <= 0 || dumper != null) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dao-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(
+            () -> Log.info(() -> "📈 DAO metrics\n" + dump()),
+            intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stopPeriodicDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    private static OperationMetrics register(String operation) {
+        OperationMetrics metrics = new OperationMetrics(operation);
+        if (jmxEnabled) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName("com.employee:type=DaoMetrics,operation=" + ObjectName.quote(operation));
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(metrics, name);
+                }
+            } catch (JMException e) {
+                Log.warn(() -> "⚠️  Could not register JMX metrics for " + operation + ": " + e.getMessage());
+            }
+        }
+        return metrics;
+    }
+}
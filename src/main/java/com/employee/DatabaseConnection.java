@@ -1,72 +1,328 @@
 package com.employee;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Database Connection Utility Class
- * Handles MySQL database connections using environment variables
+ * Handles MySQL database connections using environment variables.
+ * Connections are served from a shared {@link ConnectionPool}; closing a
+ * connection returns it to the pool instead of closing the socket.
+ *
+ * When read replicas are configured (DB_REPLICA_URLS or DB_REPLICA_HOSTS),
+ * {@link #getReadConnection()} serves read-only DAO work from a replica
+ * through a {@link ReplicaRouter}. It falls back to the primary when no
+ * replica is healthy, and for DB_READ_YOUR_WRITES_MS after the current
+ * {@link WriteSession} last took a write connection. Each thread has its
+ * own session, so one caller's writes do not pin everyone else's reads to
+ * the primary. Work handed to another thread carries the caller's session
+ * with {@link #withWriteSession} (AsyncEmployeeDAO does this for every
+ * operation), so its writes are still seen by the caller that reads them back.
  */
 public class DatabaseConnection {
-    
+
     // Static block to load environment variables
     static {
         EnvLoader.loadEnv();
     }
-    
+
+    private static volatile ConnectionPool pool;
+    private static volatile ReplicaRouter replicaRouter;
+    private static volatile boolean replicasResolved;
+
+    private static final long NO_WRITE = Long.MIN_VALUE;
+    // Read-your-writes session of the current thread; replaced while running withWriteSession()
+    private static final ThreadLocal<WriteSession> WRITE_SESSION = ThreadLocal.withInitial(WriteSession::new);
+    // Nesting depth of readFromPrimary() on the current thread
+    private static final ThreadLocal<int[]> PRIMARY_READS = ThreadLocal.withInitial(() -> new int[1]);
+
     /**
-     * Establish and return a database connection using environment variables
-     * @return Connection object
+     * Borrow a pooled database connection. Inside a {@link UnitOfWork} this is
+     * the unit's shared connection, and closing it does nothing.
+     * @return Connection object; close it to return it to the pool
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
+        Connection shared = UnitOfWork.currentConnection();
+        if (shared != null) {
+            return shared;
+        }
+        if (getReplicaRouter() != null) {
+            WRITE_SESSION.get().lastWrite.set(System.nanoTime());
+        }
+        return borrowPrimary();
+    }
+
+    /**
+     * Read-your-writes scope: reads stay on the primary for DB_READ_YOUR_WRITES_MS
+     * after a write made in the same session. Pass it to work handed to another
+     * thread with {@link #withWriteSession}; it is safe to share between threads.
+     */
+    public static final class WriteSession {
+        // When this session last borrowed a primary connection (System.nanoTime), NO_WRITE before the first
+        private final AtomicLong lastWrite = new AtomicLong(NO_WRITE);
+    }
+
+    /**
+     * @return The current thread's session, to hand to work that runs on another thread
+     */
+    public static WriteSession currentWriteSession() {
+        return WRITE_SESSION.get();
+    }
+
+    /**
+     * Run an action on this thread as part of another thread's session, so its
+     * writes keep that thread's reads on the primary and it sees that thread's writes
+     * @param session Session from {@link #currentWriteSession()} on the handing-off thread
+     * @param action Work calling the DAO
+     * @return The action's result
+     */
+    public static <T> T withWriteSession(WriteSession session, Supplier<T> action) {
+        WriteSession previous = WRITE_SESSION.get();
+        WRITE_SESSION.set(session);
         try {
-            // Get database configuration from environment variables
-            String host = EnvLoader.getEnv("DB_HOST", "localhost");
-            String port = EnvLoader.getEnv("DB_PORT", "3306");
-            String dbName = EnvLoader.getEnv("DB_NAME", "employee_db");
-            String username = EnvLoader.getEnv("DB_USERNAME", "root");
-            String password = EnvLoader.getEnv("DB_PASSWORD", "");
-            String driver = EnvLoader.getEnv("DB_DRIVER", "com.mysql.cj.jdbc.Driver");
-            
-            // Build connection URL
-            String url = String.format("jdbc:mysql://%s:%s/%s", host, port, dbName);
-            
-            // Load MySQL JDBC driver
-            Class.forName(driver);
-            
-            // Create connection
-            Connection connection = DriverManager.getConnection(url, username, password);
-            
-            System.out.println("✅ Database connection established successfully!");
-            System.out.println("🔗 Connected to: " + host + ":" + port + "/" + dbName);
+            return action.get();
+        } finally {
+            WRITE_SESSION.set(previous);
+        }
+    }
+
+    /**
+     * Borrow a connection for read-only work: from a healthy read replica
+     * when replicas are configured, otherwise (or as a fallback) from the
+     * primary. Inside a {@link UnitOfWork} this is the unit's connection.
+     * @return Connection object; close it to return it to its pool
+     * @throws SQLException if no connection can be obtained
+     */
+    public static Connection getReadConnection() throws SQLException {
+        Connection shared = UnitOfWork.currentConnection();
+        if (shared != null) {
+            return shared;
+        }
+        ReplicaRouter router = getReplicaRouter();
+        if (router != null && PRIMARY_READS.get()[0] == 0 && !isWithinReadYourWritesWindow()) {
+            long start = DaoMetrics.start();
+            Connection connection = router.getConnection();
+            if (connection != null) {
+                DaoMetrics.success("replicaAcquire", start, 0);
+                return connection;
+            }
+            DaoMetrics.success("replicaFallback", start, 0);
+        }
+        return borrowPrimary();
+    }
+
+    /**
+     * Run an action whose reads must see every committed write, e.g. building
+     * an index that later writes keep up to date
+     * @param action Work calling the DAO's read methods
+     * @return The action's result
+     */
+    public static <T> T readFromPrimary(Supplier<T> action) {
+        int[] depth = PRIMARY_READS.get();
+        depth[0]++;
+        try {
+            return action.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    private static boolean isWithinReadYourWritesWindow() {
+        long lastWrite = WRITE_SESSION.get().lastWrite.get();
+        if (lastWrite == NO_WRITE) {
+            return false;
+        }
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(EnvLoader.getLongEnv("DB_READ_YOUR_WRITES_MS", 1000L));
+        return System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    private static Connection borrowPrimary() throws SQLException {
+        long start = DaoMetrics.start();
+        try {
+            Connection connection = getPool().getConnection();
+            DaoMetrics.success("connectionAcquire", start, 0);
             return connection;
-            
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found: " + e.getMessage(), e);
         } catch (SQLException e) {
-            System.err.println("❌ Failed to connect to database: " + e.getMessage());
-            System.err.println("💡 Please check your .env file configuration");
+            DaoMetrics.failure("connectionAcquire", start, e);
+            Log.error(() -> "❌ Failed to connect to database: " + e.getMessage());
+            Log.error("💡 Please check your .env file configuration");
             throw e;
         }
     }
+
+    /**
+     * Get the shared connection pool, creating it on first use
+     * @return ConnectionPool configured from environment variables
+     * @throws SQLException if the pool cannot open its initial connections
+     */
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (DatabaseConnection.class) {
+            if (pool == null) {
+                pool = createPool();
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Get the read replica router, creating it on first use
+     * @return ReplicaRouter, or null when no replicas are configured
+     */
+    public static ReplicaRouter getReplicaRouter() {
+        if (replicasResolved) {
+            return replicaRouter;
+        }
+        synchronized (DatabaseConnection.class) {
+            if (!replicasResolved) {
+                replicaRouter = createReplicaRouter();
+                replicasResolved = true;
+            }
+            return replicaRouter;
+        }
+    }
+
+    /**
+     * Close all pooled connections (call on application shutdown)
+     */
+    public static void shutdown() {
+        synchronized (DatabaseConnection.class) {
+            if (replicaRouter != null) {
+                replicaRouter.shutdown();
+                replicaRouter = null;
+            }
+            replicasResolved = false;
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+                Log.info("🔐 Database connection pool closed successfully!");
+            }
+        }
+    }
+
+    /**
+     * Create the connection pool from environment variables
+     */
+    private static ConnectionPool createPool() throws SQLException {
+        // Get database configuration from environment variables
+        String host = EnvLoader.getEnv("DB_HOST", "localhost");
+        String port = EnvLoader.getEnv("DB_PORT", "3306");
+        String dbName = EnvLoader.getEnv("DB_NAME", "employee_db");
+        String username = EnvLoader.getEnv("DB_USERNAME", "root");
+        String password = EnvLoader.getEnv("DB_PASSWORD", "");
+        String driver = EnvLoader.getEnv("DB_DRIVER", "com.mysql.cj.jdbc.Driver");
+
+        // Build connection URL (DB_URL, if set, is used verbatim, e.g. for an embedded database)
+        String url = EnvLoader.getEnv("DB_URL");
+        if (url == null) {
+            url = String.format("jdbc:mysql://%s:%s/%s", host, port, dbName) + buildUrlProperties();
+        }
+
+        // Load JDBC driver once for the lifetime of the pool
+        try {
+            Class.forName(driver);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL JDBC Driver not found: " + e.getMessage(), e);
+        }
+
+        ConnectionPool.PoolConfig config = ConnectionPool.PoolConfig.fromEnv();
+        ConnectionPool newPool = new ConnectionPool(url, username, password, config);
+
+        String target = EnvLoader.hasEnv("DB_URL") ? url : host + ":" + port + "/" + dbName;
+        Log.info("✅ Database connection pool established successfully!");
+        Log.info(() -> "🔗 Connected to: " + target + " (pool " + config.getMinSize() + "-" + config.getMaxSize() + ")");
+        return newPool;
+    }
+
+    /**
+     * Create the replica router from DB_REPLICA_URLS (JDBC URLs used verbatim)
+     * or DB_REPLICA_HOSTS (host[:port] entries, same database and settings as the primary)
+     */
+    private static ReplicaRouter createReplicaRouter() {
+        List<String> urls = new ArrayList<>();
+        String replicaUrls = EnvLoader.getEnv("DB_REPLICA_URLS");
+        String replicaHosts = EnvLoader.getEnv("DB_REPLICA_HOSTS");
+        if (replicaUrls != null) {
+            for (String url : replicaUrls.split(",")) {
+                if (!url.trim().isEmpty()) {
+                    urls.add(url.trim());
+                }
+            }
+        } else if (replicaHosts != null) {
+            String dbName = EnvLoader.getEnv("DB_NAME", "employee_db");
+            String defaultPort = EnvLoader.getEnv("DB_PORT", "3306");
+            for (String host : replicaHosts.split(",")) {
+                host = host.trim();
+                if (!host.isEmpty()) {
+                    String address = host.indexOf(':') >= 0 ? host : host + ":" + defaultPort;
+                    urls.add("jdbc:mysql://" + address + "/" + dbName + buildUrlProperties());
+                }
+            }
+        }
+        if (urls.isEmpty()) {
+            return null;
+        }
+
+        ConnectionPool.PoolConfig config = ConnectionPool.PoolConfig.fromEnv();
+        // Fail over to another replica or the primary quickly instead of queueing on a busy replica
+        config.acquireTimeoutMillis = EnvLoader.getLongEnv("DB_REPLICA_ACQUIRE_TIMEOUT_MS", 1000L);
+        ReplicaRouter router = new ReplicaRouter(urls,
+            EnvLoader.getEnv("DB_REPLICA_USERNAME", EnvLoader.getEnv("DB_USERNAME", "root")),
+            EnvLoader.getEnv("DB_REPLICA_PASSWORD", EnvLoader.getEnv("DB_PASSWORD", "")),
+            config,
+            ReplicaRouter.Balancing.fromName(EnvLoader.getEnv("DB_REPLICA_BALANCING", "ROUND_ROBIN")),
+            EnvLoader.getLongEnv("DB_REPLICA_HEALTH_CHECK_MS", 5000L),
+            EnvLoader.getLongEnv("DB_REPLICA_MAX_LAG_S", 0L));
+        Log.info(() -> "📚 Read replicas: " + router.getHealthyReplicaCount() + " of " + urls.size()
+            + " healthy (" + router.getBalancing() + ")");
+        return router;
+    }
+
+    /**
+     * Build the Connector/J URL properties from environment variables
+     * @return Query string (including the leading '?') or an empty string
+     */
+    private static String buildUrlProperties() {
+        StringBuilder properties = new StringBuilder();
+        // Lets the driver send a JDBC batch of INSERTs as a single multi-row statement
+        if (Boolean.parseBoolean(EnvLoader.getEnv("DB_REWRITE_BATCHED_STATEMENTS", "true"))) {
+            properties.append(properties.length() == 0 ? '?' : '&').append("rewriteBatchedStatements=true");
+        }
+        // Server-side prepared statements, cached by the driver per connection
+        if (Boolean.parseBoolean(EnvLoader.getEnv("DB_USE_SERVER_PREP_STMTS", "true"))) {
+            properties.append(properties.length() == 0 ? '?' : '&').append("useServerPrepStmts=true");
+        }
+        if (Boolean.parseBoolean(EnvLoader.getEnv("DB_CACHE_PREP_STMTS", "true"))) {
+            properties.append(properties.length() == 0 ? '?' : '&').append("cachePrepStmts=true")
+                .append("&prepStmtCacheSize=").append(EnvLoader.getIntEnv("DB_PREP_STMT_CACHE_SIZE", 250))
+                .append("&prepStmtCacheSqlLimit=").append(EnvLoader.getIntEnv("DB_PREP_STMT_CACHE_SQL_LIMIT", 2048));
+        }
+        return properties.toString();
+    }
     
     /**
-     * Close database connection safely
+     * Close database connection safely (returns pooled connections to the pool)
      * @param connection Connection to close
      */
     public static void closeConnection(Connection connection) {
         if (connection != null) {
             try {
                 connection.close();
-                System.out.println("🔐 Database connection closed successfully!");
             } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
+                Log.error(() -> "Error closing database connection: " + e.getMessage());
             }
         }
     }
-    
+
     /**
      * Test database connection
      * @return true if connection successful, false otherwise
@@ -75,8 +331,8 @@ public class DatabaseConnection {
         try (Connection connection = getConnection()) {
             return connection != null && !connection.isClosed();
         } catch (SQLException e) {
-            System.err.println("Database connection test failed: " + e.getMessage());
+            Log.error(() -> "Database connection test failed: " + e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,373 @@
+package com.employee;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Department Dictionary
+ * In-memory copy of the departments lookup table. Employees store a small
+ * integer department_id; the dictionary turns it back into the department
+ * name, always handing out the same String instance per department, so a
+ * million loaded employees share a handful of name strings.
+ *
+ * The table is loaded on first use and reloaded when an unknown ID turns
+ * up (e.g. a department created by another process). Lookups are lock-free
+ * reads of an immutable snapshot. A name the snapshot does not know is
+ * looked up with WHERE name = ?, so the column collation decides which
+ * department it means (with utf8mb4_0900_ai_ci 'Cafe' finds 'Café'), and
+ * the answer is remembered under that spelling. Names that match no
+ * department are remembered for DEPARTMENT_MISS_CACHE_MS, so repeated
+ * lookups of the same unknown name do not query the table each time.
+ *
+ * A new department is inserted on the caller's connection, so it commits
+ * or rolls back with the employee write that needed it. The dictionary
+ * only remembers it once it is committed: right away in autocommit mode,
+ * otherwise as soon as a separate connection can see it. The table itself
+ * is loaded on its own pooled connection and so never contains a
+ * department that may still be rolled back.
+ */
+public final class DepartmentDictionary {
+
+    /** Width of departments.name */
+    public static final int MAX_NAME_LENGTH = 50;
+
+    // MySQL error code for a value wider than its column
+    private static final int ER_DATA_TOO_LONG = 1406;
+
+    private static final String SELECT_DEPARTMENTS =
+        "SELECT id, name FROM departments";
+
+    private static final String SELECT_DEPARTMENT_ID =
+        "SELECT id FROM departments WHERE name = ?";
+
+
+    private static final String INSERT_DEPARTMENT =
+        "INSERT IGNORE INTO departments (name) VALUES (?)";
+
+    // Unknown names remembered at most; beyond this the expired entries are dropped
+    private static final int MAX_MISSES = 1024;
+
+    // Uncommitted departments remembered at most; beyond this they are forgotten
+    private static final int MAX_UNCOMMITTED = 1024;
+
+    private static final DepartmentDictionary INSTANCE = new DepartmentDictionary();
+
+    private volatile Snapshot snapshot;
+    // Names (by key) known not to exist, with the System.nanoTime at which that expires
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+    // Names of departments created in a transaction that has not committed (yet).
+    // Only nameOf reads it: a row can only reference such an ID once it exists.
+    private final Map<Integer, String> uncommitted = new ConcurrentHashMap<>();
+
+    private DepartmentDictionary() {
+    }
+
+    /**
+     * @return Dictionary shared by every DAO in this JVM
+     */
+    public static DepartmentDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param id department_id value
+     * @return Canonical department name
+     * @throws SQLException if the ID is not in the departments table
+     */
+    public String nameOf(int id) throws SQLException {
+        String name = loaded().names.get(id);
+        if (name == null) {
+            name = reload().names.get(id);
+            if (name == null) {
+                // Created earlier in the reader's own transaction
+                name = uncommitted.get(id);
+            }
+            if (name == null) {
+                throw new SQLException("Unknown department id: " + id);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Look up a department without creating it
+     * @param name Department name (any case)
+     * @return department_id, or null if no such department exists
+     */
+    public Integer findId(String name) throws SQLException {
+        if (name == null) {
+            return null;
+        }
+        String key = key(name);
+        Integer id = loaded().ids.get(key);
+        if (id != null || isKnownMissing(key)) {
+            return id;
+        }
+        try (Connection connection = DatabaseConnection.getPool().getConnection()) {
+            id = queryId(connection, name);
+        }
+        if (id == null) {
+            // Committed since the snapshot was loaded, under a spelling a case-sensitive collation does not match
+            id = reload().ids.get(key);
+        }
+        if (id != null) {
+            remember(key, id);
+        } else {
+            rememberMissing(key);
+        }
+        return id;
+    }
+
+    /**
+     * Look up a department, creating it if it does not exist yet. The insert
+     * runs on the current unit's connection, or autocommitted outside a unit.
+     * @param name Department name
+     * @return department_id
+     * @throws SQLException if the name is empty or too long, or the department cannot be created
+     */
+    public int idOf(String name) throws SQLException {
+        checkName(name);
+        Integer id = loaded().ids.get(key(name));
+        if (id != null) {
+            return id;
+        }
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return idOf(connection, name);
+        }
+    }
+
+    /**
+     * Look up a department, creating it on the given connection if it does
+     * not exist yet, so that it is part of the connection's transaction
+     * @param connection Connection the employee write runs on
+     * @param name Department name
+     * @return department_id
+     * @throws SQLException if the name is empty or too long, or the department cannot be created
+     */
+    public int idOf(Connection connection, String name) throws SQLException {
+        checkName(name);
+        String key = key(name);
+        Integer id = loaded().ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        // No lock held here: the insert may wait on another transaction's row lock
+        boolean created;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_DEPARTMENT)) {
+            statement.setString(1, name.trim());
+            created = statement.executeUpdate() > 0;
+        }
+        // Ignored as a duplicate if the collation equates it with an existing name
+        id = queryId(connection, name);
+        if (id == null) {
+            throw new SQLException("Department was not created: " + name);
+        }
+        // A unit's connection reports autocommit between DAO calls, but only commits with the unit
+        boolean unitConnection = connection == UnitOfWork.currentConnection();
+        if ((!unitConnection && connection.getAutoCommit()) || isCommitted(name, id)) {
+            remember(key, id);
+        } else {
+            rememberUncommitted(key, id, name.trim(), unitConnection);
+        }
+        if (created) {
+            Log.debug(() -> "🏢 New department: " + name);
+        }
+        return id;
+    }
+
+    /**
+     * @param name Department name from outside the database (input, files)
+     * @return Canonical instance for a known department, otherwise the name itself
+     */
+    public String canonical(String name) {
+        if (name == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            return name;
+        }
+        Integer id = current.ids.get(key(name));
+        return id != null ? current.names.get(id) : name;
+    }
+
+    /**
+     * @return Every department name, sorted case-insensitively
+     */
+    public List<String> getNames() throws SQLException {
+        List<String> names = new ArrayList<>(loaded().names.values());
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    /**
+     * Re-read the departments table
+     * @return The new snapshot
+     */
+    synchronized Snapshot reload() throws SQLException {
+        try (Connection connection = DatabaseConnection.getPool().getConnection()) {
+            snapshot = load(connection);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Forget the loaded departments (e.g. after the table was recreated)
+     */
+    public synchronized void clear() {
+        snapshot = null;
+        misses.clear();
+        uncommitted.clear();
+    }
+
+    private Snapshot loaded() throws SQLException {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Cache a name's department under the name's key, reloading the table
+     * first if the department is newer than the snapshot
+     */
+    private synchronized void remember(String key, int id) throws SQLException {
+        Snapshot current = loaded();
+        if (!current.names.containsKey(id)) {
+            current = reload();
+        }
+        if (!Integer.valueOf(id).equals(current.ids.get(key))) {
+            snapshot = current.withAlias(key, id);
+        }
+        misses.remove(key);
+        uncommitted.remove(id);
+    }
+
+    /**
+     * Keep a department created in an open transaction out of the snapshot,
+     * but let the transaction read it back; a unit remembers it once it commits
+     */
+    private void rememberUncommitted(String key, int id, String name, boolean unitConnection) {
+        misses.remove(key);
+        if (uncommitted.size() >= MAX_UNCOMMITTED) {
+            uncommitted.clear();
+        }
+        uncommitted.put(id, name);
+        if (unitConnection) {
+            UnitOfWork.afterCommit(() -> {
+                try {
+                    remember(key, id);
+                } catch (SQLException e) {
+                    Log.debug(() -> "🏢 Department reload failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    private boolean isKnownMissing(String key) {
+        Long expires = misses.get(key);
+        if (expires == null) {
+            return false;
+        }
+        if (System.nanoTime() - expires < 0) {
+            return true;
+        }
+        misses.remove(key, expires);
+        return false;
+    }
+
+    private void rememberMissing(String key) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(EnvLoader.getLongEnv("DEPARTMENT_MISS_CACHE_MS", 5000L));
+        if (ttlNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (misses.size() >= MAX_MISSES) {
+            misses.values().removeIf(expires -> now - expires >= 0);
+        }
+        if (misses.size() < MAX_MISSES) {
+            misses.put(key, now + ttlNanos);
+        }
+    }
+
+    /**
+     * Reject names the column cannot hold; a non-strict sql_mode would
+     * otherwise store them truncated and the lookup by name would miss
+     */
+    private static void checkName(String name) throws SQLException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new SQLException("Department cannot be empty");
+        }
+        if (name.trim().length() > MAX_NAME_LENGTH) {
+            throw new SQLException("Department name is longer than " + MAX_NAME_LENGTH + " characters: " + name.trim(),
+                "22001", ER_DATA_TOO_LONG);
+        }
+    }
+
+    /**
+     * @return true if a connection outside the caller's transaction sees the department
+     */
+    private static boolean isCommitted(String name, int id) throws SQLException {
+        try (Connection connection = DatabaseConnection.getPool().getConnection()) {
+            return Integer.valueOf(id).equals(queryId(connection, name));
+        }
+    }
+
+    private static Integer queryId(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_DEPARTMENT_ID)) {
+            statement.setString(1, name.trim());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : null;
+            }
+        }
+    }
+
+    private static Snapshot load(Connection connection) throws SQLException {
+        Map<Integer, String> names = new HashMap<>();
+        Map<String, Integer> ids = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_DEPARTMENTS);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                int id = resultSet.getInt(1);
+                String name = resultSet.getString(2);
+                names.put(id, name);
+                ids.putIfAbsent(key(name), id);
+            }
+        }
+        return new Snapshot(names, ids);
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable view of the table at one point in time
+     */
+    static final class Snapshot {
+        final Map<Integer, String> names;
+        final Map<String, Integer> ids;
+
+        Snapshot(Map<Integer, String> names, Map<String, Integer> ids) {
+            this.names = Collections.unmodifiableMap(names);
+            this.ids = Collections.unmodifiableMap(ids);
+        }
+
+        /**
+         * @return Copy in which another spelling also maps to the department
+         */
+        Snapshot withAlias(String key, int id) {
+            Map<String, Integer> aliased = new HashMap<>(ids);
+            aliased.put(key, id);
+            return new Snapshot(names, aliased);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.employee;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Department Stats Reconciler
+ * Periodically recomputes the department_stats summary from the employees
+ * table and corrects any department that drifted from it. The triggers keep
+ * the summary exact on their own; this is a safety net for writes made
+ * while they were missing or disabled.
+ *
+ * Runs every DEPARTMENT_STATS_RECONCILE_INTERVAL_S seconds (0 = off), and
+ * only where the summary is actually maintained.
+ */
+public final class DepartmentStatsReconciler {
+
+    private static ScheduledExecutorService scheduler;
+
+    private DepartmentStatsReconciler() {
+    }
+
+    /**
+     * Start the periodic reconciliation if it is configured and the summary is maintained
+     * @param employeeDAO DAO used to run the reconciliation
+     */
+    public static synchronized void startFromEnv(EmployeeDAO employeeDAO) {
+        long intervalSeconds = EnvLoader.getLongEnv("DEPARTMENT_STATS_RECONCILE_INTERVAL_S", 3600L);
+        if (intervalSeconds <= 0 || scheduler != null || !employeeDAO.isDepartmentStatsMaintained()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "department-stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            int corrected = employeeDAO.reconcileDepartmentStats();
+            Log.debug(() -> "Department statistics reconciled (" + corrected + " correction(s))");
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.employee;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Employee Model Class (POJO - Plain Old Java Object)
@@ -9,6 +12,19 @@ import java.sql.Timestamp;
  */
 public class Employee {
     
+    /**
+     * Columns an update can write; the setters record which ones changed
+     */
+    public enum Field {
+        NAME, EMAIL, DEPARTMENT, SALARY;
+        
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+    
+    static final int ALL_FIELDS = (1 << Field.values().length) - 1;
+    
     // Private fields
     private int id;
     private String name;
@@ -17,6 +33,12 @@ public class Employee {
     private BigDecimal salary;
     private Timestamp createdAt;
     
+    // Row version read from the database, used for optimistic locking
+    private int version;
+    
+    // Bit per Field changed since the employee was loaded; a new employee has every field dirty
+    private int dirtyFields = ALL_FIELDS;
+    
     // Default constructor
     public Employee() {
     }
@@ -48,6 +70,13 @@ public class Employee {
         this.createdAt = createdAt;
     }
     
+    // Copy constructor
+    public Employee(Employee other) {
+        this(other.id, other.name, other.email, other.department, other.salary, other.createdAt);
+        this.version = other.version;
+        this.dirtyFields = other.dirtyFields;
+    }
+    
     // Getter and Setter methods
     public int getId() {
         return id;
@@ -62,6 +91,7 @@ public class Employee {
     }
     
     public void setName(String name) {
+        markDirty(Field.NAME, !Objects.equals(this.name, name));
         this.name = name;
     }
     
@@ -70,6 +100,7 @@ public class Employee {
     }
     
     public void setEmail(String email) {
+        markDirty(Field.EMAIL, !Objects.equals(this.email, email));
         this.email = email;
     }
     
@@ -78,6 +109,7 @@ public class Employee {
     }
     
     public void setDepartment(String department) {
+        markDirty(Field.DEPARTMENT, !Objects.equals(this.department, department));
         this.department = department;
     }
     
@@ -86,6 +118,7 @@ public class Employee {
     }
     
     public void setSalary(BigDecimal salary) {
+        markDirty(Field.SALARY, !Objects.equals(this.salary, salary));
         this.salary = salary;
     }
     
@@ -97,12 +130,57 @@ public class Employee {
         this.createdAt = createdAt;
     }
     
+    /**
+     * @return Version of the row this employee was read from (0 for a new employee)
+     */
+    public int getVersion() {
+        return version;
+    }
+    
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    
+    /**
+     * @return Fields changed through the setters since the employee was loaded or last saved
+     */
+    public Set<Field> getDirtyFields() {
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        for (Field field : Field.values()) {
+            if ((dirtyFields & field.bit()) != 0) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+    
+    public boolean isDirty() {
+        return dirtyFields != 0;
+    }
+    
+    int getDirtyFieldMask() {
+        return dirtyFields;
+    }
+    
+    /**
+     * Forget the recorded changes; called by the DAO once the values match the row
+     */
+    void markClean() {
+        dirtyFields = 0;
+    }
+    
+    private void markDirty(Field field, boolean changed) {
+        if (changed) {
+            dirtyFields |= field.bit();
+        }
+    }
+    
     // toString method for easy display
     @Override
     public String toString() {
         return String.format(
-            "Employee{id=%d, name='%s', email='%s', department='%s', salary=%.2f, createdAt=%s}",
-            id, name, email, department, salary, createdAt
+            "Employee{id=%d, name='%s', email='%s', department='%s', salary=%.2f, createdAt=%s, version=%d}",
+            id, name, email, department, salary, createdAt, version
         );
     }
     
@@ -1,7 +1,11 @@
 package com.employee;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Scanner;
 
@@ -11,26 +15,89 @@ import java.util.Scanner;
  */
 public class EmployeeApp {
     
-    private static final EmployeeDAO employeeDAO = new EmployeeDAO();
+    // REPOSITORY_TYPE=memory keeps employees in this process only (no database)
+    private static final boolean inMemory = EmployeeRepository.Type.fromEnv() == EmployeeRepository.Type.MEMORY;
+    // The plain DAO serves the database-only features (department_stats reconciliation)
+    private static final EmployeeDAO databaseDAO = inMemory ? null : new EmployeeDAO();
+    private static final EmployeeRepository cachingDAO = CachingEmployeeDAO.wrapIfEnabled(
+        inMemory ? new InMemoryEmployeeRepository() : databaseDAO);
+    private static final EmployeeRepository employeeDAO = inMemory
+        ? cachingDAO : WriteBehindEmployeeDAO.wrapIfEnabled(cachingDAO);
     private static final Scanner scanner = new Scanner(System.in);
+    private static final int PAGE_SIZE = 20;
     
     public static void main(String[] args) {
         System.out.println("=================================================");
         System.out.println("    🏢 EMPLOYEE DATABASE MANAGEMENT SYSTEM 🏢");
         System.out.println("=================================================");
         
+        if (inMemory) {
+            System.out.println("🧪 In-memory repository (REPOSITORY_TYPE=memory): employees are lost on exit");
+        }
+        
         // Test database connection first
-        if (!DatabaseConnection.testConnection()) {
+        if (!inMemory && !DatabaseConnection.testConnection()) {
             System.out.println("❌ Failed to connect to database. Please check your configuration.");
             System.out.println("💡 Make sure MySQL is running and check database.properties file");
             return;
         }
         
+        DaoMetrics.startPeriodicDumpFromEnv();
+        
+        // Non-interactive schema check: EmployeeApp migrate
+        if (args.length == 1 && args[0].equalsIgnoreCase("migrate")) {
+            if (inMemory) {
+                System.out.println("🧪 Nothing to migrate: the in-memory repository has no schema");
+            } else {
+                migrateSchema();
+            }
+            shutdown();
+            return;
+        }
+        
+        // Bring the schema up to date (DB_MIGRATE_ON_STARTUP / DB_VERIFY_INDEXES)
+        if (!inMemory && !MigrationRunner.runFromEnv()) {
+            System.out.println("❌ Database schema is not usable. Run 'migrate' for details.");
+            shutdown();
+            return;
+        }
+        
+        // Non-interactive import: EmployeeApp import <file>
+        if (args.length == 2 && args[0].equalsIgnoreCase("import")) {
+            importEmployees(Paths.get(args[1]));
+            shutdown();
+            return;
+        }
+        
+        // Non-interactive export: EmployeeApp export <csv|jsonl|columnar> <path> [department|id-range]
+        if ((args.length == 3 || args.length == 4) && args[0].equalsIgnoreCase("export")) {
+            try {
+                EmployeeExporter.Partitioning partitioning = args.length == 4
+                    ? EmployeeExporter.Partitioning.valueOf(args[3].trim().toUpperCase().replace('-', '_'))
+                    : EmployeeExporter.Partitioning.NONE;
+                exportEmployees(EmployeeExporter.Format.fromName(args[1]), Paths.get(args[2]), partitioning);
+            } catch (IllegalArgumentException e) {
+                System.out.println("❌ " + e.getMessage());
+            }
+            shutdown();
+            return;
+        }
+        
+        // Keep the department_stats summary honest (DEPARTMENT_STATS_RECONCILE_INTERVAL_S)
+        if (!inMemory) {
+            DepartmentStatsReconciler.startFromEnv(databaseDAO);
+        }
+        
+        // Load names and emails for the search menu (SEARCH_INDEX_ENABLED)
+        if (EmployeeSearchIndex.isEnabled()) {
+            employeeDAO.buildSearchIndex();
+        }
+        
         boolean running = true;
         
         while (running) {
             displayMainMenu();
-            int choice = getIntInput("Enter your choice (1-8): ");
+            int choice = getIntInput("Enter your choice (1-11): ");
             
             switch (choice) {
                 case 1:
@@ -55,11 +122,20 @@ public class EmployeeApp {
                     showStatistics();
                     break;
                 case 8:
+                    importEmployeesFromFile();
+                    break;
+                case 9:
+                    exportEmployeesToFile();
+                    break;
+                case 10:
+                    searchByNameOrEmail();
+                    break;
+                case 11:
                     running = false;
                     System.out.println("👋 Thank you for using Employee Database System!");
                     break;
                 default:
-                    System.out.println("❌ Invalid choice! Please enter 1-8.");
+                    System.out.println("❌ Invalid choice! Please enter 1-11.");
             }
             
             if (running) {
@@ -69,6 +145,18 @@ public class EmployeeApp {
         }
         
         scanner.close();
+        shutdown();
+    }
+    
+    /**
+     * Write any queued updates, then close the connection pools
+     */
+    private static void shutdown() {
+        if (employeeDAO instanceof WriteBehindEmployeeDAO) {
+            ((WriteBehindEmployeeDAO) employeeDAO).close();
+        }
+        DepartmentStatsReconciler.stop();
+        DatabaseConnection.shutdown();
     }
     
     /**
@@ -85,7 +173,10 @@ public class EmployeeApp {
         System.out.println("5. 🗑️  Delete Employee");
         System.out.println("6. 🏢 Search by Department");
         System.out.println("7. 📊 View Statistics");
-        System.out.println("8. 🚪 Exit");
+        System.out.println("8. 📥 Import Employees from File");
+        System.out.println("9. 📤 Export Employees to File");
+        System.out.println("10. 🔎 Search by Name or Email");
+        System.out.println("11. 🚪 Exit");
         System.out.println("=".repeat(50));
     }
     
@@ -108,17 +199,11 @@ public class EmployeeApp {
             System.out.print("Enter employee email: ");
             String email = scanner.nextLine().trim();
             
-            if (email.isEmpty() || !isValidEmail(email)) {
+            if (email.isEmpty() || !EmployeeValidator.isValidEmail(email)) {
                 System.out.println("❌ Please enter a valid email!");
                 return;
             }
             
-            // Check if email already exists
-            if (employeeDAO.employeeExistsByEmail(email)) {
-                System.out.println("❌ Employee with this email already exists!");
-                return;
-            }
-            
             System.out.print("Enter department: ");
             String department = scanner.nextLine().trim();
             
@@ -127,14 +212,20 @@ public class EmployeeApp {
                 return;
             }
             
+            if (department.length() > DepartmentDictionary.MAX_NAME_LENGTH) {
+                System.out.println("❌ Department cannot be longer than " + DepartmentDictionary.MAX_NAME_LENGTH + " characters!");
+                return;
+            }
+            
             BigDecimal salary = getBigDecimalInput("Enter salary: $");
             
-            if (salary.compareTo(BigDecimal.ZERO) <= 0) {
+            if (!EmployeeValidator.isValidSalary(salary)) {
                 System.out.println("❌ Salary must be greater than 0!");
                 return;
             }
             
-            // Create new employee
+            // Create new employee; the unique email key rejects duplicates atomically,
+            // so there is no separate existence check that another client could race
             Employee employee = new Employee(name, email, department, salary);
             
             if (employeeDAO.createEmployee(employee)) {
@@ -150,24 +241,42 @@ public class EmployeeApp {
     }
     
     /**
-     * View all employees in the database
+     * View all employees in the database, one page at a time
      */
     private static void viewAllEmployees() {
         System.out.println("\n📋 ALL EMPLOYEES");
         System.out.println("-".repeat(50));
         
-        List<Employee> employees = employeeDAO.getAllEmployees();
+        int cursor = 0;
+        int shown = 0;
         
-        if (employees.isEmpty()) {
-            System.out.println("📭 No employees found in the database.");
-        } else {
-            System.out.println("Found " + employees.size() + " employee(s):\n");
-            System.out.println("-".repeat(100));
+        while (true) {
+            EmployeePage page = employeeDAO.getEmployeesPage(cursor, PAGE_SIZE);
             
-            for (Employee employee : employees) {
+            if (page.isEmpty()) {
+                if (shown == 0) {
+                    System.out.println("📭 No employees found in the database.");
+                }
+                return;
+            }
+            
+            System.out.println("-".repeat(100));
+            for (Employee employee : page.getEmployees()) {
                 System.out.println(employee.toDisplayString());
             }
             System.out.println("-".repeat(100));
+            shown += page.getEmployees().size();
+            cursor = page.getNextCursor();
+            
+            if (!page.hasMore()) {
+                System.out.println("Showing " + shown + " employee(s).");
+                return;
+            }
+            
+            System.out.print("Shown " + shown + " employee(s). Press Enter for more, or 'q' to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
         }
     }
     
@@ -225,7 +334,7 @@ public class EmployeeApp {
         System.out.print("New email [" + employee.getEmail() + "]: ");
         String newEmail = scanner.nextLine().trim();
         if (!newEmail.isEmpty()) {
-            if (!isValidEmail(newEmail)) {
+            if (!EmployeeValidator.isValidEmail(newEmail)) {
                 System.out.println("❌ Invalid email format!");
                 return;
             }
@@ -245,7 +354,7 @@ public class EmployeeApp {
         if (!salaryInput.isEmpty()) {
             try {
                 BigDecimal newSalary = new BigDecimal(salaryInput);
-                if (newSalary.compareTo(BigDecimal.ZERO) <= 0) {
+                if (!EmployeeValidator.isValidSalary(newSalary)) {
                     System.out.println("❌ Salary must be greater than 0!");
                     return;
                 }
@@ -256,14 +365,37 @@ public class EmployeeApp {
             }
         }
         
-        if (employeeDAO.updateEmployee(employee)) {
-            System.out.println("🎉 Employee updated successfully!");
-            System.out.println("👤 " + employee.toDisplayString());
-        } else {
-            System.out.println("❌ Failed to update employee!");
+        // Only the changed fields are written, and only if nobody changed the employee meanwhile
+        VersionedWriteResult result = employeeDAO.tryUpdateEmployee(employee);
+        switch (result.getStatus()) {
+            case APPLIED:
+                System.out.println("🎉 Employee updated successfully!");
+                System.out.println("👤 " + employee.toDisplayString());
+                break;
+            case UNCHANGED:
+                System.out.println("ℹ️  Nothing changed.");
+                break;
+            case CONFLICT:
+                printConflict(result, "update");
+                break;
+            case NOT_FOUND:
+                System.out.println("❌ Employee no longer exists!");
+                break;
+            default:
+                System.out.println("❌ Failed to update employee!");
         }
     }
     
+    /**
+     * Tell the user their edit was based on an outdated copy and show the current one
+     */
+    private static void printConflict(VersionedWriteResult result, String action) {
+        System.out.println("⚠️  Someone else changed this employee while you were editing; your " + action + " was not applied.");
+        System.out.println("Current employee details:");
+        System.out.println(result.getCurrent().toDisplayString());
+        System.out.println("Please try again.");
+    }
+    
     /**
      * Delete an employee from the database
      */
@@ -285,8 +417,11 @@ public class EmployeeApp {
         String confirmation = scanner.nextLine().trim().toLowerCase();
         
         if (confirmation.equals("yes") || confirmation.equals("y")) {
-            if (employeeDAO.deleteEmployee(id)) {
+            VersionedWriteResult result = employeeDAO.tryDeleteEmployee(id, employee.getVersion());
+            if (result.getStatus() == VersionedWriteResult.Status.APPLIED) {
                 System.out.println("🗑️ Employee deleted successfully!");
+            } else if (result.isConflict()) {
+                printConflict(result, "delete");
             } else {
                 System.out.println("❌ Failed to delete employee!");
             }
@@ -326,42 +461,206 @@ public class EmployeeApp {
     }
     
     /**
-     * Show database statistics
+     * Find employees by name or email prefix (typos tolerated)
+     */
+    private static void searchByNameOrEmail() {
+        System.out.println("\n🔎 SEARCH BY NAME OR EMAIL");
+        System.out.println("-".repeat(30));
+        
+        System.out.print("Enter name or email (start of words is enough): ");
+        String query = scanner.nextLine().trim();
+        
+        if (query.isEmpty()) {
+            System.out.println("❌ Search text cannot be empty!");
+            return;
+        }
+        
+        List<Employee> employees = employeeDAO.searchEmployees(query, PAGE_SIZE);
+        
+        if (employees.isEmpty()) {
+            System.out.println("📭 No employees match '" + query + "'.");
+        } else {
+            System.out.println("\n✅ Best matches for '" + query + "':");
+            System.out.println("-".repeat(100));
+            
+            for (Employee employee : employees) {
+                System.out.println(employee.toDisplayString());
+            }
+            System.out.println("-".repeat(100));
+        }
+    }
+    
+    /**
+     * Show database statistics (aggregated by the database, not in Java)
      */
     private static void showStatistics() {
         System.out.println("\n📊 DATABASE STATISTICS");
         System.out.println("-".repeat(30));
         
-        int totalEmployees = employeeDAO.getEmployeeCount();
-        System.out.println("👥 Total Employees: " + totalEmployees);
+        SalaryStatistics statistics = employeeDAO.getSalaryStatistics();
+        System.out.println("👥 Total Employees: " + statistics.getEmployeeCount());
         
-        if (totalEmployees > 0) {
-            List<Employee> allEmployees = employeeDAO.getAllEmployees();
+        if (!statistics.isEmpty()) {
+            System.out.println("💰 Average Salary: $" + String.format("%,.2f", statistics.getAverageSalary()));
+            System.out.println("📈 Highest Salary: $" + String.format("%,.2f", statistics.getMaxSalary()));
+            System.out.println("📉 Lowest Salary: $" + String.format("%,.2f", statistics.getMinSalary()));
             
-            // Calculate average salary
-            BigDecimal totalSalary = BigDecimal.ZERO;
-            for (Employee emp : allEmployees) {
-                totalSalary = totalSalary.add(emp.getSalary());
+            System.out.println("\n🏢 By Department:");
+            System.out.println("-".repeat(100));
+            for (SalaryStatistics department : employeeDAO.getSalaryStatisticsByDepartment()) {
+                System.out.println(department.toDisplayString());
             }
-            BigDecimal avgSalary = totalSalary.divide(BigDecimal.valueOf(totalEmployees), 2, RoundingMode.HALF_UP);
-            
-            System.out.println("💰 Average Salary: $" + String.format("%,.2f", avgSalary));
-            
-            // Find highest and lowest salary
-            BigDecimal maxSalary = allEmployees.get(0).getSalary();
-            BigDecimal minSalary = allEmployees.get(0).getSalary();
-            
-            for (Employee emp : allEmployees) {
-                if (emp.getSalary().compareTo(maxSalary) > 0) {
-                    maxSalary = emp.getSalary();
-                }
-                if (emp.getSalary().compareTo(minSalary) < 0) {
-                    minSalary = emp.getSalary();
+            System.out.println("-".repeat(100));
+        }
+        
+        if (inMemory) {
+            System.out.println("\n🧪 In-memory repository: no database connections");
+        } else {
+            try {
+                ConnectionPool pool = DatabaseConnection.getPool();
+                System.out.println("\n🔌 Connection Pool: " + pool.getActiveConnections() + " active, "
+                    + pool.getIdleConnections() + " idle, " + pool.getTotalConnections() + "/" + pool.getMaxSize() + " open");
+                System.out.println("📝 Statements: " + pool.getStatementPrepareCount() + " prepared, "
+                    + pool.getStatementReuseCount() + " reused"
+                    + (pool.getStatementCacheSize() == 0 ? " (pool cache off, driver-side caching only)" : ""));
+                ReplicaRouter replicas = DatabaseConnection.getReplicaRouter();
+                if (replicas != null) {
+                    System.out.println("📚 Read Replicas (" + replicas.getBalancing() + "):");
+                    for (String replica : replicas.describeReplicas()) {
+                        System.out.println("   " + replica);
+                    }
                 }
+            } catch (SQLException e) {
+                System.out.println("❌ Connection pool unavailable: " + e.getMessage());
             }
-            
-            System.out.println("📈 Highest Salary: $" + String.format("%,.2f", maxSalary));
-            System.out.println("📉 Lowest Salary: $" + String.format("%,.2f", minSalary));
+        }
+        
+        System.out.println("\n📈 DAO Metrics:");
+        System.out.println(DaoMetrics.dump());
+        
+        if (cachingDAO instanceof CachingEmployeeDAO) {
+            System.out.println("\n🗃️  Cache:");
+            System.out.println(((CachingEmployeeDAO) cachingDAO).getCacheStatistics());
+        }
+        
+        if (employeeDAO instanceof WriteBehindEmployeeDAO) {
+            System.out.println("\n✍️  Write-behind queue:");
+            System.out.println(((WriteBehindEmployeeDAO) employeeDAO).getStatistics());
+        }
+    }
+    
+    /**
+     * Bulk import employees from a CSV or JSON-lines file
+     */
+    private static void importEmployeesFromFile() {
+        System.out.println("\n📥 IMPORT EMPLOYEES");
+        System.out.println("-".repeat(30));
+        
+        System.out.print("Enter path to CSV or JSON-lines file: ");
+        String input = scanner.nextLine().trim();
+        
+        if (input.isEmpty()) {
+            System.out.println("❌ File path cannot be empty!");
+            return;
+        }
+        
+        importEmployees(Paths.get(input));
+    }
+    
+    /**
+     * Apply pending migrations and print the index check
+     */
+    private static void migrateSchema() {
+        try {
+            MigrationRunner runner = new MigrationRunner();
+            int applied = runner.migrate();
+            System.out.println("🗄️  Schema version " + runner.getCurrentVersion() + " (" + applied + " migration(s) applied)");
+            for (MigrationRunner.IndexCheck check : runner.verifyIndexes()) {
+                System.out.println((check.isIndexUsed() ? "✅ " : "⚠️  ") + check);
+            }
+        } catch (SQLException | IllegalStateException e) {
+            System.out.println("❌ Migration failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Run the import pipeline and print its report
+     */
+    private static void importEmployees(Path path) {
+        if (!Files.isRegularFile(path)) {
+            System.out.println("❌ File not found: " + path);
+            return;
+        }
+        
+        try {
+            ImportReport report = new EmployeeImporter(employeeDAO).importFile(path);
+            System.out.println(report.isFullySuccessful() ? "🎉 Import completed!" : "⚠️  Import completed with problems:");
+            System.out.println(report.toDisplayString());
+            for (String sample : report.getSamples()) {
+                System.out.println("   • " + sample);
+            }
+        } catch (IOException e) {
+            System.out.println("❌ Error importing file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Export employees to CSV, JSON lines or the columnar format
+     */
+    private static void exportEmployeesToFile() {
+        System.out.println("\n📤 EXPORT EMPLOYEES");
+        System.out.println("-".repeat(30));
+        
+        EmployeeExporter.Format format;
+        System.out.print("Format (csv/jsonl/columnar) [csv]: ");
+        String formatInput = scanner.nextLine().trim();
+        try {
+            format = formatInput.isEmpty() ? EmployeeExporter.Format.CSV : EmployeeExporter.Format.fromName(formatInput);
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ " + e.getMessage());
+            return;
+        }
+        
+        System.out.print("Split by (none/department/id-range) [none]: ");
+        String splitInput = scanner.nextLine().trim().toLowerCase();
+        EmployeeExporter.Partitioning partitioning;
+        if (splitInput.isEmpty() || splitInput.equals("none")) {
+            partitioning = EmployeeExporter.Partitioning.NONE;
+        } else if (splitInput.equals("department")) {
+            partitioning = EmployeeExporter.Partitioning.DEPARTMENT;
+        } else if (splitInput.equals("id-range")) {
+            partitioning = EmployeeExporter.Partitioning.ID_RANGE;
+        } else {
+            System.out.println("❌ Please enter none, department or id-range!");
+            return;
+        }
+        
+        System.out.print(partitioning == EmployeeExporter.Partitioning.NONE
+            ? "Enter output file: " : "Enter output directory: ");
+        String target = scanner.nextLine().trim();
+        
+        if (target.isEmpty()) {
+            System.out.println("❌ Path cannot be empty!");
+            return;
+        }
+        
+        exportEmployees(format, Paths.get(target), partitioning);
+    }
+    
+    /**
+     * Run the exporter and print its report
+     */
+    private static void exportEmployees(EmployeeExporter.Format format, Path target,
+                                        EmployeeExporter.Partitioning partitioning) {
+        try {
+            EmployeeExporter exporter = new EmployeeExporter(employeeDAO);
+            ExportReport report = partitioning == EmployeeExporter.Partitioning.NONE
+                ? exporter.exportTo(target, format)
+                : exporter.exportPartitioned(target, format, partitioning, EnvLoader.getIntEnv("EXPORT_ID_RANGES", 4));
+            System.out.println("🎉 Export completed!");
+            System.out.println(report.toDisplayString());
+        } catch (IOException e) {
+            System.out.println("❌ Error exporting employees: " + e.getMessage());
         }
     }
     
@@ -394,11 +693,4 @@ public class EmployeeApp {
             }
         }
     }
-    
-    /**
-     * Simple email validation
-     */
-    private static boolean isValidEmail(String email) {
-        return email.contains("@") && email.contains(".") && email.length() > 5;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.employee;
+
+import java.sql.Timestamp;
+
+/**
+ * Employee Change
+ * One entry of the employee change feed: an employee that was inserted,
+ * updated or deleted, with the feed version of its latest change. Entries
+ * carry the employee's current row rather than a copy taken at change
+ * time, so applying them in order converges on the table's current state.
+ */
+public class EmployeeChange {
+
+    /**
+     * Kind of the latest change recorded for the employee
+     */
+    public enum Operation {
+        INSERT('I'),
+        UPDATE('U'),
+        /** Tombstone: the employee no longer exists */
+        DELETE('D');
+
+        private final char code;
+
+        Operation(char code) {
+            this.code = code;
+        }
+
+        /**
+         * @param code Value of employee_changes.operation
+         */
+        static Operation fromCode(String code) {
+            for (Operation operation : values()) {
+                if (code != null && code.length() == 1 && code.charAt(0) == operation.code) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown change operation '" + code + "'");
+        }
+    }
+
+    private final long version;
+    private final int employeeId;
+    private final Operation operation;
+    private final Timestamp changedAt;
+    private final Employee employee;
+
+    public EmployeeChange(long version, int employeeId, Operation operation, Timestamp changedAt, Employee employee) {
+        this.version = version;
+        this.employeeId = employeeId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+        this.employee = employee;
+    }
+
+    /**
+     * @return Feed position of this change; a later change always has a higher version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getEmployeeId() {
+        return employeeId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Timestamp getChangedAt() {
+        return changedAt;
+    }
+
+    /**
+     * @return Current row of the employee, or null for a deletion
+     */
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public boolean isDeleted() {
+        return operation == Operation.DELETE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EmployeeChange{version=%d, employeeId=%d, operation=%s, changedAt=%s}",
+            version, employeeId, operation, changedAt);
+    }
+}
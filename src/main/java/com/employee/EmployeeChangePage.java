@@ -0,0 +1,47 @@
+package com.employee;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Employee Change Page
+ * One batch of the employee change feed plus the cursor needed to fetch
+ * the next batch.
+ */
+public class EmployeeChangePage {
+
+    private final List<EmployeeChange> changes;
+    private final long nextCursor;
+    private final boolean hasMore;
+
+    public EmployeeChangePage(List<EmployeeChange> changes, long nextCursor, boolean hasMore) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * @return Changed employees in version order, at most one entry per employee
+     */
+    public List<EmployeeChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return Cursor to store as the checkpoint and pass to the next getChangesSince call
+     */
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true if more changes were already available after this batch
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
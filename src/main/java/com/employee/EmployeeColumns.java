@@ -0,0 +1,394 @@
+package com.employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Employee Columns
+ * Compact, read-only result of a large employee read. Each column is held
+ * in one primitive array instead of one Employee object per row:
+ *
+ * <pre>
+ * id          int[]
+ * salary      long[] in cents
+ * created_at  long[] epoch milliseconds ({@link #NO_TIMESTAMP} for null)
+ * department  int[] index into a small per-container list of canonical names
+ * name, email offsets into one shared char[] (name of row i, then its email)
+ * </pre>
+ *
+ * Rows are addressed by index (0 to size() - 1). Filtering and the salary
+ * aggregates work on the arrays directly. Only {@link #toEmployee(int)},
+ * {@link #getName(int)} and {@link #getEmail(int)} create objects.
+ */
+public final class EmployeeColumns {
+
+    /**
+     * created_at value stored for rows without a timestamp
+     */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final int size;
+    private final int[] ids;
+    private final long[] salaryCents;
+    private final long[] createdAtMillis;
+    private final int[] departmentCodes;
+    private final List<String> departments;
+    private final char[] text;
+    private final int[] textOffsets;
+
+    private EmployeeColumns(int size, int[] ids, long[] salaryCents, long[] createdAtMillis,
+                            int[] departmentCodes, List<String> departments, char[] text, int[] textOffsets) {
+        this.size = size;
+        this.ids = ids;
+        this.salaryCents = salaryCents;
+        this.createdAtMillis = createdAtMillis;
+        this.departmentCodes = departmentCodes;
+        this.departments = departments;
+        this.text = text;
+        this.textOffsets = textOffsets;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getId(int row) {
+        return ids[checkRow(row)];
+    }
+
+    public long getSalaryCents(int row) {
+        return salaryCents[checkRow(row)];
+    }
+
+    public BigDecimal getSalary(int row) {
+        return BigDecimal.valueOf(getSalaryCents(row), 2);
+    }
+
+    /**
+     * @return created_at in epoch milliseconds, or {@link #NO_TIMESTAMP}
+     */
+    public long getCreatedAtMillis(int row) {
+        return createdAtMillis[checkRow(row)];
+    }
+
+    /**
+     * @return Index of the row's department in {@link #getDepartments()}
+     */
+    public int getDepartmentCode(int row) {
+        return departmentCodes[checkRow(row)];
+    }
+
+    /**
+     * @return Canonical department name (shared, not a copy)
+     */
+    public String getDepartment(int row) {
+        return departments.get(getDepartmentCode(row));
+    }
+
+    public String getName(int row) {
+        int start = textOffsets[2 * checkRow(row)];
+        return new String(text, start, textOffsets[2 * row + 1] - start);
+    }
+
+    public String getEmail(int row) {
+        int start = textOffsets[2 * checkRow(row) + 1];
+        return new String(text, start, textOffsets[2 * row + 2] - start);
+    }
+
+    /**
+     * @return Departments present in this container, indexed by department code
+     */
+    public List<String> getDepartments() {
+        return departments;
+    }
+
+    /**
+     * @param department Department name (any case)
+     * @return Its department code, or -1 if no row has that department
+     */
+    public int departmentCode(String department) {
+        if (department != null) {
+            String trimmed = department.trim();
+            for (int code = 0; code < departments.size(); code++) {
+                if (departments.get(code).equalsIgnoreCase(trimmed)) {
+                    return code;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Materialize one row
+     * @param row Row index
+     * @return New Employee holding the row's values
+     */
+    public Employee toEmployee(int row) {
+        long createdAt = getCreatedAtMillis(row);
+        return new Employee(ids[row], getName(row), getEmail(row), getDepartment(row), getSalary(row),
+            createdAt == NO_TIMESTAMP ? null : new Timestamp(createdAt));
+    }
+
+    /**
+     * Materialize every row in order, one Employee at a time
+     * @param action Callback invoked once per row
+     */
+    public void forEachEmployee(Consumer<Employee> action) {
+        for (int row = 0; row < size; row++) {
+            action.accept(toEmployee(row));
+        }
+    }
+
+    /**
+     * @param predicate Test on a row index, e.g. {@code row -> columns.getSalaryCents(row) > 5_000_000}
+     * @return Indexes of the matching rows, in order
+     */
+    public int[] rowsWhere(IntPredicate predicate) {
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (predicate.test(row)) {
+                rows[count++] = row;
+            }
+        }
+        return count == size ? rows : Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Copy the matching rows into a new container. The department list is
+     * shared; names and emails are copied as characters, not Strings.
+     * @param predicate Test on a row index of this container
+     * @return Container holding only the matching rows
+     */
+    public EmployeeColumns filter(IntPredicate predicate) {
+        int[] rows = rowsWhere(predicate);
+        int count = rows.length;
+        int[] newIds = new int[count];
+        long[] newSalaries = new long[count];
+        long[] newCreatedAt = new long[count];
+        int[] newCodes = new int[count];
+        int[] newOffsets = new int[2 * count + 1];
+
+        int length = 0;
+        for (int row : rows) {
+            length += textOffsets[2 * row + 2] - textOffsets[2 * row];
+        }
+        char[] newText = new char[length];
+
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            newIds[i] = ids[row];
+            newSalaries[i] = salaryCents[row];
+            newCreatedAt[i] = createdAtMillis[row];
+            newCodes[i] = departmentCodes[row];
+
+            int start = textOffsets[2 * row];
+            int emailStart = textOffsets[2 * row + 1];
+            int end = textOffsets[2 * row + 2];
+            System.arraycopy(text, start, newText, position, end - start);
+            newOffsets[2 * i] = position;
+            newOffsets[2 * i + 1] = position + (emailStart - start);
+            position += end - start;
+            newOffsets[2 * i + 2] = position;
+        }
+        return new EmployeeColumns(count, newIds, newSalaries, newCreatedAt, newCodes, departments, newText, newOffsets);
+    }
+
+    /**
+     * @param department Department name (any case)
+     * @return Test selecting the rows of one department (none if unknown)
+     */
+    public IntPredicate inDepartment(String department) {
+        int code = departmentCode(department);
+        return row -> departmentCodes[row] == code;
+    }
+
+    /**
+     * @return Sum of every salary, in cents
+     */
+    public long getTotalSalaryCents() {
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            total += salaryCents[row];
+        }
+        return total;
+    }
+
+    /**
+     * @return Headcount and salary aggregates over every row
+     */
+    public SalaryStatistics getSalaryStatistics() {
+        if (size == 0) {
+            return new SalaryStatistics(null, 0, null, null, null, null);
+        }
+        long total = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int row = 0; row < size; row++) {
+            long salary = salaryCents[row];
+            total += salary;
+            min = Math.min(min, salary);
+            max = Math.max(max, salary);
+        }
+        return statistics(null, size, total, min, max);
+    }
+
+    /**
+     * One pass over the department and salary columns
+     * @return Aggregates per department, sorted by department name
+     */
+    public List<SalaryStatistics> getSalaryStatisticsByDepartment() {
+        int departmentCount = departments.size();
+        long[] counts = new long[departmentCount];
+        long[] totals = new long[departmentCount];
+        long[] mins = new long[departmentCount];
+        long[] maxes = new long[departmentCount];
+        Arrays.fill(mins, Long.MAX_VALUE);
+        Arrays.fill(maxes, Long.MIN_VALUE);
+
+        for (int row = 0; row < size; row++) {
+            int code = departmentCodes[row];
+            long salary = salaryCents[row];
+            counts[code]++;
+            totals[code] += salary;
+            mins[code] = Math.min(mins[code], salary);
+            maxes[code] = Math.max(maxes[code], salary);
+        }
+
+        List<SalaryStatistics> statistics = new ArrayList<>();
+        for (int code = 0; code < departmentCount; code++) {
+            if (counts[code] > 0) {
+                statistics.add(statistics(departments.get(code), counts[code], totals[code], mins[code], maxes[code]));
+            }
+        }
+        statistics.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.getDepartment(), b.getDepartment()));
+        return statistics;
+    }
+
+    static SalaryStatistics statistics(String department, long count, long total, long min, long max) {
+        BigDecimal totalSalary = BigDecimal.valueOf(total, 2);
+        BigDecimal average = totalSalary.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        return new SalaryStatistics(department, count, totalSalary, average,
+            BigDecimal.valueOf(min, 2), BigDecimal.valueOf(max, 2));
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range for size " + size);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EmployeeColumns{rows=%d, departments=%d, textChars=%d}",
+            size, departments.size(), textOffsets[2 * size]);
+    }
+
+    /**
+     * Appends rows while a result set is read; arrays grow by half when full
+     */
+    static final class Builder {
+
+        private int size;
+        private int[] ids;
+        private long[] salaryCents;
+        private long[] createdAtMillis;
+        private int[] departmentCodes;
+        private int[] textOffsets;
+        private char[] text;
+        private int textLength;
+
+        // Department code per database department_id (-1 = not seen yet)
+        private int[] codesByDepartmentId = new int[0];
+        private final List<String> departments = new ArrayList<>();
+
+        Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            ids = new int[capacity];
+            salaryCents = new long[capacity];
+            createdAtMillis = new long[capacity];
+            departmentCodes = new int[capacity];
+            textOffsets = new int[2 * capacity + 1];
+            text = new char[capacity * 32];
+        }
+
+        /**
+         * @param departmentId department_id of the row
+         * @param departmentName Canonical name; only used the first time a department_id is seen
+         */
+        void add(int id, String name, String email, int departmentId, String departmentName,
+                 long salaryInCents, long createdAt) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                salaryCents = Arrays.copyOf(salaryCents, capacity);
+                createdAtMillis = Arrays.copyOf(createdAtMillis, capacity);
+                departmentCodes = Arrays.copyOf(departmentCodes, capacity);
+                textOffsets = Arrays.copyOf(textOffsets, 2 * capacity + 1);
+            }
+            ids[size] = id;
+            salaryCents[size] = salaryInCents;
+            createdAtMillis[size] = createdAt;
+            departmentCodes[size] = departmentCode(departmentId, departmentName);
+            appendText(name);
+            textOffsets[2 * size + 1] = textLength;
+            appendText(email);
+            textOffsets[2 * size + 2] = textLength;
+            size++;
+        }
+
+        /**
+         * @return true if rows of this department_id were already added
+         */
+        boolean hasDepartment(int departmentId) {
+            return departmentId >= 0 && departmentId < codesByDepartmentId.length
+                && codesByDepartmentId[departmentId] >= 0;
+        }
+
+        EmployeeColumns build() {
+            return new EmployeeColumns(size, Arrays.copyOf(ids, size), Arrays.copyOf(salaryCents, size),
+                Arrays.copyOf(createdAtMillis, size), Arrays.copyOf(departmentCodes, size),
+                Collections.unmodifiableList(new ArrayList<>(departments)),
+                Arrays.copyOf(text, textLength), Arrays.copyOf(textOffsets, 2 * size + 1));
+        }
+
+        private int departmentCode(int departmentId, String departmentName) {
+            if (departmentId >= codesByDepartmentId.length) {
+                int oldLength = codesByDepartmentId.length;
+                codesByDepartmentId = Arrays.copyOf(codesByDepartmentId, Math.max(departmentId + 1, 2 * oldLength));
+                Arrays.fill(codesByDepartmentId, oldLength, codesByDepartmentId.length, -1);
+            }
+            int code = codesByDepartmentId[departmentId];
+            if (code < 0) {
+                code = departments.size();
+                departments.add(departmentName);
+                codesByDepartmentId[departmentId] = code;
+            }
+            return code;
+        }
+
+        private void appendText(String value) {
+            int length = value != null ? value.length() : 0;
+            if (textLength + length > text.length) {
+                text = Arrays.copyOf(text, Math.max(textLength + length, text.length + (text.length >> 1)));
+            }
+            if (length > 0) {
+                value.getChars(0, length, text, textLength);
+                textLength += length;
+            }
+        }
+    }
+}
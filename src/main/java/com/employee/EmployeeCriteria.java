@@ -0,0 +1,142 @@
+package com.employee;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Employee Criteria
+ * Row filter for the set-based bulk operations, translated into a single
+ * SQL WHERE clause. Every condition is optional and they are combined with
+ * AND; each with...() call returns a new criteria, so instances can be
+ * shared.
+ *
+ * <pre>
+ *     EmployeeCriteria.inDepartment("Finance").withSalaryBelow(new BigDecimal("50000"))
+ * </pre>
+ */
+public final class EmployeeCriteria {
+
+    private static final EmployeeCriteria ALL = new EmployeeCriteria(null, null, null, null, null);
+
+    private final String department;
+    private final BigDecimal minSalary;
+    private final BigDecimal maxSalary;
+    private final Timestamp createdFrom;
+    private final Timestamp createdBefore;
+
+    private EmployeeCriteria(String department, BigDecimal minSalary, BigDecimal maxSalary,
+                             Timestamp createdFrom, Timestamp createdBefore) {
+        this.department = department;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.createdFrom = createdFrom;
+        this.createdBefore = createdBefore;
+    }
+
+    /**
+     * @return Criteria matching every employee
+     */
+    public static EmployeeCriteria all() {
+        return ALL;
+    }
+
+    /**
+     * @param department Exact department name
+     * @return Criteria matching one department
+     */
+    public static EmployeeCriteria inDepartment(String department) {
+        return ALL.withDepartment(department);
+    }
+
+    public EmployeeCriteria withDepartment(String department) {
+        return new EmployeeCriteria(department, minSalary, maxSalary, createdFrom, createdBefore);
+    }
+
+    /**
+     * @param minSalary Lowest salary included
+     */
+    public EmployeeCriteria withSalaryAtLeast(BigDecimal minSalary) {
+        return new EmployeeCriteria(department, minSalary, maxSalary, createdFrom, createdBefore);
+    }
+
+    /**
+     * @param maxSalary First salary excluded
+     */
+    public EmployeeCriteria withSalaryBelow(BigDecimal maxSalary) {
+        return new EmployeeCriteria(department, minSalary, maxSalary, createdFrom, createdBefore);
+    }
+
+    /**
+     * @param createdFrom Earliest created_at included
+     */
+    public EmployeeCriteria withCreatedFrom(Timestamp createdFrom) {
+        return new EmployeeCriteria(department, minSalary, maxSalary, createdFrom, createdBefore);
+    }
+
+    /**
+     * @param createdBefore First created_at excluded
+     */
+    public EmployeeCriteria withCreatedBefore(Timestamp createdBefore) {
+        return new EmployeeCriteria(department, minSalary, maxSalary, createdFrom, createdBefore);
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    /**
+     * Build the WHERE clause and collect its parameters. The department is
+     * compared by department_id; an unknown department matches nothing.
+     * @param parameters Receives one value per '?' in the returned clause, in order
+     * @return Clause starting with " WHERE " (" WHERE 1 = 1" when nothing is filtered)
+     * @throws SQLException if the departments cannot be loaded
+     */
+    String appendWhereClause(List<Object> parameters) throws SQLException {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (department != null) {
+            Integer departmentId = DepartmentDictionary.getInstance().findId(department);
+            where.append(" AND department_id = ?");
+            parameters.add(departmentId != null ? departmentId : -1);
+        }
+        if (minSalary != null) {
+            where.append(" AND salary >= ?");
+            parameters.add(minSalary);
+        }
+        if (maxSalary != null) {
+            where.append(" AND salary < ?");
+            parameters.add(maxSalary);
+        }
+        if (createdFrom != null) {
+            where.append(" AND created_at >= ?");
+            parameters.add(createdFrom);
+        }
+        if (createdBefore != null) {
+            where.append(" AND created_at < ?");
+            parameters.add(createdBefore);
+        }
+        return where.toString();
+    }
+
+    /**
+     * Evaluate the salary and created_at conditions on one row, for storage
+     * without SQL. The department is not checked here: callers select the
+     * department's rows first.
+     * @param salary Row salary
+     * @param createdAtMillis Row created_at in epoch milliseconds
+     * @return true if the row passes every salary and created_at condition
+     */
+    boolean matches(BigDecimal salary, long createdAtMillis) {
+        return (minSalary == null || salary.compareTo(minSalary) >= 0)
+            && (maxSalary == null || salary.compareTo(maxSalary) < 0)
+            && (createdFrom == null || createdAtMillis >= createdFrom.getTime())
+            && (createdBefore == null || createdAtMillis < createdBefore.getTime());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EmployeeCriteria{department=%s, salary=[%s, %s), createdAt=[%s, %s)}",
+            department, minSalary, maxSalary, createdFrom, createdBefore);
+    }
+}
@@ -1,51 +1,201 @@
 package com.employee;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Employee Data Access Object (DAO)
- * Handles all database operations for Employee entity using JDBC
+ * Handles all database operations for Employee entity using JDBC.
+ * Every public operation records its latency, row count and errors in
+ * {@link DaoMetrics} under the method name.
  */
-public class EmployeeDAO {
+public class EmployeeDAO implements EmployeeRepository {
+    
+    // Maps department_id to canonical name strings and back
+    private final DepartmentDictionary departments = DepartmentDictionary.getInstance();
+    
+    // Name / email search index, kept current by every write below
+    private final EmployeeSearchIndex searchIndex = EmployeeSearchIndex.getInstance();
     
     // SQL Queries as constants
     private static final String INSERT_EMPLOYEE = 
-        "INSERT INTO employees (name, email, department, salary) VALUES (?, ?, ?, ?)";
+        "INSERT INTO employees (name, email, department_id, salary) VALUES (?, ?, ?, ?)";
     
     private static final String SELECT_ALL_EMPLOYEES = 
-        "SELECT id, name, email, department, salary, created_at FROM employees ORDER BY id";
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees ORDER BY id";
+    
+    private static final String SELECT_EMPLOYEES_PAGE = 
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees WHERE id > ? ORDER BY id LIMIT ?";
+    
+    private static final String SELECT_EMPLOYEES_IN_ID_RANGE = 
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees WHERE id >= ? AND id < ? ORDER BY id";
+    
+    // Change feed (migration V5): each change with the employee's current row, or no row once deleted.
+    // The settle cutoff uses the server's clock, the same one that stamped changed_at
+    private static final String SELECT_EMPLOYEE_CHANGES = 
+        "SELECT c.change_id, c.employee_id, c.operation, c.changed_at, " +
+        "e.id, e.name, e.email, e.department_id, e.salary, e.created_at, e.version " +
+        "FROM employee_changes c LEFT JOIN employees e ON e.id = c.employee_id " +
+        "WHERE c.change_id > ? AND c.changed_at < TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)) " +
+        "ORDER BY c.change_id LIMIT ?";
+    
+    // MySQL: also stop before the start of the oldest transaction that has written anything,
+    // since it may still commit change IDs below the ones already visible (needs PROCESS)
+    private static final String SELECT_EMPLOYEE_CHANGES_BEFORE_OPEN_TRANSACTIONS = 
+        "SELECT c.change_id, c.employee_id, c.operation, c.changed_at, " +
+        "e.id, e.name, e.email, e.department_id, e.salary, e.created_at, e.version " +
+        "FROM employee_changes c LEFT JOIN employees e ON e.id = c.employee_id " +
+        "WHERE c.change_id > ? AND c.changed_at < TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)) " +
+        "AND c.changed_at < COALESCE((SELECT MIN(t.trx_started) FROM information_schema.innodb_trx t " +
+        "WHERE t.trx_rows_modified > 0), '9999-12-31') " +
+        "ORDER BY c.change_id LIMIT ?";
+    
+    private static final String PURGE_EMPLOYEE_CHANGES = 
+        "DELETE FROM employee_changes WHERE change_id <= ? LIMIT ?";
+    
+    // Rows deleted per statement by purgeChanges, so each delete holds its locks briefly
+    private static final int PURGE_CHUNK_SIZE = 10_000;
+    
+    // Fallback search when the in-memory index is disabled (FULLTEXT index from migration V4)
+    private static final String SEARCH_EMPLOYEES_FULLTEXT = 
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees " +
+        "WHERE MATCH(name, email) AGAINST (? IN BOOLEAN MODE) " +
+        "ORDER BY MATCH(name, email) AGAINST (? IN BOOLEAN MODE) DESC, id LIMIT ?";
+    
+    // Columnar read: salary comes back as whole cents so no BigDecimal is created per row
+    private static final String SELECT_EMPLOYEE_COLUMNS = 
+        "SELECT id, name, email, department_id, salary * 100, created_at FROM employees";
+    
+    private static final String SELECT_DEPARTMENTS = 
+        "SELECT DISTINCT department_id FROM employees";
+    
+    private static final String SELECT_MAX_EMPLOYEE_ID = 
+        "SELECT MAX(id) FROM employees";
     
     private static final String SELECT_EMPLOYEE_BY_ID = 
-        "SELECT id, name, email, department, salary, created_at FROM employees WHERE id = ?";
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees WHERE id = ?";
+    
+    // IN-list sizes used by getEmployeesByIds; short chunks are padded up to the
+    // next size so only this many distinct statements are ever prepared
+    private static final int[] ID_CHUNK_SIZES = {1, 4, 16, 64, 256};
+    
+    private static final String[] SELECT_EMPLOYEES_BY_IDS = buildInListQueries(
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees WHERE id IN (", ")");
+    
+    // Read by the upserts without FOR UPDATE: a locking read would also take gap locks
+    // on missing emails, which deadlock concurrent importers inserting into the same range
+    private static final String[] SELECT_EMPLOYEES_BY_EMAILS = buildInListQueries(
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees WHERE email IN (", ")");
+    
+    private static final String UPSERT_EMPLOYEE = 
+        "INSERT INTO employees (name, email, department_id, salary) VALUES (?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE name = VALUES(name), email = VALUES(email), department_id = VALUES(department_id), salary = VALUES(salary), " +
+        "version = version + 1";
     
+    // MySQL deadlock and lock wait timeout: the upsert chunk is retried from the start
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+    
+    // Every UPDATE bumps version, so optimistic writers notice unconditional writes too
     private static final String UPDATE_EMPLOYEE = 
-        "UPDATE employees SET name = ?, email = ?, department = ?, salary = ? WHERE id = ?";
+        "UPDATE employees SET name = ?, email = ?, department_id = ?, salary = ?, version = version + 1 WHERE id = ?";
+    
+    // Conditional updates indexed by Employee.getDirtyFieldMask(): only the changed columns are written
+    private static final String[] UPDATE_EMPLOYEE_IF_VERSION = buildVersionedUpdates();
     
     private static final String DELETE_EMPLOYEE = 
         "DELETE FROM employees WHERE id = ?";
     
-    private static final String SELECT_EMPLOYEES_BY_DEPARTMENT = 
-        "SELECT id, name, email, department, salary, created_at FROM employees WHERE department = ? ORDER BY id";
+    private static final String DELETE_EMPLOYEE_IF_VERSION = 
+        "DELETE FROM employees WHERE id = ? AND version = ?";
+    
+    // Package-private so MigrationRunner can EXPLAIN it
+    static final String SELECT_EMPLOYEES_BY_DEPARTMENT = 
+        "SELECT id, name, email, department_id, salary, created_at, version FROM employees WHERE department_id = ? ORDER BY id";
     
     private static final String COUNT_EMPLOYEES = 
         "SELECT COUNT(*) FROM employees";
     
+    private static final String SELECT_SALARY_STATISTICS = 
+        "SELECT COUNT(*), SUM(salary), AVG(salary), MIN(salary), MAX(salary) FROM employees";
+    
+    private static final String SELECT_SALARY_STATISTICS_BY_DEPARTMENT = 
+        "SELECT department_id, COUNT(*), SUM(salary), AVG(salary), MIN(salary), MAX(salary) " +
+        "FROM employees GROUP BY department_id";
+    
+    private static final String SELECT_SALARY_STATISTICS_FOR_DEPARTMENT = 
+        "SELECT department_id, COUNT(*), SUM(salary), AVG(salary), MIN(salary), MAX(salary) " +
+        "FROM employees WHERE department_id = ? GROUP BY department_id";
+    
+    // The same statistics read from the trigger-maintained department_stats summary (migration V7):
+    // one row per department, whatever the size of the employees table
+    private static final String COUNT_EMPLOYEES_FROM_SUMMARY = 
+        "SELECT COALESCE(SUM(employee_count), 0) FROM department_stats";
+    
+    private static final String SELECT_SALARY_STATISTICS_FROM_SUMMARY = 
+        "SELECT SUM(employee_count), SUM(salary_sum), SUM(salary_sum) / NULLIF(SUM(employee_count), 0), " +
+        "MIN(salary_min), MAX(salary_max) FROM department_stats";
+    
+    private static final String SELECT_SALARY_STATISTICS_BY_DEPARTMENT_FROM_SUMMARY = 
+        "SELECT department_id, employee_count, salary_sum, salary_sum / employee_count, salary_min, salary_max " +
+        "FROM department_stats WHERE employee_count > 0";
+    
+    private static final String SELECT_SALARY_STATISTICS_FOR_DEPARTMENT_FROM_SUMMARY = 
+        "SELECT department_id, employee_count, salary_sum, salary_sum / employee_count, salary_min, salary_max " +
+        "FROM department_stats WHERE department_id = ? AND employee_count > 0";
+    
+    private static final String COUNT_DEPARTMENT_STATS_TRIGGERS = 
+        "SELECT COUNT(*) FROM information_schema.triggers " +
+        "WHERE trigger_schema = DATABASE() AND trigger_name LIKE 'trg\\_employees\\_stats\\_%'";
+    
+    // Every department that has, or may need, a department_stats row
+    private static final String SELECT_STATS_DEPARTMENT_IDS = 
+        "SELECT id FROM departments UNION SELECT department_id FROM department_stats";
+    
+    private static final String LOCK_DEPARTMENT_STATS = 
+        "SELECT employee_count, salary_sum, salary_min, salary_max FROM department_stats WHERE department_id = ? FOR UPDATE";
+    
+    // Reads only the department's range of idx_employees_department_salary
+    private static final String SELECT_DEPARTMENT_TOTALS = 
+        "SELECT COUNT(*), SUM(salary), MIN(salary), MAX(salary) FROM employees WHERE department_id = ?";
+    
+    private static final String WRITE_DEPARTMENT_STATS = 
+        "INSERT INTO department_stats (department_id, employee_count, salary_sum, salary_min, salary_max) " +
+        "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE employee_count = VALUES(employee_count), " +
+        "salary_sum = VALUES(salary_sum), salary_min = VALUES(salary_min), salary_max = VALUES(salary_max)";
+    
+    // Whether department_stats is kept current by its triggers; null until checked
+    private volatile Boolean departmentStatsMaintained;
+    
     /**
      * Create a new employee in the database
      * @param employee Employee object to insert
      * @return true if successful, false otherwise
      */
     public boolean createEmployee(Employee employee) {
+        long start = DaoMetrics.start();
         try (Connection connection = DatabaseConnection.getConnection();
              PreparedStatement statement = connection.prepareStatement(INSERT_EMPLOYEE, Statement.RETURN_GENERATED_KEYS)) {
             
             // Set parameters
             statement.setString(1, employee.getName());
             statement.setString(2, employee.getEmail());
-            statement.setString(3, employee.getDepartment());
+            statement.setInt(3, departments.idOf(connection, employee.getDepartment()));
             statement.setBigDecimal(4, employee.getSalary());
             
             // Execute the insert
@@ -58,14 +208,18 @@ public class EmployeeDAO {
                         employee.setId(generatedKeys.getInt(1));
                     }
                 }
-                System.out.println("✅ Employee created successfully with ID: " + employee.getId());
+                DaoMetrics.success("createEmployee", start, rowsAffected);
+                indexEmployee(employee);
+                Log.info(() -> "✅ Employee created successfully with ID: " + employee.getId());
                 return true;
             }
+            DaoMetrics.success("createEmployee", start, 0);
             
         } catch (SQLException e) {
-            System.err.println("❌ Error creating employee: " + e.getMessage());
+            DaoMetrics.failure("createEmployee", start, e);
+            Log.error(() -> "❌ Error creating employee: " + e.getMessage());
             if (e.getErrorCode() == 1062) { // Duplicate entry error code for MySQL
-                System.err.println("   Reason: Email already exists!");
+                Log.error("   Reason: Email already exists!");
             }
         }
         return false;
@@ -77,8 +231,9 @@ public class EmployeeDAO {
      */
     public List<Employee> getAllEmployees() {
         List<Employee> employees = new ArrayList<>();
+        long start = DaoMetrics.start();
         
-        try (Connection connection = DatabaseConnection.getConnection();
+        try (Connection connection = DatabaseConnection.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(SELECT_ALL_EMPLOYEES);
              ResultSet resultSet = statement.executeQuery()) {
             
@@ -87,22 +242,385 @@ public class EmployeeDAO {
                 employees.add(employee);
             }
             
-            System.out.println("📋 Retrieved " + employees.size() + " employees from database");
+            DaoMetrics.success("getAllEmployees", start, employees.size());
+            Log.info(() -> "📋 Retrieved " + employees.size() + " employees from database");
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getAllEmployees", start, e);
+            Log.error(() -> "❌ Error retrieving employees: " + e.getMessage());
+        }
+        
+        return employees;
+    }
+    
+    /**
+     * Retrieve one page of employees using keyset pagination (WHERE id > cursor)
+     * @param afterId Cursor from the previous page, or 0 for the first page
+     * @param pageSize Maximum number of employees to return
+     * @return EmployeePage with the employees and the cursor for the next page
+     */
+    public EmployeePage getEmployeesPage(int afterId, int pageSize) {
+        int limit = Math.max(1, pageSize);
+        List<Employee> employees = new ArrayList<>(limit);
+        boolean hasMore = false;
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_EMPLOYEES_PAGE)) {
+            
+            statement.setInt(1, afterId);
+            // Fetch one extra row to know whether another page exists
+            statement.setInt(2, limit + 1);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (employees.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    employees.add(mapResultSetToEmployee(resultSet));
+                }
+            }
+            DaoMetrics.success("getEmployeesPage", start, employees.size());
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getEmployeesPage", start, e);
+            Log.error(() -> "❌ Error retrieving employee page: " + e.getMessage());
+        }
+        
+        int nextCursor = employees.isEmpty() ? afterId : employees.get(employees.size() - 1).getId();
+        return new EmployeePage(employees, nextCursor, hasMore);
+    }
+    
+    /**
+     * Retrieve the employees inserted, updated or deleted after a feed cursor.
+     * Several changes to one employee within the batch are returned once, at
+     * the position of the latest. Change IDs are assigned before commit, so a
+     * slow transaction can still commit a lower ID behind a cursor that has
+     * already moved past it. To prevent that the feed is read from the primary
+     * and holds back changes younger than CHANGE_FEED_SETTLE_MS (by the
+     * server's clock) and, on MySQL, changes made at or after the start of
+     * the oldest open transaction that has written rows.
+     * 
+     * @param cursor Cursor from the previous batch, or 0 to start from the beginning
+     * @param limit Maximum number of changes to read
+     * @return EmployeeChangePage with the changes and the cursor for the next call
+     *         (an empty page with the same cursor if the query failed)
+     */
+    public EmployeeChangePage getChangesSince(long cursor, int limit) {
+        // A replica may not have applied a transaction the primary already committed
+        return DatabaseConnection.readFromPrimary(() -> readChanges(cursor, limit));
+    }
+    
+    private EmployeeChangePage readChanges(long cursor, int limit) {
+        int max = Math.max(1, limit);
+        Map<Integer, EmployeeChange> latest = new LinkedHashMap<>();
+        long nextCursor = cursor;
+        boolean hasMore = false;
+        int read = 0;
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(MigrationRunner.isMySql(connection)
+                 ? SELECT_EMPLOYEE_CHANGES_BEFORE_OPEN_TRANSACTIONS : SELECT_EMPLOYEE_CHANGES)) {
+            
+            statement.setLong(1, cursor);
+            statement.setLong(2, -getChangeFeedSettleMillis() * 1000L);
+            // Fetch one extra row to know whether more changes are waiting
+            statement.setInt(3, max + 1);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (read == max) {
+                        hasMore = true;
+                        break;
+                    }
+                    read++;
+                    long version = resultSet.getLong("change_id");
+                    int employeeId = resultSet.getInt("employee_id");
+                    // No current row means the employee is gone, whatever this change was
+                    boolean exists = resultSet.getObject("id") != null;
+                    EmployeeChange.Operation operation = exists
+                        ? EmployeeChange.Operation.fromCode(resultSet.getString("operation"))
+                        : EmployeeChange.Operation.DELETE;
+                    latest.remove(employeeId);
+                    latest.put(employeeId, new EmployeeChange(version, employeeId, operation,
+                        resultSet.getTimestamp("changed_at"), exists ? mapResultSetToEmployee(resultSet) : null));
+                    nextCursor = version;
+                }
+            }
+            DaoMetrics.success("getChangesSince", start, read);
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getChangesSince", start, e);
+            Log.error(() -> "❌ Error reading employee changes: " + e.getMessage());
+            return new EmployeeChangePage(new ArrayList<>(), cursor, false);
+        }
+        
+        return new EmployeeChangePage(new ArrayList<>(latest.values()), nextCursor, hasMore);
+    }
+    
+    /**
+     * Delete change feed entries up to a version once every consumer has
+     * read past it. A consumer whose cursor is older than the oldest
+     * remaining entry has missed changes and must resynchronize in full.
+     * 
+     * @param throughVersion Highest version to delete
+     * @return Number of entries deleted, or -1 if the delete failed
+     */
+    public int purgeChanges(long throughVersion) {
+        int deleted = 0;
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PURGE_EMPLOYEE_CHANGES)) {
+            
+            statement.setLong(1, throughVersion);
+            statement.setInt(2, PURGE_CHUNK_SIZE);
+            int rows;
+            do {
+                rows = statement.executeUpdate();
+                deleted += rows;
+            } while (rows == PURGE_CHUNK_SIZE);
+            DaoMetrics.success("purgeChanges", start, deleted);
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("purgeChanges", start, e);
+            Log.error(() -> "❌ Error purging employee changes: " + e.getMessage());
+            return -1;
+        }
+        
+        int purged = deleted;
+        Log.info(() -> "🧹 Purged " + purged + " employee changes up to version " + throughVersion);
+        return purged;
+    }
+    
+    /**
+     * Stream every employee (ordered by ID) to a callback without holding the
+     * table in memory. Uses MySQL's row-by-row fetch mode, so the connection
+     * is busy until the callback has seen the last row.
+     * 
+     * @param action Callback invoked once per employee
+     * @return Number of employees streamed, or -1 if the query failed part way
+     */
+    public int forEachEmployee(Consumer<Employee> action) {
+        return streamEmployees("forEachEmployee", SELECT_ALL_EMPLOYEES, action);
+    }
+    
+    /**
+     * Stream the employees of one department (ordered by ID) to a callback
+     * @param department Department name
+     * @param action Callback invoked once per employee
+     * @return Number of employees streamed, or -1 if the query failed part way
+     */
+    public int forEachEmployeeInDepartment(String department, Consumer<Employee> action) {
+        Integer departmentId;
+        try {
+            departmentId = departments.findId(department);
+        } catch (SQLException e) {
+            Log.error(() -> "❌ Error loading departments: " + e.getMessage());
+            return -1;
+        }
+        if (departmentId == null) {
+            return 0;
+        }
+        return streamEmployees("forEachEmployeeInDepartment", SELECT_EMPLOYEES_BY_DEPARTMENT, action, departmentId);
+    }
+    
+    /**
+     * Stream the employees whose ID is in [fromId, toId) (ordered by ID) to a callback
+     * @param fromId First ID, inclusive
+     * @param toId Last ID, exclusive
+     * @param action Callback invoked once per employee
+     * @return Number of employees streamed, or -1 if the query failed part way
+     */
+    public int forEachEmployeeInIdRange(int fromId, int toId, Consumer<Employee> action) {
+        return streamEmployees("forEachEmployeeInIdRange", SELECT_EMPLOYEES_IN_ID_RANGE, action, fromId, toId);
+    }
+    
+    /**
+     * Shared forward-only streaming loop; exceptions thrown by the callback propagate to the caller
+     */
+    private int streamEmployees(String operation, String sql, Consumer<Employee> action, Object... parameters) {
+        int count = 0;
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            statement.setFetchSize(getStreamingFetchSize());
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    action.accept(mapResultSetToEmployee(resultSet));
+                    count++;
+                }
+            }
+            DaoMetrics.success(operation, start, count);
+            return count;
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure(operation, start, e);
+            Log.error(() -> "❌ Error streaming employees: " + e.getMessage());
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Search employees by name or email prefix, tolerating one typo per word.
+     * Uses the in-memory search index (built on first use), or the MySQL
+     * FULLTEXT index when SEARCH_INDEX_ENABLED=false.
+     * @param query Words or word prefixes, e.g. "jo smi" or "john.smith@"
+     * @param limit Maximum number of results
+     * @return Matching employees, best match first
+     */
+    public List<Employee> searchEmployees(String query, int limit) {
+        if (!EmployeeSearchIndex.isEnabled()) {
+            return searchEmployeesFullText(query, limit);
+        }
+        if (!searchIndex.isBuilt() && buildSearchIndex() < 0) {
+            return new ArrayList<>();
+        }
+        
+        long start = DaoMetrics.start();
+        int[] ids = searchIndex.search(query, limit);
+        DaoMetrics.success("searchEmployees", start, ids.length);
+        
+        // Load the rows in one query and keep the ranking
+        Map<Integer, Employee> found = getEmployeesByIds(ids);
+        List<Employee> employees = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+    
+    /**
+     * (Re)build the in-memory search index by streaming the employees table
+     * @return Number of employees indexed, or -1 if the table could not be read
+     */
+    public int buildSearchIndex() {
+        long started = System.nanoTime();
+        int count = searchIndex.rebuild(this);
+        if (count >= 0) {
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            Log.info(() -> "🔎 Search index built with " + count + " employees in " + elapsedMillis + " ms");
+        }
+        return count;
+    }
+    
+    private List<Employee> searchEmployeesFullText(String query, int limit) {
+        List<Employee> employees = new ArrayList<>();
+        
+        // Every word must match as a prefix: "jo smi" -> "+jo* +smi*"
+        StringBuilder booleanQuery = new StringBuilder();
+        for (String term : EmployeeSearchIndex.tokenize(EmployeeSearchIndex.normalize(query))) {
+            booleanQuery.append(booleanQuery.length() > 0 ? " +" : "+").append(term).append('*');
+        }
+        if (booleanQuery.length() == 0 || limit <= 0) {
+            return employees;
+        }
+        
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(SEARCH_EMPLOYEES_FULLTEXT)) {
+            
+            statement.setString(1, booleanQuery.toString());
+            statement.setString(2, booleanQuery.toString());
+            statement.setInt(3, limit);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    employees.add(mapResultSetToEmployee(resultSet));
+                }
+            }
+            DaoMetrics.success("searchEmployeesFullText", start, employees.size());
             
         } catch (SQLException e) {
-            System.err.println("❌ Error retrieving employees: " + e.getMessage());
+            DaoMetrics.failure("searchEmployeesFullText", start, e);
+            Log.error(() -> "❌ Error searching employees: " + e.getMessage());
         }
         
         return employees;
     }
     
+    /**
+     * Read every employee (ordered by ID) into a compact columnar container
+     * @return EmployeeColumns, or null if the query failed
+     */
+    public EmployeeColumns getEmployeeColumns() {
+        return getEmployeeColumns(EmployeeCriteria.all());
+    }
+    
+    /**
+     * Read the matching employees (ordered by ID) into a compact columnar
+     * container instead of one Employee per row. Rows are streamed, so only
+     * the primitive columns are kept; use this for whole-table analytics.
+     * @param criteria Rows to read
+     * @return EmployeeColumns, or null if the query failed
+     */
+    public EmployeeColumns getEmployeeColumns(EmployeeCriteria criteria) {
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getReadConnection()) {
+            List<Object> parameters = new ArrayList<>();
+            String sql = SELECT_EMPLOYEE_COLUMNS + criteria.appendWhereClause(parameters) + " ORDER BY id";
+            
+            try (PreparedStatement statement = connection.prepareStatement(
+                     sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                
+                statement.setFetchSize(getStreamingFetchSize());
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                
+                EmployeeColumns.Builder builder = new EmployeeColumns.Builder(1024);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        int departmentId = resultSet.getInt(4);
+                        Timestamp createdAt = resultSet.getTimestamp(6);
+                        builder.add(
+                            resultSet.getInt(1),
+                            resultSet.getString(2),
+                            resultSet.getString(3),
+                            departmentId,
+                            builder.hasDepartment(departmentId) ? null : departments.nameOf(departmentId),
+                            resultSet.getLong(5),
+                            createdAt != null ? createdAt.getTime() : EmployeeColumns.NO_TIMESTAMP
+                        );
+                    }
+                }
+                
+                EmployeeColumns columns = builder.build();
+                DaoMetrics.success("getEmployeeColumns", start, columns.size());
+                Log.info(() -> "📋 Retrieved " + columns.size() + " employees into columns");
+                return columns;
+            }
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getEmployeeColumns", start, e);
+            Log.error(() -> "❌ Error retrieving employee columns: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
     /**
      * Retrieve a specific employee by ID
      * @param id Employee ID
      * @return Employee object or null if not found
      */
     public Employee getEmployeeById(int id) {
-        try (Connection connection = DatabaseConnection.getConnection();
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(SELECT_EMPLOYEE_BY_ID)) {
             
             statement.setInt(1, id);
@@ -110,169 +628,1371 @@ public class EmployeeDAO {
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
                     Employee employee = mapResultSetToEmployee(resultSet);
-                    System.out.println("🔍 Found employee: " + employee.getName());
+                    DaoMetrics.success("getEmployeeById", start, 1);
+                    Log.info(() -> "🔍 Found employee: " + employee.getName());
                     return employee;
                 }
             }
+            DaoMetrics.success("getEmployeeById", start, 0);
             
         } catch (SQLException e) {
-            System.err.println("❌ Error retrieving employee by ID: " + e.getMessage());
+            DaoMetrics.failure("getEmployeeById", start, e);
+            Log.error(() -> "❌ Error retrieving employee by ID: " + e.getMessage());
         }
         
-        System.out.println("❌ Employee with ID " + id + " not found");
+        Log.info(() -> "❌ Employee with ID " + id + " not found");
         return null;
     }
     
     /**
-     * Update an existing employee
+     * Retrieve many employees by ID using chunked WHERE id IN (...) queries
+     * @param ids Employee IDs (duplicates are ignored)
+     * @return Map from ID to employee for every ID that exists
+     */
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids) {
+        return getEmployeesByIds(ids, null);
+    }
+    
+    /**
+     * Retrieve many employees by ID using chunked WHERE id IN (...) queries.
+     * IDs are de-duplicated and looked up over a single connection; chunk
+     * sizes come from a fixed set so the statement cache stays small.
+     * 
+     * @param ids Employee IDs (duplicates are ignored)
+     * @param missing Receives each requested ID that does not exist (may be null)
+     * @return Map from ID to employee for every ID that exists
+     */
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids, IntConsumer missing) {
+        int[] unique = distinctSorted(ids);
+        Map<Integer, Employee> employees = new HashMap<>(Math.max(16, unique.length * 4 / 3 + 1));
+        if (unique.length == 0) {
+            return employees;
+        }
+        
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getReadConnection()) {
+            int offset = 0;
+            while (offset < unique.length) {
+                int sizeIndex = chunkSizeIndex(unique.length - offset);
+                int chunkSize = ID_CHUNK_SIZES[sizeIndex];
+                int take = Math.min(chunkSize, unique.length - offset);
+                
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_EMPLOYEES_BY_IDS[sizeIndex])) {
+                    for (int i = 0; i < chunkSize; i++) {
+                        // Pad a short chunk by repeating its last ID
+                        statement.setInt(i + 1, unique[offset + Math.min(i, take - 1)]);
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            Employee employee = mapResultSetToEmployee(resultSet);
+                            employees.put(employee.getId(), employee);
+                        }
+                    }
+                }
+                offset += take;
+            }
+            DaoMetrics.success("getEmployeesByIds", start, employees.size());
+            Log.info(() -> "🔍 Found " + employees.size() + " of " + unique.length + " requested employees");
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getEmployeesByIds", start, e);
+            Log.error(() -> "❌ Error retrieving employees by IDs: " + e.getMessage());
+        }
+        
+        if (missing != null) {
+            for (int id : unique) {
+                if (!employees.containsKey(id)) {
+                    missing.accept(id);
+                }
+            }
+        }
+        return employees;
+    }
+    
+    /**
+     * Update an existing employee, overwriting all columns whatever their
+     * version (last writer wins). Use tryUpdateEmployee() when the employee
+     * was read earlier and someone else may have changed it since.
      * @param employee Employee object with updated information
      * @return true if successful, false otherwise
      */
     public boolean updateEmployee(Employee employee) {
+        long start = DaoMetrics.start();
         try (Connection connection = DatabaseConnection.getConnection();
              PreparedStatement statement = connection.prepareStatement(UPDATE_EMPLOYEE)) {
             
             // Set parameters
             statement.setString(1, employee.getName());
             statement.setString(2, employee.getEmail());
-            statement.setString(3, employee.getDepartment());
+            statement.setInt(3, departments.idOf(connection, employee.getDepartment()));
             statement.setBigDecimal(4, employee.getSalary());
             statement.setInt(5, employee.getId());
             
             // Execute the update
             int rowsAffected = statement.executeUpdate();
+            DaoMetrics.success("updateEmployee", start, rowsAffected);
             
             if (rowsAffected > 0) {
-                System.out.println("✅ Employee updated successfully: " + employee.getName());
+                indexEmployee(employee);
+                Log.info(() -> "✅ Employee updated successfully: " + employee.getName());
                 return true;
             } else {
-                System.out.println("❌ No employee found with ID: " + employee.getId());
+                Log.info(() -> "❌ No employee found with ID: " + employee.getId());
             }
             
         } catch (SQLException e) {
-            System.err.println("❌ Error updating employee: " + e.getMessage());
+            DaoMetrics.failure("updateEmployee", start, e);
+            Log.error(() -> "❌ Error updating employee: " + e.getMessage());
             if (e.getErrorCode() == 1062) {
-                System.err.println("   Reason: Email already exists!");
+                Log.error("   Reason: Email already exists!");
             }
         }
         return false;
     }
     
     /**
-     * Delete an employee by ID
-     * @param id Employee ID to delete
-     * @return true if successful, false otherwise
+     * Write the fields changed since the employee was read, but only if the
+     * row still has the version it was read with (optimistic locking). No
+     * lock is held between the read and this call; a concurrent change is
+     * detected here instead and reported as CONFLICT with the current row.
+     * On success the employee's version is advanced and its fields are
+     * marked clean.
+     * 
+     * @param employee Employee read from this DAO (or with its version set) and then modified
+     * @return APPLIED, UNCHANGED if no field was changed, CONFLICT, NOT_FOUND, or FAILED
      */
-    public boolean deleteEmployee(int id) {
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement statement = connection.prepareStatement(DELETE_EMPLOYEE)) {
-            
-            statement.setInt(1, id);
+    public VersionedWriteResult tryUpdateEmployee(Employee employee) {
+        int dirtyFields = employee.getDirtyFieldMask();
+        if (dirtyFields == 0) {
+            return VersionedWriteResult.unchanged(employee.getVersion());
+        }
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            int rowsAffected;
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_EMPLOYEE_IF_VERSION[dirtyFields])) {
+                int index = 1;
+                if ((dirtyFields & Employee.Field.NAME.bit()) != 0) {
+                    statement.setString(index++, employee.getName());
+                }
+                if ((dirtyFields & Employee.Field.EMAIL.bit()) != 0) {
+                    statement.setString(index++, employee.getEmail());
+                }
+                if ((dirtyFields & Employee.Field.DEPARTMENT.bit()) != 0) {
+                    statement.setInt(index++, departments.idOf(connection, employee.getDepartment()));
+                }
+                if ((dirtyFields & Employee.Field.SALARY.bit()) != 0) {
+                    statement.setBigDecimal(index++, employee.getSalary());
+                }
+                statement.setInt(index++, employee.getId());
+                statement.setInt(index, employee.getVersion());
+                rowsAffected = statement.executeUpdate();
+            }
             
-            int rowsAffected = statement.executeUpdate();
+            VersionedWriteResult result = rowsAffected > 0
+                ? VersionedWriteResult.applied(employee.getVersion() + 1)
+                : explainMissedWrite(connection, employee.getId());
+            DaoMetrics.success("tryUpdateEmployee", start, rowsAffected);
             
-            if (rowsAffected > 0) {
-                System.out.println("✅ Employee deleted successfully (ID: " + id + ")");
-                return true;
+            if (result.getStatus() == VersionedWriteResult.Status.APPLIED) {
+                employee.setVersion(result.getVersion());
+                employee.markClean();
+                indexEmployee(employee);
+                Log.info(() -> "✅ Employee updated successfully: " + employee.getName());
             } else {
-                System.out.println("❌ No employee found with ID: " + id);
+                logMissedWrite("update", employee.getId(), employee.getVersion(), result);
             }
+            return result;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error deleting employee: " + e.getMessage());
+            DaoMetrics.failure("tryUpdateEmployee", start, e);
+            Log.error(() -> "❌ Error updating employee: " + e.getMessage());
+            if (e.getErrorCode() == 1062) {
+                Log.error("   Reason: Email already exists!");
+            }
+            return VersionedWriteResult.failure(e.getErrorCode(), e.getMessage());
         }
-        return false;
     }
     
     /**
-     * Get employees by department
-     * @param department Department name
-     * @return List of employees in the department
+     * Delete an employee only if the row still has the version the caller read
+     * @param id Employee ID to delete
+     * @param expectedVersion Version the employee was read with
+     * @return APPLIED, CONFLICT with the current row, NOT_FOUND, or FAILED
      */
-    public List<Employee> getEmployeesByDepartment(String department) {
-        List<Employee> employees = new ArrayList<>();
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement statement = connection.prepareStatement(SELECT_EMPLOYEES_BY_DEPARTMENT)) {
+    public VersionedWriteResult tryDeleteEmployee(int id, int expectedVersion) {
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            int rowsAffected;
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_EMPLOYEE_IF_VERSION)) {
+                statement.setInt(1, id);
+                statement.setInt(2, expectedVersion);
+                rowsAffected = statement.executeUpdate();
+            }
             
-            statement.setString(1, department);
+            VersionedWriteResult result = rowsAffected > 0
+                ? VersionedWriteResult.applied(expectedVersion)
+                : explainMissedWrite(connection, id);
+            DaoMetrics.success("tryDeleteEmployee", start, rowsAffected);
             
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    Employee employee = mapResultSetToEmployee(resultSet);
-                    employees.add(employee);
-                }
+            if (result.getStatus() == VersionedWriteResult.Status.APPLIED) {
+                unindexEmployee(id);
+                Log.info(() -> "✅ Employee deleted successfully (ID: " + id + ")");
+            } else {
+                logMissedWrite("delete", id, expectedVersion, result);
             }
-            
-            System.out.println("🏢 Found " + employees.size() + " employees in " + department + " department");
+            return result;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error retrieving employees by department: " + e.getMessage());
+            DaoMetrics.failure("tryDeleteEmployee", start, e);
+            Log.error(() -> "❌ Error deleting employee: " + e.getMessage());
+            return VersionedWriteResult.failure(e.getErrorCode(), e.getMessage());
         }
-        
-        return employees;
     }
     
     /**
-     * Get total count of employees
-     * @return Total number of employees
+     * A conditional write matched no row: re-read it on the same (primary)
+     * connection to tell a version conflict from a deleted employee
      */
-    public int getEmployeeCount() {
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement statement = connection.prepareStatement(COUNT_EMPLOYEES);
-             ResultSet resultSet = statement.executeQuery()) {
-            
-            if (resultSet.next()) {
-                int count = resultSet.getInt(1);
-                System.out.println("📊 Total employees in database: " + count);
-                return count;
+    private VersionedWriteResult explainMissedWrite(Connection connection, int id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_EMPLOYEE_BY_ID)) {
+            statement.setInt(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                    ? VersionedWriteResult.conflict(mapResultSetToEmployee(resultSet))
+                    : VersionedWriteResult.notFound();
             }
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Error counting employees: " + e.getMessage());
         }
-        
-        return 0;
     }
     
-    /**
-     * Helper method to map ResultSet to Employee object
-     * @param resultSet ResultSet from database query
-     * @return Employee object
-     * @throws SQLException if any SQL error occurs
-     */
-    private Employee mapResultSetToEmployee(ResultSet resultSet) throws SQLException {
-        return new Employee(
-            resultSet.getInt("id"),
-            resultSet.getString("name"),
-            resultSet.getString("email"),
-            resultSet.getString("department"),
-            resultSet.getBigDecimal("salary"),
-            resultSet.getTimestamp("created_at")
-        );
+    static void logMissedWrite(String operation, int id, int expectedVersion, VersionedWriteResult result) {
+        if (result.isConflict()) {
+            Log.warn(() -> "⚠️  Employee " + id + " was changed by someone else (version " + expectedVersion
+                + " -> " + result.getVersion() + "), " + operation + " not applied");
+        } else {
+            Log.info(() -> "❌ No employee found with ID: " + id);
+        }
     }
     
     /**
-     * Check if an employee exists by email
-     * @param email Email to check
+     * Delete an employee by ID
+     * @param id Employee ID to delete
+     * @return true if successful, false otherwise
+     */
+    public boolean deleteEmployee(int id) {
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE_EMPLOYEE)) {
+            
+            statement.setInt(1, id);
+            
+            int rowsAffected = statement.executeUpdate();
+            DaoMetrics.success("deleteEmployee", start, rowsAffected);
+            
+            if (rowsAffected > 0) {
+                unindexEmployee(id);
+                Log.info(() -> "✅ Employee deleted successfully (ID: " + id + ")");
+                return true;
+            } else {
+                Log.info(() -> "❌ No employee found with ID: " + id);
+            }
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("deleteEmployee", start, e);
+            Log.error(() -> "❌ Error deleting employee: " + e.getMessage());
+        }
+        return false;
+    }
+    
+    /**
+     * Raise or cut the salary of every matching employee with one server-side UPDATE
+     * @param criteria Employees to adjust
+     * @param adjustment Percentage or amount, with its rounding
+     * @return BulkUpdateResult with the number of rows updated
+     */
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment) {
+        return adjustSalaries(criteria, adjustment, false);
+    }
+    
+    /**
+     * Raise or cut the salary of every matching employee with one server-side UPDATE.
+     * Rows whose new salary would not be positive are left unchanged (and not counted).
+     *
+     * @param criteria Employees to adjust
+     * @param adjustment Percentage or amount, with its rounding
+     * @param dryRun true to only count the rows and sum their salaries before and after
+     * @return BulkUpdateResult with the affected rows (and totals for a dry run)
+     */
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment, boolean dryRun) {
+        String newSalary = adjustment.toSql();
+        BulkUpdateResult result = executeBulkUpdate("adjustSalaries", dryRun, (connection, parameters) -> {
+            parameters.add(adjustment.parameter());
+            String where = criteria.appendWhereClause(parameters) + " AND " + newSalary + " > 0";
+            parameters.add(adjustment.parameter());
+            return dryRun
+                ? "SELECT COUNT(*), SUM(salary), SUM(" + newSalary + ") FROM employees" + where
+                : "UPDATE employees SET salary = " + newSalary + ", version = version + 1" + where;
+        });
+        if (result.isSuccessful()) {
+            Log.info(() -> (dryRun ? "🔍 Salary adjustment would change " : "✅ Salary adjustment changed ")
+                + result.getAffectedRows() + " employee(s): " + adjustment + " for " + criteria);
+        }
+        return result;
+    }
+    
+    /**
+     * Move every employee of one department to another with one server-side UPDATE
+     * @param fromDepartment Current department
+     * @param toDepartment New department
+     * @return BulkUpdateResult with the number of employees moved
+     */
+    public BulkUpdateResult reassignDepartment(String fromDepartment, String toDepartment) {
+        return reassignDepartment(EmployeeCriteria.inDepartment(fromDepartment), toDepartment, false);
+    }
+    
+    /**
+     * Move every matching employee to a department with one server-side UPDATE
+     * @param criteria Employees to move
+     * @param toDepartment New department
+     * @param dryRun true to only count the employees and sum their salaries
+     * @return BulkUpdateResult with the affected rows (and the payroll moved for a dry run)
+     */
+    public BulkUpdateResult reassignDepartment(EmployeeCriteria criteria, String toDepartment, boolean dryRun) {
+        BulkUpdateResult result = executeBulkUpdate("reassignDepartment", dryRun, (connection, parameters) -> {
+            // A dry run must not create the target department; an unknown one moves everybody
+            Integer targetId = dryRun ? departments.findId(toDepartment) : Integer.valueOf(departments.idOf(connection, toDepartment));
+            int target = targetId != null ? targetId : -1;
+            if (!dryRun) {
+                parameters.add(target);
+            }
+            String where = criteria.appendWhereClause(parameters) + " AND department_id <> ?";
+            parameters.add(target);
+            return dryRun
+                ? "SELECT COUNT(*), SUM(salary), SUM(salary) FROM employees" + where
+                : "UPDATE employees SET department_id = ?, version = version + 1" + where;
+        });
+        if (result.isSuccessful()) {
+            Log.info(() -> (dryRun ? "🔍 Would move " : "✅ Moved ")
+                + result.getAffectedRows() + " employee(s) to " + toDepartment);
+        }
+        return result;
+    }
+    
+    /**
+     * Builds the SQL of a bulk update and collects its parameters; a
+     * department it needs is created on the update's connection
+     */
+    private interface BulkStatement {
+        String build(Connection connection, List<Object> parameters) throws SQLException;
+    }
+    
+    /**
+     * Run a bulk UPDATE, or for a dry run the matching SELECT COUNT(*), SUM(before), SUM(after)
+     */
+    private BulkUpdateResult executeBulkUpdate(String operation, boolean dryRun, BulkStatement bulkStatement) {
+        long start = DaoMetrics.start();
+        List<Object> parameters = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(bulkStatement.build(connection, parameters))) {
+            
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            
+            BulkUpdateResult result;
+            if (dryRun) {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    result = new BulkUpdateResult(true, resultSet.getInt(1),
+                        scaleTotal(resultSet.getBigDecimal(2)), scaleTotal(resultSet.getBigDecimal(3)));
+                }
+            } else {
+                result = new BulkUpdateResult(false, statement.executeUpdate(), null, null);
+            }
+            DaoMetrics.success(operation, start, result.getAffectedRows());
+            return result;
+        
+        } catch (SQLException e) {
+            DaoMetrics.failure(operation, start, e);
+            Log.error(() -> "❌ Error in bulk update: " + e.getMessage());
+            return BulkUpdateResult.failure(dryRun, e.getMessage());
+        }
+    }
+    
+    private static BigDecimal scaleTotal(BigDecimal total) {
+        return total != null ? total.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2);
+    }
+    
+    /**
+     * Insert many employees using JDBC batching (chunk size from DB_BATCH_SIZE)
+     * @param employees Employees to insert; generated IDs are written back into each one
+     * @return BatchResult with the success count and per-row failures
+     */
+    public BatchResult createEmployees(Collection<Employee> employees) {
+        return createEmployees(employees, getDefaultBatchSize());
+    }
+    
+    /**
+     * Insert many employees using JDBC batching, one transaction per chunk.
+     * If a chunk fails (e.g. a duplicate email) it is rolled back and replayed
+     * row by row so only the offending rows are reported as failures.
+     * 
+     * @param employees Employees to insert; generated IDs are written back into each one
+     * @param chunkSize Rows per batch / transaction
+     * @return BatchResult with the success count and per-row failures
+     */
+    public BatchResult createEmployees(Collection<Employee> employees, int chunkSize) {
+        BatchResult result = new BatchResult();
+        
+        for (List<Employee> chunk : chunk(employees, chunkSize)) {
+            long start = DaoMetrics.start();
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_EMPLOYEE, Statement.RETURN_GENERATED_KEYS)) {
+                    for (Employee employee : chunk) {
+                        bindInsert(connection, statement, employee);
+                        statement.addBatch();
+                    }
+                    
+                    try {
+                        statement.executeBatch();
+                        int[] generatedIds = readGeneratedIds(statement, chunk.size());
+                        connection.commit();
+                        for (int i = 0; i < chunk.size(); i++) {
+                            chunk.get(i).setId(generatedIds[i]);
+                            indexEmployee(chunk.get(i));
+                        }
+                        result.recordSuccess(chunk.size());
+                        DaoMetrics.success("createEmployees", start, chunk.size());
+                    } catch (BatchUpdateException e) {
+                        connection.rollback();
+                        statement.clearBatch();
+                        int replayed = replayInserts(connection, statement, chunk, result);
+                        DaoMetrics.success("createEmployees", start, replayed);
+                    }
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                DaoMetrics.failure("createEmployees", start, e);
+                Log.error(() -> "❌ Error in batch insert: " + e.getMessage());
+                for (Employee employee : chunk) {
+                    result.recordFailure(employee, e.getErrorCode(), e.getMessage());
+                }
+            }
+        }
+        
+        Log.info(() -> "📦 Batch insert finished: " + result);
+        return result;
+    }
+    
+    /**
+     * Update many employees using JDBC batching (chunk size from DB_BATCH_SIZE)
+     * @param employees Employees to update (matched by ID)
+     * @return BatchResult with the success count and per-row failures
+     */
+    public BatchResult updateEmployees(Collection<Employee> employees) {
+        return updateEmployees(employees, getDefaultBatchSize());
+    }
+    
+    /**
+     * Update many employees using JDBC batching, one transaction per chunk.
+     * Rows whose ID does not exist are reported as failures with error code 0.
+     * 
+     * @param employees Employees to update (matched by ID)
+     * @param chunkSize Rows per batch / transaction
+     * @return BatchResult with the success count and per-row failures
+     */
+    public BatchResult updateEmployees(Collection<Employee> employees, int chunkSize) {
+        BatchResult result = new BatchResult();
+        
+        for (List<Employee> chunk : chunk(employees, chunkSize)) {
+            long start = DaoMetrics.start();
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_EMPLOYEE)) {
+                    for (Employee employee : chunk) {
+                        bindUpdate(connection, statement, employee);
+                        statement.addBatch();
+                    }
+                    
+                    try {
+                        int[] updateCounts = statement.executeBatch();
+                        connection.commit();
+                        int updated = recordUpdateCounts(chunk, updateCounts, result);
+                        DaoMetrics.success("updateEmployees", start, updated);
+                    } catch (BatchUpdateException e) {
+                        connection.rollback();
+                        statement.clearBatch();
+                        int replayed = replayUpdates(connection, statement, chunk, result);
+                        DaoMetrics.success("updateEmployees", start, replayed);
+                    }
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                DaoMetrics.failure("updateEmployees", start, e);
+                Log.error(() -> "❌ Error in batch update: " + e.getMessage());
+                for (Employee employee : chunk) {
+                    result.recordFailure(employee, e.getErrorCode(), e.getMessage());
+                }
+            }
+        }
+        
+        Log.info(() -> "📦 Batch update finished: " + result);
+        return result;
+    }
+    
+    /**
+     * Insert an employee, or update the existing employee with the same email.
+     * Safe to call repeatedly with the same data (the second call reports UNCHANGED)
+     * and safe against concurrent clients adding the same email.
+     * 
+     * @param employee Employee to write; its ID is set to the inserted or existing row's ID
+     * @return INSERTED, UPDATED, UNCHANGED, or FAILED if the database rejected the row
+     */
+    public UpsertResult.Outcome upsertEmployee(Employee employee) {
+        UpsertResult result = new UpsertResult();
+        upsertChunk("upsertEmployee", Collections.singletonList(employee), result);
+        UpsertResult.Outcome outcome = result.getOutcomes().get(0);
+        if (outcome != UpsertResult.Outcome.FAILED) {
+            Log.info(() -> "✅ Employee " + outcome.name().toLowerCase(Locale.ROOT) + " with ID: " + employee.getId());
+        }
+        return outcome;
+    }
+    
+    /**
+     * Upsert many employees keyed by email (chunk size from DB_BATCH_SIZE)
+     * @param employees Employees to write; IDs are set to the inserted or existing rows' IDs
+     * @return UpsertResult with one outcome per row
+     */
+    public UpsertResult upsertEmployees(Collection<Employee> employees) {
+        return upsertEmployees(employees, getDefaultBatchSize());
+    }
+    
+    /**
+     * Upsert many employees keyed by email, one transaction per chunk.
+     * Each chunk reads the existing rows for its emails with one query, skips
+     * rows whose values are already stored, and writes the rest with one
+     * INSERT ... ON DUPLICATE KEY UPDATE batch (a single multi-row statement
+     * with rewriteBatchedStatements). Replaying
+     * the same input is idempotent. Deadlocked chunks are retried; a chunk that
+     * still fails is replayed row by row so only the offending rows fail.
+     * 
+     * @param employees Employees to write; IDs are set to the inserted or existing rows' IDs
+     * @param chunkSize Rows per transaction
+     * @return UpsertResult with one outcome per row, in input order
+     */
+    public UpsertResult upsertEmployees(Collection<Employee> employees, int chunkSize) {
+        UpsertResult result = new UpsertResult();
+        for (List<Employee> chunk : chunkByEmail(employees, chunkSize)) {
+            upsertChunk("upsertEmployees", chunk, result);
+        }
+        Log.info(() -> "📦 Batch upsert finished: " + result);
+        return result;
+    }
+    
+    private void upsertChunk(String operation, List<Employee> chunk, UpsertResult result) {
+        long start = DaoMetrics.start();
+        for (int attempt = 1; ; attempt++) {
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                UpsertResult.Outcome[] outcomes = upsertInTransaction(connection, chunk);
+                for (int i = 0; i < outcomes.length; i++) {
+                    result.record(outcomes[i]);
+                    if (outcomes[i] == UpsertResult.Outcome.INSERTED || outcomes[i] == UpsertResult.Outcome.UPDATED) {
+                        indexEmployee(chunk.get(i));
+                    }
+                }
+                DaoMetrics.success(operation, start, chunk.size());
+                return;
+                
+            } catch (SQLException e) {
+                // Inside a unit of work a deadlock has undone the whole unit, which retries itself
+                if (UnitOfWork.isRetryable(e) && attempt < MAX_UPSERT_ATTEMPTS && !UnitOfWork.isActive()) {
+                    int retry = attempt;
+                    Log.warn(() -> "⚠️  Upsert chunk hit " + e.getMessage() + ", retrying (" + retry + ")");
+                    continue;
+                }
+                DaoMetrics.failure(operation, start, e);
+                if (chunk.size() > 1) {
+                    for (Employee employee : chunk) {
+                        upsertChunk(operation, Collections.singletonList(employee), result);
+                    }
+                    return;
+                }
+                Log.error(() -> "❌ Error upserting employee: " + e.getMessage());
+                result.recordFailure(chunk.get(0), e.getErrorCode(), e.getMessage());
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Classify and write one chunk in a single transaction; IDs are written
+     * back into the employees only after the commit succeeds.
+     * 
+     * The existing rows are read without locks, so concurrent writers only
+     * contend on the row locks the INSERT ... ON DUPLICATE KEY UPDATE takes
+     * itself. Its affected-row counts are not used: with rewriteBatchedStatements
+     * the driver reports SUCCESS_NO_INFO for the batch and positional generated
+     * keys. Instead the written rows are read back: a row the statement inserted
+     * still has version 0, while every update bumps it.
+     */
+    private UpsertResult.Outcome[] upsertInTransaction(Connection connection, List<Employee> chunk) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            Map<String, Employee> existing = readByEmail(connection, chunk);
+            UpsertResult.Outcome[] outcomes = new UpsertResult.Outcome[chunk.size()];
+            int[] ids = new int[chunk.size()];
+            List<Employee> writes = new ArrayList<>();
+            
+            for (int i = 0; i < chunk.size(); i++) {
+                Employee employee = chunk.get(i);
+                Employee current = existing.get(emailKey(employee.getEmail()));
+                if (current != null && sameValues(current, employee)) {
+                    ids[i] = current.getId();
+                    outcomes[i] = UpsertResult.Outcome.UNCHANGED;
+                } else {
+                    writes.add(employee);
+                }
+            }
+            
+            if (!writes.isEmpty()) {
+                // Same row-lock order in every writer, so overlapping chunks wait instead of deadlocking
+                writes.sort(Comparator.comparing(employee -> emailKey(employee.getEmail()), Comparator.nullsFirst(Comparator.naturalOrder())));
+                try (PreparedStatement statement = connection.prepareStatement(UPSERT_EMPLOYEE)) {
+                    for (Employee employee : writes) {
+                        bindInsert(connection, statement, employee);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                
+                Map<String, Employee> written = readByEmail(connection, writes);
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (outcomes[i] != null) {
+                        continue;
+                    }
+                    Employee stored = written.get(emailKey(chunk.get(i).getEmail()));
+                    if (stored == null) {
+                        // Deleted by another client right after our write: start the chunk over
+                        throw new SQLException("Concurrent delete of " + chunk.get(i).getEmail(),
+                            "40001", UnitOfWork.ER_LOCK_DEADLOCK);
+                    }
+                    ids[i] = stored.getId();
+                    outcomes[i] = stored.getVersion() == 0 ? UpsertResult.Outcome.INSERTED : UpsertResult.Outcome.UPDATED;
+                }
+            }
+            
+            connection.commit();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setId(ids[i]);
+            }
+            return outcomes;
+            
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * Plain (non-locking) read of the rows whose email appears in the list
+     * @return Existing rows keyed by emailKey()
+     */
+    private Map<String, Employee> readByEmail(Connection connection, List<Employee> employees) throws SQLException {
+        Map<String, Employee> existing = new HashMap<>();
+        int offset = 0;
+        while (offset < employees.size()) {
+            int sizeIndex = chunkSizeIndex(employees.size() - offset);
+            int chunkSize = ID_CHUNK_SIZES[sizeIndex];
+            int take = Math.min(chunkSize, employees.size() - offset);
+            
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_EMPLOYEES_BY_EMAILS[sizeIndex])) {
+                for (int i = 0; i < chunkSize; i++) {
+                    // Pad a short chunk by repeating its last email
+                    statement.setString(i + 1, employees.get(offset + Math.min(i, take - 1)).getEmail());
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Employee employee = mapResultSetToEmployee(resultSet);
+                        existing.put(emailKey(employee.getEmail()), employee);
+                    }
+                }
+            }
+            offset += take;
+        }
+        return existing;
+    }
+    
+    static boolean sameValues(Employee current, Employee employee) {
+        // Compare salary at the column's scale, since that is what would be stored
+        return employee.getSalary() != null
+            && Objects.equals(current.getName(), employee.getName())
+            && Objects.equals(current.getEmail(), employee.getEmail())
+            && employee.getDepartment() != null
+            && current.getDepartment().equalsIgnoreCase(employee.getDepartment().trim())
+            && current.getSalary().compareTo(employee.getSalary().setScale(current.getSalary().scale(), RoundingMode.HALF_UP)) == 0;
+    }
+    
+    /**
+     * Get employees by department
+     * @param department Department name
+     * @return List of employees in the department
+     */
+    public List<Employee> getEmployeesByDepartment(String department) {
+        List<Employee> employees = new ArrayList<>();
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_EMPLOYEES_BY_DEPARTMENT)) {
+            
+            // An unknown department matches nothing (IDs are positive)
+            Integer departmentId = departments.findId(department);
+            statement.setInt(1, departmentId != null ? departmentId : -1);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Employee employee = mapResultSetToEmployee(resultSet);
+                    employees.add(employee);
+                }
+            }
+            
+            DaoMetrics.success("getEmployeesByDepartment", start, employees.size());
+            Log.info(() -> "🏢 Found " + employees.size() + " employees in " + department + " department");
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getEmployeesByDepartment", start, e);
+            Log.error(() -> "❌ Error retrieving employees by department: " + e.getMessage());
+        }
+        
+        return employees;
+    }
+    
+    /**
+     * Get the distinct department names
+     * @return Department names in alphabetical order
+     */
+    public List<String> getDepartments() {
+        List<String> names = new ArrayList<>();
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_DEPARTMENTS);
+             ResultSet resultSet = statement.executeQuery()) {
+            
+            while (resultSet.next()) {
+                names.add(departments.nameOf(resultSet.getInt(1)));
+            }
+            names.sort(String.CASE_INSENSITIVE_ORDER);
+            DaoMetrics.success("getDepartments", start, names.size());
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getDepartments", start, e);
+            Log.error(() -> "❌ Error retrieving departments: " + e.getMessage());
+        }
+        
+        return names;
+    }
+    
+    /**
+     * Get the highest employee ID, e.g. to split the table into ID ranges
+     * @return Highest ID, or 0 if the table is empty
+     */
+    public int getMaxEmployeeId() {
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_MAX_EMPLOYEE_ID);
+             ResultSet resultSet = statement.executeQuery()) {
+            
+            if (resultSet.next()) {
+                int maxId = resultSet.getInt(1);
+                DaoMetrics.success("getMaxEmployeeId", start, 1);
+                return maxId;
+            }
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getMaxEmployeeId", start, e);
+            Log.error(() -> "❌ Error retrieving highest employee ID: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Get total count of employees
+     * @return Total number of employees
+     */
+    public int getEmployeeCount() {
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 isDepartmentStatsMaintained() ? COUNT_EMPLOYEES_FROM_SUMMARY : COUNT_EMPLOYEES);
+             ResultSet resultSet = statement.executeQuery()) {
+            
+            if (resultSet.next()) {
+                int count = resultSet.getInt(1);
+                DaoMetrics.success("getEmployeeCount", start, 1);
+                Log.info(() -> "📊 Total employees in database: " + count);
+                return count;
+            }
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getEmployeeCount", start, e);
+            Log.error(() -> "❌ Error counting employees: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Compute headcount and salary aggregates in a single query (from the
+     * department_stats summary when its triggers maintain it)
+     * @return SalaryStatistics for the whole table (empty statistics on error)
+     */
+    public SalaryStatistics getSalaryStatistics() {
+        long start = DaoMetrics.start();
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 isDepartmentStatsMaintained() ? SELECT_SALARY_STATISTICS_FROM_SUMMARY : SELECT_SALARY_STATISTICS);
+             ResultSet resultSet = statement.executeQuery()) {
+            
+            if (resultSet.next()) {
+                SalaryStatistics statistics = new SalaryStatistics(null,
+                    resultSet.getLong(1),
+                    resultSet.getBigDecimal(2),
+                    scaleAverage(resultSet.getBigDecimal(3)),
+                    resultSet.getBigDecimal(4),
+                    resultSet.getBigDecimal(5));
+                DaoMetrics.success("getSalaryStatistics", start, 1);
+                return statistics;
+            }
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getSalaryStatistics", start, e);
+            Log.error(() -> "❌ Error computing salary statistics: " + e.getMessage());
+        }
+        
+        return new SalaryStatistics(null, 0, null, null, null, null);
+    }
+    
+    /**
+     * Compute headcount and salary aggregates per department (GROUP BY
+     * department, or the department_stats summary when its triggers maintain it)
+     * @return List of SalaryStatistics ordered by department name
+     */
+    public List<SalaryStatistics> getSalaryStatisticsByDepartment() {
+        List<SalaryStatistics> statistics = new ArrayList<>();
+        long start = DaoMetrics.start();
+        
+        try (Connection connection = DatabaseConnection.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(isDepartmentStatsMaintained()
+                 ? SELECT_SALARY_STATISTICS_BY_DEPARTMENT_FROM_SUMMARY : SELECT_SALARY_STATISTICS_BY_DEPARTMENT);
+             ResultSet resultSet = statement.executeQuery()) {
+            
+            while (resultSet.next()) {
+                statistics.add(mapDepartmentStatistics(resultSet));
+            }
+            statistics.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.getDepartment(), b.getDepartment()));
+            DaoMetrics.success("getSalaryStatisticsByDepartment", start, statistics.size());
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getSalaryStatisticsByDepartment", start, e);
+            Log.error(() -> "❌ Error computing department statistics: " + e.getMessage());
+        }
+        
+        return statistics;
+    }
+    
+    /**
+     * Headcount and salary aggregates of one department; a primary key lookup
+     * in department_stats when its triggers maintain it
+     * @param department Department name
+     * @return SalaryStatistics for the department (empty if it has no employees or on error)
+     */
+    public SalaryStatistics getSalaryStatistics(String department) {
+        long start = DaoMetrics.start();
+        try {
+            Integer departmentId = departments.findId(department);
+            if (departmentId != null) {
+                try (Connection connection = DatabaseConnection.getReadConnection();
+                     PreparedStatement statement = connection.prepareStatement(isDepartmentStatsMaintained()
+                         ? SELECT_SALARY_STATISTICS_FOR_DEPARTMENT_FROM_SUMMARY : SELECT_SALARY_STATISTICS_FOR_DEPARTMENT)) {
+                    
+                    statement.setInt(1, departmentId);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (resultSet.next()) {
+                            SalaryStatistics statistics = mapDepartmentStatistics(resultSet);
+                            DaoMetrics.success("getSalaryStatisticsForDepartment", start, 1);
+                            return statistics;
+                        }
+                    }
+                }
+            }
+            DaoMetrics.success("getSalaryStatisticsForDepartment", start, 0);
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("getSalaryStatisticsForDepartment", start, e);
+            Log.error(() -> "❌ Error computing department statistics: " + e.getMessage());
+        }
+        
+        return new SalaryStatistics(department, 0, null, null, null, null);
+    }
+    
+    private SalaryStatistics mapDepartmentStatistics(ResultSet resultSet) throws SQLException {
+        return new SalaryStatistics(
+            departments.nameOf(resultSet.getInt(1)),
+            resultSet.getLong(2),
+            resultSet.getBigDecimal(3),
+            scaleAverage(resultSet.getBigDecimal(4)),
+            resultSet.getBigDecimal(5),
+            resultSet.getBigDecimal(6));
+    }
+    
+    /**
+     * @return true if the department_stats triggers exist (MySQL with migration
+     *         V7 applied and DEPARTMENT_STATS_ENABLED not false), so statistics can
+     *         be read from the summary instead of aggregating employees
+     */
+    public boolean isDepartmentStatsMaintained() {
+        Boolean maintained = departmentStatsMaintained;
+        if (maintained == null) {
+            if (!Boolean.parseBoolean(EnvLoader.getEnv("DEPARTMENT_STATS_ENABLED", "true"))) {
+                maintained = false;
+            } else {
+                try (Connection connection = DatabaseConnection.getReadConnection()) {
+                    maintained = MigrationRunner.isMySql(connection) && countStatsTriggers(connection) == 3;
+                } catch (SQLException e) {
+                    // Not cached: check again once the database is reachable
+                    Log.warn(() -> "⚠️  Could not check the department_stats triggers: " + e.getMessage());
+                    return false;
+                }
+            }
+            departmentStatsMaintained = maintained;
+        }
+        return maintained;
+    }
+    
+    private static int countStatsTriggers(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(COUNT_DEPARTMENT_STATS_TRIGGERS);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+    
+    /**
+     * Recompute department_stats from the employees table and correct every
+     * department that drifted (rows written while the triggers were missing,
+     * manual edits, and the like). Each department is checked in its own
+     * short transaction: its summary row is locked first, so writes to that
+     * department committing meanwhile wait and are applied on top of the
+     * corrected values, while other departments are never blocked.
+     * 
+     * @return Number of departments corrected, or -1 if reconciliation failed
+     */
+    public int reconcileDepartmentStats() {
+        long start = DaoMetrics.start();
+        int corrected = 0;
+        
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            for (int departmentId : readStatsDepartmentIds(connection)) {
+                if (reconcileDepartment(connection, departmentId)) {
+                    corrected++;
+                }
+            }
+            DaoMetrics.success("reconcileDepartmentStats", start, corrected);
+            
+        } catch (SQLException e) {
+            DaoMetrics.failure("reconcileDepartmentStats", start, e);
+            Log.error(() -> "❌ Error reconciling department statistics: " + e.getMessage());
+            return -1;
+        }
+        return corrected;
+    }
+    
+    /**
+     * @return true if the department's summary row was corrected
+     */
+    private boolean reconcileDepartment(Connection connection, int departmentId) throws SQLException {
+        DepartmentTotals current;
+        DepartmentTotals expected;
+        connection.setAutoCommit(false);
+        try {
+            current = readDepartmentTotals(connection, LOCK_DEPARTMENT_STATS, departmentId);
+            expected = readDepartmentTotals(connection, SELECT_DEPARTMENT_TOTALS, departmentId);
+            if (current == null ? expected.count == 0 : current.matches(expected)) {
+                connection.commit();
+                return false;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(WRITE_DEPARTMENT_STATS)) {
+                statement.setInt(1, departmentId);
+                statement.setLong(2, expected.count);
+                statement.setBigDecimal(3, expected.sum);
+                statement.setBigDecimal(4, expected.min);
+                statement.setBigDecimal(5, expected.max);
+                statement.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        
+        String correction = departmentLabel(departmentId) + ": " + current + " -> " + expected;
+        Log.warn(() -> "⚠️  department_stats drift corrected for " + correction);
+        return true;
+    }
+    
+    private static List<Integer> readStatsDepartmentIds(Connection connection) throws SQLException {
+        List<Integer> departmentIds = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_STATS_DEPARTMENT_IDS);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                departmentIds.add(resultSet.getInt(1));
+            }
+        }
+        return departmentIds;
+    }
+    
+    private String departmentLabel(int departmentId) {
+        try {
+            return departments.nameOf(departmentId);
+        } catch (SQLException e) {
+            // A summary row left behind for a department that no longer exists
+            return "department #" + departmentId;
+        }
+    }
+    
+    /**
+     * @return The query's single row of count, sum, min and max, or null if it returned none
+     */
+    private static DepartmentTotals readDepartmentTotals(Connection connection, String sql, int departmentId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, departmentId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                return new DepartmentTotals(resultSet.getLong(1),
+                    resultSet.getBigDecimal(2), resultSet.getBigDecimal(3), resultSet.getBigDecimal(4));
+            }
+        }
+    }
+    
+    /**
+     * One department_stats row, or the same aggregates computed from employees
+     */
+    private static final class DepartmentTotals {
+        final long count;
+        final BigDecimal sum;
+        final BigDecimal min;
+        final BigDecimal max;
+        
+        DepartmentTotals(long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
+            this.count = count;
+            this.sum = sum != null ? sum : BigDecimal.ZERO;
+            this.min = min;
+            this.max = max;
+        }
+        
+        boolean matches(DepartmentTotals other) {
+            return count == other.count && sameAmount(sum, other.sum)
+                && sameAmount(min, other.min) && sameAmount(max, other.max);
+        }
+        
+        private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+            return a == null ? b == null : b != null && a.compareTo(b) == 0;
+        }
+        
+        @Override
+        public String toString() {
+            return "count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max;
+        }
+    }
+    
+    private static BigDecimal scaleAverage(BigDecimal average) {
+        return average != null ? average.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+    
+    /**
+     * Helper method to map ResultSet to Employee object
+     * (package-private so the benchmarks can measure it in isolation)
+     * @param resultSet ResultSet from database query
+     * @return Employee object
+     * @throws SQLException if any SQL error occurs
+     */
+    Employee mapResultSetToEmployee(ResultSet resultSet) throws SQLException {
+        Employee employee = new Employee(
+            resultSet.getInt("id"),
+            resultSet.getString("name"),
+            resultSet.getString("email"),
+            departments.nameOf(resultSet.getInt("department_id")),
+            resultSet.getBigDecimal("salary"),
+            resultSet.getTimestamp("created_at")
+        );
+        employee.setVersion(resultSet.getInt("version"));
+        employee.markClean();
+        return employee;
+    }
+    
+    /**
+     * Update the search index with a written employee once the write is committed
+     */
+    private void indexEmployee(Employee employee) {
+        if (searchIndex.isMaintained()) {
+            int id = employee.getId();
+            String name = employee.getName();
+            String email = employee.getEmail();
+            UnitOfWork.afterCommit(() -> searchIndex.put(id, name, email));
+        }
+    }
+    
+    private void unindexEmployee(int id) {
+        if (searchIndex.isMaintained()) {
+            UnitOfWork.afterCommit(() -> searchIndex.remove(id));
+        }
+    }
+    
+    /**
+     * Re-run a failed insert chunk one row at a time, committing each good row
+     */
+    private int replayInserts(Connection connection, PreparedStatement statement,
+                              List<Employee> chunk, BatchResult result) throws SQLException {
+        int inserted = 0;
+        for (Employee employee : chunk) {
+            try {
+                bindInsert(connection, statement, employee);
+                statement.executeUpdate();
+                int[] generatedIds = readGeneratedIds(statement, 1);
+                connection.commit();
+                employee.setId(generatedIds[0]);
+                indexEmployee(employee);
+                result.recordSuccess(1);
+                inserted++;
+            } catch (SQLException e) {
+                connection.rollback();
+                result.recordFailure(employee, e.getErrorCode(), e.getMessage());
+            }
+        }
+        return inserted;
+    }
+    
+    /**
+     * Re-run a failed update chunk one row at a time, committing each good row
+     */
+    private int replayUpdates(Connection connection, PreparedStatement statement,
+                              List<Employee> chunk, BatchResult result) throws SQLException {
+        int updated = 0;
+        for (Employee employee : chunk) {
+            try {
+                bindUpdate(connection, statement, employee);
+                int rowsAffected = statement.executeUpdate();
+                connection.commit();
+                if (rowsAffected > 0) {
+                    indexEmployee(employee);
+                    result.recordSuccess(1);
+                    updated++;
+                } else {
+                    result.recordFailure(employee, 0, "No employee found with ID: " + employee.getId());
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                result.recordFailure(employee, e.getErrorCode(), e.getMessage());
+            }
+        }
+        return updated;
+    }
+    
+    private int recordUpdateCounts(List<Employee> chunk, int[] updateCounts, BatchResult result) {
+        int updated = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            int count = i < updateCounts.length ? updateCounts[i] : Statement.SUCCESS_NO_INFO;
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                indexEmployee(chunk.get(i));
+                result.recordSuccess(1);
+                updated++;
+            } else {
+                Employee employee = chunk.get(i);
+                result.recordFailure(employee, 0, "No employee found with ID: " + employee.getId());
+            }
+        }
+        return updated;
+    }
+    
+    private int[] readGeneratedIds(PreparedStatement statement, int expected) throws SQLException {
+        int[] ids = new int[expected];
+        try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+            for (int i = 0; i < expected && generatedKeys.next(); i++) {
+                ids[i] = generatedKeys.getInt(1);
+            }
+        }
+        return ids;
+    }
+    
+    private void bindInsert(Connection connection, PreparedStatement statement, Employee employee) throws SQLException {
+        statement.setString(1, employee.getName());
+        statement.setString(2, employee.getEmail());
+        statement.setInt(3, departments.idOf(connection, employee.getDepartment()));
+        statement.setBigDecimal(4, employee.getSalary());
+    }
+    
+    private void bindUpdate(Connection connection, PreparedStatement statement, Employee employee) throws SQLException {
+        statement.setString(1, employee.getName());
+        statement.setString(2, employee.getEmail());
+        statement.setInt(3, departments.idOf(connection, employee.getDepartment()));
+        statement.setBigDecimal(4, employee.getSalary());
+        statement.setInt(5, employee.getId());
+    }
+    
+    /**
+     * Like chunk(), but starts a new chunk whenever an email repeats, so rows
+     * with the same email are applied in input order
+     */
+    private static List<List<Employee>> chunkByEmail(Collection<Employee> employees, int chunkSize) {
+        int size = Math.max(1, chunkSize);
+        List<List<Employee>> chunks = new ArrayList<>();
+        List<Employee> current = new ArrayList<>(Math.min(size, employees.size()));
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (current.size() == size || !emails.add(emailKey(employee.getEmail()))) {
+                chunks.add(current);
+                current = new ArrayList<>(size);
+                emails.clear();
+                emails.add(emailKey(employee.getEmail()));
+            }
+            current.add(employee);
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+    
+    /**
+     * Emails compare case-insensitively under MySQL's default collation
+     */
+    static String emailKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+    
+    private static List<List<Employee>> chunk(Collection<Employee> employees, int chunkSize) {
+        int size = Math.max(1, chunkSize);
+        List<List<Employee>> chunks = new ArrayList<>();
+        List<Employee> current = new ArrayList<>(Math.min(size, employees.size()));
+        for (Employee employee : employees) {
+            current.add(employee);
+            if (current.size() == size) {
+                chunks.add(current);
+                current = new ArrayList<>(size);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+    
+    /**
+     * @return One query per entry of ID_CHUNK_SIZES with that many IN-list placeholders
+     */
+    private static String[] buildInListQueries(String prefix, String suffix) {
+        String[] queries = new String[ID_CHUNK_SIZES.length];
+        for (int i = 0; i < ID_CHUNK_SIZES.length; i++) {
+            StringBuilder sql = new StringBuilder(prefix);
+            for (int p = 0; p < ID_CHUNK_SIZES[i]; p++) {
+                sql.append(p == 0 ? "?" : ", ?");
+            }
+            queries[i] = sql.append(suffix).toString();
+        }
+        return queries;
+    }
+    
+    /**
+     * @return Index of the smallest chunk size that holds all remaining IDs (or the largest size)
+     */
+    private static int chunkSizeIndex(int remaining) {
+        for (int i = 0; i < ID_CHUNK_SIZES.length; i++) {
+            if (ID_CHUNK_SIZES[i] >= remaining) {
+                return i;
+            }
+        }
+        return ID_CHUNK_SIZES.length - 1;
+    }
+    
+    static int[] distinctSorted(int[] ids) {
+        if (ids == null || ids.length == 0) {
+            return new int[0];
+        }
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int count = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[count - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+    
+    /**
+     * One conditional UPDATE per combination of changed fields (index 0, nothing changed, is unused)
+     */
+    private static String[] buildVersionedUpdates() {
+        String[] columns = {"name = ?", "email = ?", "department_id = ?", "salary = ?"};
+        String[] queries = new String[Employee.ALL_FIELDS + 1];
+        for (int mask = 1; mask < queries.length; mask++) {
+            StringBuilder sql = new StringBuilder("UPDATE employees SET ");
+            for (Employee.Field field : Employee.Field.values()) {
+                if ((mask & field.bit()) != 0) {
+                    sql.append(columns[field.ordinal()]).append(", ");
+                }
+            }
+            queries[mask] = sql.append("version = version + 1 WHERE id = ? AND version = ?").toString();
+        }
+        return queries;
+    }
+    
+    private static int getStreamingFetchSize() {
+        // Integer.MIN_VALUE tells Connector/J to stream rows one at a time
+        return EnvLoader.getIntEnv("DB_STREAMING_FETCH_SIZE", Integer.MIN_VALUE);
+    }
+    
+    private static long getChangeFeedSettleMillis() {
+        return Math.max(0L, EnvLoader.getLongEnv("CHANGE_FEED_SETTLE_MS", 1000L));
+    }
+    
+    private static int getDefaultBatchSize() {
+        return EnvLoader.getIntEnv("DB_BATCH_SIZE", 500);
+    }
+    
+    /**
+     * Check if an employee exists by email
+     * @param email Email to check
      * @return true if employee exists, false otherwise
      */
     public boolean employeeExistsByEmail(String email) {
         String query = "SELECT COUNT(*) FROM employees WHERE email = ?";
+        long start = DaoMetrics.start();
         
-        try (Connection connection = DatabaseConnection.getConnection();
+        try (Connection connection = DatabaseConnection.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             
             statement.setString(1, email);
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    return resultSet.getInt(1) > 0;
+                    boolean exists = resultSet.getInt(1) > 0;
+                    DaoMetrics.success("employeeExistsByEmail", start, 1);
+                    return exists;
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("❌ Error checking employee existence: " + e.getMessage());
+            DaoMetrics.failure("employeeExistsByEmail", start, e);
+            Log.error(() -> "❌ Error checking employee existence: " + e.getMessage());
         }
         
         return false;
@@ -0,0 +1,423 @@
+package com.employee;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Employee Exporter
+ * Dumps the employees table to CSV, JSON lines or the compressed columnar
+ * format described in {@link ColumnarEmployeeFile}. Rows are streamed from a
+ * forward-only cursor straight into a buffered FileChannel, and values are
+ * encoded byte by byte (no String.format per row), so exports run in
+ * constant memory.
+ *
+ * The output can be split into one file per department or per ID range;
+ * parts are written in parallel, each on its own pooled connection. Every
+ * file is written under a .tmp name and renamed when complete, so a failed
+ * export never leaves a truncated file behind.
+ */
+public class EmployeeExporter {
+
+    /**
+     * Supported output formats
+     */
+    public enum Format {
+        CSV("csv"), JSONL("jsonl"), COLUMNAR("empc");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param name Format name or file extension (case-insensitive)
+         * @return Matching format
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Format fromName(String name) {
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (format.extension.equals(normalized) || format.name().equalsIgnoreCase(normalized)) {
+                    return format;
+                }
+            }
+            if (normalized.equals("json") || normalized.equals("ndjson")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Unknown export format: " + name);
+        }
+    }
+
+    /**
+     * How the output is split into files
+     */
+    public enum Partitioning {
+        NONE, DEPARTMENT, ID_RANGE
+    }
+
+    private static final String[] COLUMNS = {"id", "name", "email", "department", "salary", "created_at"};
+
+    private final EmployeeRepository employeeDAO;
+    private final int threads;
+    private final int bufferSize;
+    private final int rowGroupSize;
+
+    /**
+     * Create an exporter configured from EXPORT_* environment variables
+     * @param employeeDAO DAO (or other repository) that streams the rows
+     */
+    public EmployeeExporter(EmployeeRepository employeeDAO) {
+        this(employeeDAO,
+            EnvLoader.getIntEnv("EXPORT_THREADS", Math.min(4, ConnectionPool.PoolConfig.fromEnv().getMaxSize())),
+            EnvLoader.getIntEnv("EXPORT_BUFFER_SIZE", 256 * 1024),
+            EnvLoader.getIntEnv("EXPORT_ROW_GROUP_SIZE", ColumnarEmployeeFile.DEFAULT_ROW_GROUP_SIZE));
+    }
+
+    /**
+     * @param employeeDAO DAO (or other repository) that streams the rows
+     * @param threads Parts written at once (each holds one connection while streaming)
+     * @param bufferSize Bytes buffered per file between channel writes
+     * @param rowGroupSize Rows per row group in the columnar format
+     */
+    public EmployeeExporter(EmployeeRepository employeeDAO, int threads, int bufferSize, int rowGroupSize) {
+        this.employeeDAO = employeeDAO;
+        this.threads = Math.max(1, threads);
+        this.bufferSize = bufferSize;
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    /**
+     * Export the whole table to a single file
+     * @param file Output file (replaced if it exists)
+     * @param format Output format
+     * @return Rows and bytes written
+     * @throws IOException if the file cannot be written or the query fails
+     */
+    public ExportReport exportTo(Path file, Format format) throws IOException {
+        long start = DaoMetrics.start();
+        ExportReport.Part part = writePart(file, format, employeeDAO::forEachEmployee);
+        return finish(start, List.of(part));
+    }
+
+    /**
+     * Export the table into a directory, one file per partition, writing partitions in parallel
+     * @param directory Output directory (created if missing)
+     * @param format Output format
+     * @param partitioning NONE for a single employees.&lt;ext&gt; file, DEPARTMENT or ID_RANGE
+     * @param idRanges Number of ID ranges when partitioning by ID_RANGE
+     * @return Rows and bytes written per file
+     * @throws IOException if any part cannot be written or its query fails
+     */
+    public ExportReport exportPartitioned(Path directory, Format format, Partitioning partitioning, int idRanges)
+            throws IOException {
+        long start = DaoMetrics.start();
+        Files.createDirectories(directory);
+
+        List<Path> files = new ArrayList<>();
+        List<ToIntFunction<Consumer<Employee>>> sources = new ArrayList<>();
+        String extension = "." + format.getExtension();
+
+        switch (partitioning) {
+            case DEPARTMENT:
+                Set<String> usedNames = new HashSet<>();
+                for (String department : employeeDAO.getDepartments()) {
+                    String name = fileNameFor(department);
+                    for (int suffix = 2; !usedNames.add(name); suffix++) {
+                        name = fileNameFor(department) + "-" + suffix;
+                    }
+                    files.add(directory.resolve("employees-" + name + extension));
+                    sources.add(action -> employeeDAO.forEachEmployeeInDepartment(department, action));
+                }
+                break;
+            case ID_RANGE:
+                long total = employeeDAO.getMaxEmployeeId() + 1L;
+                int parts = Math.max(1, idRanges);
+                long span = (total + parts - 1) / parts;
+                for (int i = 0; i < parts && i * span < total; i++) {
+                    int from = (int) (i * span);
+                    int to = (int) Math.min(total, from + span);
+                    files.add(directory.resolve(String.format("employees-part-%04d%s", i + 1, extension)));
+                    sources.add(action -> employeeDAO.forEachEmployeeInIdRange(from, to, action));
+                }
+                break;
+            default:
+                files.add(directory.resolve("employees" + extension));
+                sources.add(employeeDAO::forEachEmployee);
+        }
+
+        return finish(start, writeParts(files, sources, format));
+    }
+
+    // ---- Parallel part writing ----
+
+    private List<ExportReport.Part> writeParts(List<Path> files, List<ToIntFunction<Consumer<Employee>>> sources,
+                                               Format format) throws IOException {
+        if (files.size() <= 1 || threads == 1) {
+            List<ExportReport.Part> parts = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                parts.add(writePart(files.get(i), format, sources.get(i)));
+            }
+            return parts;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.size()), runnable -> {
+            Thread thread = new Thread(runnable, "employee-export-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<ExportReport.Part>> futures = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                ToIntFunction<Consumer<Employee>> source = sources.get(i);
+                futures.add(executor.submit(() -> writePart(file, format, source)));
+            }
+
+            List<ExportReport.Part> parts = new ArrayList<>(files.size());
+            for (Future<ExportReport.Part> future : futures) {
+                parts.add(future.get());
+            }
+            return parts;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Export failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExportReport.Part writePart(Path file, Format format, ToIntFunction<Consumer<Employee>> source)
+            throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        boolean complete = false;
+        try {
+            int rows;
+            long bytes;
+            try (ChannelOutput output = new ChannelOutput(temp, bufferSize)) {
+                RecordWriter writer = newWriter(format, output);
+                try {
+                    rows = source.applyAsInt(employee -> {
+                        try {
+                            writer.write(employee);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                if (rows < 0) {
+                    throw new IOException("Query failed while exporting " + file);
+                }
+                writer.finish();
+                output.sync();
+                bytes = output.getBytesWritten();
+            }
+            moveIntoPlace(temp, file);
+            complete = true;
+            Log.debug(() -> "📤 Exported " + rows + " rows to " + file);
+            return new ExportReport.Part(file, rows, bytes);
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private ExportReport finish(long start, List<ExportReport.Part> parts) {
+        ExportReport report = new ExportReport(parts, System.nanoTime() - start);
+        DaoMetrics.success("exportEmployees", start, report.getRowCount());
+        Log.info(() -> "📤 Export finished: " + report);
+        return report;
+    }
+
+    private static void moveIntoPlace(Path temp, Path file) throws IOException {
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String fileNameFor(String department) {
+        String name = department.replaceAll("[^A-Za-z0-9_-]+", "_");
+        return name.isEmpty() ? "_" : name;
+    }
+
+    // ---- Record writers ----
+
+    private RecordWriter newWriter(Format format, ChannelOutput output) throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvWriter(output);
+            case JSONL:
+                return new JsonLinesWriter(output);
+            default:
+                ColumnarEmployeeFile.Writer columnar = new ColumnarEmployeeFile.Writer(output, rowGroupSize);
+                return new RecordWriter() {
+                    @Override
+                    public void write(Employee employee) throws IOException {
+                        columnar.write(employee);
+                    }
+
+                    @Override
+                    public void finish() throws IOException {
+                        columnar.close();
+                    }
+                };
+        }
+    }
+
+    private interface RecordWriter {
+        void write(Employee employee) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; fields are quoted only when needed
+     */
+    private static final class CsvWriter implements RecordWriter {
+        private final ChannelOutput out;
+
+        CsvWriter(ChannelOutput out) throws IOException {
+            this.out = out;
+            out.writeAscii(String.join(",", COLUMNS));
+            out.writeByte('\n');
+        }
+
+        @Override
+        public void write(Employee employee) throws IOException {
+            out.writeLong(employee.getId());
+            out.writeByte(',');
+            writeText(employee.getName());
+            out.writeByte(',');
+            writeText(employee.getEmail());
+            out.writeByte(',');
+            writeText(employee.getDepartment());
+            out.writeByte(',');
+            out.writeDecimal(employee.getSalary());
+            out.writeByte(',');
+            Timestamp createdAt = employee.getCreatedAt();
+            if (createdAt != null) {
+                out.writeTimestamp(createdAt);
+            }
+            out.writeByte('\n');
+        }
+
+        private void writeText(String value) throws IOException {
+            if (!needsQuotes(value)) {
+                out.writeUtf8(value);
+                return;
+            }
+            out.writeByte('"');
+            int index = 0;
+            while (index < value.length()) {
+                if (value.charAt(index) == '"') {
+                    out.writeByte('"');
+                }
+                index = out.writeUtf8Char(value, index);
+            }
+            out.writeByte('"');
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * One JSON object per line; salary is written as a JSON number
+     */
+    private static final class JsonLinesWriter implements RecordWriter {
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private final ChannelOutput out;
+
+        JsonLinesWriter(ChannelOutput out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(Employee employee) throws IOException {
+            out.writeAscii("{\"id\":");
+            out.writeLong(employee.getId());
+            out.writeAscii(",\"name\":");
+            writeString(employee.getName());
+            out.writeAscii(",\"email\":");
+            writeString(employee.getEmail());
+            out.writeAscii(",\"department\":");
+            writeString(employee.getDepartment());
+            out.writeAscii(",\"salary\":");
+            out.writeDecimal(employee.getSalary());
+            out.writeAscii(",\"created_at\":");
+            Timestamp createdAt = employee.getCreatedAt();
+            if (createdAt == null) {
+                out.writeAscii("null");
+            } else {
+                out.writeByte('"');
+                out.writeTimestamp(createdAt);
+                out.writeByte('"');
+            }
+            out.writeAscii("}\n");
+        }
+
+        private void writeString(String value) throws IOException {
+            out.writeByte('"');
+            int index = 0;
+            while (index < value.length()) {
+                char c = value.charAt(index);
+                if (c == '"' || c == '\\') {
+                    out.writeByte('\\');
+                    out.writeByte(c);
+                    index++;
+                } else if (c < 0x20) {
+                    out.writeAscii("\\u00");
+                    out.writeByte(HEX[c >> 4]);
+                    out.writeByte(HEX[c & 0xF]);
+                    index++;
+                } else {
+                    index = out.writeUtf8Char(value, index);
+                }
+            }
+            out.writeByte('"');
+        }
+    }
+}
@@ -0,0 +1,588 @@
+package com.employee;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Employee Importer
+ * Streams a CSV or JSON-lines file into the employees table without
+ * loading it into memory. The file is read sequentially in blocks of lines;
+ * blocks are parsed and validated on a pool of parser threads and handed to
+ * writer threads over a bounded queue, which insert them with
+ * EmployeeDAO.createEmployees (batched, so Connector/J sends multi-row
+ * INSERTs when rewriteBatchedStatements is on).
+ *
+ * Every stage is bounded: when the writers fall behind the parsers block,
+ * and when the parsers fall behind the reader parses the next block itself,
+ * so memory stays constant regardless of file size.
+ *
+ * With IMPORT_MODE=upsert rows are written with EmployeeDAO.upsertEmployees
+ * instead, so existing emails are updated and re-running the same file is
+ * harmless. Parsed blocks are then passed on in file order and every row
+ * goes to the writer its email hashes to, so when an email appears on
+ * several lines the last one wins.
+ *
+ * CSV files may start with a header naming the name, email, department and
+ * salary columns in any order; without a header those four columns are
+ * expected in that order. Quoted fields may contain commas and doubled
+ * quotes but not line breaks. JSON-lines files hold one flat object per line
+ * with the same four keys.
+ */
+public class EmployeeImporter {
+
+    /**
+     * Supported input formats
+     */
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * @param path Input file
+         * @return JSONL for .jsonl / .ndjson / .json files, CSV otherwise
+         */
+        public static Format fromPath(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+                return JSONL;
+            }
+            return CSV;
+        }
+    }
+
+    private static final String[] COLUMNS = {"name", "email", "department", "salary"};
+    private static final List<Employee> END_OF_INPUT = new ArrayList<>();
+
+    private final EmployeeRepository employeeDAO;
+    private final int parseThreads;
+    private final int writerThreads;
+    private final int blockSize;
+    private final int queueCapacity;
+    private final boolean upsert;
+
+    /**
+     * Create an importer configured from IMPORT_* environment variables
+     * @param employeeDAO DAO (or other repository) that performs the inserts
+     */
+    public EmployeeImporter(EmployeeRepository employeeDAO) {
+        this(employeeDAO,
+            EnvLoader.getIntEnv("IMPORT_PARSE_THREADS", Runtime.getRuntime().availableProcessors()),
+            EnvLoader.getIntEnv("IMPORT_WRITER_THREADS", 2),
+            EnvLoader.getIntEnv("IMPORT_BLOCK_SIZE", 1000),
+            EnvLoader.getIntEnv("IMPORT_QUEUE_CAPACITY", 4),
+            EnvLoader.getEnv("IMPORT_MODE", "insert").trim().equalsIgnoreCase("upsert"));
+    }
+
+    /**
+     * @param employeeDAO DAO (or other repository) that performs the inserts
+     * @param parseThreads Threads parsing and validating lines
+     * @param writerThreads Threads inserting parsed blocks (each holds one connection while writing)
+     * @param blockSize Lines per block handed between stages
+     * @param queueCapacity Blocks that may wait between stages
+     * @param upsert Update employees whose email already exists instead of reporting them as duplicates
+     */
+    public EmployeeImporter(EmployeeRepository employeeDAO, int parseThreads, int writerThreads, int blockSize,
+                            int queueCapacity, boolean upsert) {
+        this.employeeDAO = employeeDAO;
+        this.parseThreads = Math.max(1, parseThreads);
+        this.writerThreads = Math.max(1, writerThreads);
+        this.blockSize = Math.max(1, blockSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.upsert = upsert;
+    }
+
+    /**
+     * Import a file, choosing the format from its extension
+     * @param path CSV or JSON-lines file
+     * @return Counts of imported, rejected and duplicate rows
+     * @throws IOException if the file cannot be read or its CSV header is invalid
+     */
+    public ImportReport importFile(Path path) throws IOException {
+        return importFile(path, Format.fromPath(path));
+    }
+
+    /**
+     * Import a file in the given format
+     * @param path Input file (UTF-8)
+     * @param format CSV or JSONL
+     * @return Counts of imported, rejected and duplicate rows
+     * @throws IOException if the file cannot be read or its CSV header is invalid
+     */
+    public ImportReport importFile(Path path, Format format) throws IOException {
+        ImportReport report = new ImportReport(path.toString());
+        long start = DaoMetrics.start();
+        Log.info(() -> "📥 Importing " + path + " (" + format + (upsert ? " upsert" : "") + ", " + parseThreads + " parser / "
+            + writerThreads + " writer threads)");
+
+        List<BlockingQueue<List<Employee>>> writeQueues = createWriteQueues();
+        EmailRouter router = upsert ? new EmailRouter(writeQueues) : null;
+        List<Thread> writers = startWriters(writeQueues, report);
+        ThreadPoolExecutor parsers = new ThreadPoolExecutor(parseThreads, parseThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), daemonThreads("employee-import-parser-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            int[] columns = null;
+            List<String> lines = new ArrayList<>(blockSize);
+            long lineNumber = 0;
+            long blockStart = 1;
+            long blockNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);
+                }
+                if (format == Format.CSV && columns == null) {
+                    if (line.trim().isEmpty()) {
+                        blockStart = lineNumber + 1;
+                        continue;
+                    }
+                    columns = readHeader(line);
+                    if (columns != null) {
+                        blockStart = lineNumber + 1;
+                        continue;
+                    }
+                    columns = new int[] {0, 1, 2, 3};
+                }
+
+                lines.add(line);
+                if (lines.size() == blockSize) {
+                    submit(parsers, lines, blockStart, blockNumber++, format, columns, writeQueues, router, report);
+                    lines = new ArrayList<>(blockSize);
+                    blockStart = lineNumber + 1;
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(parsers, lines, blockStart, blockNumber, format, columns, writeQueues, router, report);
+            }
+        } finally {
+            finish(parsers, writers, writeQueues);
+        }
+
+        report.finish(System.nanoTime() - start);
+        DaoMetrics.success("importFile", start, report.getImported());
+        Log.info(() -> "📥 Import finished: " + report);
+        return report;
+    }
+
+    // ---- Pipeline ----
+
+    /**
+     * Insert mode: one queue shared by all writers. Upsert mode: one queue per writer.
+     */
+    private List<BlockingQueue<List<Employee>>> createWriteQueues() {
+        List<BlockingQueue<List<Employee>>> queues = new ArrayList<>(writerThreads);
+        BlockingQueue<List<Employee>> shared = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < writerThreads; i++) {
+            queues.add(upsert ? new ArrayBlockingQueue<>(queueCapacity) : shared);
+        }
+        return queues;
+    }
+
+    private void submit(ExecutorService parsers, List<String> lines, long firstLine, long blockNumber, Format format,
+                        int[] columns, List<BlockingQueue<List<Employee>>> writeQueues, EmailRouter router,
+                        ImportReport report) throws InterruptedIOException {
+        // A full parser queue runs the task on the reader thread, which slows reading down
+        parsers.execute(() -> {
+            List<Employee> employees;
+            try {
+                employees = parseBlock(lines, firstLine, format, columns, report);
+            } catch (RuntimeException e) {
+                // Still hand on an (empty) block, or the router would wait for it forever
+                Log.error(() -> "❌ Error parsing lines " + firstLine + "-" + (firstLine + lines.size() - 1) + ": " + e);
+                report.recordReject(firstLine, "block of " + lines.size() + " lines not parsed: " + e);
+                employees = new ArrayList<>();
+            }
+            try {
+                if (router != null) {
+                    router.dispatch(blockNumber, employees);
+                } else if (!employees.isEmpty()) {
+                    writeQueues.get(0).put(employees);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Import interrupted");
+        }
+    }
+
+    private List<Thread> startWriters(List<BlockingQueue<List<Employee>>> writeQueues, ImportReport report) {
+        List<Thread> writers = new ArrayList<>(writerThreads);
+        for (int i = 1; i <= writerThreads; i++) {
+            BlockingQueue<List<Employee>> writeQueue = writeQueues.get(i - 1);
+            Thread writer = new Thread(() -> {
+                try {
+                    List<Employee> block;
+                    while ((block = writeQueue.take()) != END_OF_INPUT) {
+                        write(block, report);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "employee-import-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+        return writers;
+    }
+
+    /**
+     * Write one block; a block the repository throws on is reported as failed
+     * so the writer keeps draining its queue and the import cannot hang
+     */
+    private void write(List<Employee> block, ImportReport report) {
+        try {
+            if (upsert) {
+                report.recordUpsert(employeeDAO.upsertEmployees(block));
+            } else {
+                report.recordBatch(employeeDAO.createEmployees(block));
+            }
+        } catch (RuntimeException e) {
+            Log.error(() -> "❌ Error writing a block of " + block.size() + " rows: " + e);
+            report.recordFailure(block, e.toString());
+        }
+    }
+
+    private void finish(ExecutorService parsers, List<Thread> writers, List<BlockingQueue<List<Employee>>> writeQueues)
+            throws InterruptedIOException {
+        try {
+            parsers.shutdown();
+            parsers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            for (BlockingQueue<List<Employee>> writeQueue : writeQueues) {
+                writeQueue.put(END_OF_INPUT);
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        } catch (InterruptedException e) {
+            parsers.shutdownNow();
+            for (Thread writer : writers) {
+                writer.interrupt();
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        }
+    }
+
+    /**
+     * Upsert mode: passes parsed blocks on in file order (parsers finish them
+     * out of order) and splits each block by email hash across the writers'
+     * queues. Every email then has a single writer that sees its lines in
+     * file order, so the last line for an email wins.
+     */
+    private static final class EmailRouter {
+        private final List<BlockingQueue<List<Employee>>> writeQueues;
+        // Blocks parsed ahead of an earlier one; at most the parsers' in-flight blocks
+        private final Map<Long, List<Employee>> parsed = new HashMap<>();
+        private long nextBlock;
+
+        EmailRouter(List<BlockingQueue<List<Employee>>> writeQueues) {
+            this.writeQueues = writeQueues;
+        }
+
+        synchronized void dispatch(long blockNumber, List<Employee> employees) throws InterruptedException {
+            parsed.put(blockNumber, employees);
+            List<Employee> block;
+            while ((block = parsed.remove(nextBlock)) != null) {
+                nextBlock++;
+                route(block);
+            }
+        }
+
+        private void route(List<Employee> block) throws InterruptedException {
+            List<List<Employee>> parts = new ArrayList<>(writeQueues.size());
+            for (int i = 0; i < writeQueues.size(); i++) {
+                parts.add(new ArrayList<>());
+            }
+            for (Employee employee : block) {
+                int writer = Math.floorMod(employee.getEmail().toLowerCase(Locale.ROOT).hashCode(), writeQueues.size());
+                parts.get(writer).add(employee);
+            }
+            for (int i = 0; i < parts.size(); i++) {
+                if (!parts.get(i).isEmpty()) {
+                    writeQueues.get(i).put(parts.get(i));
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // ---- Parsing ----
+
+    private static List<Employee> parseBlock(List<String> lines, long firstLine, Format format, int[] columns,
+                                             ImportReport report) {
+        List<Employee> employees = new ArrayList<>(lines.size());
+        long rows = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            rows++;
+            long lineNumber = firstLine + i;
+            try {
+                Employee employee = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+                String problem = EmployeeValidator.validate(employee);
+                if (problem == null) {
+                    employees.add(employee);
+                } else {
+                    report.recordReject(lineNumber, problem);
+                }
+            } catch (IllegalArgumentException e) {
+                report.recordReject(lineNumber, e.getMessage());
+            }
+        }
+        report.recordRead(rows);
+        return employees;
+    }
+
+    /**
+     * @return Column index of name, email, department and salary, or null if the line is not a header
+     */
+    private static int[] readHeader(String line) throws IOException {
+        List<String> fields = splitCsv(line);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            positions.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!positions.containsKey("email")) {
+            return null;
+        }
+        int[] columns = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Integer position = positions.get(COLUMNS[i]);
+            if (position == null) {
+                throw new IOException("CSV header is missing the '" + COLUMNS[i] + "' column");
+            }
+            columns[i] = position;
+        }
+        return columns;
+    }
+
+    private static Employee parseCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        String[] values = new String[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (columns[i] >= fields.size()) {
+                throw new IllegalArgumentException("Expected " + COLUMNS.length + " columns, found " + fields.size());
+            }
+            values[i] = fields.get(columns[i]);
+        }
+        return toEmployee(values[0], values[1], values[2], values[3]);
+    }
+
+    private static Employee parseJson(String line) {
+        Map<String, String> fields = new JsonLine(line).parseObject();
+        return toEmployee(fields.get("name"), fields.get("email"), fields.get("department"), fields.get("salary"));
+    }
+
+    private static Employee toEmployee(String name, String email, String department, String salary) {
+        BigDecimal amount = null;
+        if (salary != null && !salary.trim().isEmpty()) {
+            try {
+                amount = new BigDecimal(salary.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid salary: " + salary);
+            }
+        }
+        return new Employee(trim(name), trim(email), trim(department), amount);
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * Split one CSV record; quoted fields may contain commas and doubled quotes
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS.length);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Minimal parser for one flat JSON object per line. Strings, numbers,
+     * booleans and null are returned as text; nested values are rejected.
+     */
+    private static final class JsonLine {
+        private final String text;
+        private int pos;
+
+        JsonLine(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> parseObject() {
+            Map<String, String> fields = new HashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return end(fields);
+            }
+            while (true) {
+                skipWhitespace();
+                String key = parseString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                fields.put(key, parseValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return end(fields);
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private Map<String, String> end(Map<String, String> fields) {
+            skipWhitespace();
+            if (pos < text.length()) {
+                throw error("Unexpected trailing content");
+            }
+            return fields;
+        }
+
+        private String parseValue() {
+            char c = peek();
+            if (c == '"') {
+                return parseString();
+            }
+            if (c == '{' || c == '[') {
+                throw error("Nested values are not supported");
+            }
+            int begin = pos;
+            while (pos < text.length() && ",} \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(begin, pos);
+            if (literal.isEmpty()) {
+                throw error("Missing value");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private void expect(char expected) {
+            skipWhitespace();
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of line");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at column " + (pos + 1) + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.employee;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Employee Page
+ * One page of a keyset-paginated employee listing plus the cursor needed
+ * to fetch the next page.
+ */
+public class EmployeePage {
+
+    private final List<Employee> employees;
+    private final int nextCursor;
+    private final boolean hasMore;
+
+    public EmployeePage(List<Employee> employees, int nextCursor, boolean hasMore) {
+        this.employees = Collections.unmodifiableList(employees);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * @return Employees on this page, ordered by ID
+     */
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * @return Cursor to pass as afterId for the next page (the last ID on this page)
+     */
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true if at least one more row exists after this page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isEmpty() {
+        return employees.isEmpty();
+    }
+}
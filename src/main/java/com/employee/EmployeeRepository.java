@@ -0,0 +1,240 @@
+package com.employee;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Employee Repository
+ * The employee operations the application, importer, exporter and search
+ * index rely on, independent of where employees are stored. Errors are
+ * reported through return values (false, null, empty results, failure
+ * entries), never thrown.
+ *
+ * Implementations:
+ * <ul>
+ *   <li>{@link EmployeeDAO}: MySQL through JDBC</li>
+ *   <li>{@link InMemoryEmployeeRepository}: concurrent in-process storage, no database</li>
+ * </ul>
+ *
+ * {@link CachingEmployeeDAO} and {@link WriteBehindEmployeeDAO} wrap any
+ * implementation, and {@link AsyncEmployeeDAO} runs any of them off the
+ * caller's thread.
+ *
+ * Features that only exist in the database (change feed, department_stats
+ * summary, units of work) stay on EmployeeDAO.
+ */
+public interface EmployeeRepository {
+
+    /**
+     * Which implementation the application uses (REPOSITORY_TYPE)
+     */
+    enum Type {
+        JDBC,
+        MEMORY;
+
+        /**
+         * @return Type named by REPOSITORY_TYPE (jdbc or memory, default jdbc)
+         */
+        public static Type fromEnv() {
+            String name = EnvLoader.getEnv("REPOSITORY_TYPE", "jdbc");
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                Log.warn(() -> "⚠️  Unknown REPOSITORY_TYPE '" + name + "' (expected jdbc or memory), using jdbc");
+                return JDBC;
+            }
+        }
+    }
+
+    // ---- Single rows ----
+
+    /**
+     * @param employee Employee to insert; its generated ID is written back
+     * @return true if the employee was created
+     */
+    boolean createEmployee(Employee employee);
+
+    /**
+     * @return Employee, or null if there is none with this ID
+     */
+    Employee getEmployeeById(int id);
+
+    /**
+     * @param ids Employee IDs (duplicates are ignored)
+     * @return Map from ID to employee for every ID that exists
+     */
+    Map<Integer, Employee> getEmployeesByIds(int[] ids);
+
+    /**
+     * @param ids Employee IDs (duplicates are ignored)
+     * @param missing Receives each requested ID that does not exist (may be null)
+     * @return Map from ID to employee for every ID that exists
+     */
+    Map<Integer, Employee> getEmployeesByIds(int[] ids, IntConsumer missing);
+
+    /**
+     * Overwrite every field (last writer wins)
+     * @return true if the employee exists and was updated
+     */
+    boolean updateEmployee(Employee employee);
+
+    /**
+     * Write the changed fields only if the stored version still matches (optimistic locking)
+     * @return APPLIED, UNCHANGED, CONFLICT with the current employee, NOT_FOUND, or FAILED
+     */
+    VersionedWriteResult tryUpdateEmployee(Employee employee);
+
+    /**
+     * Delete only if the stored version still matches
+     * @return APPLIED, CONFLICT with the current employee, NOT_FOUND, or FAILED
+     */
+    VersionedWriteResult tryDeleteEmployee(int id, int expectedVersion);
+
+    /**
+     * @return true if the employee existed and was deleted
+     */
+    boolean deleteEmployee(int id);
+
+    /**
+     * Insert, or update the employee with the same email
+     * @param employee Employee to write; its ID is set to the inserted or existing employee's ID
+     * @return INSERTED, UPDATED, UNCHANGED, or FAILED
+     */
+    UpsertResult.Outcome upsertEmployee(Employee employee);
+
+    /**
+     * @return true if an employee has this email (case-insensitive)
+     */
+    boolean employeeExistsByEmail(String email);
+
+    // ---- Batches ----
+
+    BatchResult createEmployees(Collection<Employee> employees);
+
+    /**
+     * @param employees Employees to insert; generated IDs are written back
+     * @param chunkSize Rows per batch
+     * @return BatchResult with the success count and per-row failures
+     */
+    BatchResult createEmployees(Collection<Employee> employees, int chunkSize);
+
+    BatchResult updateEmployees(Collection<Employee> employees);
+
+    /**
+     * @param employees Employees to update (matched by ID)
+     * @param chunkSize Rows per batch
+     * @return BatchResult with the success count and per-row failures
+     */
+    BatchResult updateEmployees(Collection<Employee> employees, int chunkSize);
+
+    UpsertResult upsertEmployees(Collection<Employee> employees);
+
+    /**
+     * @param employees Employees to write, keyed by email
+     * @param chunkSize Rows per batch
+     * @return UpsertResult with one outcome per row, in input order
+     */
+    UpsertResult upsertEmployees(Collection<Employee> employees, int chunkSize);
+
+    // ---- Set-based updates ----
+
+    BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment);
+
+    /**
+     * Raise or cut the salary of every matching employee; rows whose new
+     * salary would not be positive are left unchanged
+     * @param dryRun true to only count the rows and sum their salaries before and after
+     */
+    BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment, boolean dryRun);
+
+    BulkUpdateResult reassignDepartment(String fromDepartment, String toDepartment);
+
+    /**
+     * Move every matching employee to a department
+     * @param dryRun true to only count the employees and sum their salaries
+     */
+    BulkUpdateResult reassignDepartment(EmployeeCriteria criteria, String toDepartment, boolean dryRun);
+
+    // ---- Reads ----
+
+    List<Employee> getAllEmployees();
+
+    /**
+     * @param afterId Cursor from the previous page, or 0 for the first page
+     * @param pageSize Maximum number of employees to return
+     * @return EmployeePage ordered by ID
+     */
+    EmployeePage getEmployeesPage(int afterId, int pageSize);
+
+    /**
+     * Pass every employee (ordered by ID) to a callback without holding them all in memory
+     * @return Number of employees passed, or -1 if reading failed part way
+     */
+    int forEachEmployee(Consumer<Employee> action);
+
+    /**
+     * @return Number of employees passed, or -1 if reading failed part way
+     */
+    int forEachEmployeeInDepartment(String department, Consumer<Employee> action);
+
+    /**
+     * @param fromId First ID, inclusive
+     * @param toId Last ID, exclusive
+     * @return Number of employees passed, or -1 if reading failed part way
+     */
+    int forEachEmployeeInIdRange(int fromId, int toId, Consumer<Employee> action);
+
+    List<Employee> getEmployeesByDepartment(String department);
+
+    /**
+     * @return Names of the departments that have employees, in alphabetical order
+     */
+    List<String> getDepartments();
+
+    /**
+     * @return Compact columnar copy of every employee, or null on error
+     */
+    EmployeeColumns getEmployeeColumns();
+
+    /**
+     * @return Compact columnar copy of the matching employees (ordered by ID), or null on error
+     */
+    EmployeeColumns getEmployeeColumns(EmployeeCriteria criteria);
+
+    /**
+     * Search by name or email prefix, tolerating one typo per word
+     * @return Matching employees, best match first
+     */
+    List<Employee> searchEmployees(String query, int limit);
+
+    /**
+     * (Re)build the name and email search index
+     * @return Number of employees indexed, or -1 on error
+     */
+    int buildSearchIndex();
+
+    // ---- Statistics ----
+
+    /**
+     * @return Highest employee ID, or 0 if there are no employees
+     */
+    int getMaxEmployeeId();
+
+    int getEmployeeCount();
+
+    SalaryStatistics getSalaryStatistics();
+
+    /**
+     * @return Statistics per department, ordered by department name
+     */
+    List<SalaryStatistics> getSalaryStatisticsByDepartment();
+
+    /**
+     * @return Statistics of one department (empty if it has no employees)
+     */
+    SalaryStatistics getSalaryStatistics(String department);
+}
@@ -0,0 +1,551 @@
+package com.employee;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Employee Search Index
+ * In-memory prefix index over employee names and emails, so "starts with"
+ * and typo-tolerant lookups never scan the table. Text is normalized
+ * (lower case, accents removed) and split into words. The words of the name
+ * and of the email's local part map to employee IDs in one sorted map, so a
+ * prefix query reads one range of keys. Whole email addresses are kept in a
+ * second sorted map and used only for queries containing '@'.
+ *
+ * Every query word must match one of an employee's words. Each match
+ * scores by quality:
+ *
+ * <pre>
+ * exact word           3
+ * word prefix          2
+ * one edit away        1   (words of 4+ characters, same first letter; only
+ *                          searched when the other matches fill fewer than limit)
+ * name starts with the whole query   +1
+ * </pre>
+ *
+ * The best matches come first; ties go to the shorter name, then the lower ID.
+ *
+ * The index is built by streaming the table once ({@link #rebuild}); after
+ * that the DAO keeps it current on every committed write. Changes made while
+ * a rebuild is streaming are replayed onto the new index before it is
+ * published. One index is shared by every DAO in the JVM.
+ */
+public final class EmployeeSearchIndex {
+
+    static final int EXACT_SCORE = 3;
+    static final int PREFIX_SCORE = 2;
+    static final int FUZZY_SCORE = 1;
+    static final int NAME_START_BONUS = 1;
+    static final int FUZZY_MIN_LENGTH = 4;
+
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final EmployeeSearchIndex INSTANCE = new EmployeeSearchIndex();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Entries entries = new Entries();
+    private List<Runnable> pendingChanges;
+
+    // Written under the write lock; read without it to skip work when nothing is indexed
+    private volatile boolean built;
+    private volatile boolean building;
+
+    /**
+     * Separate index for a repository that does not share the DAOs' index
+     */
+    EmployeeSearchIndex() {
+    }
+
+    /**
+     * @return Index shared by every DAO in this JVM
+     */
+    public static EmployeeSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true unless SEARCH_INDEX_ENABLED is false, in which case the
+     *         DAO searches with the MySQL FULLTEXT index instead
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(EnvLoader.getEnv("SEARCH_INDEX_ENABLED", "true"));
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * @return true while writes must be applied (the index is built or being built)
+     */
+    boolean isMaintained() {
+        return built || building;
+    }
+
+    /**
+     * @return Number of indexed employees
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the index with a fresh copy of the employees table
+     * @param employeeDAO DAO (or other repository) whose forEachEmployee streams the table
+     * @return Number of employees indexed, or -1 if the table could not be read
+     */
+    public synchronized int rebuild(EmployeeRepository employeeDAO) {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Entries rebuilt = new Entries();
+        int count = -1;
+        try {
+            // Read from the primary: later writes are applied on top, so nothing may be missing
+            count = DatabaseConnection.readFromPrimary(() -> employeeDAO.forEachEmployee(employee ->
+                rebuilt.add(employee.getId(), employee.getName(), employee.getEmail())));
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (count >= 0) {
+                    entries = rebuilt;
+                    for (Runnable change : pendingChanges) {
+                        change.run();
+                    }
+                    built = true;
+                }
+                pendingChanges = null;
+                building = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Add or replace one employee's entry
+     */
+    public void put(int id, String name, String email) {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                entries.add(id, name, email);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(() -> entries.add(id, name, email));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop one employee's entry
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                entries.remove(id);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(() -> entries.remove(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget everything until the next rebuild
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries = new Entries();
+            built = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the best matching employees for a free-text query. Typo matches
+     * are only looked for when the exact and prefix matches give fewer than
+     * limit results.
+     * @param query Words or word prefixes from a name or email (an email-like query with '@' is matched as a whole)
+     * @param limit Maximum number of results
+     * @return Employee IDs, best match first
+     */
+    public int[] search(String query, int limit) {
+        String normalizedQuery = normalize(query).trim();
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        List<String> terms = normalizedQuery.indexOf('@') >= 0
+            ? Collections.singletonList(normalizedQuery)
+            : tokenize(normalizedQuery);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] ids = rank(terms, normalizedQuery, limit, false);
+            if (ids.length < limit && normalizedQuery.indexOf('@') < 0) {
+                for (String term : terms) {
+                    if (term.length() >= FUZZY_MIN_LENGTH) {
+                        return rank(terms, normalizedQuery, limit, true);
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Collect candidates from the most selective term, then score each
+     * candidate's own words against every term (caller holds the read lock)
+     */
+    private int[] rank(List<String> terms, String normalizedQuery, int limit, boolean fuzzy) {
+        Entries entries = this.entries;
+        String driver = terms.get(0);
+        long fewest = Long.MAX_VALUE;
+        for (String term : terms) {
+            long matches = 0;
+            for (IdList ids : entries.prefixRange(term).values()) {
+                matches += ids.size;
+                if (matches >= fewest) {
+                    break;
+                }
+            }
+            if (matches < fewest) {
+                fewest = matches;
+                driver = term;
+            }
+        }
+
+        IdList candidates = new IdList();
+        for (IdList ids : entries.prefixRange(driver).values()) {
+            candidates.addAll(ids);
+        }
+        if (fuzzy && driver.length() >= FUZZY_MIN_LENGTH) {
+            for (Map.Entry<String, IdList> entry : entries.prefixRange(driver.substring(0, 1)).entrySet()) {
+                if (!entry.getKey().startsWith(driver) && isFuzzyMatch(driver, entry.getKey())) {
+                    candidates.addAll(entry.getValue());
+                }
+            }
+        }
+        int[] ids = candidates.toSortedDistinctArray();
+
+        // Keep the best 'limit' hits in a heap whose head is the worst of them
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Collections.reverseOrder());
+        for (int id : ids) {
+            Document document = entries.documents[id];
+            int score = 0;
+            for (String term : terms) {
+                int termScore = document.score(term, fuzzy);
+                if (termScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += termScore;
+            }
+            if (score == 0) {
+                continue;
+            }
+            if (document.name.startsWith(normalizedQuery)) {
+                score += NAME_START_BONUS;
+            }
+            if (best.size() < limit || best.peek().isWorseThan(score, document.name.length(), id)) {
+                best.add(new Hit(id, score, document.name.length()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        Hit[] hits = best.toArray(new Hit[0]);
+        Arrays.sort(hits);
+        int[] ranked = new int[hits.length];
+        for (int i = 0; i < hits.length; i++) {
+            ranked[i] = hits[i].id;
+        }
+        return ranked;
+    }
+
+    /**
+     * @return true if the term is one edit (insert, delete, substitute or swap
+     *         of neighbours) away from the token or from one of its prefixes
+     */
+    static boolean isFuzzyMatch(String term, String token) {
+        int length = term.length();
+        for (int prefixLength = length - 1; prefixLength <= length + 1; prefixLength++) {
+            if (prefixLength <= token.length() && withinOneEdit(term, token, prefixLength)) {
+                return true;
+            }
+        }
+        return withinOneEdit(term, token, token.length());
+    }
+
+    /**
+     * @return true if a is at most one edit away from the first bLength characters of b
+     */
+    static boolean withinOneEdit(String a, String b, int bLength) {
+        int aLength = a.length();
+        if (Math.abs(aLength - bLength) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < aLength && i < bLength && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == aLength && i == bLength) {
+            return true;
+        }
+        if (aLength == bLength) {
+            if (a.regionMatches(i + 1, b, i + 1, aLength - i - 1)) {
+                return true;
+            }
+            return i + 1 < aLength && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, aLength - i - 2);
+        }
+        return aLength > bLength
+            ? a.regionMatches(i + 1, b, i, bLength - i)
+            : b.regionMatches(i + 1, a, i, aLength - i);
+    }
+
+    /**
+     * Lower case with accents removed, so "José" is found by "jose"
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Everything indexed at one point in time: documents by ID plus the two
+     * sorted maps. A rebuild fills a new instance and swaps it in.
+     */
+    private static final class Entries {
+        final TreeMap<String, IdList> words = new TreeMap<>();
+        final TreeMap<String, IdList> emails = new TreeMap<>();
+        // Indexed by employee ID (IDs are dense auto-increment values)
+        Document[] documents = new Document[1024];
+        int size;
+
+        void add(int id, String name, String email) {
+            if (id <= 0) {
+                return;
+            }
+            remove(id);
+            Document document = new Document(name, email);
+            if (id >= documents.length) {
+                documents = Arrays.copyOf(documents, Math.max(id + 1, documents.length + (documents.length >> 1)));
+            }
+            documents[id] = document;
+            size++;
+            for (String word : document.words) {
+                words.computeIfAbsent(word, key -> new IdList()).add(id);
+            }
+            if (!document.email.isEmpty()) {
+                emails.computeIfAbsent(document.email, key -> new IdList()).add(id);
+            }
+        }
+
+        void remove(int id) {
+            Document document = id >= 0 && id < documents.length ? documents[id] : null;
+            if (document == null) {
+                return;
+            }
+            documents[id] = null;
+            size--;
+            for (String word : document.words) {
+                removeId(words, word, id);
+            }
+            removeId(emails, document.email, id);
+        }
+
+        /**
+         * @return Keys starting with the prefix; email keys for a prefix containing '@'
+         */
+        NavigableMap<String, IdList> prefixRange(String prefix) {
+            TreeMap<String, IdList> keys = prefix.indexOf('@') >= 0 ? emails : words;
+            return keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        private static void removeId(TreeMap<String, IdList> keys, String key, int id) {
+            IdList ids = keys.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Indexed form of one employee
+     */
+    private static final class Document {
+        final String name;
+        final String email;
+        final String[] words;
+
+        Document(String name, String email) {
+            this.name = normalize(name).trim();
+            this.email = normalize(email).trim();
+            Set<String> distinct = new LinkedHashSet<>(tokenize(this.name));
+            int at = this.email.indexOf('@');
+            distinct.addAll(tokenize(at >= 0 ? this.email.substring(0, at) : this.email));
+            this.words = distinct.toArray(new String[0]);
+        }
+
+        /**
+         * @return Best score of any word (or of the email, for a term with '@'), 0 if none matches
+         */
+        int score(String term, boolean fuzzy) {
+            if (term.indexOf('@') >= 0) {
+                return email.equals(term) ? EXACT_SCORE : email.startsWith(term) ? PREFIX_SCORE : 0;
+            }
+            int best = 0;
+            for (String token : words) {
+                if (token.startsWith(term)) {
+                    if (token.length() == term.length()) {
+                        return EXACT_SCORE;
+                    }
+                    best = PREFIX_SCORE;
+                } else if (best == 0 && fuzzy && term.length() >= FUZZY_MIN_LENGTH
+                        && token.charAt(0) == term.charAt(0) && isFuzzyMatch(term, token)) {
+                    best = FUZZY_SCORE;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Unordered set of employee IDs for one token
+     */
+    private static final class IdList {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addAll(IdList other) {
+            if (size + other.size > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(size + other.size, ids.length * 2));
+            }
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            size += other.size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int[] toSortedDistinctArray() {
+            int[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (count == 0 || sorted[count - 1] != sorted[i]) {
+                    sorted[count++] = sorted[i];
+                }
+            }
+            return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+        }
+    }
+
+    /**
+     * One ranked result; natural order is best first
+     */
+    private static final class Hit implements Comparable<Hit> {
+        final int id;
+        final int score;
+        final int nameLength;
+
+        Hit(int id, int score, int nameLength) {
+            this.id = id;
+            this.score = score;
+            this.nameLength = nameLength;
+        }
+
+        /**
+         * @return true if a candidate with these values would rank ahead of this hit
+         */
+        boolean isWorseThan(int otherScore, int otherNameLength, int otherId) {
+            return compare(otherScore, otherNameLength, otherId, score, nameLength, id) < 0;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            return compare(score, nameLength, id, other.score, other.nameLength, other.id);
+        }
+
+        private static int compare(int score, int nameLength, int id, int otherScore, int otherNameLength, int otherId) {
+            if (score != otherScore) {
+                return Integer.compare(otherScore, score);
+            }
+            if (nameLength != otherNameLength) {
+                return Integer.compare(nameLength, otherNameLength);
+            }
+            return Integer.compare(id, otherId);
+        }
+    }
+}
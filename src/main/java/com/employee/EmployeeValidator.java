@@ -0,0 +1,55 @@
+package com.employee;
+
+import java.math.BigDecimal;
+
+/**
+ * Employee Validator
+ * Field rules shared by the interactive console and the bulk importer.
+ */
+public final class EmployeeValidator {
+
+    private EmployeeValidator() {
+    }
+
+    /**
+     * Simple email validation
+     */
+    public static boolean isValidEmail(String email) {
+        return email != null && email.contains("@") && email.contains(".") && email.length() > 5;
+    }
+
+    /**
+     * @return true if the salary is present and greater than 0
+     */
+    public static boolean isValidSalary(BigDecimal salary) {
+        return salary != null && salary.compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    /**
+     * Check every field of a new employee
+     * @param employee Employee to check
+     * @return Reason the employee is invalid, or null if it is valid
+     */
+    public static String validate(Employee employee) {
+        if (isBlank(employee.getName())) {
+            return "Name cannot be empty";
+        }
+        if (isBlank(employee.getEmail()) || !isValidEmail(employee.getEmail())) {
+            return "Invalid email: " + employee.getEmail();
+        }
+        if (isBlank(employee.getDepartment())) {
+            return "Department cannot be empty";
+        }
+        if (employee.getDepartment().trim().length() > DepartmentDictionary.MAX_NAME_LENGTH) {
+            return "Department cannot be longer than " + DepartmentDictionary.MAX_NAME_LENGTH + " characters";
+        }
+        if (!isValidSalary(employee.getSalary())) {
+            return "Salary must be greater than 0";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -52,7 +52,8 @@ public class EnvLoader {
     
     /**
      * Get environment variable value
-     * First checks .env file, then system environment variables
+     * First checks JVM system properties (-DKEY=value), then the .env file,
+     * then system environment variables
      * 
      * @param key Environment variable key
      * @return Environment variable value or null if not found
@@ -62,8 +63,13 @@ public class EnvLoader {
             loadEnv();
         }
         
-        // First check .env file
-        String value = envVars.get(key);
+        // System properties override everything (used by benchmarks and one-off runs)
+        String value = System.getProperty(key);
+        
+        // Then check .env file
+        if (value == null) {
+            value = envVars.get(key);
+        }
         
         // If not found in .env, check system environment variables
         if (value == null) {
@@ -85,6 +91,46 @@ public class EnvLoader {
         return value != null ? value : defaultValue;
     }
     
+    /**
+     * Get integer environment variable with default value
+     * 
+     * @param key Environment variable key
+     * @param defaultValue Default value if key not found or not a number
+     * @return Parsed value or default value
+     */
+    public static int getIntEnv(String key, int defaultValue) {
+        String value = getEnv(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("⚠️  Invalid number for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Get long environment variable with default value
+     * 
+     * @param key Environment variable key
+     * @param defaultValue Default value if key not found or not a number
+     * @return Parsed value or default value
+     */
+    public static long getLongEnv(String key, long defaultValue) {
+        String value = getEnv(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("⚠️  Invalid number for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+    
     /**
      * Check if environment variable exists
      * 
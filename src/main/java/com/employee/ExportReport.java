@@ -0,0 +1,102 @@
+package com.employee;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Export Report
+ * Files written by an export, with the rows and bytes in each, plus
+ * overall throughput.
+ */
+public class ExportReport {
+
+    private final List<Part> parts;
+    private final long elapsedNanos;
+
+    ExportReport(List<Part> parts, long elapsedNanos) {
+        this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return One entry per file written, in partition order
+     */
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    public long getRowCount() {
+        long rows = 0;
+        for (Part part : parts) {
+            rows += part.getRowCount();
+        }
+        return rows;
+    }
+
+    public long getByteCount() {
+        long bytes = 0;
+        for (Part part : parts) {
+            bytes += part.getByteCount();
+        }
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * @return Rows written per second across all parts
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : getRowCount() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * @return Multi-line summary for the console
+     */
+    public String toDisplayString() {
+        StringBuilder display = new StringBuilder();
+        for (Part part : parts) {
+            display.append(String.format("📄 %-50s %,12d rows %,14d bytes%n", part.getPath(), part.getRowCount(), part.getByteCount()));
+        }
+        display.append(String.format("📤 %,d rows, %,d bytes in %d file(s) | ⏱️  %,d ms (%,.0f rows/s)",
+            getRowCount(), getByteCount(), parts.size(), getElapsedMillis(), getRowsPerSecond()));
+        return display.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExportReport{files=%d, rows=%d, bytes=%d, elapsedMs=%d}",
+            parts.size(), getRowCount(), getByteCount(), getElapsedMillis());
+    }
+
+    /**
+     * A single exported file
+     */
+    public static final class Part {
+        private final Path path;
+        private final long rowCount;
+        private final long byteCount;
+
+        Part(Path path, long rowCount, long byteCount) {
+            this.path = path;
+            this.rowCount = rowCount;
+            this.byteCount = byteCount;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getByteCount() {
+            return byteCount;
+        }
+    }
+}
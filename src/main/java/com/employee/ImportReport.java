@@ -0,0 +1,174 @@
+package com.employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Import Report
+ * Outcome of a bulk file import: rows read, imported, updated or unchanged
+ * (upsert imports), rejected by validation, skipped as duplicates and
+ * failed in the database, plus throughput. Only the first few rejects are
+ * kept, so the report stays small no matter how large the file is.
+ */
+public class ImportReport {
+
+    static final int MAX_SAMPLES = 100;
+
+    private final String source;
+    private long rowsRead;
+    private long imported;
+    private long updated;
+    private long unchanged;
+    private long rejected;
+    private long duplicates;
+    private long failed;
+    private long elapsedNanos;
+    private final List<String> samples = new ArrayList<>();
+
+    ImportReport(String source) {
+        this.source = source;
+    }
+
+    synchronized void recordRead(long rows) {
+        rowsRead += rows;
+    }
+
+    synchronized void recordReject(long lineNumber, String reason) {
+        rejected++;
+        addSample("line " + lineNumber + ": " + reason);
+    }
+
+    synchronized void recordBatch(BatchResult result) {
+        imported += result.getSuccessCount();
+        duplicates += result.getDuplicateCount();
+        failed += result.getFailureCount() - result.getDuplicateCount();
+        for (BatchResult.Failure failure : result.getFailures()) {
+            if (!failure.isDuplicateEmail()) {
+                addSample(failure.getEmployee().getEmail() + ": " + failure.getMessage());
+            }
+        }
+    }
+
+    synchronized void recordUpsert(UpsertResult result) {
+        imported += result.getInsertedCount();
+        updated += result.getUpdatedCount();
+        unchanged += result.getUnchangedCount();
+        failed += result.getFailureCount();
+        for (BatchResult.Failure failure : result.getFailures()) {
+            addSample(failure.getEmployee().getEmail() + ": " + failure.getMessage());
+        }
+    }
+
+    synchronized void recordFailure(List<Employee> employees, String reason) {
+        failed += employees.size();
+        for (Employee employee : employees) {
+            addSample(employee.getEmail() + ": " + reason);
+        }
+    }
+
+    synchronized void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return Data rows read from the file (header and blank lines excluded)
+     */
+    public synchronized long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * @return Rows inserted into the database
+     */
+    public synchronized long getImported() {
+        return imported;
+    }
+
+    /**
+     * @return Existing rows changed by an upsert import
+     */
+    public synchronized long getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return Existing rows an upsert import found already up to date
+     */
+    public synchronized long getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @return Rows that could not be parsed or failed validation
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return Rows skipped because their email already exists
+     */
+    public synchronized long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return Rows the database rejected for any other reason
+     */
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    public synchronized long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * @return Rows read per second over the whole import
+     */
+    public synchronized double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * @return Up to MAX_SAMPLES reject / failure messages in the order they occurred
+     */
+    public synchronized List<String> getSamples() {
+        return Collections.unmodifiableList(new ArrayList<>(samples));
+    }
+
+    /**
+     * @return true if every row read was imported (or, for upserts, applied)
+     */
+    public synchronized boolean isFullySuccessful() {
+        return rejected == 0 && duplicates == 0 && failed == 0;
+    }
+
+    /**
+     * @return Multi-line summary for the console
+     */
+    public synchronized String toDisplayString() {
+        String upserts = updated + unchanged == 0 ? ""
+            : String.format("%n🔄 Updated: %,d | ➖ Unchanged: %,d", updated, unchanged);
+        return String.format(
+            "📄 Source: %s%n📥 Read: %,d | ✅ Imported: %,d | ⚠️  Rejected: %,d | 🔁 Duplicates: %,d | ❌ Failed: %,d%s%n⏱️  %,d ms (%,.0f rows/s)",
+            source, rowsRead, imported, rejected, duplicates, failed, upserts, getElapsedMillis(), getRowsPerSecond());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ImportReport{source='%s', read=%d, imported=%d, updated=%d, unchanged=%d, rejected=%d, duplicates=%d, failed=%d, elapsedMs=%d}",
+            source, rowsRead, imported, updated, unchanged, rejected, duplicates, failed, getElapsedMillis());
+    }
+
+    private void addSample(String message) {
+        if (samples.size() < MAX_SAMPLES) {
+            samples.add(message);
+        }
+    }
+}
@@ -0,0 +1,991 @@
+package com.employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * In-Memory Employee Repository
+ * EmployeeRepository kept entirely in this process, for tests, demos and
+ * read-heavy embedded use without a database. Nothing is persisted.
+ *
+ * <pre>
+ * rows         paged array indexed by ID (IDs are dense, like AUTO_INCREMENT);
+ *              each slot holds an immutable row, so reads take no lock
+ * email index  lower-cased email to ID, claimed with putIfAbsent (unique)
+ * departments  one bitset of member IDs per department, so department reads
+ *              visit only that department's rows, in ID order
+ * </pre>
+ *
+ * Writes to one employee are serialized by one of 64 striped locks chosen
+ * by ID; writes to different employees run in parallel. A reader sees each
+ * employee either before or after a write, never half-written.
+ *
+ * Behaviour follows EmployeeDAO where it is observable: IDs start at 1,
+ * emails are unique ignoring case, department names match ignoring case,
+ * salaries are stored rounded to cents, every update increments the
+ * version, and failures carry MySQL's error codes (1062 duplicate email,
+ * 1048 missing value, 1406 value too long, 1264 salary out of range).
+ * Unlike the DAO, batches and bulk updates are applied row by row rather
+ * than in one transaction, and no DAO metrics are recorded.
+ */
+public class InMemoryEmployeeRepository implements EmployeeRepository {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int LOCK_STRIPES = 64;
+
+    // Column limits of the employees and departments tables
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_EMAIL_LENGTH = 100;
+    private static final int MAX_DEPARTMENT_LENGTH = 50;
+    private static final long MAX_SALARY_CENTS = 9_999_999_999L; // DECIMAL(10,2)
+
+    // MySQL error codes reported for rejected rows
+    private static final int ER_BAD_NULL_ERROR = 1048;
+    private static final int ER_DATA_TOO_LONG = 1406;
+    private static final int ER_WARN_DATA_OUT_OF_RANGE = 1264;
+
+    private final AtomicInteger lastId = new AtomicInteger();
+    private final LongAdder size = new LongAdder();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Object pageLock = new Object();
+    private final ConcurrentHashMap<String, Integer> emails = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Department> departmentsByKey = new ConcurrentHashMap<>();
+    // Index = Department.id - 1
+    private final List<Department> departments = new CopyOnWriteArrayList<>();
+    private final EmployeeSearchIndex searchIndex = new EmployeeSearchIndex();
+
+    // Replaced (never modified) when a page is added
+    private volatile AtomicReferenceArray<Row>[] pages = newPages(16);
+
+    public InMemoryEmployeeRepository() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // ---- Single rows ----
+
+    @Override
+    public boolean createEmployee(Employee employee) {
+        try {
+            Row row = insert(employee);
+            employee.setId(row.id);
+            Log.info(() -> "✅ Employee created successfully with ID: " + row.id);
+            return true;
+        } catch (SQLException e) {
+            logWriteError("creating employee", e);
+            return false;
+        }
+    }
+
+    @Override
+    public Employee getEmployeeById(int id) {
+        Row row = row(id);
+        if (row == null) {
+            Log.info(() -> "❌ Employee with ID " + id + " not found");
+            return null;
+        }
+        Log.info(() -> "🔍 Found employee: " + row.name);
+        return row.toEmployee();
+    }
+
+    @Override
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids) {
+        return getEmployeesByIds(ids, null);
+    }
+
+    @Override
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids, IntConsumer missing) {
+        int[] unique = EmployeeDAO.distinctSorted(ids);
+        Map<Integer, Employee> employees = new HashMap<>(Math.max(16, unique.length * 4 / 3 + 1));
+        for (int id : unique) {
+            Row row = row(id);
+            if (row != null) {
+                employees.put(id, row.toEmployee());
+            } else if (missing != null) {
+                missing.accept(id);
+            }
+        }
+        return employees;
+    }
+
+    @Override
+    public boolean updateEmployee(Employee employee) {
+        try {
+            if (update(employee)) {
+                Log.info(() -> "✅ Employee updated successfully: " + employee.getName());
+                return true;
+            }
+            Log.info(() -> "❌ No employee found with ID: " + employee.getId());
+        } catch (SQLException e) {
+            logWriteError("updating employee", e);
+        }
+        return false;
+    }
+
+    @Override
+    public VersionedWriteResult tryUpdateEmployee(Employee employee) {
+        int dirtyFields = employee.getDirtyFieldMask();
+        if (dirtyFields == 0) {
+            return VersionedWriteResult.unchanged(employee.getVersion());
+        }
+        int id = employee.getId();
+        try {
+            synchronized (lockFor(id)) {
+                Row current = row(id);
+                VersionedWriteResult missed = checkVersion(current, employee.getVersion());
+                if (missed != null) {
+                    EmployeeDAO.logMissedWrite("update", id, employee.getVersion(), missed);
+                    return missed;
+                }
+                Row row = replace(current,
+                    (dirtyFields & Employee.Field.NAME.bit()) != 0 ? employee.getName() : current.name,
+                    (dirtyFields & Employee.Field.EMAIL.bit()) != 0 ? employee.getEmail() : current.email,
+                    (dirtyFields & Employee.Field.DEPARTMENT.bit()) != 0 ? department(employee.getDepartment()) : current.department,
+                    (dirtyFields & Employee.Field.SALARY.bit()) != 0 ? salaryCents(employee.getSalary()) : current.salaryCents);
+                employee.setVersion(row.version);
+                employee.markClean();
+            }
+            Log.info(() -> "✅ Employee updated successfully: " + employee.getName());
+            return VersionedWriteResult.applied(employee.getVersion());
+        } catch (SQLException e) {
+            logWriteError("updating employee", e);
+            return VersionedWriteResult.failure(e.getErrorCode(), e.getMessage());
+        }
+    }
+
+    @Override
+    public VersionedWriteResult tryDeleteEmployee(int id, int expectedVersion) {
+        synchronized (lockFor(id)) {
+            Row current = row(id);
+            VersionedWriteResult missed = checkVersion(current, expectedVersion);
+            if (missed != null) {
+                EmployeeDAO.logMissedWrite("delete", id, expectedVersion, missed);
+                return missed;
+            }
+            delete(current);
+        }
+        Log.info(() -> "✅ Employee deleted successfully (ID: " + id + ")");
+        return VersionedWriteResult.applied(expectedVersion);
+    }
+
+    @Override
+    public boolean deleteEmployee(int id) {
+        synchronized (lockFor(id)) {
+            Row current = row(id);
+            if (current == null) {
+                Log.info(() -> "❌ No employee found with ID: " + id);
+                return false;
+            }
+            delete(current);
+        }
+        Log.info(() -> "✅ Employee deleted successfully (ID: " + id + ")");
+        return true;
+    }
+
+    @Override
+    public UpsertResult.Outcome upsertEmployee(Employee employee) {
+        try {
+            UpsertResult.Outcome outcome = upsert(employee);
+            Log.info(() -> "✅ Employee " + outcome.name().toLowerCase(Locale.ROOT) + " with ID: " + employee.getId());
+            return outcome;
+        } catch (SQLException e) {
+            logWriteError("upserting employee", e);
+            return UpsertResult.Outcome.FAILED;
+        }
+    }
+
+    @Override
+    public boolean employeeExistsByEmail(String email) {
+        return email != null && emails.containsKey(EmployeeDAO.emailKey(email));
+    }
+
+    // ---- Batches ----
+
+    @Override
+    public BatchResult createEmployees(Collection<Employee> employees) {
+        return createEmployees(employees, employees.size());
+    }
+
+    /**
+     * @param chunkSize Ignored: rows are written one at a time
+     */
+    @Override
+    public BatchResult createEmployees(Collection<Employee> employees, int chunkSize) {
+        BatchResult result = new BatchResult();
+        for (Employee employee : employees) {
+            try {
+                employee.setId(insert(employee).id);
+                result.recordSuccess(1);
+            } catch (SQLException e) {
+                result.recordFailure(employee, e.getErrorCode(), e.getMessage());
+            }
+        }
+        Log.info(() -> "📦 Batch insert finished: " + result);
+        return result;
+    }
+
+    @Override
+    public BatchResult updateEmployees(Collection<Employee> employees) {
+        return updateEmployees(employees, employees.size());
+    }
+
+    /**
+     * @param chunkSize Ignored: rows are written one at a time
+     */
+    @Override
+    public BatchResult updateEmployees(Collection<Employee> employees, int chunkSize) {
+        BatchResult result = new BatchResult();
+        for (Employee employee : employees) {
+            try {
+                if (update(employee)) {
+                    result.recordSuccess(1);
+                } else {
+                    result.recordFailure(employee, 0, "No employee found with ID: " + employee.getId());
+                }
+            } catch (SQLException e) {
+                result.recordFailure(employee, e.getErrorCode(), e.getMessage());
+            }
+        }
+        Log.info(() -> "📦 Batch update finished: " + result);
+        return result;
+    }
+
+    @Override
+    public UpsertResult upsertEmployees(Collection<Employee> employees) {
+        return upsertEmployees(employees, employees.size());
+    }
+
+    /**
+     * @param chunkSize Ignored: rows are written one at a time
+     */
+    @Override
+    public UpsertResult upsertEmployees(Collection<Employee> employees, int chunkSize) {
+        UpsertResult result = new UpsertResult();
+        for (Employee employee : employees) {
+            try {
+                result.record(upsert(employee));
+            } catch (SQLException e) {
+                result.recordFailure(employee, e.getErrorCode(), e.getMessage());
+            }
+        }
+        Log.info(() -> "📦 Batch upsert finished: " + result);
+        return result;
+    }
+
+    // ---- Set-based updates ----
+
+    @Override
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment) {
+        return adjustSalaries(criteria, adjustment, false);
+    }
+
+    /**
+     * Rows whose new salary would not be positive, or would not fit the
+     * salary column, are left unchanged (and not counted)
+     */
+    @Override
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment, boolean dryRun) {
+        long[] totals = new long[3]; // rows, salary before, salary after (cents)
+        forEachRow(criteria, candidate -> {
+            synchronized (lockFor(candidate.id)) {
+                Row current = row(candidate.id);
+                if (current == null || !matches(current, criteria)) {
+                    return;
+                }
+                BigDecimal newSalary = adjustment.apply(current.salary());
+                if (newSalary.signum() <= 0) {
+                    return;
+                }
+                try {
+                    long newCents = salaryCents(newSalary);
+                    if (!dryRun) {
+                        replace(current, current.name, current.email, current.department, newCents);
+                    }
+                    totals[0]++;
+                    totals[1] += current.salaryCents;
+                    totals[2] += newCents;
+                } catch (SQLException e) {
+                    Log.warn(() -> "⚠️  Salary of employee " + current.id + " left unchanged: " + e.getMessage());
+                }
+            }
+        });
+        BulkUpdateResult result = bulkResult(dryRun, totals);
+        Log.info(() -> (dryRun ? "🔍 Salary adjustment would change " : "✅ Salary adjustment changed ")
+            + result.getAffectedRows() + " employee(s): " + adjustment + " for " + criteria);
+        return result;
+    }
+
+    @Override
+    public BulkUpdateResult reassignDepartment(String fromDepartment, String toDepartment) {
+        return reassignDepartment(EmployeeCriteria.inDepartment(fromDepartment), toDepartment, false);
+    }
+
+    @Override
+    public BulkUpdateResult reassignDepartment(EmployeeCriteria criteria, String toDepartment, boolean dryRun) {
+        Department target;
+        try {
+            // A dry run must not create the target department; an unknown one moves everybody
+            target = dryRun ? findDepartment(toDepartment) : department(toDepartment);
+        } catch (SQLException e) {
+            Log.error(() -> "❌ Error in bulk update: " + e.getMessage());
+            return BulkUpdateResult.failure(dryRun, e.getMessage());
+        }
+        long[] totals = new long[3]; // rows, salary before, salary after (cents)
+        forEachRow(criteria, candidate -> {
+            synchronized (lockFor(candidate.id)) {
+                Row current = row(candidate.id);
+                if (current == null || current.department == target || !matches(current, criteria)) {
+                    return;
+                }
+                if (!dryRun) {
+                    writeRow(current, current.name, current.email, target, current.salaryCents);
+                }
+                totals[0]++;
+                totals[1] += current.salaryCents;
+                totals[2] += current.salaryCents;
+            }
+        });
+        BulkUpdateResult result = bulkResult(dryRun, totals);
+        Log.info(() -> (dryRun ? "🔍 Would move " : "✅ Moved ")
+            + result.getAffectedRows() + " employee(s) to " + toDepartment);
+        return result;
+    }
+
+    private static BulkUpdateResult bulkResult(boolean dryRun, long[] totals) {
+        return dryRun
+            ? new BulkUpdateResult(true, (int) totals[0], BigDecimal.valueOf(totals[1], 2), BigDecimal.valueOf(totals[2], 2))
+            : new BulkUpdateResult(false, (int) totals[0], null, null);
+    }
+
+    // ---- Reads ----
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        List<Employee> employees = new ArrayList<>(getEmployeeCountQuietly());
+        forEachEmployee(employees::add);
+        Log.info(() -> "📋 Retrieved " + employees.size() + " employees from memory");
+        return employees;
+    }
+
+    @Override
+    public EmployeePage getEmployeesPage(int afterId, int pageSize) {
+        int limit = Math.max(1, pageSize);
+        List<Employee> employees = new ArrayList<>(limit);
+        boolean hasMore = false;
+        int last = lastId.get();
+        for (int id = Math.max(afterId, 0) + 1; id > 0 && id <= last; id++) {
+            Row row = row(id);
+            if (row != null) {
+                if (employees.size() == limit) {
+                    hasMore = true;
+                    break;
+                }
+                employees.add(row.toEmployee());
+            }
+        }
+        int nextCursor = employees.isEmpty() ? afterId : employees.get(employees.size() - 1).getId();
+        return new EmployeePage(employees, nextCursor, hasMore);
+    }
+
+    @Override
+    public int forEachEmployee(Consumer<Employee> action) {
+        return forEachEmployeeInIdRange(1, Integer.MAX_VALUE, action);
+    }
+
+    @Override
+    public int forEachEmployeeInDepartment(String department, Consumer<Employee> action) {
+        int[] count = new int[1];
+        forEachRow(EmployeeCriteria.inDepartment(department), row -> {
+            action.accept(row.toEmployee());
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    @Override
+    public int forEachEmployeeInIdRange(int fromId, int toId, Consumer<Employee> action) {
+        int count = 0;
+        int last = Math.min(lastId.get(), toId - 1);
+        for (int id = Math.max(fromId, 1); id <= last; id++) {
+            Row row = row(id);
+            if (row != null) {
+                action.accept(row.toEmployee());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Employee> getEmployeesByDepartment(String department) {
+        List<Employee> employees = new ArrayList<>();
+        forEachEmployeeInDepartment(department, employees::add);
+        Log.info(() -> "🏢 Found " + employees.size() + " employees in " + department + " department");
+        return employees;
+    }
+
+    @Override
+    public List<String> getDepartments() {
+        List<String> names = new ArrayList<>();
+        for (Department department : departments) {
+            if (!department.members.isEmpty()) {
+                names.add(department.name);
+            }
+        }
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    @Override
+    public EmployeeColumns getEmployeeColumns() {
+        return getEmployeeColumns(EmployeeCriteria.all());
+    }
+
+    @Override
+    public EmployeeColumns getEmployeeColumns(EmployeeCriteria criteria) {
+        EmployeeColumns.Builder builder = new EmployeeColumns.Builder(1024);
+        forEachRow(criteria, row -> builder.add(row.id, row.name, row.email, row.department.id,
+            builder.hasDepartment(row.department.id) ? null : row.department.name,
+            row.salaryCents, row.createdAtMillis));
+        EmployeeColumns columns = builder.build();
+        Log.info(() -> "📋 Retrieved " + columns.size() + " employees into columns");
+        return columns;
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String query, int limit) {
+        if (!searchIndex.isBuilt() && buildSearchIndex() < 0) {
+            return new ArrayList<>();
+        }
+        int[] ids = searchIndex.search(query, limit);
+        List<Employee> employees = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Row row = row(id);
+            if (row != null) {
+                employees.add(row.toEmployee());
+            }
+        }
+        return employees;
+    }
+
+    @Override
+    public int buildSearchIndex() {
+        long started = System.nanoTime();
+        int count = searchIndex.rebuild(this);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        Log.info(() -> "🔎 Search index built with " + count + " employees in " + elapsedMillis + " ms");
+        return count;
+    }
+
+    // ---- Statistics ----
+
+    @Override
+    public int getMaxEmployeeId() {
+        for (int id = lastId.get(); id > 0; id--) {
+            if (row(id) != null) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int getEmployeeCount() {
+        int count = getEmployeeCountQuietly();
+        Log.info(() -> "📊 Total employees in memory: " + count);
+        return count;
+    }
+
+    private int getEmployeeCountQuietly() {
+        return (int) Math.max(0L, size.sum());
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics() {
+        return statistics(null, EmployeeCriteria.all());
+    }
+
+    @Override
+    public List<SalaryStatistics> getSalaryStatisticsByDepartment() {
+        int departmentCount = departments.size();
+        long[] counts = new long[departmentCount];
+        long[] totals = new long[departmentCount];
+        long[] mins = new long[departmentCount];
+        long[] maxes = new long[departmentCount];
+        Arrays.fill(mins, Long.MAX_VALUE);
+        Arrays.fill(maxes, Long.MIN_VALUE);
+
+        forEachRow(EmployeeCriteria.all(), row -> {
+            int code = row.department.id - 1;
+            // Departments created during the scan are left out
+            if (code < departmentCount) {
+                counts[code]++;
+                totals[code] += row.salaryCents;
+                mins[code] = Math.min(mins[code], row.salaryCents);
+                maxes[code] = Math.max(maxes[code], row.salaryCents);
+            }
+        });
+
+        List<SalaryStatistics> statistics = new ArrayList<>();
+        for (int code = 0; code < departmentCount; code++) {
+            if (counts[code] > 0) {
+                statistics.add(EmployeeColumns.statistics(departments.get(code).name,
+                    counts[code], totals[code], mins[code], maxes[code]));
+            }
+        }
+        statistics.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.getDepartment(), b.getDepartment()));
+        return statistics;
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics(String department) {
+        Department found = findDepartment(department);
+        return statistics(found != null ? found.name : department, EmployeeCriteria.inDepartment(department));
+    }
+
+    private SalaryStatistics statistics(String department, EmployeeCriteria criteria) {
+        long[] aggregates = {0, 0, Long.MAX_VALUE, Long.MIN_VALUE}; // count, total, min, max (cents)
+        forEachRow(criteria, row -> {
+            aggregates[0]++;
+            aggregates[1] += row.salaryCents;
+            aggregates[2] = Math.min(aggregates[2], row.salaryCents);
+            aggregates[3] = Math.max(aggregates[3], row.salaryCents);
+        });
+        return aggregates[0] == 0
+            ? new SalaryStatistics(department, 0, null, null, null, null)
+            : EmployeeColumns.statistics(department, aggregates[0], aggregates[1], aggregates[2], aggregates[3]);
+    }
+
+    // ---- Writes ----
+
+    private Row insert(Employee employee) throws SQLException {
+        String name = checkText("name", employee.getName(), MAX_NAME_LENGTH);
+        String email = checkText("email", employee.getEmail(), MAX_EMAIL_LENGTH);
+        long salaryCents = salaryCents(employee.getSalary());
+        Department department = department(employee.getDepartment());
+
+        int id = lastId.incrementAndGet();
+        synchronized (lockFor(id)) {
+            // Claimed under the row's lock, so whoever finds this ID by email waits until the row is stored
+            if (emails.putIfAbsent(EmployeeDAO.emailKey(email), id) != null) {
+                throw duplicateEmail(email);
+            }
+            Row row = new Row(id, name, email, department, salaryCents,
+                System.currentTimeMillis() / 1000 * 1000, 0); // TIMESTAMP keeps whole seconds
+            store(id, row);
+            department.members.add(id);
+            size.increment();
+            if (searchIndex.isMaintained()) {
+                searchIndex.put(id, name, email);
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Overwrite every field (last writer wins)
+     * @return false if there is no employee with this ID
+     */
+    private boolean update(Employee employee) throws SQLException {
+        long salaryCents = salaryCents(employee.getSalary());
+        Department department = department(employee.getDepartment());
+        synchronized (lockFor(employee.getId())) {
+            Row current = row(employee.getId());
+            if (current == null) {
+                return false;
+            }
+            replace(current, employee.getName(), employee.getEmail(), department, salaryCents);
+            return true;
+        }
+    }
+
+    private UpsertResult.Outcome upsert(Employee employee) throws SQLException {
+        String key = EmployeeDAO.emailKey(checkText("email", employee.getEmail(), MAX_EMAIL_LENGTH));
+        while (true) {
+            Integer id = emails.get(key);
+            if (id == null) {
+                try {
+                    employee.setId(insert(employee).id);
+                    return UpsertResult.Outcome.INSERTED;
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != BatchResult.DUPLICATE_ENTRY) {
+                        throw e;
+                    }
+                    // Another writer added this email first: update theirs
+                    continue;
+                }
+            }
+            synchronized (lockFor(id)) {
+                Row current = row(id);
+                if (current == null || !key.equals(EmployeeDAO.emailKey(current.email))) {
+                    // Deleted or renamed since the lookup
+                    continue;
+                }
+                employee.setId(id);
+                if (EmployeeDAO.sameValues(current.toEmployee(), employee)) {
+                    return UpsertResult.Outcome.UNCHANGED;
+                }
+                replace(current, employee.getName(), employee.getEmail(),
+                    department(employee.getDepartment()), salaryCents(employee.getSalary()));
+                return UpsertResult.Outcome.UPDATED;
+            }
+        }
+    }
+
+    /**
+     * Check the new values, move the email claim if the email changes, and
+     * store the new row (caller holds the row's lock)
+     */
+    private Row replace(Row current, String name, String email, Department department, long salaryCents)
+            throws SQLException {
+        checkText("name", name, MAX_NAME_LENGTH);
+        checkText("email", email, MAX_EMAIL_LENGTH);
+        String oldKey = EmployeeDAO.emailKey(current.email);
+        String newKey = EmployeeDAO.emailKey(email);
+        if (!newKey.equals(oldKey)) {
+            if (emails.putIfAbsent(newKey, current.id) != null) {
+                throw duplicateEmail(email);
+            }
+            emails.remove(oldKey, current.id);
+        }
+        return writeRow(current, name, email, department, salaryCents);
+    }
+
+    /**
+     * Store validated values as the row's next version (caller holds the row's lock)
+     */
+    private Row writeRow(Row current, String name, String email, Department department, long salaryCents) {
+        Row row = new Row(current.id, name, email, department, salaryCents, current.createdAtMillis, current.version + 1);
+        store(current.id, row);
+        if (department != current.department) {
+            department.members.add(current.id);
+            current.department.members.remove(current.id);
+        }
+        if (searchIndex.isMaintained() && !(name.equals(current.name) && email.equals(current.email))) {
+            searchIndex.put(current.id, name, email);
+        }
+        return row;
+    }
+
+    /**
+     * Remove a row and its index entries (caller holds the row's lock)
+     */
+    private void delete(Row current) {
+        store(current.id, null);
+        emails.remove(EmployeeDAO.emailKey(current.email), current.id);
+        current.department.members.remove(current.id);
+        size.decrement();
+        if (searchIndex.isMaintained()) {
+            searchIndex.remove(current.id);
+        }
+    }
+
+    /**
+     * @return null if the row exists with the expected version, otherwise NOT_FOUND or CONFLICT
+     */
+    private static VersionedWriteResult checkVersion(Row current, int expectedVersion) {
+        if (current == null) {
+            return VersionedWriteResult.notFound();
+        }
+        return current.version == expectedVersion ? null : VersionedWriteResult.conflict(current.toEmployee());
+    }
+
+    private static void logWriteError(String action, SQLException e) {
+        Log.error(() -> "❌ Error " + action + ": " + e.getMessage());
+        if (e.getErrorCode() == BatchResult.DUPLICATE_ENTRY) {
+            Log.error("   Reason: Email already exists!");
+        }
+    }
+
+    // ---- Validation ----
+
+    private static String checkText(String column, String value, int maxLength) throws SQLException {
+        if (value == null) {
+            throw new SQLException("Column '" + column + "' cannot be null", "23000", ER_BAD_NULL_ERROR);
+        }
+        if (value.length() > maxLength) {
+            throw new SQLException("Data too long for column '" + column + "'", "22001", ER_DATA_TOO_LONG);
+        }
+        return value;
+    }
+
+    /**
+     * @return Salary in cents, rounded like the DECIMAL(10,2) column
+     */
+    private static long salaryCents(BigDecimal salary) throws SQLException {
+        if (salary == null) {
+            throw new SQLException("Column 'salary' cannot be null", "23000", ER_BAD_NULL_ERROR);
+        }
+        BigDecimal cents = salary.setScale(2, RoundingMode.HALF_UP).movePointRight(2);
+        if (cents.abs().compareTo(BigDecimal.valueOf(MAX_SALARY_CENTS)) > 0) {
+            throw new SQLException("Out of range value for column 'salary'", "22003", ER_WARN_DATA_OUT_OF_RANGE);
+        }
+        return cents.longValueExact();
+    }
+
+    private static SQLException duplicateEmail(String email) {
+        return new SQLException("Duplicate entry '" + email + "' for key 'employees.email'", "23000",
+            BatchResult.DUPLICATE_ENTRY);
+    }
+
+    // ---- Departments ----
+
+    /**
+     * @return The department with this name (ignoring case), created if it is new
+     */
+    private Department department(String name) throws SQLException {
+        String trimmed = checkText("department", name, Integer.MAX_VALUE).trim();
+        checkText("department", trimmed, MAX_DEPARTMENT_LENGTH);
+        String key = trimmed.toLowerCase(Locale.ROOT);
+        Department department = departmentsByKey.get(key);
+        if (department != null) {
+            return department;
+        }
+        synchronized (departmentsByKey) {
+            department = departmentsByKey.get(key);
+            if (department == null) {
+                department = new Department(departments.size() + 1, trimmed);
+                departments.add(department);
+                departmentsByKey.put(key, department);
+            }
+            return department;
+        }
+    }
+
+    /**
+     * @return The department with this name (ignoring case), or null
+     */
+    private Department findDepartment(String name) {
+        return name != null ? departmentsByKey.get(name.trim().toLowerCase(Locale.ROOT)) : null;
+    }
+
+    // ---- Scans ----
+
+    /**
+     * Pass every row matching the criteria to an action, in ID order. A
+     * department criteria reads only that department's members.
+     */
+    private void forEachRow(EmployeeCriteria criteria, Consumer<Row> action) {
+        if (criteria.getDepartment() != null) {
+            Department department = findDepartment(criteria.getDepartment());
+            if (department == null) {
+                return;
+            }
+            department.members.forEach(id -> {
+                Row row = row(id);
+                // A row moving between departments is briefly in both sets
+                if (row != null && row.department == department && matches(row, criteria)) {
+                    action.accept(row);
+                }
+            });
+            return;
+        }
+        int last = lastId.get();
+        for (int id = 1; id <= last; id++) {
+            Row row = row(id);
+            if (row != null && matches(row, criteria)) {
+                action.accept(row);
+            }
+        }
+    }
+
+    private static boolean matches(Row row, EmployeeCriteria criteria) {
+        return criteria.matches(row.salary(), row.createdAtMillis);
+    }
+
+    // ---- Paged row storage ----
+
+    private Object lockFor(int id) {
+        return locks[id & (LOCK_STRIPES - 1)];
+    }
+
+    private Row row(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        AtomicReferenceArray<Row>[] directory = pages;
+        int page = id >>> PAGE_SHIFT;
+        AtomicReferenceArray<Row> slots = page < directory.length ? directory[page] : null;
+        return slots != null ? slots.get(id & PAGE_MASK) : null;
+    }
+
+    private void store(int id, Row row) {
+        int page = id >>> PAGE_SHIFT;
+        AtomicReferenceArray<Row>[] directory = pages;
+        AtomicReferenceArray<Row> slots = page < directory.length ? directory[page] : null;
+        if (slots == null) {
+            synchronized (pageLock) {
+                directory = pages;
+                slots = page < directory.length ? directory[page] : null;
+                if (slots == null) {
+                    directory = Arrays.copyOf(directory, Math.max(directory.length, Integer.highestOneBit(page) * 2));
+                    slots = new AtomicReferenceArray<>(PAGE_SIZE);
+                    directory[page] = slots;
+                    pages = directory;
+                }
+            }
+        }
+        slots.set(id & PAGE_MASK, row);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AtomicReferenceArray<Row>[] newPages(int count) {
+        return (AtomicReferenceArray<Row>[]) new AtomicReferenceArray[count];
+    }
+
+    /**
+     * One stored employee; replaced, never modified
+     */
+    private static final class Row {
+        final int id;
+        final String name;
+        final String email;
+        final Department department;
+        final long salaryCents;
+        final long createdAtMillis;
+        final int version;
+
+        Row(int id, String name, String email, Department department, long salaryCents, long createdAtMillis, int version) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.department = department;
+            this.salaryCents = salaryCents;
+            this.createdAtMillis = createdAtMillis;
+            this.version = version;
+        }
+
+        BigDecimal salary() {
+            return BigDecimal.valueOf(salaryCents, 2);
+        }
+
+        Employee toEmployee() {
+            Employee employee = new Employee(id, name, email, department.name, salary(), new Timestamp(createdAtMillis));
+            employee.setVersion(version);
+            employee.markClean();
+            return employee;
+        }
+    }
+
+    /**
+     * Canonical department name and the IDs of its employees
+     */
+    private static final class Department {
+        final int id;
+        final String name;
+        final IdSet members = new IdSet();
+
+        Department(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Concurrent set of employee IDs: a paged bitset updated with compare-and-set
+     */
+    private static final class IdSet {
+        private static final int WORDS_PER_PAGE = PAGE_SIZE / Long.SIZE;
+
+        // Replaced (never modified) when a page is added
+        private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+
+        void add(int id) {
+            AtomicLongArray words = page(id >>> PAGE_SHIFT);
+            int index = (id & PAGE_MASK) >>> 6;
+            long bit = 1L << id;
+            long word;
+            do {
+                word = words.get(index);
+            } while ((word & bit) == 0 && !words.compareAndSet(index, word, word | bit));
+        }
+
+        void remove(int id) {
+            AtomicLongArray[] directory = pages;
+            int page = id >>> PAGE_SHIFT;
+            AtomicLongArray words = page < directory.length ? directory[page] : null;
+            if (words == null) {
+                return;
+            }
+            int index = (id & PAGE_MASK) >>> 6;
+            long bit = 1L << id;
+            long word;
+            do {
+                word = words.get(index);
+            } while ((word & bit) != 0 && !words.compareAndSet(index, word, word & ~bit));
+        }
+
+        boolean isEmpty() {
+            for (AtomicLongArray words : pages) {
+                if (words != null) {
+                    for (int i = 0; i < WORDS_PER_PAGE; i++) {
+                        if (words.get(i) != 0) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Pass every member to an action in ascending order
+         */
+        void forEach(IntConsumer action) {
+            AtomicLongArray[] directory = pages;
+            for (int page = 0; page < directory.length; page++) {
+                AtomicLongArray words = directory[page];
+                if (words == null) {
+                    continue;
+                }
+                for (int i = 0; i < WORDS_PER_PAGE; i++) {
+                    long word = words.get(i);
+                    int base = (page << PAGE_SHIFT) + (i << 6);
+                    while (word != 0) {
+                        action.accept(base + Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+
+        private AtomicLongArray page(int page) {
+            AtomicLongArray[] directory = pages;
+            AtomicLongArray words = page < directory.length ? directory[page] : null;
+            if (words != null) {
+                return words;
+            }
+            synchronized (this) {
+                directory = pages;
+                words = page < directory.length ? directory[page] : null;
+                if (words == null) {
+                    directory = Arrays.copyOf(directory, Math.max(directory.length, page + 1));
+                    words = new AtomicLongArray(WORDS_PER_PAGE);
+                    directory[page] = words;
+                    pages = directory;
+                }
+                return words;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.employee;
+
+import java.util.function.Supplier;
+
+/**
+ * Console Logger
+ * Minimal leveled logger for the application's console messages.
+ * The level comes from LOG_LEVEL (DEBUG, INFO, WARN, ERROR or OFF; default INFO).
+ *
+ * Use the Supplier overloads for messages built by concatenation so that
+ * nothing is allocated when the level is disabled.
+ */
+public final class Log {
+
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static volatile Level level = parseLevel(EnvLoader.getEnv("LOG_LEVEL", "INFO"));
+
+    private Log() {
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static boolean isDebugEnabled() {
+        return level.compareTo(Level.DEBUG) <= 0;
+    }
+
+    public static boolean isInfoEnabled() {
+        return level.compareTo(Level.INFO) <= 0;
+    }
+
+    public static boolean isWarnEnabled() {
+        return level.compareTo(Level.WARN) <= 0;
+    }
+
+    public static boolean isErrorEnabled() {
+        return level.compareTo(Level.ERROR) <= 0;
+    }
+
+    public static void debug(String message) {
+        if (isDebugEnabled()) {
+            System.out.println(message);
+        }
+    }
+
+    public static void debug(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            System.out.println(message.get());
+        }
+    }
+
+    public static void info(String message) {
+        if (isInfoEnabled()) {
+            System.out.println(message);
+        }
+    }
+
+    public static void info(Supplier<String> message) {
+        if (isInfoEnabled()) {
+            System.out.println(message.get());
+        }
+    }
+
+    public static void warn(String message) {
+        if (isWarnEnabled()) {
+            System.err.println(message);
+        }
+    }
+
+    public static void warn(Supplier<String> message) {
+        if (isWarnEnabled()) {
+            System.err.println(message.get());
+        }
+    }
+
+    public static void error(String message) {
+        if (isErrorEnabled()) {
+            System.err.println(message);
+        }
+    }
+
+    public static void error(Supplier<String> message) {
+        if (isErrorEnabled()) {
+            System.err.println(message.get());
+        }
+    }
+
+    public static void error(String message, Throwable cause) {
+        if (isErrorEnabled()) {
+            System.err.println(message);
+            cause.printStackTrace();
+        }
+    }
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️  Unknown LOG_LEVEL '" + value + "', using INFO");
+            return Level.INFO;
+        }
+    }
+}
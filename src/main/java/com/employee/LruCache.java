@@ -0,0 +1,223 @@
+package com.employee;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU Cache
+ * Small thread-safe cache with a maximum size, least-recently-used eviction
+ * and a per-entry time to live. Keeps hit/miss/eviction counters.
+ *
+ * Read-through callers take a {@link #generation()} before loading a value
+ * and store it with {@link #putIfCurrent}, which drops the value if the key
+ * was written or invalidated while it was being loaded. Without that, a
+ * slow load could put back a value that an invalidation had just removed.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LruCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Generation of the latest put / invalidate per key, for putIfCurrent();
+    // guarded by entries like everything below
+    private final LinkedHashMap<K, Long> changedAt;
+    private long generation;
+    // Loads started before this generation are dropped (invalidateAll, or a forgotten changedAt entry)
+    private long floor;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * @param name Name used when reporting statistics
+     * @param maxSize Maximum number of entries before the least recently used one is evicted
+     * @param ttlMillis Time to live per entry in milliseconds (0 or less = never expires)
+     */
+    public LruCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : 0L;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.changedAt = new LinkedHashMap<K, Long>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    floor = Math.max(floor, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Look up a value, counting a hit or a miss
+     * @param key Cache key
+     * @return Cached value or null if absent or expired
+     */
+    public V get(K key) {
+        V value = lookup(key);
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Look up a value without touching the hit/miss counters
+     * @param key Cache key
+     * @return Cached value or null if absent or expired
+     */
+    public V peek(K key) {
+        return lookup(key);
+    }
+
+    /**
+     * Store a value the caller knows to be current (for example one it just wrote)
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        long expiresAt = expiresAt();
+        synchronized (entries) {
+            markChanged(key);
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * @return Stamp to take before loading a value for {@link #putIfCurrent}
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Store a loaded value unless the key was put or invalidated after the load started
+     * @param generation {@link #generation()} taken before the value was loaded
+     * @return true if the value was stored
+     */
+    public boolean putIfCurrent(K key, V value, long generation) {
+        if (value == null) {
+            return false;
+        }
+        long expiresAt = expiresAt();
+        synchronized (entries) {
+            Long changed = changedAt.get(key);
+            if (generation < floor || (changed != null && changed > generation)) {
+                return false;
+            }
+            entries.put(key, new Entry<>(value, expiresAt));
+            return true;
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            markChanged(key);
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            floor = ++generation;
+            changedAt.clear();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /**
+     * @return Hits divided by lookups, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0.0 : (double) hits.get() / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d}",
+            name, size(), maxSize, hits.get(), misses.get(), getHitRate() * 100,
+            evictions.get(), expirations.get());
+    }
+
+    private long expiresAt() {
+        return ttlNanos > 0 ? System.nanoTime() + ttlNanos : Long.MAX_VALUE;
+    }
+
+    // Caller holds the entries lock
+    private void markChanged(K key) {
+        changedAt.remove(key);
+        changedAt.put(key, ++generation);
+    }
+
+    private V lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.nanoTime()) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,688 @@
+package com.employee;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Migration Runner
+ * Applies the versioned SQL scripts under db/migration (on the classpath)
+ * in order and records each one in the schema_history table with a CRC32
+ * checksum of its text. Applied scripts are never run again; editing one
+ * after it was applied is reported as a checksum mismatch instead.
+ *
+ * Scripts are named V&lt;version&gt;__&lt;description&gt;.sql and listed in
+ * {@link #MIGRATIONS}. Statements end with ';' unless a mysql-client style
+ * "DELIMITER $$" line changes the delimiter (needed for trigger bodies).
+ * A statement written entirely as a MySQL version comment
+ * ({@code /*!50604 ... *}{@code /}) is MySQL-only and skipped on other
+ * databases, such as the H2 database used by the benchmarks.
+ *
+ * MySQL commits DDL implicitly, so a script that fails halfway is not rolled
+ * back. Instead each statement is recorded in schema_history_progress as it
+ * completes (a data statement in the same transaction as its progress row),
+ * and a re-run skips the recorded statements, so seeding INSERTs never run
+ * twice. A DDL statement whose progress row was lost is tolerated when its
+ * index, column or trigger already exists.
+ *
+ * Only one runner migrates a database at a time: on MySQL the runner holds
+ * the named lock &lt;database&gt;.schema_migration (GET_LOCK) while it reads
+ * the history and applies scripts, waiting up to DB_MIGRATION_LOCK_TIMEOUT_S
+ * for another instance to finish. Runners in the same process also take
+ * turns on other databases.
+ */
+public final class MigrationRunner {
+
+    static final String MIGRATION_PATH = "db/migration/";
+
+    /**
+     * Every migration, in version order; add new scripts at the end
+     */
+    static final String[] MIGRATIONS = {
+        "V1__create_employees_table.sql",
+        "V2__add_employee_indexes.sql",
+        "V3__create_departments.sql",
+        "V4__add_employee_fulltext_index.sql",
+        "V5__create_employee_changes.sql",
+        "V6__add_employee_version.sql",
+        "V7__create_department_stats.sql",
+    };
+
+    private static final String CREATE_SCHEMA_HISTORY =
+        "CREATE TABLE IF NOT EXISTS schema_history (" +
+        "version INT PRIMARY KEY, " +
+        "description VARCHAR(200) NOT NULL, " +
+        "script VARCHAR(200) NOT NULL, " +
+        "checksum BIGINT NOT NULL, " +
+        "execution_ms INT NOT NULL, " +
+        "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+
+    private static final String SELECT_SCHEMA_HISTORY =
+        "SELECT version, checksum FROM schema_history ORDER BY version";
+
+    private static final String INSERT_SCHEMA_HISTORY =
+        "INSERT INTO schema_history (version, description, script, checksum, execution_ms) VALUES (?, ?, ?, ?, ?)";
+
+    // Statements completed by a script that has not finished yet, keyed by their position in the script
+    private static final String CREATE_SCHEMA_HISTORY_PROGRESS =
+        "CREATE TABLE IF NOT EXISTS schema_history_progress (" +
+        "version INT NOT NULL, " +
+        "statement_index INT NOT NULL, " +
+        "checksum BIGINT NOT NULL, " +
+        "PRIMARY KEY (version, statement_index))";
+
+    private static final String SELECT_SCHEMA_HISTORY_PROGRESS =
+        "SELECT statement_index, checksum FROM schema_history_progress WHERE version = ?";
+
+    private static final String INSERT_SCHEMA_HISTORY_PROGRESS =
+        "INSERT INTO schema_history_progress (version, statement_index, checksum) VALUES (?, ?, ?)";
+
+    private static final String DELETE_SCHEMA_HISTORY_PROGRESS =
+        "DELETE FROM schema_history_progress WHERE version = ?";
+
+    private static final String GET_LOCK = "SELECT GET_LOCK(CONCAT(DATABASE(), '.schema_migration'), ?)";
+    private static final String RELEASE_LOCK = "SELECT RELEASE_LOCK(CONCAT(DATABASE(), '.schema_migration'))";
+
+    // Serializes runners within this process (the only guard on databases without GET_LOCK)
+    private static final Object MIGRATION_LOCK = new Object();
+
+    // Errors tolerated when re-running a half-applied script, because the statement's
+    // change is already there: MySQL duplicate column / key name / foreign key,
+    // index to drop not found, trigger exists; H2 duplicate column / index / constraint,
+    // index not found
+    private static final int[] ALREADY_APPLIED_ERRORS = {1060, 1061, 1826, 1091, 1359, 42121, 42111, 90045, 42112};
+
+    private final List<Migration> migrations;
+
+    /**
+     * Runner for the migrations bundled with the application
+     * @throws IllegalStateException if a listed script is missing from the classpath
+     */
+    public MigrationRunner() {
+        this(loadBundled());
+    }
+
+    /**
+     * @param migrations Migrations in version order
+     */
+    MigrationRunner(List<Migration> migrations) {
+        this.migrations = Collections.unmodifiableList(new ArrayList<>(migrations));
+    }
+
+    private static List<Migration> loadBundled() {
+        List<Migration> loaded = new ArrayList<>();
+        for (String script : MIGRATIONS) {
+            loaded.add(Migration.load(script));
+        }
+        return loaded;
+    }
+
+    /**
+     * Migrate (DB_MIGRATE_ON_STARTUP, default true) and check indexes
+     * (DB_VERIFY_INDEXES, default false) as configured; used at application start
+     * @return false if a migration failed or was changed after being applied
+     */
+    public static boolean runFromEnv() {
+        try {
+            MigrationRunner runner = new MigrationRunner();
+            if (Boolean.parseBoolean(EnvLoader.getEnv("DB_MIGRATE_ON_STARTUP", "true"))) {
+                runner.migrate();
+            }
+            if (Boolean.parseBoolean(EnvLoader.getEnv("DB_VERIFY_INDEXES", "false"))) {
+                for (IndexCheck check : runner.verifyIndexes()) {
+                    if (check.isIndexUsed()) {
+                        Log.info(() -> "✅ " + check);
+                    } else {
+                        Log.warn(() -> "⚠️  " + check);
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException | IllegalStateException e) {
+            Log.error(() -> "❌ Schema migration failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return Bundled migrations in version order
+     */
+    public List<Migration> getMigrations() {
+        return migrations;
+    }
+
+    /**
+     * Apply every migration not yet recorded in schema_history
+     * @return Number of migrations applied
+     * @throws SQLException if a script fails or an applied script's checksum changed
+     */
+    public int migrate() throws SQLException {
+        long start = DaoMetrics.start();
+        synchronized (MIGRATION_LOCK) {
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                boolean mySql = isMySql(connection);
+                if (mySql) {
+                    acquireLock(connection);
+                }
+                try {
+                    int count = migrate(connection, mySql);
+                    DaoMetrics.success("migrate", start, count);
+                    if (count == 0) {
+                        Log.info(() -> "🗄️  Schema is up to date (version " + getLatestVersion() + ")");
+                    }
+                    return count;
+                } finally {
+                    if (mySql) {
+                        releaseLock(connection);
+                    }
+                }
+            } catch (SQLException e) {
+                DaoMetrics.failure("migrate", start, e);
+                throw e;
+            }
+        }
+    }
+
+    private int migrate(Connection connection, boolean mySql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_SCHEMA_HISTORY);
+            statement.execute(CREATE_SCHEMA_HISTORY_PROGRESS);
+        }
+        // Read after taking the lock, so scripts another instance just applied are not run again
+        Map<Integer, Long> applied = readHistory(connection);
+        validate(applied);
+
+        int count = 0;
+        for (Migration migration : migrations) {
+            if (!applied.containsKey(migration.getVersion())) {
+                apply(connection, migration, mySql);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void acquireLock(Connection connection) throws SQLException {
+        int timeoutSeconds = EnvLoader.getIntEnv("DB_MIGRATION_LOCK_TIMEOUT_S", 300);
+        try (PreparedStatement statement = connection.prepareStatement(GET_LOCK)) {
+            statement.setInt(1, timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                // 1 = locked, 0 = timed out, NULL = error
+                if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new SQLException("Another instance is still migrating the schema (waited "
+                        + timeoutSeconds + "s for the schema_migration lock)");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(RELEASE_LOCK);
+        } catch (SQLException e) {
+            // The server drops the lock with the session anyway
+            Log.warn(() -> "⚠️  Could not release the schema_migration lock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Highest version recorded in schema_history, or 0 if none
+     */
+    public int getCurrentVersion() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_SCHEMA_HISTORY);
+            }
+            int version = 0;
+            for (int applied : readHistory(connection).keySet()) {
+                version = Math.max(version, applied);
+            }
+            return version;
+        }
+    }
+
+    private int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    private Map<Integer, Long> readHistory(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_SCHEMA_HISTORY);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private void validate(Map<Integer, Long> applied) throws SQLException {
+        Map<Integer, Migration> known = new HashMap<>();
+        for (Migration migration : migrations) {
+            known.put(migration.getVersion(), migration);
+        }
+        for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+            Migration migration = known.get(entry.getKey());
+            if (migration == null) {
+                Log.warn(() -> "⚠️  Database has migration V" + entry.getKey() + " which this application does not know");
+            } else if (migration.getChecksum() != entry.getValue()) {
+                throw new SQLException("Migration " + migration.getScript() + " was changed after it was applied (checksum "
+                    + entry.getValue() + " in schema_history, " + migration.getChecksum() + " now)");
+            }
+        }
+    }
+
+    private void apply(Connection connection, Migration migration, boolean mySql) throws SQLException {
+        Log.info(() -> "🛠️  Applying migration " + migration.getScript());
+        long started = System.nanoTime();
+        List<String> statements = splitStatements(migration.getSql());
+        Map<Integer, Long> completed = readProgress(connection, migration.getVersion());
+        if (!completed.isEmpty()) {
+            if (isSameScript(completed, statements)) {
+                Log.warn(() -> "⚠️  Resuming migration " + migration.getScript() + " after "
+                    + completed.size() + " completed statement(s)");
+            } else {
+                // Edited since the failed attempt: run it all again, tolerating what already exists
+                Log.warn(() -> "⚠️  Migration " + migration.getScript() + " changed since its failed attempt, restarting it");
+                clearProgress(connection, migration.getVersion());
+                completed.clear();
+            }
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        try (Statement statement = connection.createStatement()) {
+            for (int index = 0; index < statements.size(); index++) {
+                String sql = statements.get(index);
+                long checksum = checksum(sql);
+                if (!mySql && isMySqlOnly(sql)) {
+                    Log.debug(() -> "Skipping MySQL-only statement: " + sql);
+                    continue;
+                }
+                if (completed.containsKey(index)) {
+                    continue;
+                }
+                // A data statement and its progress row commit together; MySQL commits DDL on its own
+                connection.setAutoCommit(false);
+                try {
+                    try {
+                        statement.execute(sql);
+                    } catch (SQLException e) {
+                        if (!isAlreadyApplied(e)) {
+                            throw new SQLException("Migration " + migration.getScript() + " failed: " + e.getMessage(),
+                                e.getSQLState(), e.getErrorCode(), e);
+                        }
+                        Log.warn(() -> "⚠️  Skipping statement already applied: " + e.getMessage());
+                    }
+                    recordProgress(connection, migration.getVersion(), index, checksum);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        }
+        int elapsedMillis = (int) ((System.nanoTime() - started) / 1_000_000);
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SCHEMA_HISTORY)) {
+            insert.setInt(1, migration.getVersion());
+            insert.setString(2, migration.getDescription());
+            insert.setString(3, migration.getScript());
+            insert.setLong(4, migration.getChecksum());
+            insert.setInt(5, elapsedMillis);
+            insert.executeUpdate();
+            clearProgress(connection, migration.getVersion());
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        Log.info(() -> "✅ Migration V" + migration.getVersion() + " applied in " + elapsedMillis + " ms");
+    }
+
+    /**
+     * @return Checksum per statement index already completed for an unfinished script
+     */
+    private static Map<Integer, Long> readProgress(Connection connection, int version) throws SQLException {
+        Map<Integer, Long> completed = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_SCHEMA_HISTORY_PROGRESS)) {
+            statement.setInt(1, version);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    completed.put(resultSet.getInt(1), resultSet.getLong(2));
+                }
+            }
+        }
+        return completed;
+    }
+
+    private static boolean isSameScript(Map<Integer, Long> completed, List<String> statements) {
+        for (Map.Entry<Integer, Long> entry : completed.entrySet()) {
+            int index = entry.getKey();
+            if (index >= statements.size() || checksum(statements.get(index)) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void clearProgress(Connection connection, int version) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_SCHEMA_HISTORY_PROGRESS)) {
+            statement.setInt(1, version);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void recordProgress(Connection connection, int version, int index, long checksum)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SCHEMA_HISTORY_PROGRESS)) {
+            statement.setInt(1, version);
+            statement.setInt(2, index);
+            statement.setLong(3, checksum);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * @return CRC32 of the text (UTF-8)
+     */
+    static long checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    static boolean isMySql(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        return product.contains("mysql") || product.contains("mariadb");
+    }
+
+    private static boolean isMySqlOnly(String sql) {
+        return sql.startsWith("/*!") && sql.endsWith("*/");
+    }
+
+    private static boolean isAlreadyApplied(SQLException e) {
+        for (int code : ALREADY_APPLIED_ERRORS) {
+            if (e.getErrorCode() == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---- Index verification ----
+
+    /**
+     * EXPLAIN the DAO's indexed queries and check that each uses its intended
+     * index. Range checks use the table's highest salary / created_at so the
+     * range is selective; on a nearly empty table the optimizer may still
+     * prefer a scan.
+     * @return One check per query
+     */
+    public List<IndexCheck> verifyIndexes() throws SQLException {
+        List<IndexCheck> checks = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            BigDecimal maxSalary = null;
+            Timestamp maxCreatedAt = null;
+            int departmentId = 1;
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                     "SELECT MAX(salary), MAX(created_at), MIN(department_id) FROM employees")) {
+                if (resultSet.next()) {
+                    maxSalary = resultSet.getBigDecimal(1);
+                    maxCreatedAt = resultSet.getTimestamp(2);
+                    departmentId = resultSet.getInt(3) != 0 ? resultSet.getInt(3) : departmentId;
+                }
+            }
+
+            checks.add(explain(connection, "getEmployeesByDepartment", "idx_employees_department_id_id",
+                EmployeeDAO.SELECT_EMPLOYEES_BY_DEPARTMENT, Collections.singletonList(departmentId)));
+
+            List<Object> parameters = new ArrayList<>();
+            String where = EmployeeCriteria.all()
+                .withSalaryAtLeast(maxSalary != null ? maxSalary : BigDecimal.ZERO)
+                .appendWhereClause(parameters);
+            checks.add(explain(connection, "salary range", "idx_employees_salary",
+                "SELECT id, salary FROM employees" + where, parameters));
+
+            parameters = new ArrayList<>();
+            where = EmployeeCriteria.all()
+                .withCreatedFrom(maxCreatedAt != null ? maxCreatedAt : new Timestamp(System.currentTimeMillis()))
+                .appendWhereClause(parameters);
+            checks.add(explain(connection, "created_at range", "idx_employees_created_at",
+                "SELECT id, created_at FROM employees" + where, parameters));
+        }
+        return checks;
+    }
+
+    private IndexCheck explain(Connection connection, String query, String index, String sql,
+                               List<Object> parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                // MySQL: one row per table with the chosen index in the "key" column;
+                // other databases: search the plan text
+                int keyColumn = 0;
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    if (metaData.getColumnLabel(i).equalsIgnoreCase("key")) {
+                        keyColumn = i;
+                    }
+                }
+                while (resultSet.next()) {
+                    if (plan.length() > 0) {
+                        plan.append("; ");
+                    }
+                    plan.append(keyColumn > 0 ? resultSet.getString(keyColumn) : resultSet.getString(1));
+                }
+            }
+            boolean used = plan.toString().toLowerCase(Locale.ROOT).contains(index.toLowerCase(Locale.ROOT));
+            return new IndexCheck(query, index, plan.toString().replaceAll("\\s+", " ").trim(), used);
+        }
+    }
+
+    // ---- Script parsing ----
+
+    /**
+     * Split a script into statements, skipping comments and honouring quotes
+     * and DELIMITER lines
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String delimiter = ";";
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+
+            // DELIMITER directive at the start of a line
+            if ((i == 0 || script.charAt(i - 1) == '\n') && startsWithIgnoreCase(script, i, "DELIMITER ")
+                    && current.toString().trim().isEmpty()) {
+                int end = script.indexOf('\n', i);
+                end = end < 0 ? length : end;
+                delimiter = script.substring(i + "DELIMITER ".length(), end).trim();
+                current.setLength(0);
+                i = end + 1;
+                continue;
+            }
+
+            if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                int end = script.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+                current.append('\n');
+                continue;
+            }
+            if (c == '/' && i + 1 < length && script.charAt(i + 1) == '*') {
+                int end = script.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                // Keep MySQL version comments (/*!50604 ... */): the server executes their text
+                current.append(i + 2 < length && script.charAt(i + 2) == '!' ? script.substring(i, end) : " ");
+                i = end;
+                continue;
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < length && script.charAt(end) != c) {
+                    end += script.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, length);
+                current.append(script, i, end);
+                i = end;
+                continue;
+            }
+            if (script.startsWith(delimiter, i)) {
+                addStatement(statements, current);
+                i += delimiter.length();
+                continue;
+            }
+            current.append(c);
+            i++;
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+
+    private static boolean startsWithIgnoreCase(String text, int offset, String prefix) {
+        return text.regionMatches(true, offset, prefix, 0, prefix.length());
+    }
+
+    /**
+     * One versioned migration script
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+        private final String sql;
+        private final long checksum;
+
+        private Migration(int version, String description, String script, String sql) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.sql = sql;
+            this.checksum = checksum(sql);
+        }
+
+        static Migration load(String script) {
+            try (InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(MIGRATION_PATH + script)) {
+                if (in == null) {
+                    throw new IllegalStateException("Migration script not found on the classpath: " + MIGRATION_PATH + script);
+                }
+                // Normalise line endings so a CRLF checkout keeps the same checksum
+                String sql = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+                return of(script, sql);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read migration " + script + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * @param script Name like V1__description.sql
+         * @param sql Script text
+         */
+        static Migration of(String script, String sql) {
+            int separator = script.indexOf("__");
+            if (!script.startsWith("V") || separator < 0 || !script.endsWith(".sql")) {
+                throw new IllegalStateException("Migration name must look like V1__description.sql: " + script);
+            }
+            int version = Integer.parseInt(script.substring(1, separator));
+            String description = script.substring(separator + 2, script.length() - 4).replace('_', ' ');
+            return new Migration(version, description, script, sql);
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getScript() {
+            return script;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return CRC32 of the script text (UTF-8, LF line endings)
+         */
+        public long getChecksum() {
+            return checksum;
+        }
+    }
+
+    /**
+     * Result of checking one query's EXPLAIN plan
+     */
+    public static final class IndexCheck {
+        private final String query;
+        private final String expectedIndex;
+        private final String plan;
+        private final boolean indexUsed;
+
+        IndexCheck(String query, String expectedIndex, String plan, boolean indexUsed) {
+            this.query = query;
+            this.expectedIndex = expectedIndex;
+            this.plan = plan;
+            this.indexUsed = indexUsed;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public String getExpectedIndex() {
+            return expectedIndex;
+        }
+
+        /**
+         * @return Index chosen by the optimizer (MySQL) or the plan text
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+        public boolean isIndexUsed() {
+            return indexUsed;
+        }
+
+        @Override
+        public String toString() {
+            return query + (indexUsed ? " uses " : " does not use ") + expectedIndex + " (plan: " + plan + ")";
+        }
+    }
+}
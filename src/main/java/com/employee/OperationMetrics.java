@@ -0,0 +1,112 @@
+package com.employee;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Operation Metrics
+ * Call count, error counts by SQL error code, rows returned/affected and
+ * a latency histogram for a single DAO operation.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final Map<Integer, LongAdder> errorsByCode = new ConcurrentHashMap<>();
+
+    public OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Record a successful call
+     * @param elapsedNanos Call duration
+     * @param rowCount Rows returned or affected
+     */
+    public void recordSuccess(long elapsedNanos, long rowCount) {
+        latency.record(elapsedNanos);
+        rows.add(rowCount);
+    }
+
+    /**
+     * Record a failed call
+     * @param elapsedNanos Call duration
+     * @param error Exception that failed the call
+     */
+    public void recordFailure(long elapsedNanos, SQLException error) {
+        latency.record(elapsedNanos);
+        errors.increment();
+        errorsByCode.computeIfAbsent(error.getErrorCode(), code -> new LongAdder()).increment();
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCallCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentileNanos(50.0) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentileNanos(99.0) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public Map<Integer, Long> getErrorCountsByCode() {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        errorsByCode.forEach((code, count) -> snapshot.put(code, count.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        rows.reset();
+        errorsByCode.clear();
+    }
+
+    // Formatted display method for user-friendly output
+    public String toDisplayString() {
+        return String.format(
+            "%-32s calls=%-8d errors=%-5d rows=%-9d p50=%8.3fms p99=%8.3fms max=%8.3fms%s",
+            operation, getCallCount(), getErrorCount(), getRowCount(),
+            getP50Millis(), getP99Millis(), getMaxMillis(),
+            errorsByCode.isEmpty() ? "" : " codes=" + getErrorCountsByCode());
+    }
+}
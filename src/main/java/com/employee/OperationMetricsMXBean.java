@@ -0,0 +1,30 @@
+package com.employee;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics recorded for one DAO operation
+ * (registered as com.employee:type=DaoMetrics,operation=&lt;name&gt;)
+ */
+public interface OperationMetricsMXBean {
+
+    String getOperation();
+
+    long getCallCount();
+
+    long getErrorCount();
+
+    long getRowCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    Map<Integer, Long> getErrorCountsByCode();
+
+    void reset();
+}
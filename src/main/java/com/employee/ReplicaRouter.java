@@ -0,0 +1,319 @@
+package com.employee;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replica Router
+ * Sends read-only work to a set of read replicas, each with its own
+ * {@link ConnectionPool}. Writes never come here; they use the primary pool.
+ *
+ * A background health check validates every replica periodically. A
+ * replica is taken out of rotation when its check fails, when a borrow
+ * fails with a connection error (SQLState class 08), or when it lags more
+ * than DB_REPLICA_MAX_LAG_S behind its source. It comes back after its next
+ * successful check. A replica whose pool is merely exhausted stays in
+ * rotation; that read moves on to the next replica. Replicas that cannot be reached at
+ * startup get their pool opened by a later health check.
+ *
+ * {@link #getConnection()} returns null when no replica is usable, and the
+ * caller falls back to the primary.
+ */
+public final class ReplicaRouter {
+
+    /**
+     * How a healthy replica is chosen for each read
+     */
+    public enum Balancing {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS;
+
+        static Balancing fromName(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown replica balancing '" + name
+                    + "' (expected ROUND_ROBIN or LEAST_CONNECTIONS)");
+            }
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final Balancing balancing;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * @param urls JDBC URL per replica
+     * @param username Database user for every replica
+     * @param password Database password for every replica
+     * @param config Pool settings used for each replica's pool
+     * @param balancing Replica selection strategy
+     * @param healthCheckMillis Delay between health checks
+     * @param maxLagSeconds Replication lag above which a replica is skipped (0 = lag not checked)
+     */
+    public ReplicaRouter(List<String> urls, String username, String password, ConnectionPool.PoolConfig config,
+                         Balancing balancing, long healthCheckMillis, long maxLagSeconds) {
+        List<Replica> created = new ArrayList<>();
+        for (String url : urls) {
+            Replica replica = new Replica(url, username, password, config);
+            replica.openPool();
+            created.add(replica);
+        }
+        this.replicas = Collections.unmodifiableList(created);
+        this.balancing = balancing;
+        this.maxLagSeconds = maxLagSeconds;
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkHealth();
+        long period = Math.max(100L, healthCheckMillis);
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from a healthy replica, trying the next one when a
+     * replica is busy or fails. Only connection failures mark a replica down.
+     * @return Connection (close it to return it to the replica's pool), or null if no replica is usable
+     */
+    public Connection getConnection() {
+        int size = replicas.size();
+        int first = balancing == Balancing.LEAST_CONNECTIONS ? leastBusy() : Math.floorMod(next.getAndIncrement(), size);
+        if (first < 0) {
+            return null;
+        }
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((first + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLTimeoutException e) {
+                Log.debug(() -> "Read replica busy, trying the next one: " + replica.url);
+            } catch (SQLException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return null;
+                }
+                if (isConnectionFailure(e)) {
+                    replica.markDown(e.getMessage());
+                } else {
+                    Log.warn(() -> "⚠️  Read replica borrow failed: " + replica.url + " (" + e.getMessage() + ")");
+                }
+            } catch (RuntimeException e) {
+                Log.warn(() -> "⚠️  Read replica borrow failed: " + replica.url + " (" + e.getMessage() + ")");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the error means the replica cannot be reached (SQLState class 08)
+     */
+    static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return (state != null && state.startsWith("08"))
+            || e instanceof SQLNonTransientConnectionException
+            || e instanceof SQLRecoverableException;
+    }
+
+    /**
+     * @return Index of the healthy replica with the fewest borrowed connections, or -1
+     */
+    private int leastBusy() {
+        int best = -1;
+        int fewest = Integer.MAX_VALUE;
+        int offset = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (offset + i) % replicas.size();
+            Replica replica = replicas.get(index);
+            if (replica.healthy) {
+                int active = replica.pool.getActiveConnections();
+                if (active < fewest) {
+                    fewest = active;
+                    best = index;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Number of replicas currently in rotation
+     */
+    public int getHealthyReplicaCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    public Balancing getBalancing() {
+        return balancing;
+    }
+
+    /**
+     * @return One line per replica: URL, state and pool usage
+     */
+    public List<String> describeReplicas() {
+        List<String> lines = new ArrayList<>();
+        for (Replica replica : replicas) {
+            lines.add(replica.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Check every replica now instead of waiting for the next scheduled check
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            replica.check(maxLagSeconds);
+        }
+    }
+
+    /**
+     * Stop the health check and close every replica pool
+     */
+    public void shutdown() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            ConnectionPool pool = replica.pool;
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * One replica endpoint and its pool
+     */
+    private static final class Replica {
+        private final String url;
+        private final String username;
+        private final String password;
+        private final ConnectionPool.PoolConfig config;
+        private final int validationTimeoutSeconds;
+
+        private volatile ConnectionPool pool;
+        private volatile boolean healthy;
+        private volatile String lastError;
+
+        Replica(String url, String username, String password, ConnectionPool.PoolConfig config) {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+            this.config = config;
+            this.validationTimeoutSeconds = Math.max(1, config.validationTimeoutSeconds);
+        }
+
+        /**
+         * Open the pool if it is not open yet
+         * @return true if the pool is open
+         */
+        synchronized boolean openPool() {
+            if (pool != null) {
+                return true;
+            }
+            try {
+                pool = new ConnectionPool(url, username, password, config);
+                return true;
+            } catch (SQLException e) {
+                markDown(e.getMessage());
+                return false;
+            }
+        }
+
+        void check(long maxLagSeconds) {
+            if (!openPool()) {
+                return;
+            }
+            try (Connection connection = pool.getConnection()) {
+                if (!connection.isValid(validationTimeoutSeconds)) {
+                    markDown("connection is not valid");
+                    return;
+                }
+                if (maxLagSeconds > 0) {
+                    long lag = readLagSeconds(connection);
+                    if (lag < 0 || lag > maxLagSeconds) {
+                        markDown(lag < 0 ? "replication is not running" : "replication lag " + lag + "s");
+                        return;
+                    }
+                }
+                markUp();
+            } catch (SQLException | RuntimeException e) {
+                markDown(e.getMessage());
+            }
+        }
+
+        /**
+         * @return Seconds behind the source, or -1 if replication is stopped
+         */
+        private static long readLagSeconds(Connection connection) throws SQLException {
+            try {
+                return readLagSeconds(connection, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL before 8.0.22
+                return readLagSeconds(connection, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+            }
+        }
+
+        private static long readLagSeconds(Connection connection, String sql, String column) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) {
+                    return -1;
+                }
+                long lag = resultSet.getLong(column);
+                return resultSet.wasNull() ? -1 : lag;
+            }
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                lastError = null;
+                Log.info(() -> "✅ Read replica in rotation: " + url);
+            }
+        }
+
+        void markDown(String reason) {
+            lastError = reason;
+            if (healthy) {
+                healthy = false;
+                Log.warn(() -> "⚠️  Read replica out of rotation: " + url + " (" + reason + ")");
+            } else {
+                Log.debug(() -> "Read replica still unavailable: " + url + " (" + reason + ")");
+            }
+        }
+
+        @Override
+        public String toString() {
+            ConnectionPool current = pool;
+            String usage = current == null ? "no pool"
+                : current.getActiveConnections() + " active, " + current.getIdleConnections() + " idle";
+            return url + ": " + (healthy ? "up" : "down" + (lastError != null ? " (" + lastError + ")" : ""))
+                + ", " + usage;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Salary Adjustment
+ * A raise (or cut) applied by EmployeeDAO.adjustSalaries(): either a
+ * percentage of the current salary or a fixed amount, rounded to cents on
+ * the server.
+ *
+ * Supported rounding modes are HALF_UP (MySQL ROUND), DOWN (TRUNCATE),
+ * FLOOR and CEILING.
+ */
+public final class SalaryAdjustment {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BigDecimal percent;
+    private final BigDecimal amount;
+    private final RoundingMode rounding;
+
+    private SalaryAdjustment(BigDecimal percent, BigDecimal amount, RoundingMode rounding) {
+        switch (rounding) {
+            case HALF_UP:
+            case DOWN:
+            case FLOOR:
+            case CEILING:
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported rounding mode for salary adjustments: " + rounding);
+        }
+        this.percent = percent;
+        this.amount = amount;
+        this.rounding = rounding;
+    }
+
+    /**
+     * @param percent Percentage to add, e.g. 3 for a 3% raise or -2.5 for a cut
+     * @return Adjustment rounded HALF_UP to cents
+     */
+    public static SalaryAdjustment percent(BigDecimal percent) {
+        return new SalaryAdjustment(percent, null, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @param amount Amount to add to every salary (negative to subtract)
+     * @return Adjustment rounded HALF_UP to cents
+     */
+    public static SalaryAdjustment amount(BigDecimal amount) {
+        return new SalaryAdjustment(null, amount, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @param rounding HALF_UP, DOWN, FLOOR or CEILING
+     * @return Same adjustment with a different rounding mode
+     */
+    public SalaryAdjustment withRounding(RoundingMode rounding) {
+        return new SalaryAdjustment(percent, amount, rounding);
+    }
+
+    public RoundingMode getRounding() {
+        return rounding;
+    }
+
+    /**
+     * @return SQL expression for the new salary, with one '?' for parameter()
+     */
+    String toSql() {
+        String raw = percent != null ? "salary * ?" : "salary + ?";
+        switch (rounding) {
+            case DOWN:
+                return "TRUNCATE(" + raw + ", 2)";
+            case FLOOR:
+                return "FLOOR((" + raw + ") * 100) / 100";
+            case CEILING:
+                return "CEILING((" + raw + ") * 100) / 100";
+            default:
+                return "ROUND(" + raw + ", 2)";
+        }
+    }
+
+    /**
+     * @return Value bound to the '?' in toSql(): the multiplier or the amount
+     */
+    BigDecimal parameter() {
+        return percent != null ? BigDecimal.ONE.add(percent.divide(HUNDRED)) : amount;
+    }
+
+    /**
+     * Same result as toSql(), computed in Java for storage without SQL
+     * @param salary Current salary
+     * @return New salary rounded to cents
+     */
+    BigDecimal apply(BigDecimal salary) {
+        BigDecimal raw = percent != null ? salary.multiply(parameter()) : salary.add(amount);
+        return raw.setScale(2, rounding);
+    }
+
+    @Override
+    public String toString() {
+        return (percent != null ? percent.toPlainString() + "%" : amount.toPlainString()) + " (" + rounding + ")";
+    }
+}
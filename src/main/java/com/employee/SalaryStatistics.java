@@ -0,0 +1,79 @@
+package com.employee;
+
+import java.math.BigDecimal;
+
+/**
+ * Salary Statistics
+ * Immutable headcount and salary aggregates, either for the whole table
+ * or for a single department.
+ */
+public final class SalaryStatistics {
+
+    private final String department;
+    private final long employeeCount;
+    private final BigDecimal totalSalary;
+    private final BigDecimal averageSalary;
+    private final BigDecimal minSalary;
+    private final BigDecimal maxSalary;
+
+    public SalaryStatistics(String department, long employeeCount, BigDecimal totalSalary,
+                            BigDecimal averageSalary, BigDecimal minSalary, BigDecimal maxSalary) {
+        this.department = department;
+        this.employeeCount = employeeCount;
+        this.totalSalary = orZero(totalSalary);
+        this.averageSalary = orZero(averageSalary);
+        this.minSalary = orZero(minSalary);
+        this.maxSalary = orZero(maxSalary);
+    }
+
+    /**
+     * @return Department name, or null for whole-table statistics
+     */
+    public String getDepartment() {
+        return department;
+    }
+
+    public long getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public BigDecimal getTotalSalary() {
+        return totalSalary;
+    }
+
+    public BigDecimal getAverageSalary() {
+        return averageSalary;
+    }
+
+    public BigDecimal getMinSalary() {
+        return minSalary;
+    }
+
+    public BigDecimal getMaxSalary() {
+        return maxSalary;
+    }
+
+    public boolean isEmpty() {
+        return employeeCount == 0;
+    }
+
+    // Formatted display method for user-friendly output
+    public String toDisplayString() {
+        return String.format(
+            "%-15s | Employees: %-5d | Avg: $%,12.2f | Min: $%,12.2f | Max: $%,12.2f",
+            department == null ? "All" : department, employeeCount, averageSalary, minSalary, maxSalary
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "SalaryStatistics{department='%s', count=%d, total=%s, avg=%s, min=%s, max=%s}",
+            department, employeeCount, totalSalary, averageSalary, minSalary, maxSalary
+        );
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
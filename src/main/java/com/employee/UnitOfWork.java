@@ -0,0 +1,524 @@
+package com.employee;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Unit of Work
+ * Runs several EmployeeDAO operations in one database transaction. While a
+ * unit is active on the current thread, DatabaseConnection.getConnection()
+ * hands out the unit's connection, so every DAO method joins the same
+ * transaction without any change to its signature:
+ *
+ * <pre>
+ *     UnitOfWork.execute(UnitOfWork.Isolation.REPEATABLE_READ, unit -&gt; {
+ *         dao.createEmployee(hire);
+ *         dao.deleteEmployee(leaverId);
+ *         return null;
+ *     });
+ * </pre>
+ *
+ * Inside a unit:
+ * <ul>
+ *   <li>close() on the shared connection is a no-op; the unit commits once at the end.</li>
+ *   <li>A DAO method's own setAutoCommit(false) / commit() / rollback() run against a
+ *       savepoint, so batch methods still roll back only their own chunk.</li>
+ *   <li>A statement that fails outside such a DAO-managed block marks the unit
+ *       rollback-only; use {@link #withSavepoint(Work)} to tolerate a failing step.</li>
+ *   <li>A deadlock (1213) or lock wait timeout (1205) rolls the whole unit back and
+ *       runs the work again, up to UOW_MAX_ATTEMPTS times in total.</li>
+ * </ul>
+ *
+ * The work may therefore run more than once and should not have side effects
+ * outside the database (or should tolerate repeating them).
+ */
+public final class UnitOfWork {
+
+    static final int ER_LOCK_DEADLOCK = 1213;
+    static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Transaction isolation level for a unit
+     */
+    public enum Isolation {
+        /** Keep the connection's (server's) default level */
+        DEFAULT(-1),
+        READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+        READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+        REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        private final int level;
+
+        Isolation(int level) {
+            this.level = level;
+        }
+
+        /**
+         * @return JDBC Connection.TRANSACTION_* constant, or -1 for DEFAULT
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * @param name Level name such as "read_committed" or "REPEATABLE-READ"
+         * @return Matching isolation level
+         * @throws IllegalArgumentException for an unknown name
+         */
+        public static Isolation fromName(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    /**
+     * Work run inside a unit
+     * @param <T> Result type
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute(UnitOfWork unit) throws SQLException;
+    }
+
+    private final Connection physical;
+    private final Connection shared;
+    private final int attempt;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private SQLException rollbackCause;
+    private SQLException retryCause;
+    private boolean rollbackOnly;
+    // Savepoint standing in for a DAO method's own transaction, null outside one
+    private Savepoint daoSavepoint;
+    private boolean daoTransaction;
+
+    private UnitOfWork(Connection physical, int attempt) {
+        this.physical = physical;
+        this.attempt = attempt;
+        this.shared = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, new SharedConnection());
+    }
+
+    // ---- Running units ----
+
+    /**
+     * Run work in a unit using UOW_ISOLATION and UOW_MAX_ATTEMPTS
+     * @see #execute(Isolation, int, Work)
+     */
+    public static <T> T execute(Work<T> work) throws SQLException {
+        Isolation isolation = Isolation.fromName(EnvLoader.getEnv("UOW_ISOLATION", "DEFAULT"));
+        return execute(isolation, work);
+    }
+
+    /**
+     * Run work in a unit with the given isolation level and UOW_MAX_ATTEMPTS
+     * @see #execute(Isolation, int, Work)
+     */
+    public static <T> T execute(Isolation isolation, Work<T> work) throws SQLException {
+        return execute(isolation, EnvLoader.getIntEnv("UOW_MAX_ATTEMPTS", 3), work);
+    }
+
+    /**
+     * Run work in one transaction and commit it. A unit started while another is
+     * active on this thread joins the outer one (its isolation level is ignored).
+     * @param isolation Isolation level for the transaction
+     * @param maxAttempts Total attempts when the transaction deadlocks or times out waiting for a lock
+     * @param work Work to run; may run again after a deadlock
+     * @return Whatever the work returned
+     * @throws SQLException if the work failed, the unit was marked rollback-only
+     *         or it still deadlocked after maxAttempts
+     */
+    public static <T> T execute(Isolation isolation, int maxAttempts, Work<T> work) throws SQLException {
+        UnitOfWork outer = CURRENT.get();
+        if (outer != null) {
+            return work.execute(outer);
+        }
+
+        long start = DaoMetrics.start();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = runOnce(isolation, attempt, work);
+                DaoMetrics.success("unitOfWork", start, attempt);
+                return result;
+            } catch (SQLException e) {
+                if (isRetryable(e) && attempt < maxAttempts) {
+                    int retry = attempt;
+                    Log.warn(() -> "⚠️  Unit of work hit " + e.getMessage() + ", retrying (" + retry + ")");
+                    backOff(attempt);
+                    continue;
+                }
+                DaoMetrics.failure("unitOfWork", start, e);
+                throw e;
+            }
+        }
+    }
+
+    private static <T> T runOnce(Isolation isolation, int attempt, Work<T> work) throws SQLException {
+        Connection connection = DatabaseConnection.getConnection();
+        int previousLevel = -1;
+        UnitOfWork unit = null;
+        try {
+            if (isolation != Isolation.DEFAULT) {
+                previousLevel = connection.getTransactionIsolation();
+                connection.setTransactionIsolation(isolation.getLevel());
+            }
+            connection.setAutoCommit(false);
+            unit = new UnitOfWork(connection, attempt);
+            CURRENT.set(unit);
+
+            T result;
+            try {
+                result = work.execute(unit);
+            } finally {
+                CURRENT.remove();
+            }
+            unit.finishDaoTransaction(true);
+            if (unit.retryCause != null) {
+                // The server already rolled the transaction back; the DAO may have hidden that
+                throw unit.retryCause;
+            }
+            if (unit.rollbackOnly) {
+                SQLException e = new SQLException("Unit of work marked rollback-only"
+                    + (unit.rollbackCause != null ? ": " + unit.rollbackCause.getMessage() : ""));
+                if (unit.rollbackCause != null) {
+                    e.initCause(unit.rollbackCause);
+                }
+                throw e;
+            }
+            connection.commit();
+            unit.runAfterCommit();
+            return result;
+
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            // A swallowed deadlock explains whatever failed after it, so retry on that
+            throw unit != null && unit.retryCause != null ? unit.retryCause : e;
+        } catch (RuntimeException | Error e) {
+            rollbackQuietly(connection);
+            throw e;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+                if (previousLevel != -1) {
+                    connection.setTransactionIsolation(previousLevel);
+                }
+            } catch (SQLException e) {
+                Log.warn(() -> "⚠️  Could not reset connection after unit of work: " + e.getMessage());
+            }
+            DatabaseConnection.closeConnection(connection);
+        }
+    }
+
+    /**
+     * @return true if the current thread is inside a unit of work
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Run an action once the current unit commits, or right away when no unit
+     * is active. Nothing runs if the unit rolls back.
+     * @param action Action such as a cache invalidation
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * @return The current unit's shared connection, or null outside a unit
+     */
+    static Connection currentConnection() {
+        UnitOfWork unit = CURRENT.get();
+        return unit == null ? null : unit.shared;
+    }
+
+    static boolean isRetryable(SQLException e) {
+        return e.getErrorCode() == ER_LOCK_DEADLOCK || e.getErrorCode() == ER_LOCK_WAIT_TIMEOUT
+            || "40001".equals(e.getSQLState());
+    }
+
+    // ---- Inside a unit ----
+
+    /**
+     * @return The connection shared by every DAO call in this unit (do not commit it yourself)
+     */
+    public Connection getConnection() {
+        return shared;
+    }
+
+    /**
+     * @return 1 for the first run of the work, 2 after the first retry, and so on
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Create a savepoint to roll back to later in this unit
+     * @param name Savepoint name
+     * @return Savepoint handle
+     */
+    public Savepoint setSavepoint(String name) throws SQLException {
+        return physical.setSavepoint(name);
+    }
+
+    /**
+     * Undo everything done since the savepoint; the savepoint stays usable
+     * @param savepoint Savepoint created by setSavepoint()
+     */
+    public void rollbackTo(Savepoint savepoint) throws SQLException {
+        physical.rollback(savepoint);
+    }
+
+    /**
+     * Forget a savepoint (keeps the work done since)
+     * @param savepoint Savepoint created by setSavepoint()
+     */
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        physical.releaseSavepoint(savepoint);
+    }
+
+    /**
+     * Run a step that is allowed to fail: if it throws or a statement inside it
+     * fails, only the step is rolled back and the unit can still commit.
+     * Deadlocks still roll back (and retry) the whole unit.
+     * @param step Step to run
+     * @return What the step returned (for a swallowed failure, the DAO's failure value)
+     * @throws SQLException the step's own exception, after rolling the step back
+     */
+    public <T> T withSavepoint(Work<T> step) throws SQLException {
+        Savepoint savepoint = physical.setSavepoint();
+        boolean wasRollbackOnly = rollbackOnly;
+        try {
+            T result = step.execute(this);
+            finishDaoTransaction(true);
+            if (rollbackOnly && !wasRollbackOnly && retryCause == null) {
+                physical.rollback(savepoint);
+                rollbackOnly = false;
+                rollbackCause = null;
+            } else if (retryCause == null) {
+                physical.releaseSavepoint(savepoint);
+            }
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            finishDaoTransaction(false);
+            boolean retryable = e instanceof SQLException && isRetryable((SQLException) e);
+            if (retryCause == null && !retryable) {
+                physical.rollback(savepoint);
+                rollbackOnly = wasRollbackOnly;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Make the unit roll back instead of committing when the work finishes
+     */
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    private void recordFailure(SQLException e) {
+        if (isRetryable(e)) {
+            if (retryCause == null) {
+                retryCause = e;
+            }
+        } else if (!daoTransaction) {
+            // A failure inside a DAO-managed block is rolled back (or reported) by the DAO itself
+            rollbackOnly = true;
+            if (rollbackCause == null) {
+                rollbackCause = e;
+            }
+        }
+    }
+
+    private void beginDaoTransaction() throws SQLException {
+        if (!daoTransaction) {
+            daoTransaction = true;
+            daoSavepoint = physical.setSavepoint();
+        }
+    }
+
+    private void commitDaoTransaction(boolean keepOpen) throws SQLException {
+        if (!daoTransaction) {
+            return;
+        }
+        physical.releaseSavepoint(daoSavepoint);
+        daoSavepoint = keepOpen ? physical.setSavepoint() : null;
+        daoTransaction = keepOpen;
+    }
+
+    private void rollbackDaoTransaction() throws SQLException {
+        if (daoTransaction) {
+            physical.rollback(daoSavepoint);
+        } else {
+            // A DAO rollback outside its own block can only undo the whole unit
+            setRollbackOnly();
+        }
+    }
+
+    /**
+     * Close a DAO block the DAO left open (JDBC would commit on setAutoCommit(true),
+     * and the pool rolls back on close)
+     */
+    private void finishDaoTransaction(boolean commit) {
+        if (!daoTransaction || retryCause != null) {
+            daoTransaction = false;
+            daoSavepoint = null;
+            return;
+        }
+        try {
+            if (commit) {
+                commitDaoTransaction(false);
+            } else {
+                physical.rollback(daoSavepoint);
+            }
+        } catch (SQLException e) {
+            recordFailure(e);
+        } finally {
+            daoTransaction = false;
+            daoSavepoint = null;
+        }
+    }
+
+    private void runAfterCommit() {
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                Log.warn(() -> "⚠️  After-commit action failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            Log.warn(() -> "⚠️  Rollback failed: " + e.getMessage());
+        }
+    }
+
+    private static void backOff(int attempt) {
+        long base = EnvLoader.getLongEnv("UOW_RETRY_BACKOFF_MILLIS", 20L) << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The connection DAO methods see inside the unit
+     */
+    private final class SharedConnection implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    finishDaoTransaction(false);
+                    return null;
+                case "isClosed":
+                    return physical.isClosed();
+                case "getAutoCommit":
+                    return !daoTransaction;
+                case "setAutoCommit":
+                    if ((Boolean) args[0]) {
+                        commitDaoTransaction(false);
+                    } else {
+                        beginDaoTransaction();
+                    }
+                    return null;
+                case "commit":
+                    commitDaoTransaction(true);
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        rollbackDaoTransaction();
+                        return null;
+                    }
+                    break;
+                case "setTransactionIsolation":
+                    // Fixed for the whole unit when it starts
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "UnitOfWork[" + physical + "]";
+                default:
+                    break;
+            }
+            Object result = invokeOn(physical, method, args);
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { method.getReturnType() }, new SharedStatement(result, proxy));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records statement failures so a swallowed SQLException still decides the unit's fate
+     */
+    private final class SharedStatement implements InvocationHandler {
+        private final Object statement;
+        private final Object connection;
+
+        SharedStatement(Object statement, Object connection) {
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getConnection")) {
+                return connection;
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invokeOn(statement, method, args);
+            }
+            if (retryCause != null) {
+                // The transaction is gone; fail fast until the unit restarts
+                throw retryCause;
+            }
+            try {
+                return invokeOn(statement, method, args);
+            } catch (SQLException e) {
+                recordFailure(e);
+                throw e;
+            }
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Upsert Result
+ * Outcome of an upsert keyed by email: for every input row, whether it was
+ * inserted, updated, left unchanged or failed.
+ */
+public class UpsertResult {
+
+    /**
+     * What happened to a single row
+     */
+    public enum Outcome {
+        /** No employee had this email, so a new row was inserted */
+        INSERTED,
+        /** An employee with this email existed and at least one field changed */
+        UPDATED,
+        /** An employee with this email already had exactly these values */
+        UNCHANGED,
+        /** The database rejected the row (see getFailures()) */
+        FAILED
+    }
+
+    private final List<Outcome> outcomes = new ArrayList<>();
+    private final int[] counts = new int[Outcome.values().length];
+    private final List<BatchResult.Failure> failures = new ArrayList<>();
+
+    void record(Outcome outcome) {
+        outcomes.add(outcome);
+        counts[outcome.ordinal()]++;
+    }
+
+    void recordFailure(Employee employee, int errorCode, String message) {
+        record(Outcome.FAILED);
+        failures.add(new BatchResult.Failure(employee, errorCode, message));
+    }
+
+    /**
+     * @return One outcome per input row, in input order
+     */
+    public List<Outcome> getOutcomes() {
+        return Collections.unmodifiableList(outcomes);
+    }
+
+    public int getInsertedCount() {
+        return counts[Outcome.INSERTED.ordinal()];
+    }
+
+    public int getUpdatedCount() {
+        return counts[Outcome.UPDATED.ordinal()];
+    }
+
+    public int getUnchangedCount() {
+        return counts[Outcome.UNCHANGED.ordinal()];
+    }
+
+    public int getFailureCount() {
+        return counts[Outcome.FAILED.ordinal()];
+    }
+
+    /**
+     * @return Rejected rows in input order
+     */
+    public List<BatchResult.Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * @return true if no row failed
+     */
+    public boolean isFullySuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UpsertResult{inserted=%d, updated=%d, unchanged=%d, failed=%d}",
+            getInsertedCount(), getUpdatedCount(), getUnchangedCount(), getFailureCount());
+    }
+}
@@ -0,0 +1,107 @@
+package com.employee;
+
+/**
+ * Versioned Write Result
+ * Outcome of an update or delete conditioned on the row version the caller
+ * read (optimistic locking). On a conflict the row as it is now is
+ * attached, so the caller can show it and let the user retry.
+ */
+public class VersionedWriteResult {
+
+    /**
+     * What happened to the row
+     */
+    public enum Status {
+        /** The row still had the expected version and was written */
+        APPLIED,
+        /** Nothing was changed, so nothing was written */
+        UNCHANGED,
+        /** Someone else changed the row since it was read (see getCurrent()) */
+        CONFLICT,
+        /** No employee has this ID (any more) */
+        NOT_FOUND,
+        /** The database rejected the statement (see getErrorMessage()) */
+        FAILED
+    }
+
+    private final Status status;
+    private final int version;
+    private final Employee current;
+    private final int errorCode;
+    private final String errorMessage;
+
+    private VersionedWriteResult(Status status, int version, Employee current, int errorCode, String errorMessage) {
+        this.status = status;
+        this.version = version;
+        this.current = current;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    static VersionedWriteResult applied(int version) {
+        return new VersionedWriteResult(Status.APPLIED, version, null, 0, null);
+    }
+
+    static VersionedWriteResult unchanged(int version) {
+        return new VersionedWriteResult(Status.UNCHANGED, version, null, 0, null);
+    }
+
+    static VersionedWriteResult conflict(Employee current) {
+        return new VersionedWriteResult(Status.CONFLICT, current.getVersion(), current, 0, null);
+    }
+
+    static VersionedWriteResult notFound() {
+        return new VersionedWriteResult(Status.NOT_FOUND, 0, null, 0, null);
+    }
+
+    static VersionedWriteResult failure(int errorCode, String errorMessage) {
+        return new VersionedWriteResult(Status.FAILED, 0, null, errorCode, errorMessage);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the row now holds the caller's values (APPLIED or UNCHANGED)
+     */
+    public boolean isSuccessful() {
+        return status == Status.APPLIED || status == Status.UNCHANGED;
+    }
+
+    public boolean isConflict() {
+        return status == Status.CONFLICT;
+    }
+
+    /**
+     * @return Row version after the write, or the current version on a conflict
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The row as it is now (CONFLICT only, else null)
+     */
+    public Employee getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return Vendor error code (FAILED only, e.g. 1062 for a duplicate email)
+     */
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return status == Status.FAILED
+            ? String.format("VersionedWriteResult{status=FAILED, error=%d %s}", errorCode, errorMessage)
+            : String.format("VersionedWriteResult{status=%s, version=%d}", status, version);
+    }
+}
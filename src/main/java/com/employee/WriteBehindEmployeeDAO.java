@@ -0,0 +1,688 @@
+package com.employee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Write-Behind Employee DAO
+ * Wraps any EmployeeRepository (normally the JDBC DAO, possibly behind a
+ * cache) and queues updateEmployee() / updateEmployees() calls in memory instead of
+ * writing each one immediately. Updates to the same employee ID are merged
+ * (the latest values win), and a background thread writes the queue as
+ * batched UPDATEs when it reaches WRITE_BEHIND_BATCH_SIZE employees or
+ * every WRITE_BEHIND_FLUSH_INTERVAL_MS, whichever comes first.
+ *
+ * The queue holds at most WRITE_BEHIND_MAX_PENDING employees (plus the
+ * batch being written). When it is full, callers wait for the flush to make
+ * room, for up to WRITE_BEHIND_OFFER_TIMEOUT_MS, and then the update is
+ * rejected. Updating an employee that is already queued never waits.
+ *
+ * Ordering: every other write (creates excepted) flushes the queue first,
+ * so it never races a queued update. Inside a {@link UnitOfWork}, updates
+ * are written immediately, as part of the transaction. The queue is never
+ * flushed into a unit: from inside one it is written on a separate thread
+ * and connection and committed on its own, so other callers' updates do not
+ * commit or roll back with an unrelated transaction. (A queued update of a
+ * row the unit has already locked waits for the unit, and fails with a lock
+ * wait timeout if the unit flushes again first.)
+ *
+ * getEmployeeById() and getEmployeesByIds() return queued values, with the
+ * version the row will have once the update is flushed, so reading a queued
+ * employee and then calling tryUpdateEmployee() does not conflict with the
+ * caller's own queued write. Other reads see the database, so they show an
+ * update once its flush is done. close() (also run by a JVM shutdown hook)
+ * writes whatever is still queued.
+ *
+ * Queued updates are lost if the process dies before they are flushed. A
+ * {@link DurabilityHook} can journal them, for example to a local file, and
+ * truncate the journal after each flush.
+ */
+public class WriteBehindEmployeeDAO implements EmployeeRepository, AutoCloseable {
+
+    /**
+     * Callbacks for keeping queued updates durable outside the process
+     */
+    public interface DurabilityHook {
+
+        /**
+         * Called before an update is queued, in queue order. Throwing rejects the update.
+         * @param employee Values being queued (a copy; do not modify)
+         */
+        default void beforeEnqueue(Employee employee) {
+        }
+
+        /**
+         * Called after a batch was written
+         * @param written Employees whose update is now in the database
+         */
+        default void afterFlush(List<Employee> written) {
+        }
+
+        /**
+         * Called with the updates the database rejected during a flush
+         * (unknown ID, duplicate email, or the whole batch when the database was unreachable)
+         * @param failures Rejected updates with their error codes
+         */
+        default void onFlushFailure(List<BatchResult.Failure> failures) {
+        }
+    }
+
+    private static final DurabilityHook NO_HOOK = new DurabilityHook() {
+    };
+
+    private final EmployeeRepository delegate;
+    private final int maxPending;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final DurabilityHook hook;
+
+    // Guards pending, inFlight, flushRequested and closed
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // Held for the whole of a flush, so a synchronous write can wait for the batch being written
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Map<Integer, Employee> pending = new LinkedHashMap<>();
+    private Map<Integer, Employee> inFlight = Collections.emptyMap();
+    private boolean flushRequested;
+    private boolean closed;
+
+    private final Thread flusher;
+    private final Thread shutdownHook;
+
+    private final AtomicLong updatesQueued = new AtomicLong();
+    private final AtomicLong updatesMerged = new AtomicLong();
+    private final AtomicLong updatesRejected = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    /**
+     * @param delegate Repository that performs the actual writes
+     * @param maxPending Maximum employees waiting to be flushed
+     * @param batchSize Queue size that triggers a flush; also the rows per batch / transaction
+     * @param flushIntervalMillis Longest time an update waits before it is flushed
+     * @param offerTimeoutMillis How long a caller waits for room in a full queue
+     * @param hook Durability callbacks, or null for none
+     */
+    public WriteBehindEmployeeDAO(EmployeeRepository delegate, int maxPending, int batchSize,
+                                  long flushIntervalMillis, long offerTimeoutMillis, DurabilityHook hook) {
+        this.delegate = delegate;
+        this.maxPending = Math.max(1, maxPending);
+        this.batchSize = Math.max(1, Math.min(batchSize, this.maxPending));
+        this.flushIntervalMillis = Math.max(1L, flushIntervalMillis);
+        this.offerTimeoutMillis = Math.max(0L, offerTimeoutMillis);
+        this.hook = hook != null ? hook : NO_HOOK;
+
+        this.flusher = new Thread(this::runFlusher, "employee-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        this.shutdownHook = new Thread(this::close, "employee-write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Wrap a repository in a write-behind queue if WRITE_BEHIND_ENABLED=true
+     * @param delegate Repository to wrap
+     * @return Write-behind repository, or the delegate itself when write-behind is disabled
+     */
+    public static EmployeeRepository wrapIfEnabled(EmployeeRepository delegate) {
+        if (!Boolean.parseBoolean(EnvLoader.getEnv("WRITE_BEHIND_ENABLED", "false"))) {
+            return delegate;
+        }
+        int maxPending = EnvLoader.getIntEnv("WRITE_BEHIND_MAX_PENDING", 10_000);
+        int batchSize = EnvLoader.getIntEnv("WRITE_BEHIND_BATCH_SIZE", EnvLoader.getIntEnv("DB_BATCH_SIZE", 500));
+        long flushIntervalMillis = EnvLoader.getLongEnv("WRITE_BEHIND_FLUSH_INTERVAL_MS", 1000L);
+        long offerTimeoutMillis = EnvLoader.getLongEnv("WRITE_BEHIND_OFFER_TIMEOUT_MS", 5000L);
+        Log.info(() -> "✍️  Write-behind updates enabled (batch " + batchSize + ", every " + flushIntervalMillis
+            + " ms, max " + maxPending + " pending)");
+        return new WriteBehindEmployeeDAO(delegate, maxPending, batchSize, flushIntervalMillis, offerTimeoutMillis, null);
+    }
+
+    // ---- Queued writes ----
+
+    /**
+     * Queue an update. Returns once the update is queued; it is written by a later flush.
+     * @param employee Employee with updated information (copied, so it can be reused)
+     * @return true if queued (or, inside a unit of work, written), false if rejected
+     */
+    @Override
+    public boolean updateEmployee(Employee employee) {
+        if (UnitOfWork.isActive()) {
+            flush();
+            return delegate.updateEmployee(employee);
+        }
+        return enqueue(employee);
+    }
+
+    @Override
+    public BatchResult updateEmployees(Collection<Employee> employees) {
+        return updateEmployees(employees, batchSize);
+    }
+
+    /**
+     * Queue many updates
+     * @param employees Employees to update (matched by ID)
+     * @param chunkSize Ignored unless inside a unit of work; flushes use WRITE_BEHIND_BATCH_SIZE
+     * @return BatchResult counting queued updates as successes and rejected ones as failures
+     */
+    @Override
+    public BatchResult updateEmployees(Collection<Employee> employees, int chunkSize) {
+        if (UnitOfWork.isActive()) {
+            flush();
+            return delegate.updateEmployees(employees, chunkSize);
+        }
+        BatchResult result = new BatchResult();
+        for (Employee employee : employees) {
+            if (enqueue(employee)) {
+                result.recordSuccess(1);
+            } else {
+                result.recordFailure(employee, 0, "Write-behind queue full");
+            }
+        }
+        return result;
+    }
+
+    private boolean enqueue(Employee employee) {
+        Employee queued = new Employee(employee);
+        int id = queued.getId();
+        if (id <= 0) {
+            return reject(id, "employee has no ID");
+        }
+        try {
+            lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return reject(id, "interrupted");
+        }
+        try {
+            if (closed) {
+                return reject(id, "write-behind DAO is closed");
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+            while (!pending.containsKey(id) && pending.size() >= maxPending) {
+                if (remaining <= 0L || closed) {
+                    return reject(id, "queue full (" + maxPending + " pending)");
+                }
+                requestFlush();
+                remaining = notFull.awaitNanos(remaining);
+            }
+            // Each flush bumps the stored version once per row, so an update merged
+            // into a queued one keeps the version already promised for the row
+            Employee merged = pending.get(id);
+            Employee writing = inFlight.get(id);
+            if (merged != null) {
+                queued.setVersion(merged.getVersion());
+            } else {
+                queued.setVersion((writing != null ? writing.getVersion() : queued.getVersion()) + 1);
+            }
+            queued.markClean();
+            try {
+                hook.beforeEnqueue(queued);
+            } catch (RuntimeException e) {
+                return reject(id, "durability hook failed: " + e.getMessage());
+            }
+            if (pending.put(id, queued) != null) {
+                updatesMerged.incrementAndGet();
+            }
+            updatesQueued.incrementAndGet();
+            if (pending.size() >= batchSize) {
+                requestFlush();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return reject(id, "interrupted");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean reject(int id, String reason) {
+        updatesRejected.incrementAndGet();
+        Log.warn(() -> "⚠️  Write-behind update of employee " + id + " rejected: " + reason);
+        return false;
+    }
+
+    // Caller holds lock
+    private void requestFlush() {
+        flushRequested = true;
+        flushNeeded.signal();
+    }
+
+    // ---- Flushing ----
+
+    /**
+     * Write everything queued so far, waiting for a flush that is already running.
+     * Inside a unit of work the flush runs on a separate thread, outside the unit.
+     * @return Employees written by this call (0 if the queue was empty)
+     */
+    public int flush() {
+        if (UnitOfWork.isActive()) {
+            return flushOutsideUnit();
+        }
+        return flushQueued();
+    }
+
+    private int flushQueued() {
+        flushLock.lock();
+        try {
+            List<Employee> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                inFlight = pending;
+                pending = new LinkedHashMap<>();
+                batch = new ArrayList<>(inFlight.values());
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                return write(batch);
+            } finally {
+                lock.lock();
+                try {
+                    inFlight = Collections.emptyMap();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushing on this thread would write other callers' updates through the
+     * unit's connection, committing or rolling them back with it
+     */
+    private int flushOutsideUnit() {
+        lock.lock();
+        try {
+            if (pending.isEmpty() && inFlight.isEmpty()) {
+                return 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+        FutureTask<Integer> task = new FutureTask<>(this::flushQueued);
+        Thread thread = new Thread(task, "employee-write-behind-sync");
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Write-behind flush failed", cause);
+        }
+    }
+
+    private int write(List<Employee> batch) {
+        long start = DaoMetrics.start();
+        BatchResult result;
+        try {
+            result = delegate.updateEmployees(batch, batchSize);
+        } catch (RuntimeException e) {
+            result = new BatchResult();
+            for (Employee employee : batch) {
+                result.recordFailure(employee, 0, String.valueOf(e.getMessage()));
+            }
+        }
+        DaoMetrics.success("writeBehindFlush", start, result.getSuccessCount());
+        flushes.incrementAndGet();
+        rowsWritten.addAndGet(result.getSuccessCount());
+
+        List<BatchResult.Failure> failures = result.getFailures();
+        if (!failures.isEmpty()) {
+            rowsFailed.addAndGet(failures.size());
+            Log.error(() -> "❌ Write-behind flush: " + failures.size() + " of " + batch.size() + " update(s) failed");
+            try {
+                hook.onFlushFailure(failures);
+            } catch (RuntimeException e) {
+                Log.error(() -> "❌ Write-behind durability hook failed: " + e.getMessage());
+            }
+        }
+        try {
+            hook.afterFlush(writtenRows(batch, failures));
+        } catch (RuntimeException e) {
+            Log.error(() -> "❌ Write-behind durability hook failed: " + e.getMessage());
+        }
+        return result.getSuccessCount();
+    }
+
+    private static List<Employee> writtenRows(List<Employee> batch, List<BatchResult.Failure> failures) {
+        if (failures.isEmpty()) {
+            return Collections.unmodifiableList(batch);
+        }
+        Map<Integer, Employee> written = new LinkedHashMap<>();
+        for (Employee employee : batch) {
+            written.put(employee.getId(), employee);
+        }
+        for (BatchResult.Failure failure : failures) {
+            written.remove(failure.getEmployee().getId());
+        }
+        return Collections.unmodifiableList(new ArrayList<>(written.values()));
+    }
+
+    private void runFlusher() {
+        while (true) {
+            lock.lock();
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (!closed && !flushRequested && remaining > 0L) {
+                    remaining = flushNeeded.awaitNanos(remaining);
+                }
+                flushRequested = false;
+                if (closed) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                Log.error(() -> "❌ Write-behind flush failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop the background flush and write everything still queued. Later
+     * updates are rejected; the wrapped repository stays usable.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushNeeded.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(flushIntervalMillis + offerTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int written = flush();
+        if (written > 0) {
+            Log.info(() -> "✍️  Write-behind queue flushed on shutdown: " + written + " update(s)");
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down
+            }
+        }
+    }
+
+    // ---- Writes that must not overtake queued updates ----
+
+    @Override
+    public boolean createEmployee(Employee employee) {
+        return delegate.createEmployee(employee);
+    }
+
+    @Override
+    public BatchResult createEmployees(Collection<Employee> employees) {
+        return delegate.createEmployees(employees);
+    }
+
+    @Override
+    public BatchResult createEmployees(Collection<Employee> employees, int chunkSize) {
+        return delegate.createEmployees(employees, chunkSize);
+    }
+
+    @Override
+    public VersionedWriteResult tryUpdateEmployee(Employee employee) {
+        flush();
+        return delegate.tryUpdateEmployee(employee);
+    }
+
+    @Override
+    public VersionedWriteResult tryDeleteEmployee(int id, int expectedVersion) {
+        flush();
+        return delegate.tryDeleteEmployee(id, expectedVersion);
+    }
+
+    @Override
+    public boolean deleteEmployee(int id) {
+        flush();
+        return delegate.deleteEmployee(id);
+    }
+
+    @Override
+    public UpsertResult.Outcome upsertEmployee(Employee employee) {
+        flush();
+        return delegate.upsertEmployee(employee);
+    }
+
+    @Override
+    public UpsertResult upsertEmployees(Collection<Employee> employees) {
+        flush();
+        return delegate.upsertEmployees(employees);
+    }
+
+    @Override
+    public UpsertResult upsertEmployees(Collection<Employee> employees, int chunkSize) {
+        flush();
+        return delegate.upsertEmployees(employees, chunkSize);
+    }
+
+    @Override
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment) {
+        return adjustSalaries(criteria, adjustment, false);
+    }
+
+    @Override
+    public BulkUpdateResult adjustSalaries(EmployeeCriteria criteria, SalaryAdjustment adjustment, boolean dryRun) {
+        flush();
+        return delegate.adjustSalaries(criteria, adjustment, dryRun);
+    }
+
+    @Override
+    public BulkUpdateResult reassignDepartment(String fromDepartment, String toDepartment) {
+        return reassignDepartment(EmployeeCriteria.inDepartment(fromDepartment), toDepartment, false);
+    }
+
+    @Override
+    public BulkUpdateResult reassignDepartment(EmployeeCriteria criteria, String toDepartment, boolean dryRun) {
+        flush();
+        return delegate.reassignDepartment(criteria, toDepartment, dryRun);
+    }
+
+    // ---- Reads that see queued updates ----
+
+    @Override
+    public Employee getEmployeeById(int id) {
+        Employee queued = findQueued(id);
+        return queued != null ? queued : delegate.getEmployeeById(id);
+    }
+
+    @Override
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids) {
+        return getEmployeesByIds(ids, null);
+    }
+
+    @Override
+    public Map<Integer, Employee> getEmployeesByIds(int[] ids, IntConsumer missing) {
+        Map<Integer, Employee> employees = delegate.getEmployeesByIds(ids, missing);
+        if (ids == null) {
+            return employees;
+        }
+        for (int id : ids) {
+            Employee queued = findQueued(id);
+            if (queued != null) {
+                employees.put(id, queued);
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * @return Copy of the latest queued values for the employee, or null if none are queued
+     */
+    private Employee findQueued(int id) {
+        lock.lock();
+        try {
+            Employee queued = pending.get(id);
+            if (queued == null) {
+                queued = inFlight.get(id);
+            }
+            return queued != null ? new Employee(queued) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---- Other reads ----
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return delegate.getAllEmployees();
+    }
+
+    @Override
+    public EmployeePage getEmployeesPage(int afterId, int pageSize) {
+        return delegate.getEmployeesPage(afterId, pageSize);
+    }
+
+    @Override
+    public int forEachEmployee(Consumer<Employee> action) {
+        return delegate.forEachEmployee(action);
+    }
+
+    @Override
+    public int forEachEmployeeInDepartment(String department, Consumer<Employee> action) {
+        return delegate.forEachEmployeeInDepartment(department, action);
+    }
+
+    @Override
+    public int forEachEmployeeInIdRange(int fromId, int toId, Consumer<Employee> action) {
+        return delegate.forEachEmployeeInIdRange(fromId, toId, action);
+    }
+
+    @Override
+    public List<Employee> getEmployeesByDepartment(String department) {
+        return delegate.getEmployeesByDepartment(department);
+    }
+
+    @Override
+    public boolean employeeExistsByEmail(String email) {
+        return delegate.employeeExistsByEmail(email);
+    }
+
+    @Override
+    public List<String> getDepartments() {
+        return delegate.getDepartments();
+    }
+
+    @Override
+    public EmployeeColumns getEmployeeColumns() {
+        return delegate.getEmployeeColumns();
+    }
+
+    @Override
+    public EmployeeColumns getEmployeeColumns(EmployeeCriteria criteria) {
+        return delegate.getEmployeeColumns(criteria);
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String query, int limit) {
+        return delegate.searchEmployees(query, limit);
+    }
+
+    @Override
+    public int buildSearchIndex() {
+        return delegate.buildSearchIndex();
+    }
+
+    @Override
+    public int getMaxEmployeeId() {
+        return delegate.getMaxEmployeeId();
+    }
+
+    @Override
+    public int getEmployeeCount() {
+        return delegate.getEmployeeCount();
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics() {
+        return delegate.getSalaryStatistics();
+    }
+
+    @Override
+    public List<SalaryStatistics> getSalaryStatisticsByDepartment() {
+        return delegate.getSalaryStatisticsByDepartment();
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics(String department) {
+        return delegate.getSalaryStatistics(department);
+    }
+
+    // ---- Statistics ----
+
+    /**
+     * @return Employees waiting to be flushed (not counting a batch being written)
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Updates accepted per row written; 1.0 means nothing was merged
+     */
+    public double getCoalescingRatio() {
+        long queued = updatesQueued.get();
+        long distinct = queued - updatesMerged.get();
+        return distinct == 0 ? 1.0 : (double) queued / distinct;
+    }
+
+    /**
+     * @return Queue counters on one line; flush latency is under "writeBehindFlush" in {@link DaoMetrics}
+     */
+    public String getStatistics() {
+        return String.format("pending=%d, queued=%d, merged=%d, rejected=%d, coalescing=%.2fx, "
+                + "flushes=%d, written=%d, failed=%d",
+            getPendingCount(), updatesQueued.get(), updatesMerged.get(), updatesRejected.get(),
+            getCoalescingRatio(), flushes.get(), rowsWritten.get(), rowsFailed.get());
+    }
+}
@@ -0,0 +1,9 @@
+-- getEmployeesByDepartment / department exports: WHERE department = ? ORDER BY id
+-- (InnoDB secondary indexes already end with the primary key; naming id keeps the intent explicit)
+CREATE INDEX idx_employees_department_id ON employees (department, id);
+
+-- Salary ranges in bulk updates and reports
+CREATE INDEX idx_employees_salary ON employees (salary);
+
+-- created_at ranges (hiring cohorts)
+CREATE INDEX idx_employees_created_at ON employees (created_at);
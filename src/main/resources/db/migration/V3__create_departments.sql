@@ -0,0 +1,27 @@
+-- Departments move to a lookup table; employees reference them by a small integer ID.
+-- Names compare with the column collation, so 'it' and 'IT' become one department.
+CREATE TABLE IF NOT EXISTS departments (
+    id SMALLINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+INSERT IGNORE INTO departments (name)
+SELECT DISTINCT department FROM employees ORDER BY department;
+
+ALTER TABLE employees ADD COLUMN department_id SMALLINT NULL;
+
+UPDATE employees
+SET department_id = (SELECT d.id FROM departments d WHERE d.name = employees.department)
+WHERE department_id IS NULL;
+
+ALTER TABLE employees MODIFY department_id SMALLINT NOT NULL;
+
+-- Replaces the (department, id) index from V2 and also serves the foreign key
+CREATE INDEX idx_employees_department_id_id ON employees (department_id, id);
+
+ALTER TABLE employees ADD CONSTRAINT fk_employees_department
+    FOREIGN KEY (department_id) REFERENCES departments (id);
+
+DROP INDEX idx_employees_department_id ON employees;
+
+ALTER TABLE employees DROP COLUMN department;
@@ -0,0 +1,4 @@
+-- Full-text index over name and email, used by EmployeeDAO.searchEmployees when the
+-- in-memory search index is disabled (SEARCH_INDEX_ENABLED=false).
+-- InnoDB FULLTEXT needs MySQL 5.6.4+; the version comment makes other databases skip it.
+/*!50604 ALTER TABLE employees ADD FULLTEXT INDEX ft_employees_name_email (name, email) */;
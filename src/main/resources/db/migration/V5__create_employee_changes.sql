@@ -0,0 +1,31 @@
+-- Change feed: one row per insert, update or delete of an employee, numbered by a
+-- monotonically increasing change_id that consumers use as their sync cursor
+-- (EmployeeDAO.getChangesSince). Deletes stay here as tombstones after the row is gone.
+CREATE TABLE IF NOT EXISTS employee_changes (
+    change_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    employee_id INT NOT NULL,
+    operation CHAR(1) NOT NULL,
+    changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+-- Existing employees count as inserted, so a consumer starting from cursor 0 sees every row
+INSERT INTO employee_changes (employee_id, operation)
+SELECT id, 'I' FROM employees ORDER BY id;
+
+-- Triggers record every write, including set-based updates and writes made outside the DAO.
+-- MySQL 5.0.3+ only; on other databases (the H2 benchmarks) the feed stays as seeded above.
+/*!50003 CREATE TRIGGER trg_employees_changes_insert AFTER INSERT ON employees FOR EACH ROW
+    INSERT INTO employee_changes (employee_id, operation) VALUES (NEW.id, 'I') */;
+
+-- Only rows whose values changed; the binary casts catch case-only edits that the
+-- case-insensitive collation would treat as equal
+/*!50003 CREATE TRIGGER trg_employees_changes_update AFTER UPDATE ON employees FOR EACH ROW
+    INSERT INTO employee_changes (employee_id, operation)
+    SELECT NEW.id, 'U' FROM DUAL
+    WHERE CAST(OLD.name AS BINARY) <> CAST(NEW.name AS BINARY)
+       OR CAST(OLD.email AS BINARY) <> CAST(NEW.email AS BINARY)
+       OR OLD.department_id <> NEW.department_id
+       OR OLD.salary <> NEW.salary */;
+
+/*!50003 CREATE TRIGGER trg_employees_changes_delete AFTER DELETE ON employees FOR EACH ROW
+    INSERT INTO employee_changes (employee_id, operation) VALUES (OLD.id, 'D') */;
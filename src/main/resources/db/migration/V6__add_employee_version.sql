@@ -0,0 +1,3 @@
+-- Row version for optimistic locking: every UPDATE issued by EmployeeDAO increments it,
+-- and tryUpdateEmployee / tryDeleteEmployee only write when it still matches what was read.
+ALTER TABLE employees ADD COLUMN version INT NOT NULL DEFAULT 0;
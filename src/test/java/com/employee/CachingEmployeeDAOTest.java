@@ -0,0 +1,106 @@
+package com.employee;
+
+import static com.employee.TestDatabase.email;
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingEmployeeDAOTest {
+
+    private InMemoryEmployeeRepository repository;
+    private CachingEmployeeDAO cache;
+
+    @BeforeEach
+    void setUp() {
+        Log.setLevel(Log.Level.WARN);
+        repository = new InMemoryEmployeeRepository();
+        cache = new CachingEmployeeDAO(repository, 100, 60_000L);
+    }
+
+    @Test
+    void emailChecksShareOneEntryIgnoringCase() {
+        String shouting = email("Ann").toUpperCase(Locale.ROOT);
+        assertFalse(cache.employeeExistsByEmail(shouting));
+        assertEquals(1, cache.getEmailCache().size());
+
+        // Creating under the lower-case spelling must replace the cached "no"
+        assertTrue(cache.createEmployee(employee("Ann", "IT", "100")));
+        assertTrue(cache.employeeExistsByEmail(shouting));
+        assertTrue(cache.employeeExistsByEmail(email("Ann")));
+        assertEquals(1, cache.getEmailCache().size());
+    }
+
+    @Test
+    void loadRacingAnUpdateIsNotCached() {
+        Employee ann = employee("Ann", "IT", "100");
+        assertTrue(repository.createEmployee(ann));
+        AtomicReference<CachingEmployeeDAO> racing = new AtomicReference<>();
+        racing.set(new CachingEmployeeDAO(new InMemoryEmployeeRepository() {
+            private boolean raced;
+
+            @Override
+            public Employee getEmployeeById(int id) {
+                Employee loaded = repository.getEmployeeById(id);
+                if (!raced) {
+                    // Another thread updates the row after this load has read it
+                    raced = true;
+                    Employee renamed = new Employee(loaded);
+                    renamed.setName("Ann Lee");
+                    repository.updateEmployee(renamed);
+                    racing.get().getEmployeeCache().invalidate(id);
+                }
+                return loaded;
+            }
+        }, 100, 60_000L));
+
+        assertEquals("Ann", racing.get().getEmployeeById(ann.getId()).getName());
+        assertNull(racing.get().getEmployeeCache().peek(ann.getId()));
+        assertEquals("Ann Lee", racing.get().getEmployeeById(ann.getId()).getName());
+        assertEquals("Ann Lee", racing.get().getEmployeeCache().peek(ann.getId()).getName());
+    }
+
+    @Test
+    void multiGetServesHitsAndLoadsMisses() {
+        Employee ann = employee("Ann", "IT", "100");
+        Employee bob = employee("Bob", "IT", "200");
+        assertTrue(cache.createEmployee(ann));
+        assertTrue(repository.createEmployee(bob));
+        cache.getEmployeeCache().invalidateAll();
+        assertEquals("Ann", cache.getEmployeeById(ann.getId()).getName());
+
+        StringBuilder missing = new StringBuilder();
+        long hits = cache.getEmployeeCache().getHitCount();
+        assertEquals(2, cache.getEmployeesByIds(new int[] {ann.getId(), bob.getId(), 99}, missing::append).size());
+        assertEquals(hits + 1, cache.getEmployeeCache().getHitCount());
+        assertEquals("99", missing.toString());
+        assertEquals(2, cache.getEmployeeCache().size());
+
+        // Callers get copies
+        cache.getEmployeeById(bob.getId()).setName("Changed");
+        assertEquals("Bob", cache.getEmployeeById(bob.getId()).getName());
+
+        assertTrue(cache.getEmployeesByIds(null).isEmpty());
+    }
+
+    @Test
+    void staleGenerationCannotRefillAnInvalidatedKey() {
+        LruCache<String, String> lru = new LruCache<>("test", 2, 0L);
+        long before = lru.generation();
+        lru.invalidate("a");
+        assertFalse(lru.putIfCurrent("a", "stale", before));
+        assertTrue(lru.putIfCurrent("b", "fresh", before));
+
+        long afterInvalidate = lru.generation();
+        assertTrue(lru.putIfCurrent("a", "fresh", afterInvalidate));
+        lru.invalidateAll();
+        assertFalse(lru.putIfCurrent("c", "stale", afterInvalidate));
+    }
+}
@@ -0,0 +1,233 @@
+package com.employee;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+    // Served by CountingDriver, which opens URL and can refuse connections
+    private static final String COUNTING_URL = "jdbc:pooltest:";
+
+    private ConnectionPool pool;
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new CountingDriver());
+    }
+
+    @BeforeEach
+    void setUp() {
+        Log.setLevel(Log.Level.WARN);
+        CountingDriver.opened.clear();
+        CountingDriver.limit = Integer.MAX_VALUE;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void statementsAreReusedByDefault() throws SQLException {
+        pool = new ConnectionPool(URL, "sa", "", config(1, 1));
+        assertTrue(pool.getStatementCacheSize() > 0);
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT ?")) {
+                statement.setInt(1, i);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    assertEquals(i, resultSet.getInt(1));
+                }
+            }
+        }
+        assertEquals(1, pool.getStatementPrepareCount());
+        assertEquals(2, pool.getStatementReuseCount());
+    }
+
+    @Test
+    void statementStillInUseIsNotHandedOutTwice() throws SQLException {
+        pool = new ConnectionPool(URL, "sa", "", config(1, 1));
+        try (Connection connection = pool.getConnection();
+             PreparedStatement first = connection.prepareStatement("SELECT 1");
+             PreparedStatement second = connection.prepareStatement("SELECT 1")) {
+            assertNotSame(first, second);
+            assertEquals(2, pool.getStatementPrepareCount());
+        }
+    }
+
+    @Test
+    void failedStartClosesTheConnectionsItOpened() {
+        CountingDriver.limit = 2;
+        assertThrows(SQLException.class, () -> new ConnectionPool(COUNTING_URL, "sa", "", config(3, 3)));
+        assertEquals(2, CountingDriver.opened.size());
+        for (Connection physical : CountingDriver.opened) {
+            assertTrue(isClosed(physical));
+        }
+    }
+
+    @Test
+    void brokenIdleConnectionIsReplacedOnBorrow() throws SQLException {
+        pool = new ConnectionPool(COUNTING_URL, "sa", "", config(1, 1));
+        CountingDriver.opened.get(0).close();
+
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+        assertEquals(2, CountingDriver.opened.size());
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    void idleConnectionsAboveTheMinimumAreEvicted() throws SQLException {
+        ConnectionPool.PoolConfig config = config(1, 3);
+        config.idleTimeoutMillis = 100L;
+        pool = new ConnectionPool(COUNTING_URL, "sa", "", config);
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        Connection third = pool.getConnection();
+        first.close();
+        second.close();
+        third.close();
+        assertEquals(3, pool.getIdleConnections());
+
+        assertTrue(eventually(() -> pool.getTotalConnections() == 1));
+        assertEquals(1, pool.getIdleConnections());
+        assertEquals(2, CountingDriver.opened.stream().filter(ConnectionPoolTest::isClosed).count());
+    }
+
+    @Test
+    void connectionHeldPastTheThresholdIsReported() throws SQLException {
+        ConnectionPool.PoolConfig config = config(1, 1);
+        config.leakDetectionMillis = 50L;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            pool = new ConnectionPool(URL, "sa", "", config);
+            try (Connection held = pool.getConnection()) {
+                assertFalse(held.isClosed());
+                assertTrue(eventually(() -> err.toString(StandardCharsets.UTF_8).contains("Possible connection leak")));
+            }
+            assertTrue(err.toString(StandardCharsets.UTF_8).contains("Connection borrowed here"));
+        } finally {
+            System.setErr(originalErr);
+        }
+    }
+
+    /**
+     * Wait for the housekeeper, which runs at most once a second
+     */
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    static ConnectionPool.PoolConfig config(int minSize, int maxSize) {
+        ConnectionPool.PoolConfig config = new ConnectionPool.PoolConfig();
+        config.minSize = minSize;
+        config.maxSize = maxSize;
+        config.acquireIncrement = 1;
+        config.acquireTimeoutMillis = 200L;
+        return config;
+    }
+
+    /**
+     * Opens H2 connections for COUNTING_URL, keeps every one it opened and
+     * refuses to open more than the limit
+     */
+    static final class CountingDriver implements Driver {
+        static final List<Connection> opened = new CopyOnWriteArrayList<>();
+        static volatile int limit = Integer.MAX_VALUE;
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            if (opened.size() >= limit) {
+                throw new SQLException("Too many connections", "08004");
+            }
+            Connection connection = DriverManager.getConnection(URL, info);
+            opened.add(connection);
+            return connection;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith(COUNTING_URL);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}
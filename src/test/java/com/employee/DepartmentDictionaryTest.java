@@ -0,0 +1,105 @@
+package com.employee;
+
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DepartmentDictionaryTest {
+
+    private EmployeeDAO dao;
+    private DepartmentDictionary departments;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.reset();
+        dao = new EmployeeDAO();
+        departments = DepartmentDictionary.getInstance();
+    }
+
+    @Test
+    void namesDifferingInCaseShareOneDepartment() throws SQLException {
+        int id = departments.idOf("Research");
+        assertEquals(id, departments.idOf("research"));
+        assertEquals(id, departments.idOf("  RESEARCH "));
+        assertEquals("Research", departments.nameOf(id));
+        assertEquals(1, countDepartments("Research"));
+    }
+
+    @Test
+    void departmentCreatedInARolledBackUnitIsNotKept() throws SQLException {
+        assertThrows(IllegalStateException.class, () -> UnitOfWork.execute(unit -> {
+            Employee ann = employee("Ann", "Research", "100");
+            assertTrue(dao.createEmployee(ann));
+            // Readable inside the unit before it commits
+            assertEquals("Research", dao.getEmployeeById(ann.getId()).getDepartment());
+            throw new IllegalStateException("later step failed");
+        }));
+
+        assertEquals(0, countDepartments("Research"));
+        assertNull(departments.findId("Research"));
+        assertFalse(departments.getNames().contains("Research"));
+
+        // Created again, and remembered, once a write commits
+        Employee bob = employee("Bob", "Research", "200");
+        assertTrue(dao.createEmployee(bob));
+        assertEquals(departments.findId("Research"), Integer.valueOf(departments.idOf("research")));
+        assertEquals("Research", dao.getEmployeeById(bob.getId()).getDepartment());
+    }
+
+    @Test
+    void departmentCommittedWithItsUnitIsRemembered() throws SQLException {
+        int id = UnitOfWork.execute(unit -> departments.idOf("Research"));
+        assertEquals(1, countDepartments("Research"));
+        assertTrue(departments.getNames().contains("Research"));
+        assertEquals("Research", departments.nameOf(id));
+    }
+
+    @Test
+    void departmentCreatedByABatchIsFoundUnderAnySpelling() throws SQLException {
+        assertTrue(dao.createEmployees(Arrays.asList(employee("Ann", "Research", "100"), employee("Bob", "Research", "200")))
+            .isFullySuccessful());
+
+        Integer id = departments.findId("RESEARCH");
+        assertEquals(departments.findId("Research"), id);
+        assertEquals("Research", departments.nameOf(id));
+        assertEquals(1, countDepartments("Research"));
+    }
+
+    @Test
+    void tooLongNameIsRejectedBeforeTheInsert() throws SQLException {
+        String name = "R".repeat(DepartmentDictionary.MAX_NAME_LENGTH + 1);
+
+        SQLException failure = assertThrows(SQLException.class, () -> departments.idOf(name));
+        assertEquals("22001", failure.getSQLState());
+        assertFalse(dao.createEmployee(employee("Ann", name, "100")));
+        assertEquals(0, countDepartments(name.substring(0, DepartmentDictionary.MAX_NAME_LENGTH)));
+        String problem = EmployeeValidator.validate(employee("Ann", name, "100"));
+        assertTrue(problem != null && problem.contains("longer than"), problem);
+
+        String widest = "R".repeat(DepartmentDictionary.MAX_NAME_LENGTH);
+        assertEquals(widest, departments.nameOf(departments.idOf(widest)));
+    }
+
+    private static int countDepartments(String name) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM departments WHERE name = ?")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.employee;
+
+import static com.employee.TestDatabase.email;
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EmployeeDAOTest {
+
+    private EmployeeDAO dao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.reset();
+        dao = new EmployeeDAO();
+    }
+
+    @Test
+    void upsertEmployeeInsertsThenSkipsThenUpdates() {
+        Employee ann = employee("Ann", "IT", "100.00");
+        assertEquals(UpsertResult.Outcome.INSERTED, dao.upsertEmployee(ann));
+        int id = ann.getId();
+        assertTrue(id > 0);
+
+        Employee same = employee("Ann", "IT", "100");
+        assertEquals(UpsertResult.Outcome.UNCHANGED, dao.upsertEmployee(same));
+        assertEquals(id, same.getId());
+
+        Employee raised = employee("Ann", "HR", "150");
+        assertEquals(UpsertResult.Outcome.UPDATED, dao.upsertEmployee(raised));
+        assertEquals(id, raised.getId());
+
+        Employee stored = dao.getEmployeeById(id);
+        assertEquals("HR", stored.getDepartment());
+        assertEquals(0, new BigDecimal("150").compareTo(stored.getSalary()));
+        assertEquals(1, stored.getVersion());
+        assertEquals(1, dao.getEmployeeCount());
+    }
+
+    @Test
+    void upsertEmployeesReportsOneOutcomePerRowInInputOrder() {
+        dao.upsertEmployees(Arrays.asList(employee("Ann", "IT", "100"), employee("Bob", "IT", "200")));
+
+        Employee invalid = new Employee("Nobody", null, "IT", new BigDecimal("1"));
+        List<Employee> batch = Arrays.asList(
+            employee("Ann", "IT", "100"),
+            employee("Bob", "IT", "250"),
+            employee("Cid", "HR", "300"),
+            invalid,
+            employee("Cid", "HR", "350"));
+        UpsertResult result = dao.upsertEmployees(batch, 10);
+
+        assertEquals(Arrays.asList(
+            UpsertResult.Outcome.UNCHANGED,
+            UpsertResult.Outcome.UPDATED,
+            UpsertResult.Outcome.INSERTED,
+            UpsertResult.Outcome.FAILED,
+            UpsertResult.Outcome.UPDATED), result.getOutcomes());
+        assertEquals(1, result.getFailureCount());
+        assertEquals(invalid, result.getFailures().get(0).getEmployee());
+
+        // Both rows for Cid were written to the same employee, the later one last
+        assertEquals(batch.get(2).getId(), batch.get(4).getId());
+        assertEquals(0, new BigDecimal("350").compareTo(dao.getEmployeeById(batch.get(4).getId()).getSalary()));
+        assertEquals(3, dao.getEmployeeCount());
+    }
+
+    @Test
+    void upsertEmployeesReplayIsUnchanged() {
+        List<Employee> batch = Arrays.asList(
+            employee("Ann", "IT", "100"), employee("Bob", "HR", "200"), employee("Cid", "Sales", "300"));
+        UpsertResult first = dao.upsertEmployees(batch, 2);
+        assertEquals(3, first.getInsertedCount());
+        int[] ids = batch.stream().mapToInt(Employee::getId).toArray();
+
+        UpsertResult replay = dao.upsertEmployees(Arrays.asList(
+            employee("Ann", "IT", "100"), employee("Bob", "HR", "200"), employee("Cid", "Sales", "300")), 2);
+
+        assertEquals(3, replay.getUnchangedCount());
+        assertTrue(replay.isFullySuccessful());
+        for (int id : ids) {
+            assertEquals(0, dao.getEmployeeById(id).getVersion());
+        }
+        assertNull(dao.getEmployeeById(ids[2] + 1));
+        assertTrue(dao.employeeExistsByEmail(email("Cid")));
+    }
+
+    @Test
+    void failedInsertChunkIsReplayedRowByRow() {
+        assertTrue(dao.createEmployee(employee("Ann", "IT", "100")));
+        Employee duplicate = employee("Ann", "Research", "150");
+        List<Employee> batch = Arrays.asList(
+            employee("Bob", "Research", "200"), duplicate, employee("Cid", "Research", "300"), employee("Dan", "HR", "400"));
+
+        BatchResult result = dao.createEmployees(batch, 3);
+
+        assertEquals(3, result.getSuccessCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals(duplicate, result.getFailures().get(0).getEmployee());
+        assertEquals(0, duplicate.getId());
+        for (Employee employee : Arrays.asList(batch.get(0), batch.get(2), batch.get(3))) {
+            assertEquals(employee.getName(), dao.getEmployeeById(employee.getId()).getName());
+        }
+        // The department first needed by the rolled-back chunk was created again by the replay
+        assertEquals("Research", dao.getEmployeeById(batch.get(0).getId()).getDepartment());
+        assertEquals(4, dao.getEmployeeCount());
+    }
+
+    @Test
+    void failedUpdateChunkIsReplayedRowByRow() {
+        List<Employee> stored = Arrays.asList(employee("Ann", "IT", "100"), employee("Bob", "IT", "200"));
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+
+        Employee ann = new Employee(stored.get(0));
+        ann.setSalary(new BigDecimal("110"));
+        Employee bob = new Employee(stored.get(1));
+        bob.setEmail(email("Ann"));
+        BatchResult result = dao.updateEmployees(Arrays.asList(ann, bob), 10);
+
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(bob, result.getFailures().get(0).getEmployee());
+        assertEquals(0, new BigDecimal("110").compareTo(dao.getEmployeeById(ann.getId()).getSalary()));
+        assertEquals(email("Bob"), dao.getEmployeeById(bob.getId()).getEmail());
+    }
+
+    @Test
+    void pagesFollowTheCursorWithoutGapsOrRepeats() {
+        List<Employee> stored = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stored.add(employee("Emp" + i, "IT", "100"));
+        }
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+        // A row deleted between pages must not shift the following page
+        EmployeePage first = dao.getEmployeesPage(0, 2);
+        assertTrue(dao.deleteEmployee(stored.get(2).getId()));
+
+        List<Integer> seen = new ArrayList<>();
+        EmployeePage page = first;
+        while (true) {
+            page.getEmployees().forEach(employee -> seen.add(employee.getId()));
+            if (!page.hasMore()) {
+                break;
+            }
+            page = dao.getEmployeesPage(page.getNextCursor(), 2);
+        }
+        assertEquals(Arrays.asList(stored.get(0).getId(), stored.get(1).getId(),
+            stored.get(3).getId(), stored.get(4).getId()), seen);
+
+        EmployeePage past = dao.getEmployeesPage(page.getNextCursor(), 2);
+        assertTrue(past.isEmpty());
+        assertFalse(past.hasMore());
+        assertEquals(page.getNextCursor(), past.getNextCursor());
+    }
+
+    @Test
+    void streamingVisitsEachMatchingEmployeeInIdOrder() {
+        List<Employee> stored = Arrays.asList(
+            employee("Ann", "IT", "100"), employee("Bob", "HR", "200"), employee("Cid", "IT", "300"));
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+
+        List<String> all = new ArrayList<>();
+        assertEquals(3, dao.forEachEmployee(employee -> all.add(employee.getName())));
+        assertEquals(Arrays.asList("Ann", "Bob", "Cid"), all);
+
+        List<String> it = new ArrayList<>();
+        assertEquals(2, dao.forEachEmployeeInDepartment("it", employee -> it.add(employee.getName())));
+        assertEquals(Arrays.asList("Ann", "Cid"), it);
+        assertEquals(0, dao.forEachEmployeeInDepartment("Nowhere", employee -> it.add(employee.getName())));
+
+        List<String> range = new ArrayList<>();
+        assertEquals(2, dao.forEachEmployeeInIdRange(stored.get(1).getId(), stored.get(2).getId() + 1,
+            employee -> range.add(employee.getName())));
+        assertEquals(Arrays.asList("Bob", "Cid"), range);
+    }
+
+    @Test
+    void multiGetSpansChunksAndReportsMissingIds() {
+        List<Employee> stored = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            stored.add(employee("Emp" + i, i % 2 == 0 ? "IT" : "HR", "100"));
+        }
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+        int maxId = dao.getMaxEmployeeId();
+        int[] ids = new int[stored.size() + 3];
+        for (int i = 0; i < stored.size(); i++) {
+            ids[i] = stored.get(stored.size() - 1 - i).getId();
+        }
+        ids[stored.size()] = stored.get(0).getId();
+        ids[stored.size() + 1] = maxId + 1;
+        ids[stored.size() + 2] = maxId + 2;
+
+        List<Integer> missing = new ArrayList<>();
+        Map<Integer, Employee> found = dao.getEmployeesByIds(ids, missing::add);
+
+        assertEquals(stored.size(), found.size());
+        for (Employee employee : stored) {
+            assertEquals(employee.getName(), found.get(employee.getId()).getName());
+            assertEquals(employee.getDepartment(), found.get(employee.getId()).getDepartment());
+        }
+        assertEquals(Arrays.asList(maxId + 1, maxId + 2), missing);
+        assertTrue(dao.getEmployeesByIds(new int[0]).isEmpty());
+        assertTrue(dao.getEmployeesByIds(null).isEmpty());
+    }
+
+    @Test
+    void salaryAdjustmentDryRunReportsWithoutWriting() throws SQLException {
+        List<Employee> stored = Arrays.asList(
+            employee("Ann", "IT", "100"), employee("Bob", "IT", "200"), employee("Cid", "HR", "300"));
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+        EmployeeCriteria it = EmployeeCriteria.inDepartment("IT");
+        SalaryAdjustment raise = SalaryAdjustment.percent(new BigDecimal("10"));
+
+        BulkUpdateResult preview = dao.adjustSalaries(it, raise, true);
+        assertTrue(preview.isDryRun());
+        assertEquals(2, preview.getAffectedRows());
+        assertEquals(new BigDecimal("300.00"), preview.getSalaryTotalBefore());
+        assertEquals(new BigDecimal("330.00"), preview.getSalaryTotalAfter());
+        assertEquals(0, new BigDecimal("100").compareTo(dao.getEmployeeById(stored.get(0).getId()).getSalary()));
+
+        BulkUpdateResult applied = dao.adjustSalaries(it, raise, false);
+        assertEquals(2, applied.getAffectedRows());
+        Employee ann = dao.getEmployeeById(stored.get(0).getId());
+        assertEquals(0, new BigDecimal("110").compareTo(ann.getSalary()));
+        assertEquals(1, ann.getVersion());
+        assertEquals(0, new BigDecimal("300").compareTo(dao.getEmployeeById(stored.get(2).getId()).getSalary()));
+
+        // A cut that would leave a salary at or below zero skips that row
+        BulkUpdateResult cut = dao.adjustSalaries(EmployeeCriteria.all(), SalaryAdjustment.amount(new BigDecimal("-150")), false);
+        assertEquals(2, cut.getAffectedRows());
+        assertEquals(0, new BigDecimal("110").compareTo(dao.getEmployeeById(ann.getId()).getSalary()));
+    }
+
+    @Test
+    void reassignmentDryRunDoesNotCreateTheDepartment() throws SQLException {
+        List<Employee> stored = Arrays.asList(
+            employee("Ann", "IT", "100"), employee("Bob", "IT", "200"), employee("Cid", "HR", "300"));
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+
+        BulkUpdateResult preview = dao.reassignDepartment(EmployeeCriteria.inDepartment("IT"), "Ops", true);
+        assertEquals(2, preview.getAffectedRows());
+        assertEquals(new BigDecimal("300.00"), preview.getSalaryTotalBefore());
+        assertNull(DepartmentDictionary.getInstance().findId("Ops"));
+        assertEquals("IT", dao.getEmployeeById(stored.get(0).getId()).getDepartment());
+
+        assertEquals(2, dao.reassignDepartment("IT", "Ops").getAffectedRows());
+        assertEquals("Ops", dao.getEmployeeById(stored.get(0).getId()).getDepartment());
+        assertEquals("HR", dao.getEmployeeById(stored.get(2).getId()).getDepartment());
+        assertEquals(0, dao.reassignDepartment("IT", "Ops").getAffectedRows());
+    }
+
+    @Test
+    void columnarReadMatchesTheRowsAndTheirStatistics() {
+        List<Employee> stored = Arrays.asList(
+            employee("Ann", "IT", "100.25"), employee("Renée", "HR", "200"),
+            employee("Cid", "IT", "300.75"), employee("Dan", "Sales", "50"));
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+
+        EmployeeColumns columns = dao.getEmployeeColumns();
+        assertEquals(4, columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            Employee employee = stored.get(row);
+            assertEquals(employee.getId(), columns.getId(row));
+            assertEquals(employee.getName(), columns.getName(row));
+            assertEquals(employee.getEmail(), columns.getEmail(row));
+            assertEquals(employee.getDepartment(), columns.getDepartment(row));
+            assertEquals(0, employee.getSalary().compareTo(columns.getSalary(row)));
+            assertTrue(columns.getCreatedAtMillis(row) != EmployeeColumns.NO_TIMESTAMP);
+        }
+        assertEquals(3, columns.getDepartments().size());
+        assertEquals(65100, columns.getTotalSalaryCents());
+        assertEquals(describe(dao.getSalaryStatisticsByDepartment()), describe(columns.getSalaryStatisticsByDepartment()));
+
+        EmployeeColumns it = columns.filter(columns.inDepartment("it"));
+        assertEquals(2, it.size());
+        assertEquals("Cid", it.getName(1));
+
+        EmployeeColumns wellPaid = dao.getEmployeeColumns(EmployeeCriteria.all().withSalaryAtLeast(new BigDecimal("200")));
+        assertEquals(2, wellPaid.size());
+        assertEquals(stored.get(1).getId(), wellPaid.getId(0));
+    }
+
+    private static List<String> describe(List<SalaryStatistics> statistics) {
+        List<String> lines = new ArrayList<>();
+        for (SalaryStatistics department : statistics) {
+            lines.add(department.getDepartment() + " " + department.getEmployeeCount() + " " + department.getTotalSalary()
+                + " " + department.getMinSalary() + " " + department.getMaxSalary() + " " + department.getAverageSalary());
+        }
+        return lines;
+    }
+
+    @Test
+    void searchMatchesPrefixesAccentsAndTyposAndFollowsWrites() {
+        Employee ann = new Employee("Ann Smith", "ann.smith@test.example.com", "IT", new BigDecimal("100"));
+        Employee john = new Employee("John Smithers", "jsmithers@test.example.com", "IT", new BigDecimal("200"));
+        Employee renee = new Employee("Renée Dupont", "rdupont@test.example.com", "HR", new BigDecimal("300"));
+        assertTrue(dao.createEmployees(Arrays.asList(ann, john, renee)).isFullySuccessful());
+
+        assertEquals(Arrays.asList("John Smithers"), names(dao.searchEmployees("jo smi", 10)));
+        // Exact word before prefix
+        assertEquals(Arrays.asList("Ann Smith", "John Smithers"), names(dao.searchEmployees("smith", 10)));
+        assertEquals(Arrays.asList("Renée Dupont"), names(dao.searchEmployees("RENEE", 10)));
+        assertEquals(Arrays.asList("Renée Dupont"), names(dao.searchEmployees("dupomt", 10)));
+        assertEquals(Arrays.asList("Ann Smith"), names(dao.searchEmployees("ann.smith@test", 10)));
+        assertTrue(dao.searchEmployees("nobody", 10).isEmpty());
+
+        // The built index follows later writes
+        Employee renamed = new Employee(ann);
+        renamed.setName("Ann Jones");
+        renamed.setEmail("ann.jones@test.example.com");
+        assertTrue(dao.updateEmployee(renamed));
+        assertTrue(dao.deleteEmployee(john.getId()));
+        assertTrue(dao.createEmployee(new Employee("Smitty Werben", "smitty@test.example.com", "HR", new BigDecimal("400"))));
+        assertEquals(Arrays.asList("Smitty Werben"), names(dao.searchEmployees("smit", 10)));
+        assertEquals(Arrays.asList("Ann Jones"), names(dao.searchEmployees("jones", 10)));
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        List<String> names = new ArrayList<>();
+        employees.forEach(employee -> names.add(employee.getName()));
+        return names;
+    }
+
+    @Test
+    void changeFeedCursorReturnsTheLatestChangePerEmployee() throws SQLException {
+        Employee ann = employee("Ann", "IT", "100");
+        Employee bob = employee("Bob", "IT", "200");
+        Employee cid = employee("Cid", "HR", "300");
+        assertTrue(dao.createEmployees(Arrays.asList(ann, bob, cid)).isFullySuccessful());
+        assertTrue(dao.deleteEmployee(bob.getId()));
+        // H2 has no triggers, so record what MySQL's triggers would have, old enough to be settled
+        recordChange(ann.getId(), "I");
+        recordChange(bob.getId(), "I");
+        recordChange(ann.getId(), "U");
+        recordChange(cid.getId(), "I");
+        recordChange(bob.getId(), "D");
+
+        EmployeeChangePage first = dao.getChangesSince(0, 3);
+        assertTrue(first.hasMore());
+        assertEquals(2, first.getChanges().size());
+        assertEquals(bob.getId(), first.getChanges().get(0).getEmployeeId());
+        // Bob is gone by now, so even his insert reads as a delete
+        assertTrue(first.getChanges().get(0).isDeleted());
+        EmployeeChange annChange = first.getChanges().get(1);
+        assertEquals(EmployeeChange.Operation.UPDATE, annChange.getOperation());
+        assertEquals("Ann", annChange.getEmployee().getName());
+
+        EmployeeChangePage second = dao.getChangesSince(first.getNextCursor(), 3);
+        assertFalse(second.hasMore());
+        assertEquals(Arrays.asList(cid.getId(), bob.getId()),
+            Arrays.asList(second.getChanges().get(0).getEmployeeId(), second.getChanges().get(1).getEmployeeId()));
+        assertEquals(EmployeeChange.Operation.INSERT, second.getChanges().get(0).getOperation());
+
+        // A change younger than CHANGE_FEED_SETTLE_MS is held back
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "INSERT INTO employee_changes (employee_id, operation) VALUES (?, 'U')")) {
+            statement.setInt(1, cid.getId());
+            statement.executeUpdate();
+        }
+        EmployeeChangePage unsettled = dao.getChangesSince(second.getNextCursor(), 3);
+        assertTrue(unsettled.isEmpty());
+        assertEquals(second.getNextCursor(), unsettled.getNextCursor());
+
+        assertEquals(5, dao.purgeChanges(second.getNextCursor()));
+        assertTrue(dao.getChangesSince(0, 10).isEmpty());
+    }
+
+    private static void recordChange(int employeeId, String operation) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "INSERT INTO employee_changes (employee_id, operation, changed_at) VALUES (?, ?, TIMESTAMP '2020-01-01 00:00:00')")) {
+            statement.setInt(1, employeeId);
+            statement.setString(2, operation);
+            statement.executeUpdate();
+        }
+    }
+
+    @Test
+    void staleVersionIsReportedAsAConflictWithTheCurrentRow() {
+        Employee ann = employee("Ann", "IT", "100");
+        assertTrue(dao.createEmployee(ann));
+        Employee mine = dao.getEmployeeById(ann.getId());
+        Employee theirs = dao.getEmployeeById(ann.getId());
+
+        theirs.setSalary(new BigDecimal("150"));
+        VersionedWriteResult first = dao.tryUpdateEmployee(theirs);
+        assertEquals(VersionedWriteResult.Status.APPLIED, first.getStatus());
+        assertEquals(1, first.getVersion());
+        assertEquals(1, theirs.getVersion());
+        assertEquals(VersionedWriteResult.Status.UNCHANGED, dao.tryUpdateEmployee(theirs).getStatus());
+
+        mine.setName("Ann Lee");
+        VersionedWriteResult conflict = dao.tryUpdateEmployee(mine);
+        assertTrue(conflict.isConflict());
+        assertEquals(1, conflict.getVersion());
+        assertEquals(0, new BigDecimal("150").compareTo(conflict.getCurrent().getSalary()));
+        assertEquals("Ann", dao.getEmployeeById(ann.getId()).getName());
+
+        // Retrying from the current row applies only the caller's own field
+        Employee retry = conflict.getCurrent();
+        retry.setName("Ann Lee");
+        assertEquals(VersionedWriteResult.Status.APPLIED, dao.tryUpdateEmployee(retry).getStatus());
+        Employee stored = dao.getEmployeeById(ann.getId());
+        assertEquals("Ann Lee", stored.getName());
+        assertEquals(0, new BigDecimal("150").compareTo(stored.getSalary()));
+        assertEquals(2, stored.getVersion());
+
+        assertTrue(dao.tryDeleteEmployee(ann.getId(), 1).isConflict());
+        assertEquals(VersionedWriteResult.Status.APPLIED, dao.tryDeleteEmployee(ann.getId(), 2).getStatus());
+        assertEquals(VersionedWriteResult.Status.NOT_FOUND, dao.tryDeleteEmployee(ann.getId(), 2).getStatus());
+        retry.setDepartment("HR");
+        assertEquals(VersionedWriteResult.Status.NOT_FOUND, dao.tryUpdateEmployee(retry).getStatus());
+    }
+
+    @Test
+    void statisticsFallBackToGroupByAndReconcileFixesTheSummary() throws SQLException {
+        List<Employee> stored = Arrays.asList(
+            employee("Ann", "IT", "100"), employee("Bob", "IT", "300"), employee("Cid", "HR", "200"));
+        assertTrue(dao.createEmployees(stored).isFullySuccessful());
+
+        // H2 has no triggers: statistics aggregate employees, and department_stats is left behind
+        assertFalse(dao.isDepartmentStatsMaintained());
+        SalaryStatistics all = dao.getSalaryStatistics();
+        assertEquals(3, all.getEmployeeCount());
+        assertEquals(0, new BigDecimal("600").compareTo(all.getTotalSalary()));
+        SalaryStatistics it = dao.getSalaryStatistics("it");
+        assertEquals(2, it.getEmployeeCount());
+        assertEquals(0, new BigDecimal("100").compareTo(it.getMinSalary()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(it.getAverageSalary()));
+        assertEquals(0, dao.getSalaryStatistics("Nowhere").getEmployeeCount());
+        assertEquals("", summary("IT"));
+
+        assertEquals(2, dao.reconcileDepartmentStats());
+        assertEquals("2 400.00 100.00 300.00", summary("IT"));
+        assertEquals("1 200.00 200.00 200.00", summary("HR"));
+        assertEquals(0, dao.reconcileDepartmentStats());
+
+        // A department whose last employee left keeps a zero row
+        assertTrue(dao.deleteEmployee(stored.get(2).getId()));
+        assertEquals(1, dao.reconcileDepartmentStats());
+        assertEquals("0 0.00 null null", summary("HR"));
+    }
+
+    /**
+     * @return The department's department_stats row as "count sum min max", or "" if it has none
+     */
+    private static String summary(String department) throws SQLException {
+        int departmentId = DepartmentDictionary.getInstance().findId(department);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT employee_count, salary_sum, salary_min, salary_max FROM department_stats WHERE department_id = ?")) {
+            statement.setInt(1, departmentId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                    ? resultSet.getLong(1) + " " + resultSet.getBigDecimal(2) + " " + resultSet.getBigDecimal(3) + " " + resultSet.getBigDecimal(4)
+                    : "";
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.employee;
+
+import static com.employee.TestDatabase.email;
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmployeeExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryEmployeeRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        Log.setLevel(Log.Level.WARN);
+        repository = new InMemoryEmployeeRepository();
+        repository.createEmployee(employee("Ann", "IT", "100.50"));
+        repository.createEmployee(new Employee("Lee, \"Bob\"", email("Bob"), "Research, Applied", new BigDecimal("200")));
+        repository.createEmployee(employee("Renée", "HR", "300"));
+    }
+
+    @Test
+    void csvQuotesOnlyFieldsThatNeedIt() throws IOException {
+        Path file = directory.resolve("employees.csv");
+        ExportReport report = new EmployeeExporter(repository, 1, 64, 16).exportTo(file, EmployeeExporter.Format.CSV);
+
+        assertEquals(3, report.getRowCount());
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals("id,name,email,department,salary,created_at", lines.get(0));
+        assertTrue(lines.get(1).startsWith("1,Ann," + email("Ann") + ",IT,100.50,"), lines.get(1));
+        assertTrue(lines.get(2).startsWith("2,\"Lee, \"\"Bob\"\"\"," + email("Bob") + ",\"Research, Applied\",200.00,"), lines.get(2));
+        assertEquals(Files.size(file), report.getByteCount());
+        assertEquals(describe(repository.getAllEmployees()), describe(reimport(file)));
+    }
+
+    @Test
+    void jsonLinesRoundTripThroughTheImporter() throws IOException {
+        Path file = directory.resolve("employees.jsonl");
+        new EmployeeExporter(repository, 1, 64, 16).exportTo(file, EmployeeExporter.Format.JSONL);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).contains("\"name\":\"Lee, \\\"Bob\\\"\""), lines.get(1));
+        assertTrue(lines.get(2).contains("\"name\":\"Renée\""), lines.get(2));
+        assertEquals(describe(repository.getAllEmployees()), describe(reimport(file)));
+    }
+
+    @Test
+    void columnarFileReadsBackEveryRow() throws IOException {
+        Path file = directory.resolve("employees.empc");
+        // Row groups of two, so the three rows span two groups
+        new EmployeeExporter(repository, 1, 64, 2).exportTo(file, EmployeeExporter.Format.COLUMNAR);
+
+        List<Employee> read = new ArrayList<>();
+        assertEquals(3, ColumnarEmployeeFile.read(file, read::add));
+        List<Employee> expected = repository.getAllEmployees();
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), read.get(i).getId());
+            assertEquals(expected.get(i).getName(), read.get(i).getName());
+            assertEquals(expected.get(i).getDepartment(), read.get(i).getDepartment());
+            assertEquals(0, expected.get(i).getSalary().compareTo(read.get(i).getSalary()));
+        }
+    }
+
+    @Test
+    void partitionsAreWrittenInParallelWithoutTemporaryFiles() throws IOException {
+        ExportReport report = new EmployeeExporter(repository, 3, 64, 16)
+            .exportPartitioned(directory, EmployeeExporter.Format.CSV, EmployeeExporter.Partitioning.DEPARTMENT, 0);
+
+        assertEquals(3, report.getParts().size());
+        assertEquals(3, report.getRowCount());
+        for (ExportReport.Part part : report.getParts()) {
+            assertEquals(1, part.getRowCount());
+            assertEquals(2, Files.readAllLines(part.getPath(), StandardCharsets.UTF_8).size());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+            assertEquals(3, names.size());
+            assertTrue(names.stream().noneMatch(name -> name.endsWith(".tmp")), names.toString());
+        }
+    }
+
+    /**
+     * @return What the importer makes of an exported file, read back in ID order
+     */
+    private static List<Employee> reimport(Path file) throws IOException {
+        InMemoryEmployeeRepository copy = new InMemoryEmployeeRepository();
+        ImportReport report = new EmployeeImporter(copy, 1, 1, 100, 1, false).importFile(file);
+        assertTrue(report.isFullySuccessful(), report.toString());
+        return copy.getAllEmployees();
+    }
+
+    private static List<String> describe(List<Employee> employees) {
+        return employees.stream()
+            .map(employee -> employee.getName() + "|" + employee.getEmail() + "|" + employee.getDepartment()
+                + "|" + employee.getSalary().stripTrailingZeros().toPlainString())
+            .collect(Collectors.toList());
+    }
+}
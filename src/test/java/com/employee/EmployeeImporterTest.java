@@ -0,0 +1,128 @@
+package com.employee;
+
+import static com.employee.TestDatabase.email;
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmployeeImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryEmployeeRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        Log.setLevel(Log.Level.WARN);
+        repository = new InMemoryEmployeeRepository();
+    }
+
+    @Test
+    void csvHeaderOrderAndQuotedFieldsAreHonoured() throws IOException {
+        repository.createEmployee(employee("Zoe", "IT", "500"));
+        Path file = write("employees.csv",
+            "salary,email,name,department",
+            "100.50," + email("Ann") + ",\"Lee, Ann\",IT",
+            "200," + email("Bob") + ",\"Bob \"\"The Builder\"\"\",\"Research, Applied\"",
+            "300,not-an-email,Cid,IT",
+            "400," + email("Zoe") + ",Zoe Again,HR");
+
+        ImportReport report = importer(false).importFile(file);
+
+        assertEquals(4, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, report.getDuplicates());
+        assertEquals("Zoe", byEmail(email("Zoe")).getName());
+        Employee ann = byEmail(email("Ann"));
+        assertEquals("Lee, Ann", ann.getName());
+        assertEquals(0, new BigDecimal("100.50").compareTo(ann.getSalary()));
+        Employee bob = byEmail(email("Bob"));
+        assertEquals("Bob \"The Builder\"", bob.getName());
+        assertEquals("Research, Applied", bob.getDepartment());
+    }
+
+    @Test
+    void csvWithoutAHeaderUsesTheDefaultColumnOrder() throws IOException {
+        Path file = write("employees.csv", "Ann," + email("Ann") + ",IT,100");
+
+        assertEquals(1, importer(false).importFile(file).getImported());
+        assertEquals("IT", byEmail(email("Ann")).getDepartment());
+
+        Path missingColumn = write("broken.csv", "name,email,department", "Bob," + email("Bob") + ",IT");
+        assertThrows(IOException.class, () -> importer(false).importFile(missingColumn));
+    }
+
+    @Test
+    void jsonLinesAreParsedWithEscapes() throws IOException {
+        Path file = write("employees.jsonl",
+            "{\"name\": \"Ren\\u00e9e \\\"Ren\\\"\", \"email\": \"" + email("Renee") + "\", \"department\": \"IT\", \"salary\": 120.5}",
+            "",
+            "{\"email\": \"" + email("Bob") + "\", \"salary\": \"200\", \"department\": \"HR\", \"name\": \"Bob\"}",
+            "{\"name\": \"Broken\"");
+
+        ImportReport report = importer(false).importFile(file);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals("Renée \"Ren\"", byEmail(email("Renee")).getName());
+        assertEquals(0, new BigDecimal("120.5").compareTo(byEmail(email("Renee")).getSalary()));
+        assertEquals("HR", byEmail(email("Bob")).getDepartment());
+    }
+
+    @Test
+    void upsertKeepsTheLastLineForAnEmail() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("name,email,department,salary");
+        for (int salary = 1; salary <= 40; salary++) {
+            // Interleave two emails so their lines land in many different blocks
+            lines.add("Ann," + email("Ann") + ",IT," + salary);
+            lines.add("Bob," + email("Bob") + ",HR," + (1000 + salary));
+        }
+        Path file = write("employees.csv", lines.toArray(new String[0]));
+
+        ImportReport first = importer(true).importFile(file);
+        assertEquals(80, first.getRowsRead());
+        assertEquals(2, first.getImported());
+        assertEquals(0, new BigDecimal("40").compareTo(byEmail(email("Ann")).getSalary()));
+        assertEquals(0, new BigDecimal("1040").compareTo(byEmail(email("Bob")).getSalary()));
+        assertEquals(2, repository.getEmployeeCount());
+
+        // Re-running the same file leaves the final rows in place
+        importer(true).importFile(file);
+        assertEquals(0, new BigDecimal("40").compareTo(byEmail(email("Ann")).getSalary()));
+        assertEquals(2, repository.getEmployeeCount());
+    }
+
+    private EmployeeImporter importer(boolean upsert) {
+        // Small blocks and several threads on each side, so ordering is actually exercised
+        return new EmployeeImporter(repository, 3, 3, 3, 2, upsert);
+    }
+
+    private Employee byEmail(String email) {
+        for (Employee employee : repository.getAllEmployees()) {
+            if (employee.getEmail().equals(email)) {
+                return employee;
+            }
+        }
+        throw new AssertionError("No employee with email " + email);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+}
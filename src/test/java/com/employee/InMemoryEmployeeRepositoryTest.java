@@ -0,0 +1,128 @@
+package com.employee;
+
+import static com.employee.TestDatabase.email;
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryEmployeeRepositoryTest {
+
+    private InMemoryEmployeeRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        Log.setLevel(Log.Level.WARN);
+        repository = new InMemoryEmployeeRepository();
+    }
+
+    @Test
+    void emailsAreUniqueIgnoringCase() {
+        Employee ann = employee("Ann", "IT", "100");
+        assertTrue(repository.createEmployee(ann));
+
+        Employee shouting = new Employee("Ann Again", email("Ann").toUpperCase(), "HR", ann.getSalary());
+        assertFalse(repository.createEmployee(shouting));
+        assertTrue(repository.employeeExistsByEmail(email("ANN")));
+
+        BatchResult batch = repository.createEmployees(Arrays.asList(employee("Bob", "IT", "200"), shouting));
+        assertEquals(1, batch.getSuccessCount());
+        assertEquals(1, batch.getDuplicateCount());
+        assertTrue(batch.getFailures().get(0).isDuplicateEmail());
+
+        // Changing or deleting frees the old email
+        ann.setEmail(email("Anna"));
+        assertTrue(repository.updateEmployee(ann));
+        assertFalse(repository.employeeExistsByEmail(email("Ann")));
+        assertTrue(repository.deleteEmployee(ann.getId()));
+        assertFalse(repository.employeeExistsByEmail(email("Anna")));
+        assertTrue(repository.createEmployee(employee("Ann", "IT", "100")));
+        assertEquals(2, repository.getEmployeeCount());
+    }
+
+    @Test
+    void departmentMembersFollowWrites() {
+        Employee ann = employee("Ann", "IT", "100");
+        Employee bob = employee("Bob", "IT", "200");
+        Employee cid = employee("Cid", "IT", "300");
+        Employee dan = employee("Dan", "HR", "400");
+        repository.createEmployees(Arrays.asList(ann, bob, cid, dan));
+        assertEquals(Arrays.asList(ann.getId(), bob.getId(), cid.getId()), idsIn("it"));
+
+        bob.setDepartment("HR");
+        assertTrue(repository.updateEmployee(bob));
+        assertEquals(Arrays.asList(ann.getId(), cid.getId()), idsIn("IT"));
+        assertEquals(Arrays.asList(bob.getId(), dan.getId()), idsIn("HR"));
+
+        assertEquals(2, repository.reassignDepartment("IT", "Ops").getAffectedRows());
+        assertTrue(idsIn("IT").isEmpty());
+        assertEquals(Arrays.asList(ann.getId(), cid.getId()), idsIn("Ops"));
+        assertEquals(Arrays.asList("HR", "Ops"), repository.getDepartments());
+
+        assertTrue(repository.deleteEmployee(ann.getId()));
+        assertEquals(Arrays.asList(cid.getId()), idsIn("Ops"));
+        assertEquals(1, repository.getSalaryStatistics("Ops").getEmployeeCount());
+    }
+
+    @Test
+    void staleVersionsConflict() {
+        Employee ann = employee("Ann", "IT", "100");
+        assertTrue(repository.createEmployee(ann));
+        Employee first = repository.getEmployeeById(ann.getId());
+        Employee second = repository.getEmployeeById(ann.getId());
+
+        assertEquals(VersionedWriteResult.Status.UNCHANGED, repository.tryUpdateEmployee(first).getStatus());
+
+        first.setName("Ann Lee");
+        VersionedWriteResult applied = repository.tryUpdateEmployee(first);
+        assertEquals(VersionedWriteResult.Status.APPLIED, applied.getStatus());
+        assertEquals(1, applied.getVersion());
+
+        second.setName("Ann Smith");
+        VersionedWriteResult conflict = repository.tryUpdateEmployee(second);
+        assertTrue(conflict.isConflict());
+        assertEquals("Ann Lee", conflict.getCurrent().getName());
+        assertEquals("Ann Lee", repository.getEmployeeById(ann.getId()).getName());
+
+        assertTrue(repository.tryDeleteEmployee(ann.getId(), 0).isConflict());
+        assertEquals(VersionedWriteResult.Status.APPLIED, repository.tryDeleteEmployee(ann.getId(), 1).getStatus());
+        assertEquals(VersionedWriteResult.Status.NOT_FOUND, repository.tryDeleteEmployee(ann.getId(), 1).getStatus());
+    }
+
+    @Test
+    void decoratorsWrapTheInMemoryStore() {
+        CachingEmployeeDAO cache = new CachingEmployeeDAO(repository, 100, 60_000L);
+        Employee ann = employee("Ann", "IT", "100");
+        assertTrue(cache.createEmployee(ann));
+        assertEquals(1, cache.getEmployeeCache().size());
+
+        // Methods without caching still reach the wrapped store
+        assertEquals(1, cache.getEmployeeColumns().size());
+        assertEquals(ann.getId(), cache.searchEmployees("ann", 10).get(0).getId());
+
+        try (WriteBehindEmployeeDAO writeBehind = new WriteBehindEmployeeDAO(cache, 100, 100, 60_000L, 0L, null)) {
+            Employee renamed = new Employee(ann);
+            renamed.setName("Ann Lee");
+            assertTrue(writeBehind.updateEmployee(renamed));
+            assertEquals("Ann Lee", writeBehind.getEmployeeById(ann.getId()).getName());
+            assertEquals("Ann", repository.getEmployeeById(ann.getId()).getName());
+
+            assertEquals(1, writeBehind.flush());
+            assertEquals("Ann Lee", repository.getEmployeeById(ann.getId()).getName());
+            assertEquals("Ann Lee", cache.getEmployeeById(ann.getId()).getName());
+        }
+    }
+
+    private List<Integer> idsIn(String department) {
+        return repository.getEmployeesByDepartment(department).stream()
+            .map(Employee::getId)
+            .collect(Collectors.toList());
+    }
+}
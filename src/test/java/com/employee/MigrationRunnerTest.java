@@ -0,0 +1,109 @@
+package com.employee;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MigrationRunnerTest {
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.reset();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP TABLE IF EXISTS migration_test");
+    }
+
+    @Test
+    void editedAppliedScriptIsRejected() throws SQLException {
+        execute("UPDATE schema_history SET checksum = checksum + 1 WHERE version = 1");
+
+        SQLException failure = assertThrows(SQLException.class, () -> new MigrationRunner().migrate());
+        assertTrue(failure.getMessage().contains("was changed after it was applied"), failure.getMessage());
+    }
+
+    @Test
+    void rerunAfterPartialFailureSkipsCompletedStatements() throws SQLException {
+        String seed = "CREATE TABLE migration_test (id INT PRIMARY KEY);\n"
+            + "INSERT INTO migration_test (id) VALUES (1);\n";
+        MigrationRunner broken = runnerWith(seed + "INSERT INTO no_such_table (id) VALUES (1);\n");
+        assertThrows(SQLException.class, broken::migrate);
+        assertEquals(1, count("SELECT COUNT(*) FROM migration_test"));
+        assertEquals(2, count("SELECT COUNT(*) FROM schema_history_progress WHERE version = 100"));
+
+        // Same statements, last one fixed: the seed must not run again (it would fail with a duplicate key)
+        MigrationRunner fixed = runnerWith(seed + "INSERT INTO migration_test (id) VALUES (2);\n");
+        assertEquals(1, fixed.migrate());
+        assertEquals(2, count("SELECT COUNT(*) FROM migration_test"));
+        assertEquals(0, count("SELECT COUNT(*) FROM schema_history_progress"));
+        assertEquals(100, fixed.getCurrentVersion());
+        assertEquals(0, fixed.migrate());
+    }
+
+    @Test
+    void concurrentRunnersApplyEachScriptOnce() throws Exception {
+        execute("DROP TABLE department_stats");
+        execute("DELETE FROM schema_history WHERE version = 7");
+        MigrationRunner runner = runnerWith("CREATE TABLE migration_test (id INT PRIMARY KEY);\n"
+            + "INSERT INTO migration_test (id) VALUES (1);\n");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit((Callable<Integer>) runner::migrate));
+            }
+            int applied = 0;
+            for (Future<Integer> result : results) {
+                applied += result.get();
+            }
+            assertEquals(2, applied);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, count("SELECT COUNT(*) FROM migration_test"));
+        assertEquals(8, count("SELECT COUNT(*) FROM schema_history"));
+    }
+
+    /**
+     * @return Runner for the bundled migrations plus a V100 test script
+     */
+    private static MigrationRunner runnerWith(String sql) {
+        List<MigrationRunner.Migration> migrations = new ArrayList<>(new MigrationRunner().getMigrations());
+        migrations.add(MigrationRunner.Migration.of("V100__migration_test.sql", sql));
+        return new MigrationRunner(migrations);
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int count(String sql) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.employee;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRoutingTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:employee_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("DB_REPLICA_URLS");
+        DatabaseConnection.shutdown();
+    }
+
+    @Test
+    void busyReplicaStaysInRotation() throws SQLException {
+        ConnectionPool.PoolConfig config = ConnectionPool.PoolConfig.fromEnv();
+        config.minSize = 1;
+        config.maxSize = 1;
+        config.acquireTimeoutMillis = 50L;
+        ReplicaRouter router = new ReplicaRouter(Collections.singletonList(REPLICA_URL), "sa", "", config,
+            ReplicaRouter.Balancing.ROUND_ROBIN, 60_000L, 0L);
+        try (Connection held = router.getConnection()) {
+            assertNotNull(held);
+            // The only replica connection is taken: fall back, but do not mark the replica down
+            assertNull(router.getConnection());
+            assertEquals(1, router.getHealthyReplicaCount());
+        } finally {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    void onlyConnectionErrorsCountAsReplicaFailures() {
+        assertTrue(ReplicaRouter.isConnectionFailure(new SQLException("Communications link failure", "08S01")));
+        assertFalse(ReplicaRouter.isConnectionFailure(new SQLTimeoutException("pool busy", "HYT00")));
+        assertFalse(ReplicaRouter.isConnectionFailure(new SQLException("Lock wait timeout", "HY000", 1205)));
+    }
+
+    @Test
+    void writesKeepOnlyTheirOwnSessionOnThePrimary() throws Exception {
+        System.setProperty("DB_REPLICA_URLS", REPLICA_URL);
+        DatabaseConnection.shutdown();
+        assertNotNull(DatabaseConnection.getReplicaRouter());
+
+        try (Connection write = DatabaseConnection.getConnection()) {
+            assertNotNull(write);
+        }
+        assertFalse(readsFromReplica());
+        // Another thread has not written, so it still reads from the replica
+        assertTrue(CompletableFuture.supplyAsync(ReplicaRoutingTest::readsFromReplicaUnchecked).get());
+
+        // Work handed off with the writer's session sees the writer's window
+        DatabaseConnection.WriteSession session = DatabaseConnection.currentWriteSession();
+        assertFalse(CompletableFuture.supplyAsync(
+            () -> DatabaseConnection.withWriteSession(session, ReplicaRoutingTest::readsFromReplicaUnchecked)).get());
+    }
+
+    private static boolean readsFromReplica() throws SQLException {
+        try (Connection connection = DatabaseConnection.getReadConnection()) {
+            return connection.getMetaData().getURL().contains("employee_replica");
+        }
+    }
+
+    private static boolean readsFromReplicaUnchecked() {
+        try {
+            return readsFromReplica();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
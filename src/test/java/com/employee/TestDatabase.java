@@ -0,0 +1,56 @@
+package com.employee;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Test Database
+ * Points DatabaseConnection at an embedded H2 database in MySQL mode and
+ * recreates the schema through the application's migrations, so the tests
+ * run without a MySQL server.
+ */
+final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Drop every table and migrate again; also forgets the cached departments and search index
+     */
+    static void reset() throws SQLException {
+        System.setProperty("DB_URL", "jdbc:h2:mem:employee_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        System.setProperty("DB_DRIVER", "org.h2.Driver");
+        System.setProperty("DB_USERNAME", "sa");
+        System.setProperty("DB_PASSWORD", "");
+        System.setProperty("DB_MIN_POOL_SIZE", "1");
+        // H2 has no row-by-row streaming mode, so use a regular fetch size
+        System.setProperty("DB_STREAMING_FETCH_SIZE", "1000");
+        Log.setLevel(Log.Level.WARN);
+
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS department_stats");
+            statement.execute("DROP TABLE IF EXISTS employee_changes");
+            statement.execute("DROP TABLE IF EXISTS employees");
+            statement.execute("DROP TABLE IF EXISTS departments");
+            statement.execute("DROP TABLE IF EXISTS schema_history");
+            statement.execute("DROP TABLE IF EXISTS schema_history_progress");
+        }
+        DepartmentDictionary.getInstance().clear();
+        EmployeeSearchIndex.getInstance().clear();
+        new MigrationRunner().migrate();
+    }
+
+    /**
+     * @return New (unsaved) employee whose email is derived from the given name
+     */
+    static Employee employee(String name, String department, String salary) {
+        return new Employee(name, email(name), department, new BigDecimal(salary));
+    }
+
+    static String email(String name) {
+        return name.toLowerCase() + "@test.example.com";
+    }
+}
@@ -0,0 +1,112 @@
+package com.employee;
+
+import static com.employee.TestDatabase.email;
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UnitOfWorkTest {
+
+    private EmployeeDAO dao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.reset();
+        dao = new EmployeeDAO();
+    }
+
+    @Test
+    void daoCommitInsideUnitIsKeptWhenUnitCommits() throws SQLException {
+        UnitOfWork.execute(unit -> {
+            // createEmployees runs its own setAutoCommit(false) / commit(), which become a savepoint
+            assertTrue(dao.createEmployees(Arrays.asList(employee("Ann", "IT", "100"), employee("Bob", "IT", "200")))
+                .isFullySuccessful());
+            assertTrue(dao.createEmployee(employee("Cid", "HR", "300")));
+            return null;
+        });
+
+        assertEquals(3, dao.getEmployeeCount());
+    }
+
+    @Test
+    void daoCommitInsideUnitIsUndoneWhenUnitFails() throws SQLException {
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> UnitOfWork.execute(unit -> {
+            assertTrue(dao.createEmployees(Arrays.asList(employee("Ann", "IT", "100"), employee("Bob", "IT", "200")))
+                .isFullySuccessful());
+            throw new IllegalStateException("later step failed");
+        }));
+
+        assertEquals("later step failed", failure.getMessage());
+        assertEquals(0, dao.getEmployeeCount());
+    }
+
+    @Test
+    void swallowedFailureMarksUnitRollbackOnly() throws SQLException {
+        assertTrue(dao.createEmployee(employee("Taken", "IT", "100")));
+
+        SQLException failure = assertThrows(SQLException.class, () -> UnitOfWork.execute(unit -> {
+            assertTrue(dao.createEmployee(employee("Ann", "IT", "100")));
+            // Duplicate email: the DAO logs the error and returns false
+            assertFalse(dao.createEmployee(employee("Taken", "HR", "200")));
+            assertTrue(unit.isRollbackOnly());
+            return null;
+        }));
+
+        assertTrue(failure.getMessage().contains("rollback-only"), failure.getMessage());
+        assertFalse(dao.employeeExistsByEmail(email("Ann")));
+        assertEquals(1, dao.getEmployeeCount());
+    }
+
+    @Test
+    void withSavepointRollsBackOnlyTheFailedStep() throws SQLException {
+        assertTrue(dao.createEmployee(employee("Taken", "IT", "100")));
+
+        boolean stepResult = UnitOfWork.execute(unit -> {
+            assertTrue(dao.createEmployee(employee("Kept", "IT", "100")));
+            boolean created = unit.withSavepoint(step -> {
+                assertTrue(dao.createEmployee(employee("Undone", "IT", "100")));
+                return dao.createEmployee(employee("Taken", "HR", "200"));
+            });
+            assertFalse(unit.isRollbackOnly());
+            return created;
+        });
+
+        assertFalse(stepResult);
+        assertTrue(dao.employeeExistsByEmail(email("Kept")));
+        assertFalse(dao.employeeExistsByEmail(email("Undone")));
+        assertEquals(2, dao.getEmployeeCount());
+    }
+
+    @Test
+    void afterCommitRunsOnlyWhenUnitCommits() throws SQLException {
+        List<String> ran = new ArrayList<>();
+
+        UnitOfWork.execute(unit -> {
+            UnitOfWork.afterCommit(() -> ran.add("committed"));
+            assertTrue(ran.isEmpty());
+            return null;
+        });
+        assertThrows(SQLException.class, () -> UnitOfWork.execute(unit -> {
+            UnitOfWork.afterCommit(() -> ran.add("rollback-only"));
+            unit.setRollbackOnly();
+            return null;
+        }));
+        assertThrows(IllegalStateException.class, () -> UnitOfWork.execute(unit -> {
+            UnitOfWork.afterCommit(() -> ran.add("failed"));
+            throw new IllegalStateException("work failed");
+        }));
+
+        assertEquals(Arrays.asList("committed"), ran);
+        assertFalse(UnitOfWork.isActive());
+    }
+}
@@ -0,0 +1,99 @@
+package com.employee;
+
+import static com.employee.TestDatabase.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WriteBehindEmployeeDAOTest {
+
+    private EmployeeDAO dao;
+    private WriteBehindEmployeeDAO writeBehind;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.reset();
+        dao = new EmployeeDAO();
+        // Long interval and large batch, so only explicit flushes write
+        writeBehind = new WriteBehindEmployeeDAO(dao, 100, 100, 60_000L, 0L, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.close();
+    }
+
+    @Test
+    void updatesToOneEmployeeAreMergedIntoOneWrite() {
+        Employee ann = employee("Ann", "IT", "100");
+        assertTrue(dao.createEmployee(ann));
+
+        for (int salary = 101; salary <= 103; salary++) {
+            Employee update = new Employee(ann);
+            update.setSalary(new BigDecimal(salary));
+            assertTrue(writeBehind.updateEmployee(update));
+        }
+        assertEquals(1, writeBehind.getPendingCount());
+        assertEquals(3.0, writeBehind.getCoalescingRatio(), 0.001);
+        assertEquals(0, new BigDecimal("103").compareTo(writeBehind.getEmployeeById(ann.getId()).getSalary()));
+        assertEquals(0, new BigDecimal("100").compareTo(dao.getEmployeeById(ann.getId()).getSalary()));
+
+        assertEquals(1, writeBehind.flush());
+        assertEquals(0, writeBehind.getPendingCount());
+        Employee stored = dao.getEmployeeById(ann.getId());
+        assertEquals(0, new BigDecimal("103").compareTo(stored.getSalary()));
+        assertEquals(1, stored.getVersion());
+    }
+
+    @Test
+    void queuedReadCarriesTheVersionAfterTheFlush() {
+        Employee ann = employee("Ann", "IT", "100");
+        assertTrue(dao.createEmployee(ann));
+        Employee renamed = writeBehind.getEmployeeById(ann.getId());
+        renamed.setName("Ann Lee");
+        assertTrue(writeBehind.updateEmployee(renamed));
+
+        // Read the caller's own queued write, then update it with optimistic locking
+        Employee queued = writeBehind.getEmployeeById(ann.getId());
+        assertEquals("Ann Lee", queued.getName());
+        assertEquals(1, queued.getVersion());
+        queued.setDepartment("HR");
+        VersionedWriteResult result = writeBehind.tryUpdateEmployee(queued);
+        assertEquals(VersionedWriteResult.Status.APPLIED, result.getStatus());
+        assertEquals(2, result.getVersion());
+
+        Employee stored = dao.getEmployeeById(ann.getId());
+        assertEquals("Ann Lee", stored.getName());
+        assertEquals("HR", stored.getDepartment());
+    }
+
+    @Test
+    void flushFromInsideAUnitIsNotPartOfIt() {
+        Employee ann = employee("Ann", "IT", "100");
+        Employee bob = employee("Bob", "IT", "200");
+        assertTrue(dao.createEmployee(ann));
+        assertTrue(dao.createEmployee(bob));
+        Employee queued = new Employee(bob);
+        queued.setName("Bob Queued");
+        assertTrue(writeBehind.updateEmployee(queued));
+
+        assertThrows(IllegalStateException.class, () -> UnitOfWork.execute(unit -> {
+            Employee direct = new Employee(ann);
+            direct.setName("Ann Direct");
+            assertTrue(writeBehind.updateEmployee(direct));
+            throw new IllegalStateException("later step failed");
+        }));
+
+        // The unit's own write rolled back; the queued update committed on its own
+        assertEquals("Ann", dao.getEmployeeById(ann.getId()).getName());
+        assertEquals("Bob Queued", dao.getEmployeeById(bob.getId()).getName());
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+}